@@ -52,13 +52,18 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Dictionary;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -71,6 +76,9 @@ public final class AppDeployerUtils {
     public static final String APP_UNZIP_DIR;
     private static final String INTERNAL_ARTIFACTS_DIR = "internal-artifacts";
 
+    // the last time stamp used to name an extraction directory
+    private static final AtomicLong lastExtractionTime = new AtomicLong();
+
     static {
         APP_UNZIP_DIR = System.getProperty(ServerConstants.CARBON_HOME) + File.separator + AppDeployerConstants.REPOSITORY +
                 File.separator + AppDeployerConstants.CARBON_APPS + File.separator + AppDeployerConstants.WORK_DIR;
@@ -430,7 +438,7 @@ public final class AppDeployerUtils {
     public static String extractCarbonApp(String appCarPath) throws CarbonException {
         String appCarPathFormatted = formatPath(appCarPath);
         String fileName = appCarPathFormatted.substring(appCarPathFormatted.lastIndexOf('/') + 1);
-        String dest = APP_UNZIP_DIR + File.separator + System.currentTimeMillis() +
+        String dest = APP_UNZIP_DIR + File.separator + getExtractionTime() +
                 fileName + File.separator;
         createDir(dest);
 
@@ -443,12 +451,29 @@ public final class AppDeployerUtils {
     }
 
     public static String createAppExtractionPath(String parentAppName) {
-        String parentPath = APP_UNZIP_DIR + File.separator + System.currentTimeMillis() +
+        String parentPath = APP_UNZIP_DIR + File.separator + getExtractionTime() +
                 parentAppName + File.separator;
         createDir(parentPath);
         return parentPath;
     }
 
+    /**
+     * Returns the current time to be used in the name of an extraction directory. Carbon Apps of
+     * different tenants are deployed concurrently, so the returned value is never the same for
+     * two calls, even when they are made within the same millisecond.
+     *
+     * @return - unique time stamp
+     */
+    private static long getExtractionTime() {
+        while (true) {
+            long last = lastExtractionTime.get();
+            long next = Math.max(System.currentTimeMillis(), last + 1);
+            if (lastExtractionTime.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
     /**
      * Extract an individual cApp artifact at the provided path to the java temp dir. Return the
      * extracted location
@@ -707,6 +732,60 @@ public final class AppDeployerUtils {
         return mediaType;
     }
 
+    /**
+     * Computes an MD5 hash over the names and contents of all files under the given directory.
+     * This is used to find out whether an artifact has changed when a cApp is redeployed.
+     *
+     * @param dirPath - directory to compute the hash of
+     * @return - hash value, or null if it couldn't be computed
+     */
+    public static String computeContentHash(String dirPath) {
+        if (dirPath == null) {
+            return null;
+        }
+        File dir = new File(dirPath);
+        if (!dir.isDirectory()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            updateContentHash(digest, dir, "", new byte[40960]);
+            return new BigInteger(1, digest.digest()).toString(16);
+        } catch (NoSuchAlgorithmException e) {
+            log.error("Error while computing the hash of : " + dirPath, e);
+        } catch (IOException e) {
+            log.error("Error while computing the hash of : " + dirPath, e);
+        }
+        return null;
+    }
+
+    private static void updateContentHash(MessageDigest digest, File dir, String relativePath,
+                                          byte[] buffer) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            throw new IOException("Unable to list the files in : " + dir.getAbsolutePath());
+        }
+        // sort the files so that the hash doesn't depend on the order of the listing
+        Arrays.sort(files);
+        for (File file : files) {
+            String filePath = relativePath + "/" + file.getName();
+            digest.update(filePath.getBytes("UTF-8"));
+            if (file.isDirectory()) {
+                updateContentHash(digest, file, filePath, buffer);
+                continue;
+            }
+            InputStream in = new FileInputStream(file);
+            try {
+                int len;
+                while ((len = in.read(buffer)) >= 0) {
+                    digest.update(buffer, 0, len);
+                }
+            } finally {
+                in.close();
+            }
+        }
+    }
+
     public static void createDir(String path) {
         File temp = new File(path);
         if (!temp.exists() && !temp.mkdir()) {
@@ -55,6 +55,10 @@ public class Artifact {
     // this will be set only if the artifact is a registry config artifact
     private RegistryConfig regConfig;
 
+    // this will be set while the parent cApp is redeployed, if the artifact is identical in both
+    // the previous and the new version of the cApp
+    private boolean unchanged;
+
     public Artifact() {
         dependencies = new ArrayList<Dependency>();
         subArtifacts = new ArrayList<Artifact>();
@@ -147,6 +151,21 @@ public class Artifact {
         this.regConfig = regConfig;
     }
 
+    /**
+     * Whether this artifact is identical in both the previous and the new version of a cApp which
+     * is being redeployed. Deployment handlers may retain what they deployed for such an artifact,
+     * instead of undeploying it from the previous version and deploying it again.
+     *
+     * @return - true if unchanged
+     */
+    public boolean isUnchanged() {
+        return unchanged;
+    }
+
+    public void setUnchanged(boolean unchanged) {
+        this.unchanged = unchanged;
+    }
+
     public String getDeploymentStatus() {
         return deploymentStatus;
     }
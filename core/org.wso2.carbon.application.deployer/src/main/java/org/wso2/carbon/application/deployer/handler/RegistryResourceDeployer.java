@@ -63,8 +63,10 @@ public class RegistryResourceDeployer implements AppDeploymentHandler {
         }
         CarbonAppPersistenceManager capm = ApplicationManager.getInstance()
                 .getPersistenceManager(axisConfig);
-        //Create the resource path mapping file
-        capm.createResourcePathMappingFile(carbonApp.getAppNameWithVersion());
+        //Create the resource path mapping file, unless the one of the previous version is retained
+        if (!hasUnchangedArtifacts(artifacts)) {
+            capm.createResourcePathMappingFile(carbonApp.getAppNameWithVersion());
+        }
         // deploying registry resources in all dependent artifacts
         deployRegistryArtifacts(capm, artifacts, carbonApp.getAppNameWithVersion());
     }
@@ -89,8 +91,26 @@ public class RegistryResourceDeployer implements AppDeploymentHandler {
                 .getPersistenceManager(axisConfig);
         // undeploying registry resources in all dependent artifacts
         undeployRegistryArtifacts(capm, artifacts, carbonApp.getAppNameWithVersion());
-        //deleting the registry resource mapping file
-        capm.deleteResourcePathMappingFile(carbonApp.getAppNameWithVersion());
+        //deleting the registry resource mapping file, unless it is needed by the new version
+        if (!hasUnchangedArtifacts(artifacts)) {
+            capm.deleteResourcePathMappingFile(carbonApp.getAppNameWithVersion());
+        }
+    }
+
+    /**
+     * Checks whether the resources of any of the given artifacts are retained while the cApp is
+     * redeployed.
+     *
+     * @param artifacts - list of artifacts to check
+     * @return - true if at least one artifact is unchanged
+     */
+    private boolean hasUnchangedArtifacts(List<Artifact> artifacts) {
+        for (Artifact artifact : artifacts) {
+            if (artifact.isUnchanged() && artifact.getRegConfig() != null) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -104,6 +124,14 @@ public class RegistryResourceDeployer implements AppDeploymentHandler {
     private void deployRegistryArtifacts(CarbonAppPersistenceManager capm,
                                          List<Artifact> artifacts, String parentAppName) {
         for (Artifact artifact : artifacts) {
+            // the resources of the previous version of an unchanged artifact are still there
+            if (artifact.isUnchanged() && artifact.getRegConfig() != null) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Registry resources of artifact " + artifact.getName() +
+                            " have not changed. Skipping deployment.");
+                }
+                continue;
+            }
             if (REGISTRY_RESOURCE_TYPE.equals(artifact.getType())) {
                 try {
                     RegistryConfig regConfig = buildRegistryConfig(artifact, parentAppName);
@@ -192,6 +220,10 @@ public class RegistryResourceDeployer implements AppDeploymentHandler {
     private void undeployRegistryArtifacts(CarbonAppPersistenceManager capm,
                                            List<Artifact> artifacts, String parentAppName) {
         for (Artifact artifact : artifacts) {
+            // the resources of an unchanged artifact are retained for the new version of the cApp
+            if (artifact.isUnchanged() && artifact.getRegConfig() != null) {
+                continue;
+            }
             if (RegistryResourceDeployer.REGISTRY_RESOURCE_TYPE.equals(artifact.getType())) {
                 try {
                     RegistryConfig regConfig = artifact.getRegConfig();
@@ -26,6 +26,7 @@ import org.apache.commons.logging.LogFactory;
 import org.osgi.framework.Bundle;
 import org.osgi.framework.BundleContext;
 import org.wso2.carbon.CarbonException;
+import org.wso2.carbon.application.deployer.AppDeployerConstants;
 import org.wso2.carbon.application.deployer.AppDeployerUtils;
 import org.wso2.carbon.application.deployer.CarbonApplication;
 import org.wso2.carbon.application.deployer.config.ApplicationConfiguration;
@@ -43,11 +44,17 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Hashtable;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Manages all cApp deployment aspects. Carbon App deployment is done in two steps. A cApp is
@@ -74,6 +81,9 @@ public final class ApplicationManager implements ApplicationManagerService {
     private Map<String, CarbonAppPersistenceManager> tenantPMMap;
     private Map<String, HashMap<String, Exception>> tenantfaultycAppMap;
 
+    // cApps of a tenant are deployed one at a time, while different tenants deploy concurrently
+    private ConcurrentMap<String, ReentrantLock> tenantDeploymentLocks;
+
     private int initialHandlers;
     private int handlerCount;
 
@@ -88,8 +98,10 @@ public final class ApplicationManager implements ApplicationManagerService {
         tenantcAppMap = new ConcurrentHashMap<String, ArrayList<CarbonApplication>>();
         tenantPMMap = new ConcurrentHashMap<String, CarbonAppPersistenceManager>();
         tenantfaultycAppMap = new ConcurrentHashMap<String, HashMap<String, Exception>>();
+        tenantDeploymentLocks = new ConcurrentHashMap<String, ReentrantLock>();
 
-        appDeploymentHandlers = new ArrayList<AppDeploymentHandler>();
+        // handlers are iterated by concurrent deployments, without holding the manager lock
+        appDeploymentHandlers = new CopyOnWriteArrayList<AppDeploymentHandler>();
         pendingCarbonApps = new ArrayList<PendingApplication>();
 
         // set the initial handler counter. default handler and registry handler are always there
@@ -108,21 +120,28 @@ public final class ApplicationManager implements ApplicationManagerService {
      * All app deployers register their deployers throgh this method
      * @param handler - app deployer which implements the AppDeploymentHandler interface
      */
-    public synchronized void registerDeploymentHandler(AppDeploymentHandler handler) {
-        appDeploymentHandlers.add(handler);
-        handlerCount++;
-
-        if (handlerCount == initialHandlers) {
-            //if we have cApps waiting to be deployed, deploy those as well
-            for (PendingApplication application : pendingCarbonApps) {
-                try {
-                    this.deployCarbonApp(application.getPath(), application.getAxisConfig());
-                } catch (Exception e) {
-                    log.error("Error while deploying stored cApp : " + application, e);
-                }
+    public void registerDeploymentHandler(AppDeploymentHandler handler) {
+        List<PendingApplication> applications;
+        synchronized (this) {
+            appDeploymentHandlers.add(handler);
+            handlerCount++;
+            if (handlerCount != initialHandlers) {
+                return;
             }
+            applications = new ArrayList<PendingApplication>(pendingCarbonApps);
             pendingCarbonApps.clear();
         }
+
+        //if we have cApps waiting to be deployed, deploy those as well. This is done after
+        //leaving the manager lock, since the tenant deployment locks taken while deploying must
+        //never be acquired while holding the manager lock
+        for (PendingApplication application : applications) {
+            try {
+                this.deployCarbonApp(application.getPath(), application.getAxisConfig());
+            } catch (Exception e) {
+                log.error("Error while deploying stored cApp : " + application, e);
+            }
+        }
     }
 
     /**
@@ -137,21 +156,54 @@ public final class ApplicationManager implements ApplicationManagerService {
 
     /**
      * Deploy a single app by iterating all handlers and sending apps through the handler
-     * chain..
+     * chain.. Only one cApp of a tenant is deployed at a time, but the cApps of different tenants
+     * are deployed concurrently.
      * @param archPath - carbon app archive path
      * @param axisConfig - AxisConfiguration of the current tenant
      * @throws Exception - error on registry actions
      */
-    public synchronized void deployCarbonApp(String archPath, AxisConfiguration
+    public void deployCarbonApp(String archPath, AxisConfiguration
             axisConfig) throws Exception {
-        //if all handlers are not yet registered, we store the cApp to deploy later
-        if (initialHandlers != handlerCount) {
-            pendingCarbonApps.add(new PendingApplication(archPath, axisConfig));
-            return;
+        synchronized (this) {
+            //if all handlers are not yet registered, we store the cApp to deploy later
+            if (initialHandlers != handlerCount) {
+                pendingCarbonApps.add(new PendingApplication(archPath, axisConfig));
+                return;
+            }
         }
 
-        CarbonAppPersistenceManager capm = getPersistenceManager(axisConfig);
         String tenantId = AppDeployerUtils.getTenantIdString(axisConfig);
+        ReentrantLock tenantLock = getTenantDeploymentLock(tenantId);
+        tenantLock.lock();
+        try {
+            deployCarbonApp(archPath, axisConfig, tenantId);
+        } finally {
+            tenantLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the lock used to serialize the cApp deployments of the given tenant.
+     *
+     * @param tenantId - tenant id
+     * @return - deployment lock of the tenant
+     */
+    private ReentrantLock getTenantDeploymentLock(String tenantId) {
+        ReentrantLock tenantLock = tenantDeploymentLocks.get(tenantId);
+        if (tenantLock == null) {
+            tenantLock = new ReentrantLock();
+            ReentrantLock existingLock = tenantDeploymentLocks.putIfAbsent(tenantId, tenantLock);
+            if (existingLock != null) {
+                tenantLock = existingLock;
+            }
+        }
+        return tenantLock;
+    }
+
+    private void deployCarbonApp(String archPath, AxisConfiguration axisConfig,
+                                 String tenantId) throws Exception {
+        long startTime = System.currentTimeMillis();
+        CarbonAppPersistenceManager capm = getPersistenceManager(axisConfig);
         String archPathToProcess = AppDeployerUtils.formatPath(archPath);
         String fileName = archPathToProcess.substring(archPathToProcess.lastIndexOf('/') + 1);
         //check whether this app already exists..
@@ -172,6 +224,7 @@ public final class ApplicationManager implements ApplicationManagerService {
 
         //If the app already exists, check the last updated time and redeploy if needed.
         //Return if not updated..
+        CarbonApplication previousApp = null;
         if (existingApp != null) {
             File file = new File(archPathToProcess);
             if (file.exists()) {
@@ -184,8 +237,9 @@ public final class ApplicationManager implements ApplicationManagerService {
                     // we are going to do an update for the application
                     log.warn("Carbon Application : " + fileName + " has been updated. Removing" +
                             " the existing application and redeploying...");
-                    // undeploy the existing one before proceeding
-                    undeployCarbonApp(existingApp, axisConfig);
+                    // the existing one is undeployed once the new version has been extracted, so
+                    // that the artifacts which have not changed can be retained
+                    previousApp = existingApp;
                 }
             }
         }
@@ -205,6 +259,9 @@ public final class ApplicationManager implements ApplicationManagerService {
             if (appConfig.getApplicationArtifact().getDependencies().size() == 0) {
                 log.warn("No artifacts found to be deployed in this server. " +
                          "Ignoring Carbon Application : " + fileName);
+                if (previousApp != null) {
+                    undeployCarbonApp(previousApp, axisConfig);
+                }
                 return;
             }
 
@@ -217,6 +274,19 @@ public final class ApplicationManager implements ApplicationManagerService {
                          "the file name as the application name");
                 appName = fileName.substring(0, fileName.lastIndexOf('.'));
             }
+
+            // find sub artifacts of this cApp
+            this.searchArtifacts(currentApp.getExtractedPath(), currentApp);
+
+            if (previousApp != null) {
+                if (isArtifactReadyToDeploy(currentApp.getAppConfig().getApplicationArtifact())) {
+                    markUnchangedArtifacts(previousApp, currentApp);
+                }
+                // undeploy the existing one before proceeding
+                undeployCarbonApp(previousApp, axisConfig);
+                previousApp = null;
+            }
+
             // to support multiple capp versions, we check app name with version
             if (appExists(appConfig.getAppNameWithVersion(), axisConfig)) {
                 String msg = "Carbon Application : " + appConfig.getAppNameWithVersion() + " already exists. Two applications " +
@@ -241,15 +311,20 @@ public final class ApplicationManager implements ApplicationManagerService {
 //            lock.unlock();
 //        }
 
-            // deploy sub artifacts of this cApp
-            this.searchArtifacts(currentApp.getExtractedPath(), currentApp);
-
             // If all dependencies are resolved, we deploy the entire app
             if (isArtifactReadyToDeploy(currentApp.getAppConfig().getApplicationArtifact())) {
                 // send the CarbonApplication instance through the handler chain
                 for (AppDeploymentHandler handler : appDeploymentHandlers) {
+                    long handlerStartTime = System.currentTimeMillis();
                     handler.deployArtifacts(currentApp, axisConfig);
+                    if (log.isDebugEnabled()) {
+                        log.debug(handler.getClass().getName() + " deployed the artifacts of " +
+                                  "Carbon Application : " + currentApp.getAppNameWithVersion() +
+                                  " in " + (System.currentTimeMillis() - handlerStartTime) +
+                                  " ms");
+                    }
                 }
+                resetUnchangedArtifacts(currentApp);
 
             } else {
                 log.error("Some dependencies in cApp : " + appConfig.getAppNameWithVersion() + " were not satisfied. Check " +
@@ -264,14 +339,24 @@ public final class ApplicationManager implements ApplicationManagerService {
             log.info("Successfully Deployed Carbon Application : " + currentApp.getAppNameWithVersion() +
                      AppDeployerUtils.getTenantIdLogString(AppDeployerUtils.
                              getTenantId(axisConfig)));
+            if (log.isDebugEnabled()) {
+                log.debug("Carbon Application : " + currentApp.getAppNameWithVersion() +
+                          " was deployed in " + (System.currentTimeMillis() - startTime) + " ms");
+            }
         } catch (DeploymentException e) {
             log.error("Error occurred while deploying Carbon Application", e);
+            if (previousApp != null) {
+                undeployCarbonApp(previousApp, axisConfig);
+            }
             revertDeployedArtifacts(currentApp, axisConfig);
             removeFaultyService(currentApp, axisConfig);
             FileManipulator.deleteDir(currentApp.getExtractedPath());
             this.addFaultyCarbonApp(tenantId, archPathToProcess, e);
         } catch (CarbonException e) {
             log.error("Error occurred while deploying Carbon Application", e);
+            if (previousApp != null) {
+                undeployCarbonApp(previousApp, axisConfig);
+            }
             revertDeployedArtifacts(currentApp, axisConfig);
             removeFaultyService(currentApp, axisConfig);
             FileManipulator.deleteDir(currentApp.getExtractedPath());
@@ -300,6 +385,8 @@ public final class ApplicationManager implements ApplicationManagerService {
                                          AxisConfiguration axisConfig) {
         log.info("Reverting successfully deployed artifcats in this CApp : "
                  + carbonApp.getAppConfig().getAppNameWithVersion());
+        // artifacts retained from the previous version of the cApp have to be reverted as well
+        resetUnchangedArtifacts(carbonApp);
         for (AppDeploymentHandler handler : appDeploymentHandlers) {
             try {
                 handler.undeployArtifacts(carbonApp, axisConfig);
@@ -308,6 +395,79 @@ public final class ApplicationManager implements ApplicationManagerService {
         }
     }
 
+    /**
+     * Compares the artifacts of a cApp which is being redeployed with the ones of the deployed
+     * version, and marks the artifacts which have not changed in both versions. Deployment
+     * handlers can then retain what was deployed for those artifacts.
+     *
+     * @param previousApp - deployed version of the cApp
+     * @param currentApp - new version of the cApp
+     */
+    private void markUnchangedArtifacts(CarbonApplication previousApp,
+                                        CarbonApplication currentApp) {
+        Map<String, Artifact> previousArtifacts = new HashMap<String, Artifact>();
+        for (Artifact.Dependency dep : previousApp.getAppConfig().getApplicationArtifact()
+                .getDependencies()) {
+            Artifact artifact = dep.getArtifact();
+            if (artifact != null) {
+                artifact.setUnchanged(false);
+                previousArtifacts.put(artifact.getName() + ":" + artifact.getVersion(), artifact);
+            }
+        }
+        // resources such as the registry path mapping are kept per app name and version
+        String appNameWithVersion = currentApp.getAppConfig().getAppNameWithVersion();
+        if (appNameWithVersion == null || !appNameWithVersion.equals(
+                previousApp.getAppConfig().getAppNameWithVersion())) {
+            return;
+        }
+
+        int artifactCount = 0;
+        int unchangedCount = 0;
+        for (Artifact.Dependency dep : currentApp.getAppConfig().getApplicationArtifact()
+                .getDependencies()) {
+            Artifact artifact = dep.getArtifact();
+            if (artifact == null) {
+                continue;
+            }
+            artifactCount++;
+            Artifact previous = previousArtifacts.get(artifact.getName() + ":" +
+                    artifact.getVersion());
+            if (previous == null || artifact.getType() == null ||
+                    !artifact.getType().equals(previous.getType()) ||
+                    AppDeployerConstants.DEPLOYMENT_STATUS_FAILED.equals(
+                            previous.getDeploymentStatus())) {
+                continue;
+            }
+            String hashValue = AppDeployerUtils.computeContentHash(artifact.getExtractedPath());
+            if (hashValue != null && hashValue.equals(
+                    AppDeployerUtils.computeContentHash(previous.getExtractedPath()))) {
+                previous.setUnchanged(true);
+                artifact.setUnchanged(true);
+                artifact.setRegConfig(previous.getRegConfig());
+                unchangedCount++;
+            }
+        }
+        log.info(unchangedCount + " out of " + artifactCount + " artifacts of Carbon " +
+                 "Application : " + appNameWithVersion + " have not changed");
+    }
+
+    /**
+     * Clears the marks set by markUnchangedArtifacts, once the handlers are done with them.
+     *
+     * @param carbonApp - cApp to reset
+     */
+    private void resetUnchangedArtifacts(CarbonApplication carbonApp) {
+        if (carbonApp.getAppConfig() == null) {
+            return;
+        }
+        for (Artifact.Dependency dep : carbonApp.getAppConfig().getApplicationArtifact()
+                .getDependencies()) {
+            if (dep.getArtifact() != null) {
+                dep.getArtifact().setUnchanged(false);
+            }
+        }
+    }
+
     /**
      * Deploys all artifacts under a root artifact..
      *
@@ -578,9 +738,31 @@ public final class ApplicationManager implements ApplicationManagerService {
      * @param allArtifacts - all artifacts found under current cApp
      */
     public void buildDependencyTree(Artifact rootArtifact, List<Artifact> allArtifacts) {
+        // index the artifacts by name, so that a dependency is resolved with a single lookup
+        Map<String, List<Artifact>> artifactsByName = new HashMap<String, List<Artifact>>();
+        for (Artifact artifact : allArtifacts) {
+            List<Artifact> artifacts = artifactsByName.get(artifact.getName());
+            if (artifacts == null) {
+                artifacts = new ArrayList<Artifact>();
+                artifactsByName.put(artifact.getName(), artifacts);
+            }
+            artifacts.add(artifact);
+        }
+        buildDependencyTree(rootArtifact, artifactsByName,
+                Collections.newSetFromMap(new IdentityHashMap<Artifact, Boolean>()));
+    }
+
+    private void buildDependencyTree(Artifact rootArtifact,
+                                     Map<String, List<Artifact>> artifactsByName,
+                                     Set<Artifact> resolvedArtifacts) {
+        // an artifact which is a dependency of several artifacts is resolved only once
+        if (!resolvedArtifacts.add(rootArtifact)) {
+            return;
+        }
         for (Artifact.Dependency dep : rootArtifact.getDependencies()) {
-            for (Artifact temp : allArtifacts) {
-                if (dep.getName().equals(temp.getName())) {
+            List<Artifact> artifacts = artifactsByName.get(dep.getName());
+            if (artifacts != null) {
+                for (Artifact temp : artifacts) {
                     String depVersion = dep.getVersion();
                     String attVersion = temp.getVersion();
                     if ((depVersion == null && attVersion == null) ||
@@ -594,7 +776,7 @@ public final class ApplicationManager implements ApplicationManagerService {
 
             // if we've found the dependency, check for it's dependencies as well..
             if (dep.getArtifact() != null) {
-                buildDependencyTree(dep.getArtifact(), allArtifacts);
+                buildDependencyTree(dep.getArtifact(), artifactsByName, resolvedArtifacts);
             }
         }
     }
@@ -155,6 +155,7 @@ public class CarbonAppPersistenceManager {
             Resource pathMappingResource = configRegistry.
                     get(AppDeployerConstants.REG_PATH_MAPPING + registryConfig.getAppName());
             OMElement pathMappingElement = AXIOMUtil.stringToOM(new String((byte[])pathMappingResource.getContent()));
+            boolean pathMappingChanged = false;
 
             // remove resources
             List<RegistryConfig.Resourse> resources = registryConfig.getResources();
@@ -169,6 +170,9 @@ public class CarbonAppPersistenceManager {
                     OMElement targetElement = resourceElement.getFirstChildWithName(
                             new QName(AppDeployerConstants.REG_PATH_MAPPING_RESOURCE_TARGET));
                     actualResourcePath = targetElement.getText();
+                    // the mapping file is retained if the cApp is redeployed, so drop the entry
+                    resourceElement.detach();
+                    pathMappingChanged = true;
                 } else {
                     actualResourcePath = resourcePath;
                 }
@@ -200,6 +204,11 @@ public class CarbonAppPersistenceManager {
                     }
                 }
             }
+            if (pathMappingChanged) {
+                pathMappingResource.setContent(pathMappingElement.toString());
+                configRegistry.put(AppDeployerConstants.REG_PATH_MAPPING +
+                        registryConfig.getAppName(), pathMappingResource);
+            }
             // remove associations
             List<RegistryConfig.Association> associations = registryConfig.getAssociations();
             for (RegistryConfig.Association association : associations) {
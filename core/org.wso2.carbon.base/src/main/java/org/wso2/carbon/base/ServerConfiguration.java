@@ -33,6 +33,8 @@ import java.io.*;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * This class stores the configuration of the Carbon Server.
@@ -73,7 +75,18 @@ public class ServerConfiguration implements ServerConfigurationService {
 	private static Log log = LogFactory
 			.getLog(ServerConfigurationService.class);
 
-	private Map<String, List<String>> configuration = new HashMap<String, List<String>>();
+	private Map<String, List<String>> configuration = new ConcurrentHashMap<String, List<String>>();
+	/*
+	 * Values of properties parsed by the typed getters, so that they are parsed only once until
+	 * the configuration changes. Properties which are not set or cannot be parsed map to
+	 * INVALID_VALUE. The maps are replaced rather than cleared on a change, so a value parsed
+	 * from the old configuration is never put into the new map.
+	 */
+	private volatile Map<String, Object> booleanValues = new ConcurrentHashMap<String, Object>();
+	private volatile Map<String, Object> intValues = new ConcurrentHashMap<String, Object>();
+	private static final Object INVALID_VALUE = new Object();
+	private List<ServerConfigurationListener> listeners =
+			new CopyOnWriteArrayList<ServerConfigurationListener>();
 	private boolean isInitialized;
 	private boolean isLoadedConfigurationPreserved = false;
 	private String documentXML;
@@ -118,6 +131,7 @@ public class ServerConfiguration implements ServerConfigurationService {
 		if (!isLoadedConfigurationPreserved) {
 			configuration.clear();
 		}
+		clearTypedValues();
 
 		OMElement documentElement;
 		try {
@@ -129,6 +143,7 @@ public class ServerConfiguration implements ServerConfigurationService {
 					.create(documentElement, true);
 			Stack<String> nameStack = new Stack<String>();
 			readChildElements(documentElement, nameStack);
+			clearTypedValues();
 			isInitialized = true;
 			isLoadedConfigurationPreserved = false;
 			documentXML = documentElement.toStringWithConsume();
@@ -286,6 +301,43 @@ public class ServerConfiguration implements ServerConfigurationService {
 		List<String> list = new ArrayList<String>();
 		list.add(value);
 		configuration.put(key, list);
+		clearTypedValues();
+	}
+
+	private void clearTypedValues() {
+		booleanValues = new ConcurrentHashMap<String, Object>();
+		intValues = new ConcurrentHashMap<String, Object>();
+	}
+
+	private void notifyListeners(String key, String value) {
+		for (ServerConfigurationListener listener : listeners) {
+			try {
+				listener.configurationPropertyChanged(key, value);
+			} catch (Throwable e) {
+				log.error("Error in notifying the change of configuration property " + key, e);
+			}
+		}
+	}
+
+	/**
+	 * Registers a listener, to be notified when a configuration property is set
+	 * or overridden.
+	 * 
+	 * @param listener
+	 *            the listener to add
+	 */
+	public void addListener(ServerConfigurationListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Removes a registered listener.
+	 * 
+	 * @param listener
+	 *            the listener to remove
+	 */
+	public void removeListener(ServerConfigurationListener listener) {
+		listeners.remove(listener);
 	}
 
 	private String replaceSystemProperty(String text) {
@@ -328,6 +380,7 @@ public class ServerConfiguration implements ServerConfigurationService {
 	@Override
 	public void setConfigurationProperty(String key, String value) {
 		addToConfiguration(key, value);
+		clearTypedValues();
 
 		StringTokenizer tokenizer = new StringTokenizer(key, ".");
 		OMElement ele = getDocumentElementInternal();
@@ -344,6 +397,7 @@ public class ServerConfiguration implements ServerConfigurationService {
 			ele.getFirstOMChild().detach();
 			ele.setText(token);
 		}
+		notifyListeners(key, value);
 	}
 
 	/**
@@ -371,6 +425,7 @@ public class ServerConfiguration implements ServerConfigurationService {
 			ele.getFirstOMChild().detach();
 			ele.setText(token);
 		}
+		notifyListeners(key, value);
 	}
 
 	private String getKey(Stack<String> nameStack) {
@@ -424,6 +479,61 @@ public class ServerConfiguration implements ServerConfigurationService {
 		return values.toArray(new String[values.size()]);
 	}
 
+	/**
+	 * Returns the first value of a property as a boolean. The value is parsed
+	 * only once, until the configuration changes, so this is cheap enough to
+	 * be called on every request.
+	 * 
+	 * @param key
+	 *            the search key
+	 * @param defaultValue
+	 *            the value to return if the property is not set
+	 * 
+	 * @return the boolean value of the property
+	 */
+	public boolean getBooleanProperty(String key, boolean defaultValue) {
+		Map<String, Object> values = booleanValues;
+		Object value = values.get(key);
+		if (value == null) {
+			String text = getFirstProperty(key);
+			value = text == null ? INVALID_VALUE : Boolean.valueOf(text);
+			values.put(key, value);
+		}
+		return value == INVALID_VALUE ? defaultValue : (Boolean) value;
+	}
+
+	/**
+	 * Returns the first value of a property as an int. The value is parsed
+	 * only once, until the configuration changes, so this is cheap enough to
+	 * be called on every request.
+	 * 
+	 * @param key
+	 *            the search key
+	 * @param defaultValue
+	 *            the value to return if the property is not set, or is not a
+	 *            number
+	 * 
+	 * @return the int value of the property
+	 */
+	public int getIntProperty(String key, int defaultValue) {
+		Map<String, Object> values = intValues;
+		Object value = values.get(key);
+		if (value == null) {
+			String text = getFirstProperty(key);
+			value = INVALID_VALUE;
+			if (text != null) {
+				try {
+					value = Integer.valueOf(text.trim());
+				} catch (NumberFormatException e) {
+					log.warn("The value of the configuration property " + key
+							+ " is not a number: " + text);
+				}
+			}
+			values.put(key, value);
+		}
+		return value == INVALID_VALUE ? defaultValue : (Integer) value;
+	}
+
 	/**
 	 * Method to retrieve the Configuration as an XML Document.
 	 * 
@@ -18,9 +18,11 @@ package org.wso2.carbon.coordination.core.services;
 import org.wso2.carbon.coordination.common.CoordinationException;
 import org.wso2.carbon.coordination.core.sync.Barrier;
 import org.wso2.carbon.coordination.core.sync.Group;
+import org.wso2.carbon.coordination.core.sync.IdAllocator;
 import org.wso2.carbon.coordination.core.sync.IntegerCounter;
 import org.wso2.carbon.coordination.core.sync.Lock;
 import org.wso2.carbon.coordination.core.sync.Queue;
+import org.wso2.carbon.coordination.core.sync.ReadWriteLock;
 
 /**
  * Coordination service interface.
@@ -71,6 +73,16 @@ public interface CoordinationService {
 	 */
 	public Lock createLock(String id, int waitTimeout) throws CoordinationException;
 	
+	/**
+	 * Creates a read / write lock.
+	 * @param id The lock id
+	 * @param waitTimeout The timeout (milliseconds) used to wait for the lock to be released
+	 * @return The created ReadWriteLock object
+	 * @throws CoordinationException
+	 */
+	public ReadWriteLock createReadWriteLock(String id, int waitTimeout) 
+			throws CoordinationException;
+	
 	/**
 	 * Creates an integer counter.
 	 * @param id The counter id
@@ -79,6 +91,16 @@ public interface CoordinationService {
 	 */
 	public IntegerCounter createIntegerCounter(String id) throws CoordinationException;
 	
+	/**
+	 * Creates an id allocator, which leases blocks of ids from the coordination service.
+	 * @param id The allocator id, all the participants should provide the same id
+	 * @param blockSize The number of ids leased at once, larger blocks need fewer round trips
+	 * to the coordination service, but waste more ids when a participant goes away
+	 * @return The created IdAllocator object
+	 * @throws CoordinationException
+	 */
+	public IdAllocator createIdAllocator(String id, int blockSize) throws CoordinationException;
+	
 	/**
 	 * Close the service connection.
 	 * @throws CoordinationException 
@@ -34,14 +34,18 @@ import org.wso2.carbon.coordination.core.CoordinationConfiguration;
 import org.wso2.carbon.coordination.core.services.CoordinationService;
 import org.wso2.carbon.coordination.core.sync.Barrier;
 import org.wso2.carbon.coordination.core.sync.Group;
+import org.wso2.carbon.coordination.core.sync.IdAllocator;
 import org.wso2.carbon.coordination.core.sync.IntegerCounter;
 import org.wso2.carbon.coordination.core.sync.Lock;
 import org.wso2.carbon.coordination.core.sync.Queue;
+import org.wso2.carbon.coordination.core.sync.ReadWriteLock;
 import org.wso2.carbon.coordination.core.sync.impl.ZKBarrier;
 import org.wso2.carbon.coordination.core.sync.impl.ZKGroup;
+import org.wso2.carbon.coordination.core.sync.impl.ZKIdAllocator;
 import org.wso2.carbon.coordination.core.sync.impl.ZKIntegerCounter;
 import org.wso2.carbon.coordination.core.sync.impl.ZKLock;
 import org.wso2.carbon.coordination.core.sync.impl.ZKQueue;
+import org.wso2.carbon.coordination.core.sync.impl.ZKReadWriteLock;
 import org.wso2.carbon.coordination.core.utils.CoordinationUtils;
 
 /**
@@ -178,6 +182,13 @@ public class ZKCoordinationService implements CoordinationService, Watcher {
 		return new ZKLock(this.getZooKeeper(), id, waitTimeout);
 	}
 	
+	@Override
+	public ReadWriteLock createReadWriteLock(String id, int waitTimeout) 
+			throws CoordinationException {
+		this.checkService();
+		return new ZKReadWriteLock(this.getZooKeeper(), id, waitTimeout);
+	}
+	
 	public static void scheduleOnCloseZNodeDeletion(String path) {
 		getZNodeOnCloseDeletionList().add(path);
 	}
@@ -245,4 +256,11 @@ public class ZKCoordinationService implements CoordinationService, Watcher {
 		return new ZKIntegerCounter(this.getZooKeeper(), id);
 	}
 
+	@Override
+	public IdAllocator createIdAllocator(String id, int blockSize)
+			throws CoordinationException {
+		this.checkService();
+		return new ZKIdAllocator(this.getZooKeeper(), id, blockSize, scheduler);
+	}
+
 }
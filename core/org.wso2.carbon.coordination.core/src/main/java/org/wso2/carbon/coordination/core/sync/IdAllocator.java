@@ -0,0 +1,41 @@
+/**
+ *  Copyright (c) 2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.coordination.core.sync;
+
+import org.wso2.carbon.coordination.common.CoordinationException;
+
+/**
+ * This interface represents a distributed allocator of unique ids. Each participant leases
+ * blocks of ids and hands them out locally, so most ids are allocated without contacting the
+ * coordination service. The ids handed out by a single allocator are increasing, but ids are
+ * not contiguous across participants, and the unused ids of a lease are lost when it is closed.
+ */
+public interface IdAllocator {
+
+	/**
+	 * Allocates a new id, which is unique among all the participants.
+	 * @return The allocated id, which is always positive
+	 * @throws CoordinationException
+	 */
+	long nextId() throws CoordinationException;
+	
+	/**
+	 * Deletes the allocator, after which ids may be allocated again from the beginning.
+	 * @throws CoordinationException  
+	 */
+	void delete() throws CoordinationException;
+	
+}
@@ -15,6 +15,8 @@
  */
 package org.wso2.carbon.coordination.core.sync;
 
+import java.util.List;
+
 import org.wso2.carbon.coordination.common.CoordinationException;
 
 /**
@@ -37,6 +39,14 @@ public interface Queue {
 	 */
 	public void enqueue(byte[] data, int priority) throws CoordinationException;
 	
+	/**
+	 * Enqueues a list of data into the queue, in a single operation. Either all the entries
+	 * are added, or none of them are.
+	 * @param dataList The data to be put into the queue, in order
+	 * @throws CoordinationException
+	 */
+	public void enqueue(List<byte[]> dataList) throws CoordinationException;
+	
 	/**
 	 * Dequeues data from the queue, this is a non-blocking operation, if there isn't any data
 	 * available, this will return null.
@@ -45,6 +55,14 @@ public interface Queue {
 	 */
 	public byte[] dequeue() throws CoordinationException;
 	
+	/**
+	 * Dequeues up to a given number of entries from the queue, this is a non-blocking operation.
+	 * @param max The maximum number of entries to dequeue
+	 * @return Dequeued data, in queue order, the list is empty, if the queue is empty
+	 * @throws CoordinationException
+	 */
+	public List<byte[]> dequeue(int max) throws CoordinationException;
+	
 	/**
 	 * Dequeues data from the queue, and it blocks until data is available.
 	 * @return Dequeued data
@@ -0,0 +1,40 @@
+/*
+ *  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.coordination.core.sync;
+
+/**
+ * This interface represents a distributed read / write lock. Any number of participants can 
+ * hold the read lock at the same time, while the write lock is exclusive. Both locks are 
+ * re-entrant for the thread holding them.
+ */
+public interface ReadWriteLock {
+
+	/**
+	 * Returns the lock used for reading, which is shared between the readers.
+	 * @return The read lock
+	 */
+	public Lock readLock();
+	
+	/**
+	 * Returns the lock used for writing, which is exclusive.
+	 * @return The write lock
+	 */
+	public Lock writeLock();
+	
+}
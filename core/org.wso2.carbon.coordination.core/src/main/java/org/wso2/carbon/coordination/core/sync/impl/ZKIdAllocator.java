@@ -0,0 +1,170 @@
+/**
+ *  Copyright (c) 2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.coordination.core.sync.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+import org.wso2.carbon.coordination.common.CoordinationException;
+import org.wso2.carbon.coordination.common.CoordinationException.ExceptionCode;
+import org.wso2.carbon.coordination.core.sync.IdAllocator;
+
+/**
+ * ZooKeeper based id allocator implementation. The znode of the allocator holds the last id
+ * leased by any participant. A block of ids is leased by advancing this value with a 
+ * conditional write, which is retried if another participant leased a block in between. 
+ * The next block is leased in the background once half of the current block is used up, 
+ * so that callers rarely wait for ZooKeeper.
+ * @see IdAllocator
+ */
+public class ZKIdAllocator extends ZKSyncPrimitive implements IdAllocator {
+
+	private static final Log log = LogFactory.getLog(ZKIdAllocator.class);
+	
+	private int blockSize;
+	
+	private ExecutorService executor;
+	
+	/* the next id to hand out, and the last id of the current block */
+	private long next = 1;
+	
+	private long lastId = 0;
+	
+	private Future<Long> nextBlock;
+	
+	/**
+	 * Constructor for ZKIdAllocator.
+	 * @param zooKeeper The ZooKeeper object to be used
+	 * @param allocatorId The allocator id
+	 * @param blockSize The number of ids leased at once
+	 * @param executor The executor used to lease the next block in the background
+	 * @throws CoordinationException
+	 */
+	public ZKIdAllocator(ZooKeeper zooKeeper, String allocatorId, int blockSize, 
+			ExecutorService executor) throws CoordinationException {
+		super(zooKeeper, ZKIdAllocator.class.getCanonicalName(), allocatorId, -1);
+		if (blockSize < 1) {
+			throw new CoordinationException("The block size of an id allocator must be positive: " + 
+		            blockSize, ExceptionCode.GENERIC_ERROR);
+		}
+		this.blockSize = blockSize;
+		this.executor = executor;
+	}
+	
+	public int getBlockSize() {
+		return blockSize;
+	}
+
+	@Override
+	public synchronized long nextId() throws CoordinationException {
+		if (this.next > this.lastId) {
+			long blockStart = this.takeNextBlock();
+			this.next = blockStart;
+			this.lastId = blockStart + this.getBlockSize() - 1;
+		}
+		long id = this.next++;
+		if (this.nextBlock == null && (this.lastId - id) < this.getBlockSize() / 2) {
+			this.prefetchNextBlock();
+		}
+		return id;
+	}
+	
+	/**
+	 * Returns the first id of the next block, waiting for the block being leased in the 
+	 * background, if there is one.
+	 */
+	private long takeNextBlock() throws CoordinationException {
+		Future<Long> block = this.nextBlock;
+		this.nextBlock = null;
+		if (block != null) {
+			try {
+				return block.get();
+			} catch (InterruptedException e) {
+				throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+			} catch (ExecutionException e) {
+				log.warn("Error in leasing a block of ids in the background, retrying: " + 
+			            e.getCause().getMessage(), e.getCause());
+			}
+		}
+		return this.leaseBlock();
+	}
+	
+	private void prefetchNextBlock() {
+		if (this.executor == null) {
+			return;
+		}
+		try {
+			this.nextBlock = this.executor.submit(new Callable<Long>() {
+				public Long call() throws Exception {
+					return leaseBlock();
+				}
+			});
+		} catch (Exception e) {
+			/* the executor is not accepting tasks, the next block is leased when needed */
+			if (log.isDebugEnabled()) {
+				log.debug("Unable to lease the next block of ids in the background", e);
+			}
+		}
+	}
+	
+	/**
+	 * Leases a block of ids.
+	 * @return The first id of the block
+	 * @throws CoordinationException
+	 */
+	private long leaseBlock() throws CoordinationException {
+		while (true) {
+			try {
+				Stat stat = new Stat();
+				byte[] data = this.getZooKeeper().getData(this.getRootPath(), false, stat);
+				long leasedId = (data == null || data.length == 0) ? 0 : 
+					Long.parseLong(new String(data, "UTF-8"));
+				long newLeasedId = leasedId + this.getBlockSize();
+				this.getZooKeeper().setData(this.getRootPath(), 
+						Long.toString(newLeasedId).getBytes("UTF-8"), stat.getVersion());
+				return leasedId + 1;
+			} catch (KeeperException e) {
+				if (e.code() != Code.BADVERSION) {
+					throw new CoordinationException("Error in leasing a block of ids: " + 
+				            e.getMessage(), ExceptionCode.GENERIC_ERROR, e);
+				}
+				/* another participant leased a block in between, try again */
+			} catch (Exception e) {
+				throw new CoordinationException("Error in leasing a block of ids: " + 
+			            e.getMessage(), ExceptionCode.GENERIC_ERROR, e);
+			}
+		}
+	}
+
+	@Override
+	public void delete() throws CoordinationException {
+		try {
+			this.getZooKeeper().delete(this.getRootPath(), -1);
+		} catch (Exception e) {
+			throw new CoordinationException("Error in deleting the id allocator: " + 
+		            e.getMessage(), ExceptionCode.GENERIC_ERROR, e);
+		}
+	}
+
+}
@@ -54,6 +54,7 @@ public class ZKLock extends ZKSyncPrimitive implements Lock {
 			if (ids.get(i).equals(myId)) {
 				return this.getRootPath() + "/" + currentId;
 			}
+			currentId = ids.get(i);
 		}
 		return null;
 	}
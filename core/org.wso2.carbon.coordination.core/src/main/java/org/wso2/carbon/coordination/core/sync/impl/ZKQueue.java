@@ -15,13 +15,22 @@
  */
 package org.wso2.carbon.coordination.core.sync.impl;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Formatter;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.Op;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.ZooKeeper;
 import org.apache.zookeeper.ZooDefs.Ids;
 import org.wso2.carbon.coordination.common.CoordinationException;
@@ -30,9 +39,41 @@ import org.wso2.carbon.coordination.core.sync.Queue;
 
 /**
  * ZooKeeper based queue / priority queue implementation.
+ * The sorted list of entries read from the queue is cached, and entries are taken from it
+ * until it runs out, so the children of the queue are only listed again when this participant
+ * has used up the entries it knows of. Normal entries enqueued after the list was read always
+ * sort after the cached entries. A priority enqueue also changes the data of the queue node,
+ * which is watched to drop the cache, so that priority entries are not dequeued after the
+ * cached normal entries.
  * @see Queue
  */
 public class ZKQueue extends ZKSyncPrimitive implements Queue {
+	
+	private static final Log log = LogFactory.getLog(ZKQueue.class);
+	
+	/* the entry names of the queue known to this participant, in dequeue order */
+	private LinkedList<String> cachedEntries = new LinkedList<String>();
+	
+	/* set when a priority entry may have been enqueued since the entries were cached */
+	private volatile boolean priorityEntryAdded;
+	
+	private Watcher priorityWatcher = new Watcher() {
+		@Override
+		public void process(WatchedEvent event) {
+			priorityEntryAdded = true;
+		}
+	};
+	
+	/* the number of watch events received for the children of the queue */
+	private long childrenEvents;
+	
+	private AtomicLong enqueueCount = new AtomicLong();
+	
+	private AtomicLong enqueueTime = new AtomicLong();
+	
+	private AtomicLong dequeueCount = new AtomicLong();
+	
+	private AtomicLong dequeueTime = new AtomicLong();
 
 	public ZKQueue(ZooKeeper zooKeeper, String queueId, int waitTimeout)
 			throws CoordinationException {
@@ -41,6 +82,7 @@ public class ZKQueue extends ZKSyncPrimitive implements Queue {
 
 	@Override
 	public void enqueue(byte[] data) throws CoordinationException {
+		long start = System.nanoTime();
 		try {
 			this.getZooKeeper().create(this.getRootPath() + "/b", 
 					data, Ids.OPEN_ACL_UNSAFE,
@@ -48,87 +90,306 @@ public class ZKQueue extends ZKSyncPrimitive implements Queue {
 		} catch (Exception e) {
 			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
 		}
+		this.recordEnqueue(start, 1);
 	}
 	
 	@Override
 	public void enqueue(byte[] data, int priority) throws CoordinationException {
+		long start = System.nanoTime();
 		try {
 			/* aXXX will be smaller than bXXX lexicographically, so priority enqueue entries will always be
-			 * dequeued before normal enqueues */
-			this.getZooKeeper().create(
-					this.getRootPath() + "/a" + new Formatter().format("%010d", priority), 
-					data, Ids.OPEN_ACL_UNSAFE,
-			        CreateMode.PERSISTENT);
+			 * dequeued before normal enqueues, the data of the queue node is changed in the same
+			 * transaction to notify the participants which have cached the entries */
+			this.getZooKeeper().multi(Arrays.asList(
+					Op.create(this.getRootPath() + "/a" + new Formatter().format("%010d", priority), 
+					        data, Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT),
+					Op.setData(this.getRootPath(), new byte[0], -1)));
 		} catch (Exception e) {
 			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
 		}
+		this.recordEnqueue(start, 1);
+	}
+	
+	@Override
+	public void enqueue(List<byte[]> dataList) throws CoordinationException {
+		if (dataList.size() == 0) {
+			return;
+		}
+		long start = System.nanoTime();
+		List<Op> ops = new ArrayList<Op>(dataList.size());
+		for (byte[] data : dataList) {
+			ops.add(Op.create(this.getRootPath() + "/b", data, Ids.OPEN_ACL_UNSAFE, 
+					CreateMode.PERSISTENT_SEQUENTIAL));
+		}
+		try {
+			this.getZooKeeper().multi(ops);
+		} catch (Exception e) {
+			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+		}
+		this.recordEnqueue(start, dataList.size());
 	}
 
-	private byte[] extractEntry(List<String> entries) throws CoordinationException {
-		String fullPath;
+	/**
+	 * Reads the entries of the queue into the cache, and optionally sets a watch on the queue.
+	 */
+	private void refreshEntries(boolean watch) throws KeeperException, InterruptedException {
+		/* the watch is set before listing, so that no priority enqueue after the listing is missed */
+		this.priorityEntryAdded = false;
+		this.getZooKeeper().exists(this.getRootPath(), this.priorityWatcher);
+		List<String> entries;
+		if (watch) {
+			entries = this.getZooKeeper().getChildren(this.getRootPath(), this);
+		} else {
+			entries = this.getZooKeeper().getChildren(this.getRootPath(), false);
+		}
 		Collections.sort(entries);
-		for (String entryPath : entries) {
-			fullPath = this.getRootPath() + "/" + entryPath;
+		this.cachedEntries = new LinkedList<String>(entries);
+	}
+	
+	/**
+	 * Reads the data of the next cached entry which still exists.
+	 * @param paths The list to add the full path of the entry to
+	 * @return The data of the entry, or null, if the cache has run out
+	 */
+	private byte[] readCachedEntry(List<String> paths) throws KeeperException, 
+			InterruptedException {
+		String fullPath;
+		if (this.priorityEntryAdded) {
+			/* a priority entry may have to be dequeued before the cached entries */
+			this.cachedEntries.clear();
+			return null;
+		}
+		while (!this.cachedEntries.isEmpty()) {
+			fullPath = this.getRootPath() + "/" + this.cachedEntries.removeFirst();
 			try {
 				byte[] content = this.getZooKeeper().getData(fullPath, false, null);
-				/* check if it's already taken, exception is thrown, if it is */
-				this.getZooKeeper().delete(fullPath, -1);
-				/* all clear, we own this, return the data */
+				paths.add(fullPath);
 				return content;
 			} catch (KeeperException e) {
 				if (e.code() != Code.NONODE) {
-					throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+					throw e;
 				}
-				continue;
-			} catch (InterruptedException e) {
-				throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
 			}
 		}
 		return null;
 	}
 	
+	/**
+	 * Takes the next cached entry which has not been taken by another participant.
+	 * @return The data of the entry, or null, if the cache has run out
+	 */
+	private byte[] takeCachedEntry() throws KeeperException, InterruptedException {
+		List<String> paths = new ArrayList<String>(1);
+		byte[] content;
+		while ((content = this.readCachedEntry(paths)) != null) {
+			if (this.deleteEntry(paths.remove(0))) {
+				/* all clear, we own this, return the data */
+				return content;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Deletes an entry, to take ownership of it.
+	 * @return true, if the entry was deleted, false, if it was already taken
+	 */
+	private boolean deleteEntry(String fullPath) throws KeeperException, InterruptedException {
+		try {
+			this.getZooKeeper().delete(fullPath, -1);
+			return true;
+		} catch (KeeperException e) {
+			if (e.code() != Code.NONODE) {
+				throw e;
+			}
+			return false;
+		}
+	}
+	
 	@Override
-	public byte[] dequeue() throws CoordinationException {
-		List<String> entries;
+	public synchronized byte[] dequeue() throws CoordinationException {
+		long start = System.nanoTime();
 		byte[] content;
 		try {
 			while (true) {
-				entries = this.getZooKeeper().getChildren(this.getRootPath(), false);
-				if (entries.size() == 0) {
-					return null;
-				}
-				content = this.extractEntry(entries);
+				content = this.takeCachedEntry();
 				if (content != null) {
+					this.recordDequeue(start, 1);
 					return content;
 				}
+				this.refreshEntries(false);
+				if (this.cachedEntries.isEmpty()) {
+					return null;
+				}
 			}
 		} catch (Exception e) {
 			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
 		}
 	}
-
+	
 	@Override
-	public byte[] blockingDequeue() throws CoordinationException {
-		List<String> entries;
+	public synchronized List<byte[]> dequeue(int max) throws CoordinationException {
+		long start = System.nanoTime();
+		List<byte[]> result = new ArrayList<byte[]>();
+		List<byte[]> contents = new ArrayList<byte[]>();
+		List<String> paths = new ArrayList<String>();
+		List<Op> ops = new ArrayList<Op>();
 		byte[] content;
+		boolean refreshed = false;
 		try {
-			entries = this.getZooKeeper().getChildren(this.getRootPath(), this);
-			content = this.extractEntry(entries);
-			if (content != null) {
-				return content;
+			while (result.size() < max) {
+				if (this.cachedEntries.isEmpty()) {
+					if (refreshed) {
+						break;
+					}
+					this.refreshEntries(false);
+					refreshed = true;
+					if (this.cachedEntries.isEmpty()) {
+						break;
+					}
+				}
+				contents.clear();
+				paths.clear();
+				while (contents.size() + result.size() < max && 
+						(content = this.readCachedEntry(paths)) != null) {
+					contents.add(content);
+				}
+				if (contents.size() == 0) {
+					continue;
+				}
+				ops.clear();
+				for (String path : paths) {
+					ops.add(Op.delete(path, -1));
+				}
+				try {
+					/* take all the entries in a single transaction */
+					this.getZooKeeper().multi(ops);
+					result.addAll(contents);
+				} catch (KeeperException e) {
+					if (e.code() != Code.NONODE) {
+						throw e;
+					}
+					/* some were taken by others, none of the entries were deleted by the 
+					 * transaction, so take the remaining ones one by one */
+					for (int i = 0; i < paths.size(); i++) {
+						if (this.deleteEntry(paths.get(i))) {
+							result.add(contents.get(i));
+						}
+					}
+				}
 			}
+		} catch (Exception e) {
+			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+		}
+		if (result.size() > 0) {
+			this.recordDequeue(start, result.size());
+		}
+		return result;
+	}
+
+	@Override
+	public synchronized byte[] blockingDequeue() throws CoordinationException {
+		long start = System.nanoTime();
+		byte[] content;
+		long events;
+		try {
 			while (true) {
-				this.takeQueuedEvent();
-				entries = this.getZooKeeper().getChildren(this.getRootPath(), this);
-				content = this.extractEntry(entries);
+				content = this.takeCachedEntry();
 				if (content != null) {
+					this.recordDequeue(start, 1);
 					return content;
 				}
+				/* the watch is only set when the cached entries have run out */
+				events = this.childrenEvents;
+				this.refreshEntries(true);
+				if (this.cachedEntries.isEmpty()) {
+					this.waitForChildrenEvent(events);
+				}
 			}
+		} catch (CoordinationException e) {
+			throw e;
 		} catch (Exception e) {
 			throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
 		}
 	}
+	
+	/**
+	 * Waits until a watch event is received for the children of the queue. This waits on the
+	 * monitor of the queue, so other dequeue calls on this instance can proceed in the meantime.
+	 * @param events The number of events received before the watch was set
+	 */
+	private void waitForChildrenEvent(long events) throws CoordinationException, 
+			InterruptedException {
+		int timeout = this.getWaitTimeout();
+		long end = System.currentTimeMillis() + timeout;
+		long remaining;
+		while (this.childrenEvents == events) {
+			if (timeout == -1) {
+				this.wait();
+			} else {
+				remaining = end - System.currentTimeMillis();
+				if (remaining <= 0) {
+					throw new CoordinationException(ExceptionCode.WAIT_TIMEOUT);
+				}
+				this.wait(remaining);
+			}
+		}
+	}
+	
+	@Override
+	public synchronized void process(WatchedEvent event) {
+		this.childrenEvents++;
+		this.notifyAll();
+	}
+	
+	private void recordEnqueue(long start, int count) {
+		this.enqueueCount.addAndGet(count);
+		long time = System.nanoTime() - start;
+		this.enqueueTime.addAndGet(time);
+		if (log.isTraceEnabled()) {
+			log.trace("Enqueued " + count + " entries into queue '" + this.getId() + "' in " + 
+		            (time / 1000) + "us");
+		}
+	}
+	
+	private void recordDequeue(long start, int count) {
+		this.dequeueCount.addAndGet(count);
+		long time = System.nanoTime() - start;
+		this.dequeueTime.addAndGet(time);
+		if (log.isTraceEnabled()) {
+			log.trace("Dequeued " + count + " entries from queue '" + this.getId() + "' in " + 
+		            (time / 1000) + "us");
+		}
+	}
+	
+	/**
+	 * Returns the number of entries enqueued through this queue instance.
+	 */
+	public long getEnqueueCount() {
+		return enqueueCount.get();
+	}
+	
+	/**
+	 * Returns the total time spent on enqueue operations of this queue instance, in nanoseconds.
+	 */
+	public long getEnqueueTime() {
+		return enqueueTime.get();
+	}
+	
+	/**
+	 * Returns the number of entries dequeued through this queue instance.
+	 */
+	public long getDequeueCount() {
+		return dequeueCount.get();
+	}
+	
+	/**
+	 * Returns the total time spent on successful dequeue operations of this queue instance, 
+	 * in nanoseconds, this includes the time blocked waiting for entries.
+	 */
+	public long getDequeueTime() {
+		return dequeueTime.get();
+	}
 
 	@Override
 	public void close() {
@@ -0,0 +1,238 @@
+/*
+ *  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.coordination.core.sync.impl;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.ZooKeeper;
+import org.wso2.carbon.coordination.common.CoordinationException;
+import org.wso2.carbon.coordination.common.CoordinationException.ExceptionCode;
+import org.wso2.carbon.coordination.core.sync.Lock;
+import org.wso2.carbon.coordination.core.sync.ReadWriteLock;
+
+/**
+ * ZooKeeper based read / write lock implementation.
+ * Readers and writers create sequential nodes under the same root node, so the sequence numbers
+ * give the order in which the lock was requested. A reader waits only for the last writer before
+ * it, and a writer waits for the node just before it, so releasing the lock only wakes up the
+ * participants next in line. Each lock object is a single participant, threads sharing a lock 
+ * object acquire it one after the other. A thread holding the write lock gets the read lock
+ * without creating a node, as a new node could be queued behind writers of other participants
+ * which are waiting for this thread. If that thread releases the write lock first, its write
+ * node is kept until the read lock is released as well.
+ * @see ReadWriteLock
+ */
+public class ZKReadWriteLock implements ReadWriteLock {
+	
+	private static final String READ_PREFIX = "read-";
+	
+	private static final String WRITE_PREFIX = "write-";
+
+	private ZKReadWriteLockParticipant readLock;
+	
+	private ZKReadWriteLockParticipant writeLock;
+	
+	public ZKReadWriteLock(ZooKeeper zooKeeper, String lockId, int waitTimeout)
+			throws CoordinationException {
+		this.writeLock = new ZKReadWriteLockParticipant(zooKeeper, lockId, waitTimeout, null);
+		this.readLock = new ZKReadWriteLockParticipant(zooKeeper, lockId, waitTimeout, 
+				this.writeLock);
+		this.writeLock.reader = this.readLock;
+	}
+
+	@Override
+	public Lock readLock() {
+		return readLock;
+	}
+
+	@Override
+	public Lock writeLock() {
+		return writeLock;
+	}
+	
+	/**
+	 * Returns the sequence number of a lock node.
+	 */
+	private static long getSequence(String nodeName) {
+		return Long.parseLong(nodeName.substring(nodeName.lastIndexOf('-') + 1));
+	}
+	
+	/**
+	 * The read or the write side of the lock.
+	 */
+	private static class ZKReadWriteLockParticipant extends ZKSyncPrimitive implements Lock {
+		
+		private boolean exclusive;
+		
+		/* the write side of the lock, if this is the read side */
+		private ZKReadWriteLockParticipant writer;
+		
+		/* the read side of the lock, if this is the write side */
+		private ZKReadWriteLockParticipant reader;
+		
+		/* makes the lock re-entrant, and keeps other local threads out while it is held */
+		private ReentrantLock localLock = new ReentrantLock();
+		
+		private String createdPath;
+		
+		/* the write node kept for a read lock that was taken while holding the write lock */
+		private String retainedWritePath;
+		
+		public ZKReadWriteLockParticipant(ZooKeeper zooKeeper, String lockId, int waitTimeout, 
+				ZKReadWriteLockParticipant writer) throws CoordinationException {
+			super(zooKeeper, ZKReadWriteLock.class.getCanonicalName(), lockId, waitTimeout);
+			this.writer = writer;
+			this.exclusive = writer == null;
+		}
+		
+		/**
+		 * Finds the node this participant has to wait for.
+		 * @param ids The lock nodes
+		 * @param myId The node of this participant
+		 * @return The node to wait for, or null, if the lock is acquired
+		 */
+		private String getBlockingNode(List<String> ids, String myId) {
+			long mySequence = getSequence(myId);
+			String blockingId = null;
+			long blockingSequence = -1;
+			long sequence;
+			for (String id : ids) {
+				if (!this.exclusive && !id.startsWith(WRITE_PREFIX)) {
+					/* readers do not block each other */
+					continue;
+				}
+				sequence = getSequence(id);
+				if (sequence < mySequence && sequence > blockingSequence) {
+					blockingId = id;
+					blockingSequence = sequence;
+				}
+			}
+			return blockingId;
+		}
+		
+		@Override
+		public void acquire() throws CoordinationException {
+			this.localLock.lock();
+			if (this.localLock.getHoldCount() > 1) {
+				/* already held by this thread */
+				return;
+			}
+			if (!this.exclusive && this.writer.localLock.isHeldByCurrentThread()) {
+				/* the write lock of this thread already keeps all other participants out */
+				return;
+			}
+			boolean acquired = false;
+			try {
+				this.createdPath = this.getZooKeeper().create(this.getRootPath() + "/" + 
+						(this.exclusive ? WRITE_PREFIX : READ_PREFIX), new byte[0], 
+						Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL_SEQUENTIAL);
+				String myId = this.getCreatedId();
+				while (true) {
+					List<String> ids = this.getZooKeeper().getChildren(this.getRootPath(), false);
+					String blockingId = this.getBlockingNode(ids, myId);
+					if (blockingId == null) {
+						acquired = true;
+						return;
+					}
+					String blockingPath = this.getRootPath() + "/" + blockingId;
+					if (this.getZooKeeper().exists(blockingPath, this) != null) {
+						while (true) {
+							this.takeQueuedEvent();
+							if (this.getZooKeeper().exists(blockingPath, this) == null) {
+								break;
+							}
+						}
+					}
+				}
+			} catch (CoordinationException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+			} finally {
+				if (!acquired) {
+					/* timed out or failed, do not leave the node behind to block others */
+					try {
+						this.deletePath(this.createdPath);
+						this.createdPath = null;
+					} finally {
+						this.localLock.unlock();
+					}
+				}
+			}
+		}
+		
+		private String getCreatedId() {
+			String path = this.createdPath;
+			return path == null ? null : path.substring(path.lastIndexOf("/") + 1);
+		}
+		
+		private void deletePath(String path) throws CoordinationException {
+			if (path == null) {
+				return;
+			}
+			try {
+				this.getZooKeeper().delete(path, -1);
+			} catch (KeeperException e) {
+				if (e.code() != Code.NONODE) {
+					throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+				}
+			} catch (Exception e) {
+				throw new CoordinationException(ExceptionCode.GENERIC_ERROR, e);
+			}
+		}
+
+		@Override
+		public void release() throws CoordinationException {
+			if (!this.localLock.isHeldByCurrentThread()) {
+				throw new CoordinationException(
+						"Lock#acquire() has to be called first before Lock#release()",
+						ExceptionCode.GENERIC_ERROR);
+			}
+			try {
+				if (this.localLock.getHoldCount() == 1) {
+					String path = this.createdPath;
+					this.createdPath = null;
+					if (this.exclusive && this.reader.localLock.isHeldByCurrentThread()) {
+						/* the read lock of this thread relies on the write node */
+						this.reader.retainedWritePath = path;
+					} else {
+						try {
+							this.deletePath(path);
+						} finally {
+							if (!this.exclusive) {
+								path = this.retainedWritePath;
+								this.retainedWritePath = null;
+								this.deletePath(path);
+							}
+						}
+					}
+				}
+			} finally {
+				this.localLock.unlock();
+			}
+		}
+		
+	}
+
+}
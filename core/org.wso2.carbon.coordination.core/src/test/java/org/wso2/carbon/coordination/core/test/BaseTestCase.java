@@ -15,9 +15,14 @@
  */
 package org.wso2.carbon.coordination.core.test;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+
 import org.wso2.carbon.coordination.common.CoordinationException;
 import org.wso2.carbon.coordination.core.CoordinationConfiguration;
 import org.wso2.carbon.coordination.core.services.CoordinationService;
@@ -36,15 +41,35 @@ public abstract class BaseTestCase extends TestCase {
 	
 	private static CoordinationConfiguration coordinationClientConfig;
 	
+	private static final int ZOOKEEPER_PORT = 2181;
+	
 	@Override
 	protected void setUp() throws Exception {
 		if (!started) {
 			coordinationClientConfig = CoordinationUtils.loadCoordinationClientConfig(
 					"src/test/resources/coordination_client_config.xml");
+			startZooKeeperServer();
 			started = true;
 		}
 	}
 	
+	/**
+	 * Starts an in-process ZooKeeper server for the tests, unless a server is already 
+	 * listening on the configured port.
+	 */
+	private static void startZooKeeperServer() throws Exception {
+		File dataDir = new File("target/zookeeper");
+		ZooKeeperServer server = new ZooKeeperServer(dataDir, dataDir, 2000);
+		ServerCnxnFactory factory;
+		try {
+			factory = ServerCnxnFactory.createFactory(ZOOKEEPER_PORT, 100);
+		} catch (IOException e) {
+			System.out.println("Using the ZooKeeper server running at port " + ZOOKEEPER_PORT);
+			return;
+		}
+		factory.startup(server);
+	}
+	
 	@Override
 	protected void tearDown() throws Exception {
 		for (CoordinationService service : this.serviceList) {
@@ -0,0 +1,81 @@
+/**
+ *  Copyright (c) 2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.coordination.core.test;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.wso2.carbon.coordination.core.services.CoordinationService;
+import org.wso2.carbon.coordination.core.sync.IdAllocator;
+
+public class IdAllocatorTest extends BaseTestCase {
+	
+	private static final int IDS_PER_THREAD = 1000;
+	
+	private Set<Long> values = Collections.synchronizedSet(new HashSet<Long>());
+	
+	public void testIdAllocator1() throws Exception {
+		values.clear();
+		System.out.println("\n*** ID ALLOCATOR TEST 1 ***");
+		this.createThreads(4, 1);
+		this.joinThreads();
+		assertEquals(4 * IDS_PER_THREAD, values.size());
+		this.cleanup();
+	}
+	
+	public void testIdAllocator2() throws Exception {
+		System.out.println("\n*** ID ALLOCATOR TEST 2 ***");
+		CoordinationService service = this.getCoordinationService();
+		IdAllocator allocator = service.createIdAllocator("TEST_ID_ALLOCATOR2", 1);
+		assertEquals(1, allocator.nextId());
+		assertEquals(2, allocator.nextId());
+		assertEquals(3, allocator.nextId());
+		allocator.delete();
+	}
+	
+	private void doAllocate() throws Exception {
+		CoordinationService service = this.getCoordinationService();
+		IdAllocator allocator = service.createIdAllocator("TEST_ID_ALLOCATOR1", 100);
+		long start = System.currentTimeMillis();
+		long previous = 0;
+		for (int i = 0; i < IDS_PER_THREAD; i++) {
+			long id = allocator.nextId();
+			assertTrue(id > previous);
+			previous = id;
+			values.add(id);
+		}
+		long end = System.currentTimeMillis();
+		System.out.println("LAST VALUE: " + previous + " - TIME PER OPERATION: " + 
+		        (double) (end - start) / IDS_PER_THREAD + " ms.");
+		service.close();
+	}
+	
+	private void cleanup() throws Exception {
+		CoordinationService service = this.getCoordinationService();
+		IdAllocator allocator = service.createIdAllocator("TEST_ID_ALLOCATOR1", 100);
+		allocator.delete();
+	}
+	
+	@Override
+	protected void execute(int i, int state) throws Exception {
+		switch (state) {
+		case 1:
+			doAllocate();
+			break;
+		}
+	}
+}
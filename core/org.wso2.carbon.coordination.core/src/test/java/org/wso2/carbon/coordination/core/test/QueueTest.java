@@ -15,6 +15,9 @@
  */
 package org.wso2.carbon.coordination.core.test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.wso2.carbon.coordination.core.services.CoordinationService;
 import org.wso2.carbon.coordination.core.sync.Queue;
 
@@ -54,6 +57,54 @@ public class QueueTest extends BaseTestCase {
 		assertEquals("C", new String(q2.blockingDequeue()));
 	}
 	
+	public void testQueue3() throws Exception {
+		System.out.println("\n*** QUEUE TEST 3 ***");
+		CoordinationService service = this.getCoordinationService();
+		Queue q3 = service.createQueue("q3", 10000);
+		List<byte[]> dataList = new ArrayList<byte[]>();
+		for (int i = 0; i < 10; i++) {
+			dataList.add(("" + i).getBytes());
+		}
+		q3.enqueue(dataList);
+		List<byte[]> result = q3.dequeue(4);
+		assertEquals(4, result.size());
+		assertEquals("0", new String(result.get(0)));
+		assertEquals("3", new String(result.get(3)));
+		assertEquals("4", new String(q3.dequeue()));
+		result = q3.dequeue(10);
+		assertEquals(5, result.size());
+		assertEquals("9", new String(result.get(4)));
+		assertEquals(0, q3.dequeue(10).size());
+		assertNull(q3.dequeue());
+		service.close();
+	}
+	
+	public void testQueue4() throws Exception {
+		System.out.println("\n*** QUEUE TEST 4 ***");
+		CoordinationService service = this.getCoordinationService();
+		Queue q4 = service.createQueue("q4", 10000);
+		Queue q4Producer = service.createQueue("q4", 10000);
+		for (int i = 0; i < 3; i++) {
+			q4.enqueue(("" + i).getBytes());
+		}
+		/* the remaining normal entries are now cached by q4 */
+		assertEquals("0", new String(q4.dequeue()));
+		q4Producer.enqueue("P".getBytes(), 1);
+		/* give the watch event time to be delivered */
+		Thread.sleep(500);
+		assertEquals("P", new String(q4.dequeue()));
+		assertEquals("1", new String(q4.dequeue()));
+		q4Producer.enqueue("Q".getBytes(), 2);
+		/* give the watch event time to be delivered */
+		Thread.sleep(500);
+		List<byte[]> result = q4.dequeue(10);
+		assertEquals(2, result.size());
+		assertEquals("Q", new String(result.get(0)));
+		assertEquals("2", new String(result.get(1)));
+		assertNull(q4.dequeue());
+		service.close();
+	}
+	
 	@Override
 	protected void execute(int i, int state) throws Exception {
 		switch (state) {
@@ -0,0 +1,145 @@
+/**
+ *  Copyright (c) 2011, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package org.wso2.carbon.coordination.core.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.wso2.carbon.coordination.core.services.CoordinationService;
+import org.wso2.carbon.coordination.core.sync.ReadWriteLock;
+
+public class ReadWriteLockTest extends BaseTestCase {
+
+	private AtomicInteger readers = new AtomicInteger();
+	
+	private int maxReaders;
+	
+	private volatile boolean writing;
+	
+	/* lock violations seen by the executor threads, asserted on the main thread */
+	private AtomicInteger violations = new AtomicInteger();
+	
+	private volatile boolean secondWriterAcquired;
+	
+	public void testReadWriteLock1() throws Exception {
+		System.out.println("\n*** READ WRITE LOCK TEST 1 ***");
+		this.maxReaders = 0;
+		this.writing = false;
+		this.violations.set(0);
+		this.createThreads(3, 1);
+		this.createThreads(2, 2);
+		this.joinThreads();
+		/* no reader or writer should have held the lock together with a writer */
+		assertEquals(0, this.violations.get());
+		/* the readers should have held the lock at the same time */
+		assertTrue(this.maxReaders > 1);
+	}
+	
+	public void testReadWriteLock2() throws Exception {
+		System.out.println("\n*** READ WRITE LOCK TEST 2 ***");
+		CoordinationService service = this.getCoordinationService();
+		ReadWriteLock rwl2 = service.createReadWriteLock("rwl2", 10000);
+		rwl2.writeLock().acquire();
+		rwl2.writeLock().acquire();
+		/* the writer can also read */
+		rwl2.readLock().acquire();
+		rwl2.readLock().release();
+		rwl2.writeLock().release();
+		rwl2.writeLock().release();
+		try {
+			rwl2.writeLock().release();
+			fail("Released a lock which is not held");
+		} catch (Exception ignore) {
+			/* expected */
+		}
+		service.close();
+	}
+	
+	public void testReadWriteLock3() throws Exception {
+		System.out.println("\n*** READ WRITE LOCK TEST 3 ***");
+		this.secondWriterAcquired = false;
+		CoordinationService service = this.getCoordinationService();
+		ReadWriteLock rwl3 = service.createReadWriteLock("rwl3", 10000);
+		rwl3.writeLock().acquire();
+		this.createThreads(1, 3);
+		/* let the other participant queue up for the write lock */
+		Thread.sleep(2000);
+		/* the writer must not wait behind the queued writer to read */
+		rwl3.readLock().acquire();
+		rwl3.writeLock().release();
+		Thread.sleep(1000);
+		/* the read lock still keeps the other writer out */
+		assertFalse(this.secondWriterAcquired);
+		rwl3.readLock().release();
+		this.joinThreads();
+		assertTrue(this.secondWriterAcquired);
+		service.close();
+	}
+	
+	private void doSecondWrite() throws Exception {
+		CoordinationService service = this.getCoordinationService();
+		ReadWriteLock rwl3 = service.createReadWriteLock("rwl3", 10000);
+		rwl3.writeLock().acquire();
+		this.secondWriterAcquired = true;
+		rwl3.writeLock().release();
+		service.close();
+	}
+	
+	private void doRead() throws Exception {
+		CoordinationService service = this.getCoordinationService();
+		ReadWriteLock rwl1 = service.createReadWriteLock("rwl1", 10000);
+		rwl1.readLock().acquire();
+		if (this.writing) {
+			this.violations.incrementAndGet();
+		}
+		synchronized (this) {
+			this.maxReaders = Math.max(this.maxReaders, this.readers.incrementAndGet());
+		}
+		Thread.sleep(1000);
+		this.readers.decrementAndGet();
+		rwl1.readLock().release();
+		service.close();
+	}
+	
+	private void doWrite() throws Exception {
+		CoordinationService service = this.getCoordinationService();
+		ReadWriteLock rwl1 = service.createReadWriteLock("rwl1", 10000);
+		rwl1.writeLock().acquire();
+		if (this.writing || this.readers.get() != 0) {
+			this.violations.incrementAndGet();
+		}
+		this.writing = true;
+		Thread.sleep(500);
+		this.writing = false;
+		rwl1.writeLock().release();
+		service.close();
+	}
+	
+	@Override
+	protected void execute(int i, int state) throws Exception {
+		switch (state) {
+		case 1:
+			doRead();
+			break;
+		case 2:
+			doWrite();
+			break;
+		case 3:
+			doSecondWrite();
+			break;
+		}
+	}
+	
+}
@@ -1,19 +1,28 @@
 package org.wso2.carbon.core.services.authentication;
 
-import java.util.Calendar;
-
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.CarbonConstants;
 import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.exceptions.ResourceNotFoundException;
 import org.wso2.carbon.registry.core.jdbc.utils.Transaction;
 
+/**
+ * Stores remember me tokens as properties of the user's profile collection. The token expires
+ * along with the remember me cookie. Note that the authenticators keep their tokens in the user
+ * store instead, through UserStoreManager#addRememberMe.
+ */
 public class RememberMeDAO {
 
     private static final Log log = LogFactory.getLog(RememberMeDAO.class);
 
+    private static final String REMEMBER_ME_TOKEN = "RememberMeToken";
+
+    private static final String REMEMBER_ME_TOKEN_EXPIRY = "RememberMeTokenExpiry";
+
     private Registry registry;
 
     public RememberMeDAO(Registry registry) {
@@ -21,25 +30,25 @@ public class RememberMeDAO {
     }
 
     public void updateToken(String userName, String value) throws Exception {
-        Collection userResource = null;
+        String path = RegistryConstants.PROFILES_PATH + userName;
         boolean transactionStarted = Transaction.isStarted();
 
         try {
-            if (!registry.resourceExists(RegistryConstants.PROFILES_PATH + userName)) {
-                userResource = registry.newCollection();
-                registry.put(RegistryConstants.PROFILES_PATH + userName, userResource);
-            } else {
-                userResource = (Collection) registry
-                        .get(RegistryConstants.PROFILES_PATH + userName);
-            }
-
             if (!transactionStarted) {
                 registry.beginTransaction();
             }
 
-            userResource.removeProperty("RememberMeToken");
-            userResource.setProperty("RememberMeToken", value);
-            registry.put(RegistryConstants.PROFILES_PATH + userName, userResource);
+            // a single read, instead of checking whether the profile exists first.
+            Collection userResource;
+            try {
+                userResource = (Collection) registry.get(path);
+            } catch (ResourceNotFoundException e) {
+                userResource = registry.newCollection();
+            }
+            userResource.setProperty(REMEMBER_ME_TOKEN, value);
+            userResource.setProperty(REMEMBER_ME_TOKEN_EXPIRY, Long.toString(
+                    System.currentTimeMillis() + CarbonConstants.REMEMBER_ME_COOKIE_TTL * 1000L));
+            registry.put(path, userResource);
 
             if (!transactionStarted) {
                 registry.commitTransaction();
@@ -49,34 +58,30 @@ public class RememberMeDAO {
                 try {
                     registry.rollbackTransaction();
                 } catch (RegistryException e) {
-                    // log.error("Error occured while updating remember me token",
-                    // e);
-                    throw new Exception("Error occured while updating remember me token", e);
+                    log.error("Error occured while rolling back the remember me token update", e);
                 }
             }
+            throw new Exception("Error occured while updating remember me token", ex);
         }
     }
 
     public String getToken(String userName) throws Exception {
-        Collection userResource = null;
-        String value = null;
+        Collection userResource;
 
         try {
-            if (!registry.resourceExists(RegistryConstants.PROFILES_PATH + userName)) {
-                return null;
-            } else {
-                userResource = (Collection) registry
-                        .get(RegistryConstants.PROFILES_PATH + userName);
-            }
-
-            value = userResource.getProperty("RememberMeToken");
-
+            userResource = (Collection) registry.get(RegistryConstants.PROFILES_PATH + userName);
+        } catch (ResourceNotFoundException e) {
+            return null;
         } catch (Exception e) {
-            log.error("Error occured while updating remember me token", e);
-            throw new RegistryException("Error occured while updating remember me token", e);
+            log.error("Error occured while reading remember me token", e);
+            throw new RegistryException("Error occured while reading remember me token", e);
         }
 
-        return value;
+        String expiry = userResource.getProperty(REMEMBER_ME_TOKEN_EXPIRY);
+        if (expiry != null && Long.parseLong(expiry) < System.currentTimeMillis()) {
+            return null;
+        }
+        return userResource.getProperty(REMEMBER_ME_TOKEN);
     }
 
 }
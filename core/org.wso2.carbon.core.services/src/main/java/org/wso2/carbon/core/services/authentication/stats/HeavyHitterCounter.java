@@ -0,0 +1,183 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.core.services.authentication.stats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts login attempts per key, such as the user name or the remote address, using a fixed
+ * number of counters. When all the counters are in use, the counter with the lowest count is
+ * taken over by the new key, which keeps its count (the Space-Saving algorithm). Hence the keys
+ * with the most attempts are always tracked, and their counts are over-estimated by at most the
+ * count they inherited, no matter how many distinct keys are seen. The counters are kept in a
+ * binary min-heap, so finding the counter to take over and incrementing a count take
+ * logarithmic time in the number of counters.
+ */
+public class HeavyHitterCounter {
+
+    private final Map<String, Entry> entries;
+
+    private final Entry[] heap;
+
+    private int size;
+
+    /**
+     * Creates a counter.
+     *
+     * @param capacity the maximum number of keys to track.
+     */
+    public HeavyHitterCounter(int capacity) {
+        this.entries = new HashMap<String, Entry>(capacity * 2);
+        this.heap = new Entry[capacity];
+    }
+
+    /**
+     * Records a login attempt for a key.
+     *
+     * @param key          the key.
+     * @param isSuccessful whether the attempt was successful.
+     */
+    public synchronized void record(String key, boolean isSuccessful) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            if (size < heap.length) {
+                entry = new Entry(key, 1, isSuccessful ? 0 : 1, 0);
+                entries.put(key, entry);
+                heap[size] = entry;
+                siftUp(size++);
+                return;
+            }
+            // the root of the heap has the lowest count, it is taken over in place.
+            entry = heap[0];
+            entries.remove(entry.key);
+            entry.key = key;
+            entry.error = entry.total;
+            entries.put(key, entry);
+        }
+        entry.total++;
+        if (!isSuccessful) {
+            entry.failed++;
+        }
+        siftDown(entry.index);
+    }
+
+    private void siftUp(int index) {
+        Entry entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent].total <= entry.total) {
+                break;
+            }
+            heap[index] = heap[parent];
+            heap[index].index = index;
+            index = parent;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    private void siftDown(int index) {
+        Entry entry = heap[index];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && heap[child + 1].total < heap[child].total) {
+                child++;
+            }
+            if (heap[child].total >= entry.total) {
+                break;
+            }
+            heap[index] = heap[child];
+            heap[index].index = index;
+            index = child;
+        }
+        heap[index] = entry;
+        entry.index = index;
+    }
+
+    /**
+     * Returns the tracked keys, in the descending order of their number of attempts.
+     *
+     * @param limit the maximum number of keys to return.
+     *
+     * @return the counts of the keys.
+     */
+    public List<Entry> getTop(int limit) {
+        List<Entry> result = new ArrayList<Entry>();
+        synchronized (this) {
+            for (int i = 0; i < size; i++) {
+                Entry e = heap[i];
+                result.add(new Entry(e.key, e.total, e.failed, e.error));
+            }
+        }
+        Collections.sort(result, new Comparator<Entry>() {
+            public int compare(Entry e1, Entry e2) {
+                return e1.total < e2.total ? 1 : (e1.total == e2.total ? 0 : -1);
+            }
+        });
+        return result.size() > limit ? result.subList(0, limit) : result;
+    }
+
+    /**
+     * The number of attempts of a key.
+     */
+    public static class Entry {
+
+        private String key;
+        private long total;
+        private long failed;
+        private long error;
+        private int index;
+
+        private Entry(String key, long total, long failed, long error) {
+            this.key = key;
+            this.total = total;
+            this.failed = failed;
+            this.error = error;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public long getFailed() {
+            return failed;
+        }
+
+        /**
+         * Returns the count the key inherited when it took over a counter. The actual number of
+         * attempts of the key is between {@link #getTotal()} minus this and {@link #getTotal()}.
+         *
+         * @return the maximum over-estimation of the count.
+         */
+        public long getError() {
+            return error;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.core.services.authentication.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts login attempts over a sliding window of the last hour, in one minute buckets. Each
+ * bucket keeps the minute it belongs to together with its count in a single long, so a bucket
+ * is moved on to a new minute and incremented with one compare-and-set, without locking.
+ */
+public class LoginRateCounter {
+
+    private static final long BUCKET_MILLIS = 60 * 1000;
+
+    private static final int BUCKET_COUNT = 60;
+
+    private static final long COUNT_MASK = 0xffffffffL;
+
+    private final AtomicLongArray attempts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLongArray failures = new AtomicLongArray(BUCKET_COUNT);
+
+    /**
+     * Records a login attempt.
+     *
+     * @param timestamp    the time of the attempt, in milliseconds.
+     * @param isSuccessful whether the attempt was successful.
+     */
+    public void record(long timestamp, boolean isSuccessful) {
+        long minute = timestamp / BUCKET_MILLIS;
+        int index = (int) (minute % BUCKET_COUNT);
+        increment(attempts, index, minute);
+        if (!isSuccessful) {
+            increment(failures, index, minute);
+        }
+    }
+
+    private static void increment(AtomicLongArray buckets, int index, long minute) {
+        while (true) {
+            long value = buckets.get(index);
+            long bucketMinute = value >>> 32;
+            if (bucketMinute > minute) {
+                // the attempt is older than the window, which can only happen if it was
+                // recorded very late.
+                return;
+            }
+            long next = bucketMinute == minute ? value + 1 : (minute << 32) | 1;
+            if (buckets.compareAndSet(index, value, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of attempts in the given number of minutes before the given time,
+     * including the current minute.
+     *
+     * @param timestamp the current time, in milliseconds.
+     * @param minutes   the number of minutes, at most 60.
+     * @param failed    whether to count only the failed attempts.
+     *
+     * @return the number of attempts.
+     */
+    public long getCount(long timestamp, int minutes, boolean failed) {
+        AtomicLongArray buckets = failed ? failures : attempts;
+        long minute = timestamp / BUCKET_MILLIS;
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long value = buckets.get(i);
+            long bucketMinute = value >>> 32;
+            if (bucketMinute <= minute && bucketMinute > minute - minutes) {
+                count += value & COUNT_MASK;
+            }
+        }
+        return count;
+    }
+}
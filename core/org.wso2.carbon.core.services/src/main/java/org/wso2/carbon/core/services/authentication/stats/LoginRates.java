@@ -0,0 +1,65 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.core.services.authentication.stats;
+
+public class LoginRates {
+    private long lastMinuteAttempts;
+    private long lastMinuteFailedAttempts;
+    private long lastHourAttempts;
+    private long lastHourFailedAttempts;
+
+    public LoginRates(long lastMinuteAttempts, long lastMinuteFailedAttempts,
+                      long lastHourAttempts, long lastHourFailedAttempts) {
+        this.lastMinuteAttempts = lastMinuteAttempts;
+        this.lastMinuteFailedAttempts = lastMinuteFailedAttempts;
+        this.lastHourAttempts = lastHourAttempts;
+        this.lastHourFailedAttempts = lastHourFailedAttempts;
+    }
+
+    public long getLastMinuteAttempts() {
+        return lastMinuteAttempts;
+    }
+
+    public void setLastMinuteAttempts(long lastMinuteAttempts) {
+        this.lastMinuteAttempts = lastMinuteAttempts;
+    }
+
+    public long getLastMinuteFailedAttempts() {
+        return lastMinuteFailedAttempts;
+    }
+
+    public void setLastMinuteFailedAttempts(long lastMinuteFailedAttempts) {
+        this.lastMinuteFailedAttempts = lastMinuteFailedAttempts;
+    }
+
+    public long getLastHourAttempts() {
+        return lastHourAttempts;
+    }
+
+    public void setLastHourAttempts(long lastHourAttempts) {
+        this.lastHourAttempts = lastHourAttempts;
+    }
+
+    public long getLastHourFailedAttempts() {
+        return lastHourFailedAttempts;
+    }
+
+    public void setLastHourFailedAttempts(long lastHourFailedAttempts) {
+        this.lastHourFailedAttempts = lastHourFailedAttempts;
+    }
+}
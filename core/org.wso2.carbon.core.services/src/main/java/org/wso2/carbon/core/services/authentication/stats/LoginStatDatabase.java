@@ -20,13 +20,16 @@ package org.wso2.carbon.core.services.authentication.stats;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This is ONLY a quick requirement fulfillment a demo.
+ * Keeps the login statistics in memory. The most recent attempts are kept for display, while
+ * the totals, the attempt rates over the last hour and the users and remote addresses with the
+ * most attempts are kept in fixed size counters, so a brute force attack with many distinct
+ * user names does not make the statistics grow.
  * TODO : Please persist properly.
  */
 public class LoginStatDatabase {
@@ -39,49 +42,40 @@ public class LoginStatDatabase {
      */
     public static final int MAX_COUNT = 50000;
 
+    /**
+     * The maximum number of user names and remote addresses tracked.
+     */
+    public static final int MAX_TRACKED_KEYS = 1000;
+
     private static Queue<LoginAttempt> attempts = new ConcurrentLinkedQueue<LoginAttempt>();
-    private static Map<String, UserAttempts> attemptsByUsers = new ConcurrentHashMap<String, UserAttempts>();
-    public static volatile int count = 0;
-    public static volatile int failedCount = 0;
+    // the size of the queue, as ConcurrentLinkedQueue#size() has to walk through the queue.
+    private static AtomicInteger queuedCount = new AtomicInteger();
+    private static AtomicInteger count = new AtomicInteger();
+    private static AtomicInteger failedCount = new AtomicInteger();
+    private static LoginRateCounter rates = new LoginRateCounter();
+    private static HeavyHitterCounter attemptsByUsers = new HeavyHitterCounter(MAX_TRACKED_KEYS);
+    private static HeavyHitterCounter attemptsByAddresses =
+            new HeavyHitterCounter(MAX_TRACKED_KEYS);
 
     public static void recordLoginAttempt(LoginAttempt loginAttempt) {
-        if (count > MAX_COUNT) {
-            attempts.poll();
-            count--;
-        }
         try {
             attempts.add(loginAttempt);
-            count++;
-            if (!loginAttempt.isSuccessful()) {
-                failedCount++;
+            if (queuedCount.incrementAndGet() > MAX_COUNT && attempts.poll() != null) {
+                queuedCount.decrementAndGet();
             }
-            addUserAttemp(loginAttempt);
-        } catch (Exception e) {
-            log.error("Error recording stats" + e.getMessage(), e);
-        }
-    }
-
-    private static void addUserAttemp(LoginAttempt loginAttempt) {
-        String userName = loginAttempt.getUserName();
-        UserAttempts userAttempts;
-        if(attemptsByUsers.containsKey(userName)){
-            userAttempts = attemptsByUsers.get(userName);
-            if(loginAttempt.isSuccessful()){
-                userAttempts.setTotalLogins(userAttempts.getTotalLogins() +1);
-            }else{
-                userAttempts.setTotalLogins(userAttempts.getTotalLogins() +1);
-                userAttempts.setFailedLogins(userAttempts.getFailedLogins() +1);
+            boolean isSuccessful = loginAttempt.isSuccessful();
+            count.incrementAndGet();
+            if (!isSuccessful) {
+                failedCount.incrementAndGet();
             }
-        }else{
-             if (loginAttempt.isSuccessful()) {
-                userAttempts = new UserAttempts(userName, 1, 0);
-                attemptsByUsers.put(userName, userAttempts);
-            }else{
-                userAttempts = new UserAttempts(userName, 1, 1);
-                attemptsByUsers.put(userName, userAttempts);
+            rates.record(loginAttempt.getTimestamp().getTime(), isSuccessful);
+            attemptsByUsers.record(loginAttempt.getUserName(), isSuccessful);
+            if (loginAttempt.getRemoteAddress() != null) {
+                attemptsByAddresses.record(loginAttempt.getRemoteAddress(), isSuccessful);
             }
+        } catch (Exception e) {
+            log.error("Error recording stats" + e.getMessage(), e);
         }
-
     }
 
     public static LoginAttempt[] getAllAttempts() {
@@ -89,14 +83,42 @@ public class LoginStatDatabase {
     }
 
     public static int getCount() {
-        return count;
+        return count.get();
     }
 
     public static int getFailedCount() {
-        return failedCount;
+        return failedCount.get();
+    }
+
+    public static LoginRates getLoginRates() {
+        long now = System.currentTimeMillis();
+        return new LoginRates(rates.getCount(now, 1, false), rates.getCount(now, 1, true),
+                rates.getCount(now, 60, false), rates.getCount(now, 60, true));
     }
 
     public static UserAttempts[] getUserBasedLoginDetails(){
-        return attemptsByUsers.values().toArray(new UserAttempts[attemptsByUsers.values().size()]);
+        return getUserBasedLoginDetails(MAX_TRACKED_KEYS);
+    }
+
+    public static UserAttempts[] getUserBasedLoginDetails(int limit) {
+        List<HeavyHitterCounter.Entry> entries = attemptsByUsers.getTop(limit);
+        UserAttempts[] result = new UserAttempts[entries.size()];
+        for (int i = 0; i < result.length; i++) {
+            HeavyHitterCounter.Entry entry = entries.get(i);
+            result[i] = new UserAttempts(entry.getKey(), (int) entry.getTotal(),
+                    (int) entry.getFailed());
+        }
+        return result;
+    }
+
+    public static RemoteAddressAttempts[] getRemoteAddressBasedLoginDetails(int limit) {
+        List<HeavyHitterCounter.Entry> entries = attemptsByAddresses.getTop(limit);
+        RemoteAddressAttempts[] result = new RemoteAddressAttempts[entries.size()];
+        for (int i = 0; i < result.length; i++) {
+            HeavyHitterCounter.Entry entry = entries.get(i);
+            result[i] = new RemoteAddressAttempts(entry.getKey(), (int) entry.getTotal(),
+                    (int) entry.getFailed());
+        }
+        return result;
     }
 }
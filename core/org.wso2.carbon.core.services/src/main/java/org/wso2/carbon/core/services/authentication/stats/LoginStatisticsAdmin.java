@@ -28,6 +28,24 @@ public class LoginStatisticsAdmin {
     public UserAttempts[] getUserBasedLoginAttempts(){
         return LoginStatDatabase.getUserBasedLoginDetails();
     }
+
+    public UserAttempts[] getTopUserLoginAttempts(int limit) {
+        return LoginStatDatabase.getUserBasedLoginDetails(clampLimit(limit));
+    }
+
+    public RemoteAddressAttempts[] getTopRemoteAddressLoginAttempts(int limit) {
+        return LoginStatDatabase.getRemoteAddressBasedLoginDetails(clampLimit(limit));
+    }
+
+    public LoginRates getLoginRates() {
+        return LoginStatDatabase.getLoginRates();
+    }
+
+    // the limit comes from the admin service caller, so it is kept within the number of keys
+    // that are actually tracked.
+    private static int clampLimit(int limit) {
+        return Math.max(0, Math.min(limit, LoginStatDatabase.MAX_TRACKED_KEYS));
+    }
 }
 
 
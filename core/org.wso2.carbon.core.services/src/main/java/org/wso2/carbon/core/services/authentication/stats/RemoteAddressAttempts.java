@@ -0,0 +1,54 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.core.services.authentication.stats;
+
+public class RemoteAddressAttempts {
+    private String remoteAddress;
+    private int totalLogins;
+    private int failedLogins;
+
+    public RemoteAddressAttempts(String remoteAddress, int totalLogins, int failedLogins){
+        this.remoteAddress = remoteAddress;
+        this.totalLogins = totalLogins;
+        this.failedLogins = failedLogins;
+    }
+
+    public String getRemoteAddress() {
+        return remoteAddress;
+    }
+
+    public void setRemoteAddress(String remoteAddress) {
+        this.remoteAddress = remoteAddress;
+    }
+
+    public int getTotalLogins() {
+        return totalLogins;
+    }
+
+    public void setTotalLogins(int totalLogins) {
+        this.totalLogins = totalLogins;
+    }
+
+    public int getFailedLogins() {
+        return failedLogins;
+    }
+
+    public void setFailedLogins(int failedLogins) {
+        this.failedLogins = failedLogins;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.wso2.carbon.core.services.authentication.stats;
+
+import junit.framework.TestCase;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Test class for the heavy hitter counter.
+ */
+public class HeavyHitterCounterTest extends TestCase {
+
+    public void testCountsWithinCapacity() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(10);
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j <= i; j++) {
+                counter.record("user" + i, j % 2 == 0);
+            }
+        }
+        List<HeavyHitterCounter.Entry> top = counter.getTop(10);
+        assertEquals(5, top.size());
+        for (int i = 0; i < 5; i++) {
+            HeavyHitterCounter.Entry entry = top.get(i);
+            assertEquals("user" + (4 - i), entry.getKey());
+            assertEquals(5 - i, entry.getTotal());
+            assertEquals((5 - i) / 2, entry.getFailed());
+            assertEquals(0, entry.getError());
+        }
+        assertEquals(2, counter.getTop(2).size());
+    }
+
+    public void testEviction() {
+        HeavyHitterCounter counter = new HeavyHitterCounter(3);
+        counter.record("a", true);
+        counter.record("a", true);
+        counter.record("a", true);
+        counter.record("b", true);
+        counter.record("b", true);
+        counter.record("c", true);
+        // "d" takes over the counter of "c", which has the lowest count.
+        counter.record("d", false);
+        List<HeavyHitterCounter.Entry> top = counter.getTop(3);
+        assertEquals(3, top.size());
+        assertEquals("a", top.get(0).getKey());
+        assertEquals(3, top.get(0).getTotal());
+        HeavyHitterCounter.Entry d = top.get(1).getKey().equals("d") ? top.get(1) : top.get(2);
+        assertEquals("d", d.getKey());
+        assertEquals(2, d.getTotal());
+        assertEquals(1, d.getError());
+        assertEquals(1, d.getFailed());
+        for (HeavyHitterCounter.Entry entry : top) {
+            assertFalse("c".equals(entry.getKey()));
+        }
+    }
+
+    public void testErrorBounds() {
+        int capacity = 20;
+        HeavyHitterCounter counter = new HeavyHitterCounter(capacity);
+        Map<String, Integer> actual = new HashMap<String, Integer>();
+        Random random = new Random(42);
+        int attempts = 20000;
+        for (int i = 0; i < attempts; i++) {
+            // a few frequent keys among many rare ones
+            String key = random.nextInt(4) == 0 ? "hot" + random.nextInt(5)
+                    : "cold" + random.nextInt(1000);
+            counter.record(key, true);
+            Integer count = actual.get(key);
+            actual.put(key, count == null ? 1 : count + 1);
+        }
+        List<HeavyHitterCounter.Entry> top = counter.getTop(capacity);
+        assertEquals(capacity, top.size());
+        long sum = 0;
+        for (HeavyHitterCounter.Entry entry : top) {
+            long count = actual.get(entry.getKey());
+            assertTrue(entry.getTotal() >= count);
+            assertTrue(entry.getTotal() - entry.getError() <= count);
+            // no count is over-estimated by more than attempts / capacity
+            assertTrue(entry.getError() <= attempts / capacity);
+            sum += entry.getTotal();
+        }
+        assertEquals(attempts, sum);
+        for (int i = 0; i < 5; i++) {
+            boolean found = false;
+            for (HeavyHitterCounter.Entry entry : top.subList(0, 5)) {
+                found |= entry.getKey().equals("hot" + i);
+            }
+            assertTrue("hot" + i + " is not among the top keys", found);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+
+package org.wso2.carbon.core.services.authentication.stats;
+
+import junit.framework.TestCase;
+
+/**
+ * Test class for the login rate counter.
+ */
+public class LoginRateCounterTest extends TestCase {
+
+    private static final long MINUTE = 60 * 1000;
+
+    private static final long START = 1000000 * MINUTE;
+
+    public void testCount() {
+        LoginRateCounter counter = new LoginRateCounter();
+        counter.record(START, true);
+        counter.record(START + 1000, false);
+        counter.record(START + MINUTE, false);
+        assertEquals(3, counter.getCount(START + MINUTE, 60, false));
+        assertEquals(2, counter.getCount(START + MINUTE, 60, true));
+        assertEquals(1, counter.getCount(START + MINUTE, 1, false));
+        assertEquals(2, counter.getCount(START, 60, false));
+        assertEquals(0, counter.getCount(START - MINUTE, 60, false));
+    }
+
+    public void testWindowRollOver() {
+        LoginRateCounter counter = new LoginRateCounter();
+        counter.record(START, true);
+        counter.record(START, false);
+        assertEquals(2, counter.getCount(START + 59 * MINUTE, 60, false));
+        // an hour later the attempts have left the window.
+        assertEquals(0, counter.getCount(START + 60 * MINUTE, 60, false));
+        // the bucket is reused for the new minute, starting from zero.
+        counter.record(START + 60 * MINUTE, false);
+        assertEquals(1, counter.getCount(START + 60 * MINUTE, 60, false));
+        assertEquals(1, counter.getCount(START + 60 * MINUTE, 60, true));
+        // a late attempt for a minute whose bucket has moved on is dropped.
+        counter.record(START + 1000, false);
+        assertEquals(1, counter.getCount(START + 60 * MINUTE, 60, false));
+    }
+}
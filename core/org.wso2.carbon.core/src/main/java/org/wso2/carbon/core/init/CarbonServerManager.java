@@ -65,6 +65,7 @@ import org.wso2.carbon.core.internal.StartupFinalizerServiceComponent;
 import org.wso2.carbon.core.multitenancy.GenericArtifactUnloader;
 import org.wso2.carbon.core.internal.HTTPGetProcessorListener;
 import org.wso2.carbon.core.multitenancy.MultitenantServerManager;
+import org.wso2.carbon.core.multitenancy.TenantPreloader;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils;
 import org.wso2.carbon.core.security.CarbonJMXAuthenticator;
@@ -935,6 +936,10 @@ public final class CarbonServerManager implements Controllable {
         this.requiredServiceListener = null;
         this.shutdownHook = null;
         CarbonConfigurationContextFactory.clear();
+        if (serverConfigContext != null) {
+            TenantPreloader.persistLoadHistory(serverConfigContext,
+                    CarbonCoreDataHolder.getInstance().getServerConfigurationService());
+        }
         multitenantServerManager.cleanup();
         if (CarbonUtils.useRegistryBasedRepository()) {
             RegistryBasedRepositoryUpdater.cleanup();
@@ -30,8 +30,10 @@ import org.osgi.framework.ServiceReference;
 import org.osgi.framework.ServiceRegistration;
 import org.osgi.service.component.ComponentContext;
 import org.wso2.carbon.CarbonConstants;
+import org.wso2.carbon.base.api.ServerConfigurationService;
 import org.wso2.carbon.core.ServerStatus;
 import org.wso2.carbon.core.init.JMXServerManager;
+import org.wso2.carbon.core.multitenancy.TenantPreloader;
 import org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils;
 import org.wso2.carbon.core.util.ClusteringUtil;
 import org.wso2.carbon.core.util.Utils;
@@ -205,6 +207,11 @@ public class StartupFinalizerServiceComponent implements ServiceListener {
         CarbonCoreServiceComponent.startup();
         setServerStartTimeParam();
         printInfo();
+
+        ServerConfigurationService serverConfig = dataHolder.getServerConfigurationService();
+        if (TenantPreloader.isPreloadingEnabled(serverConfig)) {
+            new TenantPreloader(configCtx, serverConfig).start();
+        }
     }
     
     private void setServerStartTimeParam() {
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2004,2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.core.multitenancy;
+
+/**
+ * Time taken by each phase of loading a tenant. An instance of this is attached to the tenant
+ * ConfigurationContext once the tenant has been loaded, and can be obtained through
+ * {@link org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils#getTenantLoadingStatistics}.
+ */
+public class TenantLoadingStatistics {
+
+    private String tenantDomain;
+    private int tenantId;
+    private long loadedTime;
+    private long realmLoadingTime;
+    private long registryLoadingTime;
+    private long axisConfigLoadingTime;
+    private long deployersLoadingTime;
+    private long totalLoadingTime;
+
+    public TenantLoadingStatistics(String tenantDomain) {
+        this.tenantDomain = tenantDomain;
+    }
+
+    public String getTenantDomain() {
+        return tenantDomain;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    public void setTenantId(int tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    /**
+     * @return the time (in milliseconds since epoch) at which loading of the tenant completed
+     */
+    public long getLoadedTime() {
+        return loadedTime;
+    }
+
+    public void setLoadedTime(long loadedTime) {
+        this.loadedTime = loadedTime;
+    }
+
+    /**
+     * @return time taken to resolve the tenant and load its user realm, in milliseconds
+     */
+    public long getRealmLoadingTime() {
+        return realmLoadingTime;
+    }
+
+    public void setRealmLoadingTime(long realmLoadingTime) {
+        this.realmLoadingTime = realmLoadingTime;
+    }
+
+    /**
+     * @return time taken to load the tenant registry, in milliseconds
+     */
+    public long getRegistryLoadingTime() {
+        return registryLoadingTime;
+    }
+
+    public void setRegistryLoadingTime(long registryLoadingTime) {
+        this.registryLoadingTime = registryLoadingTime;
+    }
+
+    /**
+     * @return time taken to create the tenant Axis2 ConfigurationContext, including the
+     *         deployment of the tenant's Axis2 repository, in milliseconds
+     */
+    public long getAxisConfigLoadingTime() {
+        return axisConfigLoadingTime;
+    }
+
+    public void setAxisConfigLoadingTime(long axisConfigLoadingTime) {
+        this.axisConfigLoadingTime = axisConfigLoadingTime;
+    }
+
+    /**
+     * @return time taken to set up transports, notify the ConfigurationContext observers and
+     *         register the deployers of the tenant, in milliseconds
+     */
+    public long getDeployersLoadingTime() {
+        return deployersLoadingTime;
+    }
+
+    public void setDeployersLoadingTime(long deployersLoadingTime) {
+        this.deployersLoadingTime = deployersLoadingTime;
+    }
+
+    public long getTotalLoadingTime() {
+        return totalLoadingTime;
+    }
+
+    public void setTotalLoadingTime(long totalLoadingTime) {
+        this.totalLoadingTime = totalLoadingTime;
+    }
+
+    public String toString() {
+        return "tenant " + tenantDomain + "[" + tenantId + "] loaded in " + totalLoadingTime +
+               " ms (realm: " + realmLoadingTime + " ms, registry: " + registryLoadingTime +
+               " ms, axis2 configuration: " + axisConfigLoadingTime + " ms, deployers: " +
+               deployersLoadingTime + " ms)";
+    }
+}
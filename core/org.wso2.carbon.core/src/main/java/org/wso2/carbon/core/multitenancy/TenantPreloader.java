@@ -0,0 +1,357 @@
+/*
+ * Copyright 2004,2005 The Apache Software Foundation.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.core.multitenancy;
+
+import org.apache.axis2.context.ConfigurationContext;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.base.api.ServerConfigurationService;
+import org.wso2.carbon.context.PrivilegedCarbonContext;
+import org.wso2.carbon.core.multitenancy.utils.TenantAxisUtils;
+import org.wso2.carbon.utils.CarbonUtils;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads a set of tenants in parallel once the server has started, so that the first request to
+ * each of those tenants does not have to pay for loading the tenant. The tenants to be loaded are
+ * the ones listed in the configuration, followed by the most recently accessed tenants recorded
+ * in the tenant load history of the previous run. Preloading is disabled by default and can be
+ * enabled in the carbon.xml as follows.
+ * <pre>
+ * &lt;Tenant&gt;
+ *     &lt;Preloading&gt;
+ *         &lt;Enabled&gt;true&lt;/Enabled&gt;
+ *         &lt;PoolSize&gt;4&lt;/PoolSize&gt;
+ *         &lt;UseLoadHistory&gt;true&lt;/UseLoadHistory&gt;
+ *         &lt;MaxTenants&gt;100&lt;/MaxTenants&gt;
+ *         &lt;Tenants&gt;
+ *             &lt;Domain&gt;foo.com&lt;/Domain&gt;
+ *         &lt;/Tenants&gt;
+ *     &lt;/Preloading&gt;
+ * &lt;/Tenant&gt;
+ * </pre>
+ */
+public class TenantPreloader {
+
+    private static final Log log = LogFactory.getLog(TenantPreloader.class);
+
+    private static final String PRELOADING_ENABLED = "Tenant.Preloading.Enabled";
+    private static final String PRELOADING_POOL_SIZE = "Tenant.Preloading.PoolSize";
+    private static final String PRELOADING_USE_LOAD_HISTORY = "Tenant.Preloading.UseLoadHistory";
+    private static final String PRELOADING_MAX_TENANTS = "Tenant.Preloading.MaxTenants";
+    private static final String PRELOADING_TENANTS = "Tenant.Preloading.Tenants.Domain";
+
+    private static final String LOAD_HISTORY_FILE = "tenant-load-history.txt";
+    private static final int DEFAULT_POOL_SIZE = 4;
+    private static final int DEFAULT_MAX_TENANTS = 100;
+
+    /**
+     * Last accessed times of tenants which were unloaded during this run
+     */
+    private static Map<String, Long> unloadedTenants = new ConcurrentHashMap<String, Long>();
+
+    private ConfigurationContext mainConfigCtx;
+    private ServerConfigurationService serverConfig;
+
+    public TenantPreloader(ConfigurationContext mainConfigCtx,
+                           ServerConfigurationService serverConfig) {
+        this.mainConfigCtx = mainConfigCtx;
+        this.serverConfig = serverConfig;
+    }
+
+    /**
+     * Check whether tenant preloading has been enabled in the server configuration
+     *
+     * @param serverConfig The server configuration
+     * @return true if tenants should be preloaded on server start
+     */
+    public static boolean isPreloadingEnabled(ServerConfigurationService serverConfig) {
+        return serverConfig != null &&
+               Boolean.parseBoolean(serverConfig.getFirstProperty(PRELOADING_ENABLED));
+    }
+
+    /**
+     * Start loading the tenants in the background. This method returns immediately.
+     */
+    public void start() {
+        Thread preloaderThread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    preloadTenants();
+                } catch (Throwable e) {
+                    log.error("Error occurred while preloading tenants", e);
+                }
+            }
+        }, "TenantPreloader");
+        preloaderThread.setDaemon(true);
+        preloaderThread.start();
+    }
+
+    /**
+     * Load the tenants which should be preloaded and wait until all of them have been loaded
+     *
+     * @return The loading statistics of the tenants which were loaded successfully
+     */
+    public List<TenantLoadingStatistics> preloadTenants() {
+        List<String> tenantDomains = getTenantsToPreload();
+        List<TenantLoadingStatistics> statistics = new ArrayList<TenantLoadingStatistics>();
+        if (tenantDomains.isEmpty()) {
+            return statistics;
+        }
+        int poolSize = getIntProperty(PRELOADING_POOL_SIZE, DEFAULT_POOL_SIZE);
+        log.info("Preloading " + tenantDomains.size() + " tenants using " + poolSize + " threads");
+
+        long startTime = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize,
+                                                                new PreloaderThreadFactory());
+        Map<String, Future<TenantLoadingStatistics>> futures =
+                new HashMap<String, Future<TenantLoadingStatistics>>();
+        try {
+            for (String tenantDomain : tenantDomains) {
+                futures.put(tenantDomain, executor.submit(new TenantLoadingTask(tenantDomain)));
+            }
+            for (String tenantDomain : tenantDomains) {
+                try {
+                    TenantLoadingStatistics tenantStatistics = futures.get(tenantDomain).get();
+                    if (tenantStatistics != null) {
+                        log.info("Preloaded " + tenantStatistics);
+                        statistics.add(tenantStatistics);
+                    }
+                } catch (ExecutionException e) {
+                    log.error("Could not preload tenant " + tenantDomain, e.getCause());
+                } catch (InterruptedException e) {
+                    log.warn("Interrupted while preloading tenants");
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Preloaded " + statistics.size() + " of " + tenantDomains.size() + " tenants in " +
+                 (System.currentTimeMillis() - startTime) + " ms");
+        return statistics;
+    }
+
+    /**
+     * Get the domains of the tenants to be preloaded. The configured tenants come first, followed
+     * by the tenants in the load history, most recently accessed first.
+     *
+     * @return The list of tenant domains
+     */
+    public List<String> getTenantsToPreload() {
+        Set<String> tenantDomains = new LinkedHashSet<String>();
+        String[] configuredTenants = serverConfig.getProperties(PRELOADING_TENANTS);
+        if (configuredTenants != null) {
+            for (String tenantDomain : configuredTenants) {
+                if (tenantDomain != null && tenantDomain.trim().length() > 0) {
+                    tenantDomains.add(tenantDomain.trim());
+                }
+            }
+        }
+        String useLoadHistory = serverConfig.getFirstProperty(PRELOADING_USE_LOAD_HISTORY);
+        if (useLoadHistory == null || Boolean.parseBoolean(useLoadHistory)) {
+            tenantDomains.addAll(readLoadHistory().keySet());
+        }
+        tenantDomains.remove(MultitenantConstants.SUPER_TENANT_DOMAIN_NAME);
+
+        List<String> tenantsToPreload = new ArrayList<String>(tenantDomains);
+        int maxTenants = getIntProperty(PRELOADING_MAX_TENANTS, DEFAULT_MAX_TENANTS);
+        if (tenantsToPreload.size() > maxTenants) {
+            tenantsToPreload = tenantsToPreload.subList(0, maxTenants);
+        }
+        return tenantsToPreload;
+    }
+
+    /**
+     * Record that a tenant is being unloaded, so that it is still considered when the load
+     * history is persisted.
+     *
+     * @param tenantDomain The domain of the tenant being unloaded
+     * @param lastAccessed The time at which the tenant was last accessed
+     */
+    public static void tenantUnloaded(String tenantDomain, long lastAccessed) {
+        unloadedTenants.put(tenantDomain, lastAccessed);
+    }
+
+    /**
+     * Persist the most recently accessed tenants, so that they can be preloaded on the next
+     * server start. Tenants which are currently loaded, tenants which were unloaded during this
+     * run and tenants in the previous load history are considered.
+     *
+     * @param mainConfigCtx Super-tenant Axis2 ConfigurationContext
+     * @param serverConfig  The server configuration
+     */
+    public static void persistLoadHistory(ConfigurationContext mainConfigCtx,
+                                          ServerConfigurationService serverConfig) {
+        if (!isPreloadingEnabled(serverConfig)) {
+            return;
+        }
+        TenantPreloader preloader = new TenantPreloader(mainConfigCtx, serverConfig);
+        Map<String, Long> history = preloader.readLoadHistory();
+        history.putAll(unloadedTenants);
+        for (String tenantDomain :
+                TenantAxisUtils.getTenantConfigurationContexts(mainConfigCtx).keySet()) {
+            long lastAccessed = TenantAxisUtils.getLastAccessed(tenantDomain, mainConfigCtx);
+            if (lastAccessed != -1) {
+                history.put(tenantDomain, lastAccessed);
+            }
+        }
+
+        List<Map.Entry<String, Long>> entries =
+                new ArrayList<Map.Entry<String, Long>>(history.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        int maxTenants = preloader.getIntProperty(PRELOADING_MAX_TENANTS, DEFAULT_MAX_TENANTS);
+        PrintWriter writer = null;
+        try {
+            writer = new PrintWriter(new FileWriter(getLoadHistoryFile()));
+            for (int i = 0; i < entries.size() && i < maxTenants; i++) {
+                writer.println(entries.get(i).getKey() + "\t" + entries.get(i).getValue());
+            }
+        } catch (IOException e) {
+            log.error("Could not persist the tenant load history", e);
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+    }
+
+    private Map<String, Long> readLoadHistory() {
+        final Map<String, Long> history = new HashMap<String, Long>();
+        File historyFile = getLoadHistoryFile();
+        if (!historyFile.exists()) {
+            return history;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new FileReader(historyFile));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t");
+                if (parts.length == 2) {
+                    try {
+                        history.put(parts[0], Long.parseLong(parts[1].trim()));
+                    } catch (NumberFormatException ignored) {
+                        log.warn("Ignoring invalid tenant load history entry " + line);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read the tenant load history", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignored) {
+                    // ignored
+                }
+            }
+        }
+
+        // keep the iteration order of the history as most recently accessed first
+        List<String> tenantDomains = new ArrayList<String>(history.keySet());
+        Collections.sort(tenantDomains, new Comparator<String>() {
+            public int compare(String o1, String o2) {
+                return history.get(o2).compareTo(history.get(o1));
+            }
+        });
+        Map<String, Long> sortedHistory = new LinkedHashMap<String, Long>();
+        for (String tenantDomain : tenantDomains) {
+            sortedHistory.put(tenantDomain, history.get(tenantDomain));
+        }
+        return sortedHistory;
+    }
+
+    private static File getLoadHistoryFile() {
+        return new File(CarbonUtils.getCarbonTenantsDirPath(), LOAD_HISTORY_FILE);
+    }
+
+    private int getIntProperty(String key, int defaultValue) {
+        String value = serverConfig.getFirstProperty(key);
+        if (value != null) {
+            try {
+                int intValue = Integer.parseInt(value.trim());
+                if (intValue > 0) {
+                    return intValue;
+                }
+            } catch (NumberFormatException ignored) {
+                // fall back to the default value
+            }
+            log.warn("Invalid value " + value + " for " + key + ". Using " + defaultValue);
+        }
+        return defaultValue;
+    }
+
+    private class TenantLoadingTask implements Callable<TenantLoadingStatistics> {
+
+        private String tenantDomain;
+
+        private TenantLoadingTask(String tenantDomain) {
+            this.tenantDomain = tenantDomain;
+        }
+
+        public TenantLoadingStatistics call() throws Exception {
+            try {
+                PrivilegedCarbonContext.startTenantFlow();
+                TenantAxisUtils.getTenantConfigurationContext(tenantDomain, mainConfigCtx);
+                return TenantAxisUtils.getTenantLoadingStatistics(tenantDomain, mainConfigCtx);
+            } finally {
+                PrivilegedCarbonContext.endTenantFlow();
+            }
+        }
+    }
+
+    private static class PreloaderThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable,
+                                       "TenantPreloader-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -51,6 +51,8 @@ import org.osgi.util.tracker.ServiceTracker;
 import org.wso2.carbon.context.PrivilegedCarbonContext;
 import org.wso2.carbon.core.internal.CarbonCoreDataHolder;
 import org.wso2.carbon.core.multitenancy.TenantAxisConfigurator;
+import org.wso2.carbon.core.multitenancy.TenantLoadingStatistics;
+import org.wso2.carbon.core.multitenancy.TenantPreloader;
 import org.wso2.carbon.core.multitenancy.transports.DummyTransportListener;
 import org.wso2.carbon.core.multitenancy.transports.TenantTransportInDescription;
 import org.wso2.carbon.core.multitenancy.transports.TenantTransportSender;
@@ -81,6 +83,7 @@ public final class TenantAxisUtils {
     private static final Log log = LogFactory.getLog(TenantAxisUtils.class);
     private static final String TENANT_CONFIGURATION_CONTEXTS = "tenant.config.contexts";
     private static final String TENANT_CONFIGURATION_CONTEXTS_CREATED = "tenant.config.contexts.created";
+    private static final String TENANT_LOADING_STATISTICS = "tenant.loading.statistics";
     private static CarbonCoreDataHolder dataHolder = CarbonCoreDataHolder.getInstance();
     private static Map<String, ReentrantReadWriteLock> tenantReadWriteLocks =
             new ConcurrentHashMap<String, ReentrantReadWriteLock>();
@@ -161,6 +164,23 @@ public final class TenantAxisUtils {
         getTenantConfigurationContext(tenantDomain, mainConfigCtx);
     }
 
+    /**
+     * Get the time taken by each phase of loading the given tenant
+     *
+     * @param tenantDomain  Tenant domain (e.g. foo.com)
+     * @param mainConfigCtx Super-tenant Axis2 ConfigurationContext
+     * @return The loading statistics of the tenant, or null if the tenant has not been loaded
+     */
+    public static TenantLoadingStatistics getTenantLoadingStatistics(
+            String tenantDomain, ConfigurationContext mainConfigCtx) {
+        ConfigurationContext tenantConfigCtx =
+                getTenantConfigurationContexts(mainConfigCtx).get(tenantDomain);
+        if (tenantConfigCtx != null) {
+            return (TenantLoadingStatistics) tenantConfigCtx.getProperty(TENANT_LOADING_STATISTICS);
+        }
+        return null;
+    }
+
     /**
      * @param url               will have pattern <some-string>/t/<tenant>/<service>?<some-params>
      * @param mainConfigContext The main ConfigurationContext from the server
@@ -275,11 +295,13 @@ public final class TenantAxisUtils {
                 return tenantConfigCtx;
             }
             long tenantLoadingStartTime = System.currentTimeMillis();
+            TenantLoadingStatistics loadingStatistics = new TenantLoadingStatistics(tenantDomain);
             int tenantId = getTenantId(tenantDomain);
             if (tenantId == MultitenantConstants.SUPER_TENANT_ID ||
                 tenantId == MultitenantConstants.INVALID_TENANT_ID) {
                 throw new Exception("Tenant " + tenantDomain + " does not exist");
             }
+            loadingStatistics.setTenantId(tenantId);
             PrivilegedCarbonContext carbonContext = PrivilegedCarbonContext.getThreadLocalCarbonContext();
             carbonContext.setTenantId(tenantId);
             carbonContext.setTenantDomain(tenantDomain);
@@ -291,6 +313,12 @@ public final class TenantAxisUtils {
 
             AxisConfiguration mainAxisConfig = mainConfigCtx.getAxisConfiguration();
 
+            // The realm is cached by the RealmService, so loading it up front only moves the cost
+            // out of the registry loading phase and lets it be reported on its own.
+            dataHolder.getRealmService().getTenantUserRealm(tenantId);
+            long phaseStartTime = System.currentTimeMillis();
+            loadingStatistics.setRealmLoadingTime(phaseStartTime - tenantLoadingStartTime);
+
             dataHolder.getTenantRegistryLoader().loadTenantRegistry(tenantId);
 
             try {
@@ -298,6 +326,10 @@ public final class TenantAxisUtils {
                         dataHolder.getRegistryService().getConfigSystemRegistry(tenantId);
                 UserRegistry tenantLocalUserRegistry =
                         dataHolder.getRegistryService().getLocalRepository(tenantId);
+                long now = System.currentTimeMillis();
+                loadingStatistics.setRegistryLoadingTime(now - phaseStartTime);
+                phaseStartTime = now;
+
                 TenantAxisConfigurator tenantAxisConfigurator =
                         new TenantAxisConfigurator(mainAxisConfig, tenantDomain, tenantId,
                                                    tenantConfigRegistry, tenantLocalUserRegistry);
@@ -305,6 +337,9 @@ public final class TenantAxisUtils {
                 tenantConfigCtx =
                         ConfigurationContextFactory.createConfigurationContext(tenantAxisConfigurator);
                 tenantConfigContexts.put(tenantDomain, tenantConfigCtx);
+                now = System.currentTimeMillis();
+                loadingStatistics.setAxisConfigLoadingTime(now - phaseStartTime);
+                phaseStartTime = now;
 
                 AxisConfiguration tenantAxisConfig = tenantConfigCtx.getAxisConfiguration();
 
@@ -352,8 +387,17 @@ public final class TenantAxisUtils {
                 // Register Capp deployer for this tenant
                 Utils.addCAppDeployer(tenantAxisConfig);
 
+                now = System.currentTimeMillis();
+                loadingStatistics.setDeployersLoadingTime(now - phaseStartTime);
+                loadingStatistics.setTotalLoadingTime(now - tenantLoadingStartTime);
+                loadingStatistics.setLoadedTime(now);
+                tenantConfigCtx.setProperty(TENANT_LOADING_STATISTICS, loadingStatistics);
+
                 log.info("Loaded tenant " + tenantDomain + " in " +
-                         (System.currentTimeMillis() - tenantLoadingStartTime) + " ms");
+                         loadingStatistics.getTotalLoadingTime() + " ms");
+                if (log.isDebugEnabled()) {
+                    log.debug("Loading statistics of " + loadingStatistics);
+                }
                 return tenantConfigCtx;
             } catch (Exception e) {
                 String msg = "Error occurred while running deployment for tenant ";
@@ -435,6 +479,7 @@ public final class TenantAxisUtils {
                                 carbonContext.setTenantDomain(tenantDomain, true);
 
                                 // Terminating idle tenant configuration contexts.
+                                TenantPreloader.tenantUnloaded(tenantDomain, lastAccessed);
                                 terminateTenantConfigContext(tenantCfgCtx);
                                 tenantConfigContexts.remove(tenantDomain);
                             } finally {
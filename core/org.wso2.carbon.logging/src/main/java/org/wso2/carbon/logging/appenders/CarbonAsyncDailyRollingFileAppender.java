@@ -0,0 +1,329 @@
+/*
+*  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.logging.appenders;
+
+import org.apache.log4j.Layout;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A daily rolling file appender which writes to the file on a background thread, so that the
+ * logging threads never wait for disk I/O. Events are put into a pre-allocated
+ * {@link LoggingEventRingBuffer}, and the writer thread takes them out in batches, writing
+ * each batch with a single flush. Events are formatted by the logging thread before they are
+ * queued, as the layout may print data bound to that thread, such as the tenant of the Carbon
+ * Context, which the writer thread cannot see.
+ * <p/>
+ * If the buffer is full, events are dropped instead of blocking, and a warning with the number
+ * of dropped events is written to the log. The events in the buffer are written out when the
+ * appender is closed. The appender is configured like a DailyRollingFileAppender, with the
+ * additional BufferSize and BatchSize options, for example
+ * <code>log4j.appender.CARBON_LOGFILE.BufferSize=8192</code>.
+ */
+public class CarbonAsyncDailyRollingFileAppender extends CarbonDailyRollingFileAppender {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    private static final long MAX_WAIT_NANOS = 100 * 1000 * 1000;
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private Layout eventLayout;
+    private LoggingEventRingBuffer ringBuffer;
+    private Thread writerThread;
+    private volatile boolean writerWaiting;
+    private volatile boolean stopped;
+    private final AtomicLong totalDroppedCount = new AtomicLong();
+
+    /**
+     * The layout is wrapped, so that the file is written with the text the logging thread
+     * formatted.
+     */
+    public void setLayout(Layout layout) {
+        eventLayout = layout;
+        super.setLayout(layout == null ? null : new FormattedEventLayout(layout));
+    }
+
+    public Layout getLayout() {
+        return eventLayout;
+    }
+
+    public void activateOptions() {
+        super.activateOptions();
+        // the writer thread flushes once per batch instead.
+        setImmediateFlush(false);
+        if (writerThread == null) {
+            ringBuffer = new LoggingEventRingBuffer(bufferSize);
+            writerThread = new Thread(new Writer(), "CarbonAsyncAppender-" + getName());
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    /**
+     * Unlike the super class, this is not synchronized, so that logging threads do not contend
+     * with each other, or with the writer thread.
+     */
+    public void doAppend(LoggingEvent event) {
+        if (closed) {
+            LogLog.error("Attempted to append to closed appender named [" + name + "].");
+            return;
+        }
+        if (!isAsSevereAsThreshold(event.getLevel())) {
+            return;
+        }
+        Filter filter = getFirstFilter();
+        while (filter != null) {
+            int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                return;
+            } else if (decision == Filter.ACCEPT) {
+                break;
+            }
+            filter = filter.getNext();
+        }
+        append(event);
+    }
+
+    public void append(LoggingEvent event) {
+        if (ringBuffer == null || eventLayout == null) {
+            LogLog.error("Appender [" + name + "] is not active, dropping the event.");
+            return;
+        }
+        LoggingEvent formattedEvent = new FormattedLoggingEvent(event, format(event));
+        if (stopped) {
+            // the writer thread is stopping, or has stopped.
+            synchronized (this) {
+                super.append(formattedEvent);
+            }
+            return;
+        }
+        if (ringBuffer.offer(formattedEvent)) {
+            if (stopped) {
+                // close() may have written out the buffer before this event was added.
+                writeRemaining();
+            } else if (writerWaiting) {
+                LockSupport.unpark(writerThread);
+            }
+        }
+    }
+
+    /**
+     * Formats an event on the logging thread, together with its stack trace if the layout
+     * leaves it out.
+     */
+    private String format(LoggingEvent event) {
+        StringBuffer text = new StringBuffer();
+        // a layout formats into a buffer of its own.
+        synchronized (eventLayout) {
+            text.append(eventLayout.format(event));
+        }
+        if (eventLayout.ignoresThrowable()) {
+            String[] lines = event.getThrowableStrRep();
+            if (lines != null) {
+                for (String line : lines) {
+                    text.append(line).append(Layout.LINE_SEP);
+                }
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes out the events in the buffer, and closes the file.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        stopped = true;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            try {
+                writerThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        super.close();
+    }
+
+    /**
+     * Writes out the events added to the buffer after the writer thread was stopped.
+     */
+    private synchronized void writeRemaining() {
+        if (!closed) {
+            while (writeBatch() > 0) {
+                // keep writing until the buffer is empty
+            }
+            return;
+        }
+        int count = 0;
+        while (ringBuffer.poll() != null) {
+            count++;
+        }
+        if (count > 0) {
+            LogLog.error("Appender [" + name + "] was closed, dropping " + count + " log events.");
+        }
+    }
+
+    /**
+     * Writes a batch of events.
+     *
+     * @return the number of events written.
+     */
+    private int writeBatch() {
+        int count = 0;
+        LoggingEvent event;
+        synchronized (this) {
+            while (count < batchSize && (event = ringBuffer.poll()) != null) {
+                super.append(event);
+                count++;
+            }
+            long dropped = ringBuffer.takeDroppedCount();
+            if (dropped > 0) {
+                totalDroppedCount.addAndGet(dropped);
+                super.append(new LoggingEvent(getClass().getName(),
+                        Logger.getLogger(getClass()), Level.WARN,
+                        dropped + " log events were dropped as the log buffer was full", null));
+                count++;
+            }
+            if (count > 0 && qw != null) {
+                qw.flush();
+            }
+        }
+        return count;
+    }
+
+    private class Writer implements Runnable {
+
+        public void run() {
+            while (true) {
+                if (writeBatch() > 0) {
+                    continue;
+                }
+                if (stopped && ringBuffer.isEmpty()) {
+                    return;
+                }
+                writerWaiting = true;
+                if (ringBuffer.isEmpty() && !stopped) {
+                    LockSupport.parkNanos(this, MAX_WAIT_NANOS);
+                } else {
+                    // an event has been claimed, but is yet to be published.
+                    Thread.yield();
+                }
+                writerWaiting = false;
+            }
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Returns the total number of events dropped because the buffer was full.
+     *
+     * @return the number of dropped events.
+     */
+    public long getDroppedEventCount() {
+        return totalDroppedCount.get();
+    }
+
+    /**
+     * An event queued with the text it was formatted to by the logging thread.
+     */
+    private static class FormattedLoggingEvent extends LoggingEvent {
+
+        private static final long serialVersionUID = 1L;
+
+        // the logger is only needed to create the event, the text is already formatted.
+        private static final Logger LOGGER = Logger.getLogger(FormattedLoggingEvent.class);
+
+        private final String text;
+
+        public FormattedLoggingEvent(LoggingEvent event, String text) {
+            super(event.fqnOfCategoryClass, LOGGER, event.timeStamp, event.getLevel(), null, null);
+            this.text = text;
+        }
+    }
+
+    /**
+     * Writes the text of a formatted event as it is, and formats other events, such as the
+     * warning on dropped events, with the configured layout.
+     */
+    private static class FormattedEventLayout extends Layout {
+
+        private final Layout layout;
+
+        public FormattedEventLayout(Layout layout) {
+            this.layout = layout;
+        }
+
+        public String format(LoggingEvent event) {
+            if (event instanceof FormattedLoggingEvent) {
+                return ((FormattedLoggingEvent) event).text;
+            }
+            synchronized (layout) {
+                return layout.format(event);
+            }
+        }
+
+        public boolean ignoresThrowable() {
+            // the text of a formatted event already includes the stack trace.
+            return false;
+        }
+
+        public String getContentType() {
+            return layout.getContentType();
+        }
+
+        public String getHeader() {
+            return layout.getHeader();
+        }
+
+        public String getFooter() {
+            return layout.getFooter();
+        }
+
+        public void activateOptions() {
+            layout.activateOptions();
+        }
+    }
+}
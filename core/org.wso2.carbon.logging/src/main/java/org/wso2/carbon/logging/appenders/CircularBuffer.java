@@ -15,16 +15,29 @@
  */
 package org.wso2.carbon.logging.appenders;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * This is a Circular Buffer implementation. In this implementaion it is assumed that items
  * will never be removed from this buffer. It can be used for a case such as a Rolling Log.
  * A client can request the latest 'n' number of items that are stored in this buffer.
+ * <p/>
+ * Every appended item gets a sequence number, which also selects its slot. Appending claims a
+ * sequence number atomically and then publishes the item into its slot, unless a newer item
+ * has been published there already, so neither appends nor reads take a lock. A reader only
+ * returns the items whose slots still hold the sequence numbers it expects, skipping items which
+ * have been overwritten or are not yet published. Readers can fetch only the items appended after
+ * a given sequence number, and filter them while reading.
  */
 public class CircularBuffer {
-    private Object[] buffer;
-    private static final int MAX_ALLOWED_SIZE = 10000;
-    private int startIndex;
-    private int endIndex;
+    private static final int MAX_ALLOWED_SIZE = 1000000;
+    private static final int DEFAULT_SIZE = 10000;
+    private final AtomicReferenceArray<Entry> buffer;
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile long clearedSequence;
 
     public CircularBuffer(int size) {
         if (size <= 0) {
@@ -36,67 +49,110 @@ public class CircularBuffer {
                     size + ") is greater than the allowed max size " +
                     MAX_ALLOWED_SIZE);
         }
-        buffer = new Object[size];
-        startIndex = 0;
-        endIndex = -1;
+        buffer = new AtomicReferenceArray<Entry>(size);
     }
 
     public CircularBuffer() {
-        this(MAX_ALLOWED_SIZE);
+        this(DEFAULT_SIZE);
     }
 
-    public synchronized void append(Object obj) {
-        if (startIndex == buffer.length - 1) { // are we at the end of the buffer?
-            startIndex = 0;
-        } else if (endIndex == buffer.length - 1) {
-            endIndex = -1;
-            startIndex = 1;
-        } else if (startIndex != 0) {
-            startIndex++;
+    public void append(Object obj) {
+        long sequence = nextSequence.getAndIncrement();
+        int index = getIndex(sequence);
+        Entry entry = new Entry(sequence, obj);
+        while (true) {
+            Entry current = buffer.get(index);
+            // a slow appender must not overwrite a newer item which has taken the slot already.
+            if (current != null && current.sequence > sequence) {
+                return;
+            }
+            if (buffer.compareAndSet(index, current, entry)) {
+                return;
+            }
         }
-        endIndex++;
-        buffer[endIndex] = obj;
     }
 
-    public synchronized Object[] getObjects(int amount) {
-        Object[] result;
-        if (startIndex == 0) { // simple case. startIndex is beginning of buffer array              
-            if (endIndex + 1 >= amount) {// amount to be retrieved is less than the
-                // total size of contents of buffer array
-                result = new Object[amount];
-                System.arraycopy(buffer, 0, result, 0, amount);
-            } else { // amount to be retrieved is more than the total size of buffer array
-                result = new Object[endIndex + 1];
-                System.arraycopy(buffer, 0, result, 0, endIndex + 1);
-            }
+    /**
+     * Returns the oldest items in the buffer.
+     *
+     * @param amount the maximum number of items to return.
+     *
+     * @return the items, oldest first.
+     */
+    public Object[] getObjects(int amount) {
+        return getObjects(0, amount, null).toArray();
+    }
 
-        } else { // starIndex is in the middle or end of the buffer array.
-            // Note that buffer array is completely fille in this case.
-            if (amount < buffer.length) {// amount to be retrieved is less than the total size of
-                // contents of buffer array
-                result = new Object[amount];
-                if (amount <= buffer.length - startIndex) { // no. of items remaining to the
-                    //  right of startIndex is less than the amount to be retrieved
-                    System.arraycopy(buffer, startIndex, result, 0, amount);
-                } else {
-                    System.arraycopy(buffer, startIndex, result, 0, buffer.length - startIndex);
-                    System.arraycopy(buffer, 0, result, buffer.length - startIndex,
-                            amount - buffer.length + startIndex);
-                }
-            } else {// amount to be retrieved is more than the total size of buffer array
-                result = new Object[buffer.length];
-                System.arraycopy(buffer, startIndex, result, 0, buffer.length - startIndex);
-                System.arraycopy(buffer, 0, result, buffer.length - startIndex, endIndex + 1);
+    /**
+     * Returns the items appended at or after the given sequence number, which are still in the
+     * buffer and are accepted by the filter. To read incrementally, pass the value returned by
+     * {@link #getSequence()} before the previous read.
+     *
+     * @param fromSequence the sequence number of the first item to return.
+     * @param amount       the maximum number of items to return.
+     * @param filter       the filter selecting the items, or null to select all the items.
+     *
+     * @return the items, oldest first.
+     */
+    public List<Object> getObjects(long fromSequence, int amount, Filter filter) {
+        long end = nextSequence.get();
+        long start = Math.max(Math.max(fromSequence, clearedSequence), end - buffer.length());
+        List<Object> result = new ArrayList<Object>();
+        for (long sequence = start; sequence < end && result.size() < amount; sequence++) {
+            Entry entry = buffer.get(getIndex(sequence));
+            if (entry != null && entry.sequence == sequence &&
+                    (filter == null || filter.accept(entry.value))) {
+                result.add(entry.value);
             }
         }
         return result;
     }
 
-    public synchronized void clear() {
-        for (int i = 0; i < buffer.length; i++) {
-            buffer[i] = null;
+    /**
+     * Returns the sequence number the next appended item will get, which is the total number
+     * of items appended so far.
+     *
+     * @return the next sequence number.
+     */
+    public long getSequence() {
+        return nextSequence.get();
+    }
+
+    public int getSize() {
+        return buffer.length();
+    }
+
+    public void clear() {
+        long cleared = nextSequence.get();
+        clearedSequence = cleared;
+        for (int i = 0; i < buffer.length(); i++) {
+            Entry entry = buffer.get(i);
+            // items appended after the clear are left in place.
+            if (entry != null && entry.sequence < cleared) {
+                buffer.compareAndSet(i, entry, null);
+            }
+        }
+    }
+
+    private int getIndex(long sequence) {
+        return (int) (sequence % buffer.length());
+    }
+
+    /**
+     * Selects the items returned by a read.
+     */
+    public interface Filter {
+
+        boolean accept(Object obj);
+    }
+
+    private static class Entry {
+        private final long sequence;
+        private final Object value;
+
+        private Entry(long sequence, Object value) {
+            this.sequence = sequence;
+            this.value = value;
         }
-        startIndex = 0;
-        endIndex = -1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,115 @@
+/*
+*  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.logging.appenders;
+
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, pre-allocated ring buffer of logging events, which any number of threads can add
+ * events to without locking, while a single thread takes them out. A producer claims a slot by
+ * advancing the tail sequence with a compare-and-set, and then publishes the event into the
+ * slot. The consumer takes events in sequence order, up to the first slot which has not been
+ * published yet. When the buffer is full, events are dropped and counted, rather than blocking
+ * the logging thread.
+ */
+public class LoggingEventRingBuffer {
+
+    private final AtomicReferenceArray<LoggingEvent> slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param size the requested size, which is rounded up to a power of two.
+     */
+    public LoggingEventRingBuffer(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Requested size of ring buffer (" +
+                    size + ") is invalid");
+        }
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size) {
+            capacity <<= 1;
+        }
+        slots = new AtomicReferenceArray<LoggingEvent>(capacity);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Adds an event to the buffer.
+     *
+     * @param event the event.
+     *
+     * @return true if the event was added, false if it was dropped because the buffer was full.
+     */
+    public boolean offer(LoggingEvent event) {
+        while (true) {
+            long sequence = tail.get();
+            if (sequence - head >= slots.length()) {
+                droppedCount.incrementAndGet();
+                return false;
+            }
+            if (tail.compareAndSet(sequence, sequence + 1)) {
+                slots.set((int) (sequence & mask), event);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes the next event out of the buffer. Must only be called by the consumer thread.
+     *
+     * @return the event, or null if no event is available.
+     */
+    public LoggingEvent poll() {
+        long sequence = head;
+        int index = (int) (sequence & mask);
+        LoggingEvent event = slots.get(index);
+        if (event == null) {
+            // either empty, or the producer which claimed the slot has not published it yet.
+            return null;
+        }
+        slots.lazySet(index, null);
+        head = sequence + 1;
+        return event;
+    }
+
+    /**
+     * Returns whether there are events claimed by producers, which have not been taken out.
+     *
+     * @return true if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Returns the number of events dropped so far, and resets the count.
+     *
+     * @return the number of dropped events.
+     */
+    public long takeDroppedCount() {
+        return droppedCount.getAndSet(0);
+    }
+}
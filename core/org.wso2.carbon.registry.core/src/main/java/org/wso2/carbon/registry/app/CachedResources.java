@@ -18,25 +18,41 @@
 package org.wso2.carbon.registry.app;
 
 
+import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.registry.core.Resource;
 
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * Implementation to cache resources along with an Entity Tag.
+ * Implementation to cache resources along with an Entity Tag. The cache is safe for use by
+ * multiple threads and is bounded in size, evicting the least recently used resources first.
  */
 public class CachedResources {
 
-    private Map<String, Resource> resources;
-    private Map<String, String> eTags;
+    private final Map<String, CachedResource> resources;
 
     /**
      * Default constructor which initializes cache.
      */
     public CachedResources() {
-        resources = new HashMap<String, Resource>();
-        eTags = new HashMap<String, String>();
+        this((int) RegistryConstants.MAX_REG_CLIENT_CACHE_SIZE);
+    }
+
+    /**
+     * Creates a cache which holds at most the given number of resources.
+     *
+     * @param maxSize the maximum number of resources to cache.
+     */
+    public CachedResources(final int maxSize) {
+        resources = Collections.synchronizedMap(
+                new LinkedHashMap<String, CachedResource>(16, 0.75f, true) {
+                    protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+                        return size() > maxSize;
+                    }
+                });
     }
 
     /**
@@ -47,11 +63,12 @@ public class CachedResources {
      * @return whether cached or not.
      */
     public boolean isResourceCached(String path) {
-        return !resources.isEmpty() && resources.containsKey(path);
+        return resources.containsKey(path);
     }
 
     /**
-     * Method to cache a given resource along with an Entity Tag.
+     * Method to cache a given resource along with an Entity Tag. If the cache already holds the
+     * given number of resources, the least recently used resources are evicted.
      *
      * @param path     the resource path.
      * @param resource the resource to cache.
@@ -61,12 +78,20 @@ public class CachedResources {
      * @return whether the operation succeeded or not.
      */
     public boolean cacheResource(String path, Resource resource, String eTag, long size) {
-        if (resources.get(path) != null && getSizeOfCache() <= size) {
-            resources.put(path, resource);
-            eTags.put(path, eTag);
-            return true;
+        if (resource == null || eTag == null || size <= 0) {
+            // A resource without an entity tag can never be revalidated.
+            resources.remove(path);
+            return false;
+        }
+        synchronized (resources) {
+            resources.put(path, new CachedResource(resource, eTag));
+            Iterator<String> keys = resources.keySet().iterator();
+            while (resources.size() > size && keys.hasNext()) {
+                keys.next();
+                keys.remove();
+            }
         }
-        return false;
+        return true;
     }
 
     /**
@@ -77,7 +102,26 @@ public class CachedResources {
      * @return the cached resource if it is cached or null if not.
      */
     public Resource getCachedResource(String path) {
-        return resources.get(path);
+        CachedResource cachedResource = resources.get(path);
+        return (cachedResource != null) ? cachedResource.resource : null;
+    }
+
+    /**
+     * Method to fetch a cached resource, only if it is still tagged with the given Entity Tag.
+     * This should be used when serving a resource after a conditional request, since the cached
+     * entry might have been replaced or evicted by another thread in the meantime.
+     *
+     * @param path the resource path.
+     * @param eTag the entity tag that was validated.
+     *
+     * @return the cached resource if it is cached with the given tag or null if not.
+     */
+    public Resource getCachedResource(String path, String eTag) {
+        CachedResource cachedResource = resources.get(path);
+        if (cachedResource == null || !cachedResource.eTag.equals(eTag)) {
+            return null;
+        }
+        return cachedResource.resource;
     }
 
     /**
@@ -88,7 +132,17 @@ public class CachedResources {
      * @return the Entity Tag.
      */
     public String getETag(String path) {
-        return eTags.get(path);
+        CachedResource cachedResource = resources.get(path);
+        return (cachedResource != null) ? cachedResource.eTag : null;
+    }
+
+    /**
+     * Removes the resource at the given path from the cache.
+     *
+     * @param path the resource path.
+     */
+    public void removeResource(String path) {
+        resources.remove(path);
     }
 
     /**
@@ -99,4 +153,17 @@ public class CachedResources {
     public int getSizeOfCache() {
         return resources.size();
     }
+
+    // A cached resource, along with the entity tag it was returned with. Both are kept in the same
+    // entry so that they are always read and replaced together.
+    private static class CachedResource {
+
+        private final Resource resource;
+        private final String eTag;
+
+        private CachedResource(Resource resource, String eTag) {
+            this.resource = resource;
+            this.eTag = eTag;
+        }
+    }
 }
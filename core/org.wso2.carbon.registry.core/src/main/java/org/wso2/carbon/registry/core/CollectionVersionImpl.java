@@ -153,6 +153,21 @@ public class CollectionVersionImpl extends CollectionImpl {
         }
     }
 
+    /**
+     * Method to return the paths of a page of children, which follow the given child. All the
+     * children of the snapshot are read to locate the page.
+     *
+     * @param afterPath the path of the last child of the previous page, or null to get the first
+     *                  page.
+     * @param pageLen   the number of entries to retrieve.
+     *
+     * @return an array of paths of the children following the given child.
+     * @throws RegistryException if the operation fails.
+     */
+    public String[] getChildren(String afterPath, int pageLen) throws RegistryException {
+        return getChildrenAfter(getChildren(), afterPath, pageLen);
+    }
+
     /**
      * Method to return the the number of children.
      *
@@ -128,4 +128,53 @@ public class LogEntry extends Activity {
      */
     public static final int ASSOCIATE_ASPECT =
             Activity.ASSOCIATE_ASPECT;
+
+    /**
+     * The identifier of the log entry in the database. Together with the date, this identifies
+     * the position of the entry when the logs are read a page at a time.
+     */
+    private long logId = -1;
+
+    /**
+     * Method to get the identifier of the log entry.
+     *
+     * @return the log entry identifier, or -1 if it was not read from the database.
+     */
+    public long getLogId() {
+        return logId;
+    }
+
+    /**
+     * Method to set the identifier of the log entry.
+     *
+     * @param logId the log entry identifier.
+     */
+    public void setLogId(long logId) {
+        this.logId = logId;
+    }
+
+    /**
+     * The path at which the database holding the log entry is mounted, or null if the entry is
+     * held in the database of the local repository. Log identifiers are only comparable between
+     * entries held in the same database.
+     */
+    private String sourcePath = null;
+
+    /**
+     * Method to get the path at which the database holding the log entry is mounted.
+     *
+     * @return the mount path, or null if the entry is held in the local repository.
+     */
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    /**
+     * Method to set the path at which the database holding the log entry is mounted.
+     *
+     * @param sourcePath the mount path, or null if the entry is held in the local repository.
+     */
+    public void setSourcePath(String sourcePath) {
+        this.sourcePath = sourcePath;
+    }
 }
@@ -99,6 +99,45 @@ public class LogEntryCollection {
                 dataAccessManager);
     }
 
+    /**
+     * Returns a page of log entries filtered by the provided information, which come after the
+     * given log entry. This is faster than obtaining a range by the start index when reading
+     * pages deep into a large number of entries.
+     *
+     * @param lastEntry the last entry of the previous page, or null to get the first page.
+     * @param pageLen   number of items to return.
+     *
+     * @return an array of log entries.
+     * @throws RegistryException throws if the operation fail.
+     */
+    @SuppressWarnings("unused")
+    public LogEntry[] getLogEntries(LogEntry lastEntry, int pageLen) throws RegistryException {
+        LogsDAO logsDAO = dataAccessManager.getDAOManager().getLogsDAO();
+        return logsDAO.getLogs(resourcePath,
+                action,
+                userName,
+                from,
+                to,
+                recentFirst,
+                lastEntry,
+                pageLen,
+                dataAccessManager);
+    }
+
+    /**
+     * Returns an iterator over the log entries filtered by the provided information, which reads
+     * the entries from the database a page at a time.
+     *
+     * @param pageLen number of items read at a time.
+     *
+     * @return an iterator over the log entries.
+     */
+    @SuppressWarnings("unused")
+    public LogEntryIterator getLogEntryIterator(int pageLen) {
+        return new LogEntryIterator(dataAccessManager.getDAOManager().getLogsDAO(),
+                dataAccessManager, resourcePath, action, userName, from, to, recentFirst, pageLen);
+    }
+
     /**
      * Get the data access manager associated with the log entry.
      *
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.registry.core;
+
+import org.wso2.carbon.registry.core.dao.LogsDAO;
+import org.wso2.carbon.registry.core.dataaccess.DataAccessManager;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+
+import java.util.Date;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the log entries matching a filter, reading them from the database a page at a
+ * time. Only a single page of entries is held in memory, which makes this suitable for exporting
+ * large numbers of log entries.
+ */
+public class LogEntryIterator {
+
+    private LogsDAO logsDAO;
+    private DataAccessManager dataAccessManager;
+
+    private String resourcePath;
+    private int action;
+    private String userName;
+    private Date from;
+    private Date to;
+    private boolean recentFirst;
+    private int pageLen;
+
+    private LogEntry[] page = null;
+    private int position = 0;
+    private boolean lastPage = false;
+
+    /**
+     * Creates an iterator over the log entries matching the given filter.
+     *
+     * @param logsDAO           the logs data access object.
+     * @param dataAccessManager the data access manager used to connect to the database.
+     * @param resourcePath      the resource path, or null to not filter by path.
+     * @param action            the action, or {@link LogEntry#ALL} to not filter by action.
+     * @param userName          the user name, or null to not filter by user.
+     * @param from              the starting date, or null.
+     * @param to                the ending date, or null.
+     * @param recentFirst       whether the recent entries should be returned first.
+     * @param pageLen           the number of entries read from the database at a time.
+     */
+    public LogEntryIterator(LogsDAO logsDAO, DataAccessManager dataAccessManager,
+                            String resourcePath, int action, String userName, Date from, Date to,
+                            boolean recentFirst, int pageLen) {
+        if (pageLen <= 0) {
+            throw new IllegalArgumentException("The page length should be a positive number.");
+        }
+        this.logsDAO = logsDAO;
+        this.dataAccessManager = dataAccessManager;
+        this.resourcePath = resourcePath;
+        this.action = action;
+        this.userName = userName;
+        this.from = from;
+        this.to = to;
+        this.recentFirst = recentFirst;
+        this.pageLen = pageLen;
+    }
+
+    /**
+     * Whether there are more log entries.
+     *
+     * @return true if there are more log entries.
+     * @throws RegistryException if the next page of log entries could not be read.
+     */
+    public boolean hasNext() throws RegistryException {
+        if (page != null && position < page.length) {
+            return true;
+        }
+        if (lastPage) {
+            return false;
+        }
+        LogEntry lastEntry = (page != null && page.length > 0) ? page[page.length - 1] : null;
+        page = logsDAO.getLogs(resourcePath, action, userName, from, to, recentFirst, lastEntry,
+                pageLen, dataAccessManager);
+        position = 0;
+        // the DAO returns a short page only once the unfiltered rows of every source run out, so
+        // a page shortened by leaving out entries of a mount does not end the iteration.
+        lastPage = page.length < pageLen;
+        return page.length > 0;
+    }
+
+    /**
+     * Returns the next log entry.
+     *
+     * @return the next log entry.
+     * @throws RegistryException if the next page of log entries could not be read.
+     */
+    public LogEntry next() throws RegistryException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("There are no more log entries.");
+        }
+        return page[position++];
+    }
+}
@@ -44,6 +44,43 @@ import java.util.Map;
      */
      Resource getMetaData(String path) throws RegistryException;
 
+    /**
+     * Returns the Collection at the given path, with the given range of children loaded as
+     * resources in the content. The meta data of each child is always loaded, and the flags given
+     * decide which other details are loaded along with it. The registry loads each detail for the
+     * whole page of children at once, which is much faster than getting the details of the
+     * children one by one. If the path refers to an old version of a collection, the content
+     * holds the paths of the children, as {@link #get(String, int, int)} would return.
+     *
+     * @param path     the path of the collection.  MUST point to a collection!
+     * @param start    the initial index of the child to return.
+     * @param pageSize the maximum number of results to return
+     * @param include  a combination of {@link RegistryConstants#INCLUDE_PROPERTIES}, {@link
+     *                 RegistryConstants#INCLUDE_TAGS}, {@link RegistryConstants#INCLUDE_COMMENTS}
+     *                 and {@link RegistryConstants#INCLUDE_RATINGS}. Tags, comments and ratings
+     *                 are available through {@link ResourceImpl#getTags()}, {@link
+     *                 ResourceImpl#getComments()} and {@link ResourceImpl#getAverageRating()}.
+     *
+     * @return a Collection containing the specified children, as resources, in the content
+     * @throws RegistryException if the resource is not found, or if the path does not reference a
+     *                           Collection.
+     */
+     Collection get(String path, int start, int pageSize, int include) throws RegistryException;
+
+    /**
+     * Adds or updates the given resources in a single transaction. Each resource goes through the
+     * same processing as it would in {@link #put(String, Resource)}, but the registry may process
+     * them in bulk, which makes this considerably faster than putting them one by one when there
+     * are many resources. If any of the resources fails, none of them will be stored.
+     *
+     * @param resources the resources to store, keyed by the path at which each is to be stored.
+     *                  The resources are stored in the iteration order of the map.
+     *
+     * @return the actual path of each resource, keyed by the path given for it
+     * @throws RegistryException if any of the resources could not be stored
+     */
+     Map<String, String> putAll(Map<String, Resource> resources) throws RegistryException;
+
     /**
      * Creates a resource by fetching the resource content from the given URL.
      *
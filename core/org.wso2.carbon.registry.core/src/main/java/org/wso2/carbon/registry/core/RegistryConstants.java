@@ -1148,4 +1148,24 @@ public final class RegistryConstants {
      * Defines the media type used for symlink and remote link resources.
      * */
     public static final String LINK_MEDIA_TYPE = "application/vnd.wso2-link";
+
+    /**
+     * Flag to load the properties of the children of a collection, along with the children.
+     */
+    public static final int INCLUDE_PROPERTIES = 1;
+
+    /**
+     * Flag to load the tags of the children of a collection, along with the children.
+     */
+    public static final int INCLUDE_TAGS = 2;
+
+    /**
+     * Flag to load the comments on the children of a collection, along with the children.
+     */
+    public static final int INCLUDE_COMMENTS = 4;
+
+    /**
+     * Flag to load the average ratings of the children of a collection, along with the children.
+     */
+    public static final int INCLUDE_RATINGS = 8;
 }
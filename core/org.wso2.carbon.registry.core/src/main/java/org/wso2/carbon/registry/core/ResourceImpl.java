@@ -258,6 +258,14 @@ public class ResourceImpl implements Resource {
      */
     protected String uuid;
 
+    /**
+     * The tags, comments and average rating of the resource, when these were loaded along with
+     * the resource as a child of a collection.
+     */
+    private Tag[] tags;
+    private Comment[] comments;
+    private float averageRating = -1;
+
 
     /**
      * Default constructor for the resource. Creates an empty resource.
@@ -356,6 +364,66 @@ public class ResourceImpl implements Resource {
         this.userRealm = resource.userRealm;
         this.resourceDAO = resource.resourceDAO;
         this.uuid = resource.getUUID();
+        this.tags = resource.tags;
+        this.comments = resource.comments;
+        this.averageRating = resource.averageRating;
+    }
+
+    /**
+     * Method to get the tags of the resource (with counts), which were loaded along with the
+     * resource by {@link Registry#get(String, int, int, int)}.
+     *
+     * @return the tags, or null if the tags were not loaded.
+     */
+    public Tag[] getTags() {
+        return tags;
+    }
+
+    /**
+     * Method to set the tags of the resource, which were loaded along with the resource.
+     *
+     * @param tags the tags.
+     */
+    public void setTags(Tag[] tags) {
+        this.tags = tags;
+    }
+
+    /**
+     * Method to get the comments on the resource, which were loaded along with the resource by
+     * {@link Registry#get(String, int, int, int)}.
+     *
+     * @return the comments, or null if the comments were not loaded.
+     */
+    public Comment[] getComments() {
+        return comments;
+    }
+
+    /**
+     * Method to set the comments on the resource, which were loaded along with the resource.
+     *
+     * @param comments the comments.
+     */
+    public void setComments(Comment[] comments) {
+        this.comments = comments;
+    }
+
+    /**
+     * Method to get the average rating of the resource, which was loaded along with the resource
+     * by {@link Registry#get(String, int, int, int)}.
+     *
+     * @return the average rating, or -1 if the rating was not loaded.
+     */
+    public float getAverageRating() {
+        return averageRating;
+    }
+
+    /**
+     * Method to set the average rating of the resource, which was loaded along with the resource.
+     *
+     * @param averageRating the average rating.
+     */
+    public void setAverageRating(float averageRating) {
+        this.averageRating = averageRating;
     }
 
     /**
@@ -508,6 +508,15 @@ public class CacheBackedRegistry implements Registry {
         return registry.put(suggestedPath, resource);
     }
 
+    public Map<String, String> putAll(Map<String, Resource> resources) throws RegistryException {
+        return registry.putAll(resources);
+    }
+
+    public Collection get(String path, int start, int pageSize, int include)
+            throws RegistryException {
+        return registry.get(path, start, pageSize, include);
+    }
+
     public void delete(String path) throws RegistryException {
         registry.delete(path);
     }
@@ -249,6 +249,22 @@ public class CachingHandler extends Handler {
     }
 
 
+    // Checks whether there are mounts below the given path, whose cache entries would not be
+    // cleared by clearing the path itself.
+    private boolean containsMounts(String path) {
+        for (String mountPath : dbConfigsWithMounts.keySet()) {
+            if (mountPath.startsWith(path)) {
+                return true;
+            }
+        }
+        for (String targetPath : dbConfigs.keySet()) {
+            if (targetPath.startsWith(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @SuppressWarnings("unchecked")
     public void put(RequestContext requestContext) throws RegistryException {
         // for collections, we need to ensure that paginated gets that were cached needs to be
@@ -263,6 +279,18 @@ public class CachingHandler extends Handler {
                         requestContext.getResource() instanceof Collection);
             }
         }
+        String bulkPutPath = requestContext.getBulkPutPath();
+        if (bulkPutPath != null && !containsMounts(bulkPutPath)) {
+            // the whole subtree written by a bulk put is cleared at once, instead of scanning the
+            // cache again for each resource. It is cleared when the first resource is put, and
+            // again when the last resource is put, so that entries cached by reads in between are
+            // not left stale.
+            if (requestContext.isFirstInBulkPut() || requestContext.isLastInBulkPut()) {
+                clearCache(requestContext, bulkPutPath, true);
+            }
+            super.put(requestContext);
+            return;
+        }
         clearCache(requestContext, requestContext.getResourcePath().getPath(),
                 requestContext.getResource() instanceof Collection ||
                         (requestContext.getResource() instanceof GhostResource
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.registry.core.config;
+
+/**
+ * This class contains configuration used by the writer of registry activity logs.
+ */
+public class LogWriterConfiguration {
+
+    /**
+     * Block the thread adding a log until there is space in the queue.
+     */
+    public static final String OVERFLOW_POLICY_BLOCK = "block";
+
+    /**
+     * Discard the oldest log in the queue to make space for the new log.
+     */
+    public static final String OVERFLOW_POLICY_DROP_OLDEST = "dropOldest";
+
+    /**
+     * Write the log to a local spill file, which is written to the database later.
+     */
+    public static final String OVERFLOW_POLICY_SPILL = "spill";
+
+    private static final int DEFAULT_QUEUE_SIZE = 100000;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+    private static final long DEFAULT_FLUSH_INTERVAL = 10 * 1000;
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private long flushInterval = DEFAULT_FLUSH_INTERVAL;
+    private String overflowPolicy = OVERFLOW_POLICY_BLOCK;
+    private String spillFile;
+
+    /**
+     * Method to obtain the maximum number of logs that can be queued for writing.
+     *
+     * @return the maximum number of logs that can be queued.
+     */
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * Method to set the maximum number of logs that can be queued for writing.
+     *
+     * @param queueSize the maximum number of logs that can be queued.
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    /**
+     * Method to obtain the number of logs which triggers a write to the database.
+     *
+     * @return the number of logs written to the database in a single batch.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Method to set the number of logs which triggers a write to the database.
+     *
+     * @param batchSize the number of logs written to the database in a single batch.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Method to obtain the maximum time a log would wait in the queue before being written.
+     *
+     * @return the flush interval in milliseconds.
+     */
+    public long getFlushInterval() {
+        return flushInterval;
+    }
+
+    /**
+     * Method to set the maximum time a log would wait in the queue before being written.
+     *
+     * @param flushInterval the flush interval in milliseconds.
+     */
+    public void setFlushInterval(long flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    /**
+     * Method to obtain what should happen when a log is added while the queue is full.
+     *
+     * @return one of {@link #OVERFLOW_POLICY_BLOCK}, {@link #OVERFLOW_POLICY_DROP_OLDEST} or
+     *         {@link #OVERFLOW_POLICY_SPILL}.
+     */
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * Method to set what should happen when a log is added while the queue is full.
+     *
+     * @param overflowPolicy one of {@link #OVERFLOW_POLICY_BLOCK},
+     *                       {@link #OVERFLOW_POLICY_DROP_OLDEST} or {@link #OVERFLOW_POLICY_SPILL}.
+     */
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * Method to obtain the path of the file to which logs are spilled.
+     *
+     * @return the path of the spill file, or null if the default location should be used.
+     */
+    public String getSpillFile() {
+        return spillFile;
+    }
+
+    /**
+     * Method to set the path of the file to which logs are spilled.
+     *
+     * @param spillFile the path of the spill file.
+     */
+    public void setSpillFile(String spillFile) {
+        this.spillFile = spillFile;
+    }
+}
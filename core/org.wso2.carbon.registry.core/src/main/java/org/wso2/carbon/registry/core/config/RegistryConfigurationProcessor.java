@@ -365,6 +365,7 @@ public class RegistryConfigurationProcessor {
                 String currentConfigName = currentConfigElement.getText();
                 readRemoteInstances(configElement, registryContext, secretResolver);
                 readMounts(configElement, registryContext);
+                readLogWriterConfiguration(configElement, registryContext);
                 DataBaseConfiguration dbConfiguration =
                         registryContext.selectDBConfig(currentConfigName);
                 registryContext.setDefaultDataBaseConfiguration(dbConfiguration);
@@ -729,6 +730,55 @@ public class RegistryConfigurationProcessor {
 
     }
 
+    // read the configuration of the activity log writer
+    private static void readLogWriterConfiguration(OMElement configElement,
+                                                   RegistryContext registryContext)
+            throws RegistryException {
+        OMElement logWriterElement = configElement.getFirstChildWithName(new QName("logWriter"));
+        if (logWriterElement == null) {
+            return;
+        }
+        LogWriterConfiguration logWriterConfiguration = new LogWriterConfiguration();
+        try {
+            OMElement queueSize = logWriterElement.getFirstChildWithName(new QName("queueSize"));
+            if (queueSize != null) {
+                logWriterConfiguration.setQueueSize(Integer.parseInt(queueSize.getText().trim()));
+            }
+            OMElement batchSize = logWriterElement.getFirstChildWithName(new QName("batchSize"));
+            if (batchSize != null) {
+                logWriterConfiguration.setBatchSize(Integer.parseInt(batchSize.getText().trim()));
+            }
+            OMElement flushInterval =
+                    logWriterElement.getFirstChildWithName(new QName("flushInterval"));
+            if (flushInterval != null) {
+                logWriterConfiguration.setFlushInterval(
+                        Long.parseLong(flushInterval.getText().trim()));
+            }
+        } catch (NumberFormatException e) {
+            String msg = "Invalid number in the log writer configuration. " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+        OMElement overflowPolicy =
+                logWriterElement.getFirstChildWithName(new QName("overflowPolicy"));
+        if (overflowPolicy != null) {
+            String policy = overflowPolicy.getText().trim();
+            if (!LogWriterConfiguration.OVERFLOW_POLICY_BLOCK.equals(policy) &&
+                    !LogWriterConfiguration.OVERFLOW_POLICY_DROP_OLDEST.equals(policy) &&
+                    !LogWriterConfiguration.OVERFLOW_POLICY_SPILL.equals(policy)) {
+                String msg = "Invalid log writer overflow policy: " + policy;
+                log.error(msg);
+                throw new RegistryException(msg);
+            }
+            logWriterConfiguration.setOverflowPolicy(policy);
+        }
+        OMElement spillFile = logWriterElement.getFirstChildWithName(new QName("spillFile"));
+        if (spillFile != null) {
+            logWriterConfiguration.setSpillFile(spillFile.getText().trim());
+        }
+        registryContext.setLogWriterConfiguration(logWriterConfiguration);
+    }
+
     // read mounts from configuration
     private static void readMounts(OMElement configElement,
                                    RegistryContext registryContext) throws RegistryException {
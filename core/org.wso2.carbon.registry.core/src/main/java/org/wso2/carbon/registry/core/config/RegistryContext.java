@@ -106,6 +106,7 @@ public class RegistryContext {
             RegistryConstants.GOVERNANCE_SERVICE_PATH;
     //OSGi bundle context
     private LogWriter logWriter = null;
+    private LogWriterConfiguration logWriterConfiguration = new LogWriterConfiguration();
     private boolean enableCache = false;
 
     private List<String> systemResourcePaths = new ArrayList<String>();
@@ -500,6 +501,7 @@ public class RegistryContext {
             this.queryProcessors = baseContext.queryProcessors;
             this.servicePath = baseContext.servicePath;
             this.logWriter = baseContext.logWriter;
+            this.logWriterConfiguration = baseContext.logWriterConfiguration;
             this.systemResourcePaths = baseContext.systemResourcePaths;
             this.noCachePaths = baseContext.noCachePaths;
         }
@@ -1040,12 +1042,30 @@ public class RegistryContext {
      */
     public LogWriter getLogWriter() {
         if (logWriter == null) {
-            logWriter = new LogWriter(new LogQueue(), dataAccessManager);
+            logWriter = new LogWriter(new LogQueue(logWriterConfiguration.getQueueSize()),
+                    dataAccessManager, logWriterConfiguration);
             logWriter.start();
         }
         return logWriter;
     }
 
+    /**
+     * Method to obtain the configuration of the log writer.
+     * @return the log writer configuration.
+     */
+    public LogWriterConfiguration getLogWriterConfiguration() {
+        return logWriterConfiguration;
+    }
+
+    /**
+     * Method to set the configuration of the log writer. This has no effect once the log writer
+     * has been created.
+     * @param logWriterConfiguration the log writer configuration.
+     */
+    public void setLogWriterConfiguration(LogWriterConfiguration logWriterConfiguration) {
+        this.logWriterConfiguration = logWriterConfiguration;
+    }
+
     /**
      * Method to set the logWriter instance.
      * @param logWriter the logWriter instance.
@@ -22,6 +22,9 @@ import org.wso2.carbon.registry.core.ResourceImpl;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.dataobjects.CommentDO;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Data Access Object for Comments
  */
@@ -111,6 +114,17 @@ public interface CommentsDAO {
      */
     Comment[] getComments(ResourceImpl resource) throws RegistryException;
 
+    /**
+     * Method to get comments added to each of the given resources. This takes only a few queries,
+     * however many resources there are.
+     *
+     * @param resources the resources.
+     *
+     * @return the comments of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurs while getting comments.
+     */
+    Map<String, Comment[]> getComments(List<ResourceImpl> resources) throws RegistryException;
+
     /**
      * Gets the resource with sufficient data to differentiate it from another resource. This would
      * populate a {@link ResourceImpl} with the <b>path</b>, <b>name</b> and <b>path identifier</b>
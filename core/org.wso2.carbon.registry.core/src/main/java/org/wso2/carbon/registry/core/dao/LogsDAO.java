@@ -107,6 +107,38 @@ public interface LogsDAO {
                               DataAccessManager dataAccessManager)
             throws RegistryException;
 
+    /**
+     * Method to get a page of log entries positioned after a given log entry. The entries are
+     * ordered by the logged time and then by the log identifier, which allows the next page to be
+     * located using an index rather than by skipping over all the preceding entries. Fewer than
+     * pageLen entries are returned only when there are no more entries after the returned ones,
+     * even if some of the rows read were left out of the page.
+     *
+     * @param resourcePath        the resource path.
+     * @param action              the action in concern.
+     * @param userName            the name of the user who we want to get logs for.
+     * @param from                the starting date.
+     * @param to                  the ending date.
+     * @param descending          whether descending or ascending.
+     * @param lastEntry           the last entry of the previous page, or null to get the first
+     *                            page.
+     * @param pageLen             the maximum number of entries returned.
+     * @param dataAccessManager   the data access manager used to connect to the database.
+     *
+     * @return an array of log entries.
+     * @throws RegistryException if an error occurred while obtaining logs.
+     */
+    LogEntry[] getLogs(String resourcePath,
+                              int action,
+                              String userName,
+                              Date from,
+                              Date to,
+                              boolean descending,
+                              LogEntry lastEntry,
+                              int pageLen,
+                              DataAccessManager dataAccessManager)
+            throws RegistryException;
+
     /**
      * Method to get the number of log entries available
      *
@@ -127,4 +159,26 @@ public interface LogsDAO {
                             Date to,
                             boolean descending)
             throws RegistryException;
+
+    /**
+     * Method to get the number of log entries available, which may be served from a cache of
+     * recently computed counts. The returned count could therefore be slightly out of date, and
+     * should only be used where an approximate value is sufficient, such as when displaying the
+     * number of pages.
+     *
+     * @param resourcePath the resource path.
+     * @param action       the action in concern.
+     * @param userName     the name of the user who we want to get logs for.
+     * @param from         the starting date.
+     * @param to           the ending date.
+     *
+     * @return the approximate number of logs.
+     * @throws RegistryException if an error occurred.
+     */
+    int getApproximateLogsCount(String resourcePath,
+                            int action,
+                            String userName,
+                            Date from,
+                            Date to)
+            throws RegistryException;
 }
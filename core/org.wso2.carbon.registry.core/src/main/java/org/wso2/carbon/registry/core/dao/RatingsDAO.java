@@ -21,6 +21,9 @@ import org.wso2.carbon.registry.core.ResourceImpl;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.dataobjects.RatingDO;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Data Access Object for Ratings
  */
@@ -93,6 +96,17 @@ public interface RatingsDAO {
      */
     float getAverageRating(ResourceImpl resourceImpl) throws RegistryException;
 
+    /**
+     * Method to get the average rating added to each of the given resources. This takes only a
+     * few queries, however many resources there are.
+     *
+     * @param resources the resources.
+     *
+     * @return the average rating of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurs while getting the average ratings.
+     */
+    Map<String, Float> getAverageRatings(List<ResourceImpl> resources) throws RegistryException;
+
     /**
      * Method to get a rating added by the given user to the given resource.
      *
@@ -190,6 +190,17 @@ public interface ResourceDAO {
     void fillResourcePropertiesWithNoUpdate(ResourceImpl resourceImpl)
             throws RegistryException;
 
+    /**
+     * Fill the properties for a number of resources at once, without making the properties
+     * modified flag. This takes only a few queries, however many resources there are.
+     *
+     * @param resources the resource objects.
+     *
+     * @throws RegistryException throws if the operation failed.
+     */
+    void fillResourcePropertiesWithNoUpdate(List<ResourceImpl> resources)
+            throws RegistryException;
+
 
     /**
      * Fill the properties for a resource, this will change the properties modified flag.
@@ -250,6 +261,20 @@ public interface ResourceDAO {
                                            boolean isCollection)
             throws RegistryException;
 
+    /**
+     * Create the path ids of a chain of collections at once, given the resource id of the parent
+     * of the first collection. Each path in the list must be the parent of the path which follows
+     * it. Once this returns, {@link #createResourceID} can obtain the ids of these collections
+     * without adding them one by one.
+     *
+     * @param paths    the paths of the collections, starting from the top-most collection
+     * @param parentID parent resource id of the first collection
+     *
+     * @throws RegistryException throws if operation failed.
+     */
+    void createCollectionIDs(List<String> paths, ResourceIDImpl parentID)
+            throws RegistryException;
+
     /**
      * delete the content for a given content id.
      *
@@ -269,6 +294,18 @@ public interface ResourceDAO {
      */
     InputStream getContentStream(int contentID) throws RegistryException;
 
+    /**
+     * Opens a stream that reads the content of a given content id directly from the database,
+     * without first copying the whole content into memory. The stream holds the database
+     * statement open until it is closed, so it has to be closed before the transaction ends.
+     *
+     * @param contentID the content id as an argument.
+     *
+     * @return the content input stream, or null if there is no content.
+     * @throws RegistryException throws if the operation failed.
+     */
+    InputStream openContentStream(int contentID) throws RegistryException;
+
     /**
      * Save the updates of a given resource.
      *
@@ -345,6 +382,25 @@ public interface ResourceDAO {
     String[] getChildren(CollectionImpl collection, int start, int pageLen)
             throws RegistryException;
 
+    /**
+     * Get a page of children of the collection, which follow the given child. Child resources are
+     * returned ordered by name, followed by child collections ordered by path. Unlike the offset
+     * based variants, the page is located using the database indexes, without reading any of the
+     * preceding children.
+     *
+     * @param collection        the collection of which the children are retrieved.
+     * @param afterPath         the path of the last child of the previous page, or null to get
+     *                          the first page.
+     * @param pageLen           the number of children to retrieve, or -1 to get all the rest.
+     * @param dataAccessManager the data access manager to access the database
+     *
+     * @return an array of children paths
+     * @throws RegistryException throws if the operation failed.
+     */
+    String[] getChildren(CollectionImpl collection, String afterPath, int pageLen,
+                         DataAccessManager dataAccessManager)
+            throws RegistryException;
+
     /**
      * Method to return the resource meta data (excluding properties, content and children)
      *
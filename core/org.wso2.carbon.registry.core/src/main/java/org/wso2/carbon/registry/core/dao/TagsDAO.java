@@ -23,6 +23,7 @@ import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.dataobjects.TaggingDO;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Tags
@@ -172,6 +173,17 @@ public interface TagsDAO {
      */
     Tag[] getTagsWithCount(ResourceImpl resourceImpl) throws RegistryException;
 
+    /**
+     * Method to get tags added to each of the given resources, along with the count. This takes
+     * only a few queries, however many resources there are.
+     *
+     * @param resources the resources.
+     *
+     * @return the tags (with counts) of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurred while getting tags.
+     */
+    Map<String, Tag[]> getTagsWithCount(List<ResourceImpl> resources) throws RegistryException;
+
     /**
      * Method to get a tagging added to a given resource by the given user.
      *
@@ -247,6 +247,11 @@ public class GhostRegistry implements Registry{
         return getRegistry().get(path, start, pageSize);
     }
 
+    public Collection get(String path, int start, int pageSize, int include)
+            throws RegistryException {
+        return getRegistry().get(path, start, pageSize, include);
+    }
+
     public boolean resourceExists(String path) throws RegistryException {
         return getRegistry().resourceExists(path);
     }
@@ -260,6 +265,11 @@ public class GhostRegistry implements Registry{
         return getRegistry().put(suggestedPath, resource);
     }
 
+    @Override
+    public Map<String, String> putAll(Map<String, Resource> resources) throws RegistryException {
+        return getRegistry().putAll(resources);
+    }
+
     @Override
     public String put(String suggestedPath, org.wso2.carbon.registry.api.Resource resource) 
             throws org.wso2.carbon.registry.api.RegistryException {
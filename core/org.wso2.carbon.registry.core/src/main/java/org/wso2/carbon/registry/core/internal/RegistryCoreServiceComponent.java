@@ -34,7 +34,6 @@ import org.wso2.carbon.registry.core.Resource;
 import org.wso2.carbon.registry.core.caching.CachingHandler;
 import org.wso2.carbon.registry.core.config.Mount;
 import org.wso2.carbon.registry.core.config.RegistryContext;
-import org.wso2.carbon.registry.core.dao.LogsDAO;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.EmbeddedRegistryService;
 import org.wso2.carbon.registry.core.jdbc.handlers.Handler;
@@ -51,6 +50,7 @@ import org.wso2.carbon.registry.core.service.SimulationService;
 import org.wso2.carbon.registry.core.service.TenantRegistryLoader;
 import org.wso2.carbon.registry.core.session.CurrentSession;
 import org.wso2.carbon.registry.core.session.UserRegistry;
+import org.wso2.carbon.registry.core.statistics.RegistryStatistics;
 import org.wso2.carbon.registry.core.statistics.StatisticsCollector;
 import org.wso2.carbon.registry.core.utils.*;
 import org.wso2.carbon.user.core.listener.AuthorizationManagerListener;
@@ -89,6 +89,9 @@ public class RegistryCoreServiceComponent {
 
     private static final Log log = LogFactory.getLog(RegistryCoreServiceComponent.class);
 
+    // the time to wait for the log writer to write the logs it holds, when shutting down.
+    private static final long LOG_WRITER_SHUTDOWN_TIMEOUT = 30000;
+
     private static BundleContext bundleContext;
 
     private static Stack<ServiceRegistration> registrations = new Stack<ServiceRegistration>();
@@ -115,6 +118,7 @@ public class RegistryCoreServiceComponent {
         try {
             bundleContext = context.getBundleContext();
             registryService = buildRegistryService();
+            RegistryStatistics.registerMBean();
 
             log.debug("Completed initializing the Registry Kernel");
             registrations.push(bundleContext.registerService(new String[]{RegistryService.class.getName(),
@@ -152,34 +156,19 @@ public class RegistryCoreServiceComponent {
                     new WaitBeforeShutdownObserver() {
                         public void startingShutdown() {
                             LogWriter logWriter = registryContext.getLogWriter();
-                            LogQueue logQueue = logWriter.getLogQueue();
-                            // if the log queue has work, interrupt the thread, and cause the log writer to flush the
-                            // queue into the database.
-                            logWriter.setCanWriteLogs(false);
-                            if (logQueue.size() > 0) {
+                            // stop accepting logs, wait for the writer thread to write the logs
+                            // it holds, and flush the queue and any spilled logs into the
+                            // database.
+                            if (logWriter.getQueueDepth() > 0) {
                                 log.info("Writing logs ");
-                                int queueLength = logQueue.size();
-                                LogRecord[] logRecords = new LogRecord[queueLength];
-                                for (int a = 0; a < queueLength; a++) {
-                                    LogRecord logRecord = (LogRecord) logQueue.poll();
-                                    logRecords[a] = logRecord;
-                                }
-                                LogsDAO logsDAO = registryContext.getDataAccessManager().getDAOManager().getLogsDAO();
-                                try {
-                                    logsDAO.saveLogBatch(logRecords);
-                                } catch (RegistryException e) {
-                                    log.error("Unable to save log records", e);
-                                }
                             }
+                            logWriter.shutdown(LOG_WRITER_SHUTDOWN_TIMEOUT);
                         }
 
                         public boolean isTaskComplete() {
                             LogWriter logWriter = registryContext.getLogWriter();
-                            LogQueue logQueue = logWriter.getLogQueue();
-                            // if the log queue has work, interrupt the thread, and cause the log writer to flush the
-                            // queue into the database.
-                            if (logQueue.size() > 0) {
-                                logWriter.interrupt();
+                            if (logWriter.isAlive() || logWriter.getQueueDepth() > 0) {
+                                logWriter.shutdown(LOG_WRITER_SHUTDOWN_TIMEOUT);
                                 return false;
                             }
                             return true;
@@ -198,6 +187,7 @@ public class RegistryCoreServiceComponent {
         while (!registrations.empty()) {
             registrations.pop().unregister();
         }
+        RegistryStatistics.unregisterMBean();
         registryService = null;
         bundleContext = null;
         log.debug("Registry Core bundle is deactivated ");
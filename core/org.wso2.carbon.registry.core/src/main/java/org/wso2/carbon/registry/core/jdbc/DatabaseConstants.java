@@ -175,6 +175,10 @@ public class DatabaseConstants {
 	// Field names of Logs table
 	// //////////////////////////////////////////////////////
 
+	/**
+	 * Represents the log id field.
+	 */
+	public static final String LOG_ID_FIELD = "REG_LOG_ID";
 	/**
 	 * Represents the logged time field.
 	 */
@@ -53,6 +53,7 @@ import org.wso2.carbon.registry.core.jdbc.utils.DumpReader;
 import org.wso2.carbon.registry.core.secure.AuthorizationFailedException;
 import org.wso2.carbon.registry.core.session.CurrentSession;
 import org.wso2.carbon.registry.core.session.UserRegistry;
+import org.wso2.carbon.registry.core.statistics.RegistryStatistics;
 import org.wso2.carbon.registry.core.statistics.query.DBQueryStatisticsLog;
 import org.wso2.carbon.registry.core.statistics.query.StatisticsRecord;
 import org.wso2.carbon.registry.core.utils.AuthorizationUtils;
@@ -219,7 +220,7 @@ public class EmbeddedRegistry implements Registry {
     // initializing the registry, filling repository, versionRepository + initializing handlers
     // (This contains the code that used to be in EmbeddedRegistry constructor
     private void init() throws RegistryException {
-        beginDBQueryLog(2);
+        beginDBQueryLog("init");
         if (log.isTraceEnabled()) {
             log.trace("Initialing main registry");
         }
@@ -271,78 +272,82 @@ public class EmbeddedRegistry implements Registry {
         if (log.isTraceEnabled()) {
             log.trace("Main registry initialized successfully.");
         }
-        endDBQueryLog(2);
+        endDBQueryLog("init", true);
     }
 
-    // Starts logging database query statistics.
-    private void beginDBQueryLog(int level) {
-        if (dbQueryLog.isDebugEnabled()) {
-            StackTraceElement traceElement = Thread.currentThread().getStackTrace()[level];
-            String methodName = traceElement.getMethodName();
-            if (!statEnabledOperations.isEmpty() && statEnabledOperations.contains(methodName)) {
-                if (traceElement.getClassName().equals(this.getClass().getCanonicalName())) {
-                    StatisticsRecord statisticsRecord = DBQueryStatisticsLog.getStatisticsRecord();
-                    if (statisticsRecord.increment() == 0) {
-                        DBQueryStatisticsLog.clearStatisticsRecord();
-                        statisticsRecord = DBQueryStatisticsLog.getStatisticsRecord();
-                        statisticsRecord.increment();
-                        statisticsRecord.setOperation(methodName);
-                    }
+    // Starts collecting statistics for a registry operation. The operation is named explicitly
+    // by the caller, so that this is cheap enough to be enabled in production. Whether statistics
+    // are collected is decided once, when the outermost operation begins, so that the nested
+    // depth stays balanced even if the log level changes while the operation is in progress.
+    private void beginDBQueryLog(String operation) {
+        StatisticsRecord statisticsRecord = DBQueryStatisticsLog.getStatisticsRecord();
+        if (statisticsRecord.getDepth() > 0) {
+            statisticsRecord.increment();
+        } else if (isStatisticsEnabled(operation)) {
+            statisticsRecord.increment();
+            statisticsRecord.clear();
+            statisticsRecord.setOperation(operation);
+            statisticsRecord.setStartTime(System.nanoTime());
+        }
+    }
+
+    // Finishes collecting statistics for a registry operation.
+    private void endDBQueryLog(String operation, boolean succeeded) {
+        StatisticsRecord statisticsRecord = DBQueryStatisticsLog.getStatisticsRecord();
+        if (statisticsRecord.getDepth() > 0) {
+            if (statisticsRecord.decrement() == 0) {
+                if (RegistryStatistics.isEnabled()) {
+                    RegistryStatistics.recordOperation(statisticsRecord.getOperation(),
+                            System.nanoTime() - statisticsRecord.getStartTime(), succeeded);
+                }
+                if (dbQueryLog.isDebugEnabled() &&
+                        statEnabledOperations.contains(statisticsRecord.getOperation())) {
+                    logDBQueryStatistics(new StatisticsRecord(statisticsRecord));
                 }
             }
         }
     }
 
-    // Finishes logging database query statistics.
-    private void endDBQueryLog(int level) {
-        if (dbQueryLog.isDebugEnabled()) {
-            StackTraceElement traceElement = Thread.currentThread().getStackTrace()[level];
-            String methodName = traceElement.getMethodName();
-            if (!statEnabledOperations.isEmpty() && statEnabledOperations.contains(methodName)) {
-                if (traceElement.getClassName().equals(this.getClass().getCanonicalName())) {
-                    StatisticsRecord statisticsRecord = DBQueryStatisticsLog.getStatisticsRecord();
-                    if (statisticsRecord.decrement() == 0) {
-                        final StatisticsRecord clone = new StatisticsRecord(statisticsRecord);
-                        Runnable runnable = new Runnable() {
-                            public void run() {
-                                if (clone.getTableRecords().length > 0) {
-                                    dbQueryLog.debug("");
-                                    dbQueryLog.debug(
-                                            "---------------------------------------------------");
-                                    dbQueryLog.debug("Registry Operation: " +
-                                            clone.getOperation());
-                                    dbQueryLog.debug("");
-                                    for (String record : clone.getTableRecords()) {
-                                        dbQueryLog.debug("Tables Accessed: " + record);
-                                    }
-                                    if (Boolean.toString(true).equals(
-                                            System.getProperty(
-                                                    "carbon.registry.statistics.output." +
-                                                            "queries.executed"))) {
-                                        dbQueryLog.debug("");
-                                        StringBuffer sb = new StringBuffer();
-                                        for (String query : clone.getQueries()) {
-                                            sb.append("\n").append(query);
-                                        }
-                                        dbQueryLog.debug("Queries Executed:" + sb.toString());
-                                    }
-                                    dbQueryLog.debug(
-                                            "---------------------------------------------------");
-                                    dbQueryLog.debug("");
-                                }
-                            }
-                        };
-                        if (executor != null) {
-                            executor.submit(runnable);
-                        } else {
-                            initializeStatisticsLogging();
-                            executor.submit(runnable);
+    private boolean isStatisticsEnabled(String operation) {
+        return RegistryStatistics.isEnabled() || (dbQueryLog.isDebugEnabled() &&
+                statEnabledOperations.contains(operation));
+    }
+
+    // Logs the tables accessed by a registry operation.
+    private void logDBQueryStatistics(final StatisticsRecord record) {
+        Runnable runnable = new Runnable() {
+            public void run() {
+                if (record.getTableRecords().length > 0) {
+                    dbQueryLog.debug("");
+                    dbQueryLog.debug(
+                            "---------------------------------------------------");
+                    dbQueryLog.debug("Registry Operation: " +
+                            record.getOperation());
+                    dbQueryLog.debug("");
+                    for (String tableRecord : record.getTableRecords()) {
+                        dbQueryLog.debug("Tables Accessed: " + tableRecord);
+                    }
+                    if (Boolean.toString(true).equals(
+                            System.getProperty(
+                                    "carbon.registry.statistics.output." +
+                                            "queries.executed"))) {
+                        dbQueryLog.debug("");
+                        StringBuffer sb = new StringBuffer();
+                        for (String query : record.getQueries()) {
+                            sb.append("\n").append(query);
                         }
-                        DBQueryStatisticsLog.clearStatisticsRecord();
+                        dbQueryLog.debug("Queries Executed:" + sb.toString());
                     }
+                    dbQueryLog.debug(
+                            "---------------------------------------------------");
+                    dbQueryLog.debug("");
                 }
             }
+        };
+        if (executor == null) {
+            initializeStatisticsLogging();
         }
+        executor.submit(runnable);
     }
 
     // TODO: Add this back once this is in a working state.
@@ -439,22 +444,45 @@ public class EmbeddedRegistry implements Registry {
 
 
     public void beginTransaction() throws RegistryException {
-        beginDBQueryLog(3);
         dataAccessManager.getTransactionManager().beginTransaction();
     }
 
     public void rollbackTransaction() throws RegistryException {
         dataAccessManager.getTransactionManager().rollbackTransaction();
-        endDBQueryLog(3);
     }
 
     public void commitTransaction() throws RegistryException {
         dataAccessManager.getTransactionManager().commitTransaction();
-        endDBQueryLog(3);
+    }
+
+    // Begins a transaction on behalf of the given registry operation.
+    private void beginTransaction(String operation) throws RegistryException {
+        beginDBQueryLog(operation);
+        beginTransaction();
+    }
+
+    // Rolls back a transaction started on behalf of the given registry operation.
+    private void rollbackTransaction(String operation) throws RegistryException {
+        try {
+            rollbackTransaction();
+        } finally {
+            endDBQueryLog(operation, false);
+        }
+    }
+
+    // Commits a transaction started on behalf of the given registry operation.
+    private void commitTransaction(String operation) throws RegistryException {
+        boolean committed = false;
+        try {
+            commitTransaction();
+            committed = true;
+        } finally {
+            endDBQueryLog(operation, committed);
+        }
     }
 
     public RegistryContext getRegistryContext() {
-        beginDBQueryLog(2);
+        beginDBQueryLog("getRegistryContext");
         RequestContext context = new RequestContext(this, repository, versionRepository);
         // We need to set the path of the registry that is making the request for the registry
         // context so that the handler manager can figure out which handler to invoke. In here,
@@ -468,7 +496,7 @@ public class EmbeddedRegistry implements Registry {
         context.setResourcePath(new ResourcePath(chroot));
         RegistryContext output =
                 registryContext.getHandlerManager().getRegistryContext(context);
-        endDBQueryLog(2);
+        endDBQueryLog("getRegistryContext", true);
         if (output != null) {
             return output;
         }
@@ -476,24 +504,24 @@ public class EmbeddedRegistry implements Registry {
     }
 
     public Resource newResource() throws RegistryException {
-        beginDBQueryLog(2);
+        beginDBQueryLog("newResource");
         try {
             ResourceImpl resource = new ResourceImpl();
             resource.setAuthorUserName(CurrentSession.getUser());
             return resource;
         } finally {
-            endDBQueryLog(2);
+            endDBQueryLog("newResource", true);
         }
     }
 
     public Collection newCollection() throws RegistryException {
-        beginDBQueryLog(2);
+        beginDBQueryLog("newCollection");
         try {
             CollectionImpl coll = new CollectionImpl();
             coll.setAuthorUserName(CurrentSession.getUser());
             return coll;
         } finally {
-            endDBQueryLog(2);
+            endDBQueryLog("newCollection", true);
         }
     }
 
@@ -502,7 +530,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("get");
 
             ResourcePath resourcePath = new ResourcePath(path);
 
@@ -543,13 +571,13 @@ public class EmbeddedRegistry implements Registry {
             return resource;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("get");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).get(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("get");
                 }
             }
         }
@@ -559,7 +587,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // starting the transactional operation wrapper
-            beginTransaction();
+            beginTransaction("getMetaData");
 
             ResourcePath resourcePath = new ResourcePath(path);
             Resource resource;
@@ -581,9 +609,9 @@ public class EmbeddedRegistry implements Registry {
             return resource;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getMetaData");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("getMetaData");
             }
         }
     }
@@ -598,7 +626,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // starting the transactional operation wrapper
-            beginTransaction();
+            beginTransaction("get");
 
             Collection collection;
 
@@ -616,9 +644,39 @@ public class EmbeddedRegistry implements Registry {
             return collection;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("get");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("get");
+            }
+        }
+    }
+
+    public Collection get(String path, int start, int pageSize, int include)
+            throws RegistryException {
+        boolean transactionSucceeded = false;
+        try {
+            // starting the transactional operation wrapper
+            beginTransaction("get");
+
+            Collection collection;
+
+            ResourcePath resourcePath = new ResourcePath(path);
+            VersionedPath versionedPath = RegistryUtils.getVersionedPath(resourcePath);
+            if (versionedPath.getVersion() == -1) {
+                collection = repository.get(resourcePath.getPath(), start, pageSize, include);
+            } else {
+                collection = versionRepository.get(versionedPath, start, pageSize);
+            }
+
+            // transaction successfully finished
+            transactionSucceeded = true;
+
+            return collection;
+        } finally {
+            if (transactionSucceeded) {
+                commitTransaction("get");
+            } else {
+                rollbackTransaction("get");
             }
         }
     }
@@ -628,7 +686,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("resourceExists");
 
             // starting the transactional operation wrapper
             ResourcePath resourcePath = new ResourcePath(path);
@@ -655,13 +713,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("resourceExists");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).resourceExists(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("resourceExists");
                 }
             }
         }
@@ -676,74 +734,143 @@ public class EmbeddedRegistry implements Registry {
 
         boolean transactionSucceeded = false;
         RequestContext context = new RequestContext(this, repository, versionRepository);
-        boolean mustPutChild = false;
         try {
             // start the transaction
-            beginTransaction();
-
-            ResourcePath resourcePath = new ResourcePath(suggestedPath);
+            beginTransaction("put");
 
-            context.setResourcePath(resourcePath);
-            context.setResource(resource);
-            if (repository.resourceExists(suggestedPath)) {
-                context.setOldResource(repository.get(suggestedPath));
+            String actualPath = put(context, suggestedPath, resource);
+            transactionSucceeded = true;
+            return actualPath;
+        } finally {
+            if (transactionSucceeded) {
+                commitTransaction("put");
+            } else {
+                try {
+                    rollbackPut(context);
+                } finally {
+                    rollbackTransaction("put");
+                }
             }
+        }
+    }
+
+    public Map<String, String> putAll(Map<String, Resource> resources) throws RegistryException {
+
+        boolean transactionSucceeded = false;
+        Map<String, String> actualPaths = new LinkedHashMap<String, String>();
+        List<RequestContext> contexts = new LinkedList<RequestContext>();
+        String bulkPutPath = getCommonPath(resources.keySet());
+        try {
+            // start the transaction
+            beginTransaction("putAll");
 
-            if (!RegistryConstants.ROOT_PATH.equals(resourcePath.getPath())) {
-                mustPutChild = true;
-                registryContext.getHandlerManager().putChild(context);
+            for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                RequestContext context = new RequestContext(this, repository, versionRepository);
+                context.setBulkPutPath(bulkPutPath);
+                context.setFirstInBulkPut(contexts.isEmpty());
+                contexts.add(context);
+                context.setLastInBulkPut(contexts.size() == resources.size());
+                actualPaths.put(entry.getKey(), put(context, entry.getKey(), entry.getValue()));
             }
+            transactionSucceeded = true;
+            return actualPaths;
+        } finally {
+            if (transactionSucceeded) {
+                commitTransaction("putAll");
+            } else {
+                try {
+                    for (RequestContext context : contexts) {
+                        rollbackPut(context);
+                    }
+                } finally {
+                    rollbackTransaction("putAll");
+                }
+            }
+        }
+    }
 
-            registryContext.getHandlerManager().put(context);
+    // Puts a resource within the current transaction, and returns its actual path.
+    private String put(RequestContext context, String suggestedPath, Resource resource)
+            throws RegistryException {
+        ResourcePath resourcePath = new ResourcePath(suggestedPath);
 
-            if (!context.isSimulation()) {
-                String actualPath = context.getActualPath();
+        context.setResourcePath(resourcePath);
+        context.setResource(resource);
+        if (repository.resourceExists(suggestedPath)) {
+            context.setOldResource(repository.get(suggestedPath));
+        }
 
-                if (!context.isProcessingComplete()) {
-                    ((ResourceImpl) resource).prepareContentForPut();
+        boolean mustPutChild = !RegistryConstants.ROOT_PATH.equals(resourcePath.getPath());
+        if (mustPutChild) {
+            registryContext.getHandlerManager().putChild(context);
+        }
 
-                    actualPath = suggestedPath;
-                    try {
-                        CurrentSession.setAttribute(Repository.IS_LOGGING_ACTIVITY,
-                                context.isLoggingActivity());
-                        repository.put(suggestedPath, resource);
-                    } finally {
-                        CurrentSession.removeAttribute(Repository.IS_LOGGING_ACTIVITY);
-                    }
-                }
+        registryContext.getHandlerManager().put(context);
 
-                if (mustPutChild) {
-                    registryContext.getHandlerManager(
-                            HandlerLifecycleManager.COMMIT_HANDLER_PHASE).putChild(context);
+        if (!context.isSimulation()) {
+            String actualPath = context.getActualPath();
+
+            if (!context.isProcessingComplete()) {
+                ((ResourceImpl) resource).prepareContentForPut();
+
+                actualPath = suggestedPath;
+                try {
+                    CurrentSession.setAttribute(Repository.IS_LOGGING_ACTIVITY,
+                            context.isLoggingActivity());
+                    repository.put(suggestedPath, resource);
+                } finally {
+                    CurrentSession.removeAttribute(Repository.IS_LOGGING_ACTIVITY);
                 }
+            }
+
+            if (mustPutChild) {
                 registryContext.getHandlerManager(
-                        HandlerLifecycleManager.COMMIT_HANDLER_PHASE).put(context);
-                transactionSucceeded = true;
+                        HandlerLifecycleManager.COMMIT_HANDLER_PHASE).putChild(context);
+            }
+            registryContext.getHandlerManager(
+                    HandlerLifecycleManager.COMMIT_HANDLER_PHASE).put(context);
 
-                if (actualPath == null) {
-                    return suggestedPath;
-                } else {
-                    return actualPath;
-                }
-            } else {
+            if (actualPath == null) {
                 return suggestedPath;
-            }
-        } finally {
-            if (transactionSucceeded) {
-                commitTransaction();
             } else {
-                try {
-                    if (mustPutChild) {
-                        registryContext.getHandlerManager(
-                                HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).putChild(context);
-                    }
-                    registryContext.getHandlerManager(
-                            HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).put(context);
-                } finally {
-                    rollbackTransaction();
-                }
+                return actualPath;
+            }
+        } else {
+            return suggestedPath;
+        }
+    }
+
+    // Invokes the rollback handlers of a put which did not succeed.
+    private void rollbackPut(RequestContext context) throws RegistryException {
+        ResourcePath resourcePath = context.getResourcePath();
+        if (resourcePath == null) {
+            // the put failed before reaching any handler.
+            return;
+        }
+        if (!RegistryConstants.ROOT_PATH.equals(resourcePath.getPath())) {
+            registryContext.getHandlerManager(
+                    HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).putChild(context);
+        }
+        registryContext.getHandlerManager(
+                HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).put(context);
+    }
+
+    // Returns the deepest path which contains all of the given paths.
+    private static String getCommonPath(Set<String> paths) {
+        String commonPath = null;
+        for (String path : paths) {
+            String resourcePath = new ResourcePath(path).getPath();
+            if (commonPath == null) {
+                commonPath = resourcePath;
+                continue;
+            }
+            while (!commonPath.equals(RegistryConstants.ROOT_PATH) &&
+                    !resourcePath.equals(commonPath) &&
+                    !resourcePath.startsWith(commonPath + RegistryConstants.PATH_SEPARATOR)) {
+                commonPath = RegistryUtils.getParentPath(commonPath);
             }
         }
+        return commonPath;
     }
 
     public String importResource(String suggestedPath, String sourceURL, Resource metaResource)
@@ -754,7 +881,7 @@ public class EmbeddedRegistry implements Registry {
                 new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("importResource");
 
             ResourcePath resourcePath = new ResourcePath(suggestedPath);
 
@@ -814,7 +941,7 @@ public class EmbeddedRegistry implements Registry {
             return suggestedPath;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("importResource");
             } else {
                 try {
                     registryContext.getHandlerManager(
@@ -823,7 +950,7 @@ public class EmbeddedRegistry implements Registry {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).importResource(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("importResource");
                 }
             }
         }
@@ -834,7 +961,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("delete");
 
             ResourcePath resourcePath = new ResourcePath(path);
             context.setRegistryContext(registryContext);
@@ -859,13 +986,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("delete");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).delete(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("delete");
                 }
             }
         }
@@ -877,7 +1004,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("rename");
 
             ResourcePath resourcePath = new ResourcePath(currentPath);
             context.setRegistryContext(registryContext);
@@ -907,13 +1034,13 @@ public class EmbeddedRegistry implements Registry {
             return newPath;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("rename");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).rename(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("rename");
                 }
             }
         }
@@ -924,7 +1051,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("move");
 
             ResourcePath currentResourcePath = new ResourcePath(currentPath);
             context.setSourcePath(currentPath);
@@ -954,13 +1081,13 @@ public class EmbeddedRegistry implements Registry {
             return movedPath;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("move");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).move(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("move");
                 }
             }
         }
@@ -971,7 +1098,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("copy");
 
             ResourcePath sourceResourcePath = new ResourcePath(sourcePath);
             ResourcePath targetResourcePath = new ResourcePath(targetPath);
@@ -1001,13 +1128,13 @@ public class EmbeddedRegistry implements Registry {
             return copiedPath;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("copy");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).copy(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("copy");
                 }
             }
         }
@@ -1018,7 +1145,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("createVersion");
 
             ResourcePath resourcePath = new ResourcePath(path);
 
@@ -1035,13 +1162,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("createVersion");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).createVersion(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("createVersion");
                 }
             }
         }
@@ -1052,7 +1179,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getVersions");
 
             context.setResourcePath(new ResourcePath(path));
             String[] output = registryContext.getHandlerManager().getVersions(context);
@@ -1068,13 +1195,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getVersions");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getVersions(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getVersions");
                 }
             }
         }
@@ -1085,7 +1212,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("restoreVersion");
 
             context.setVersionPath(versionPath);
             ResourcePath versionedResourcePath = new ResourcePath(versionPath);
@@ -1117,13 +1244,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("restoreVersion");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).restoreVersion(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("restoreVersion");
                 }
             }
         }
@@ -1139,7 +1266,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("addAssociation");
 
             // Source and target of associations may or may not be resources in the registry. If they
             // don't refer to a resource, they can contain any string value. But if they refer to
@@ -1179,13 +1306,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("addAssociation");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).addAssociation(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("addAssociation");
                 }
             }
         }
@@ -1197,7 +1324,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeAssociation");
 
             // Source and target of associations may or may not be resources in the registry. If they
             // don't refer to a resource, they can contain any string value. But if they refer to
@@ -1237,14 +1364,14 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeAssociation");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).removeAssociation(
                             context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("removeAssociation");
                 }
             }
         }
@@ -1255,7 +1382,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getAllAssociations");
 
             // Source and target of associations may or may not be resources in the registry. If they
             // don't refer to a resource, they can contain any string value. But if they refer to
@@ -1283,14 +1410,14 @@ public class EmbeddedRegistry implements Registry {
             return associations;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getAllAssociations");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getAllAssociations(
                             context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getAllAssociations");
                 }
             }
         }
@@ -1303,7 +1430,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getAssociations");
 
             // Source and target of associations may or may not be resources in the registry. If they
             // don't refer to a resource, they can contain any string value. But if they refer to
@@ -1333,14 +1460,14 @@ public class EmbeddedRegistry implements Registry {
             return associations;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getAssociations");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getAssociations(
                             context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getAssociations");
                 }
             }
         }
@@ -1363,7 +1490,7 @@ public class EmbeddedRegistry implements Registry {
         try {
 
             // start the transaction
-            beginTransaction();
+            beginTransaction("applyTag");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
 
@@ -1432,13 +1559,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("applyTag");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).applyTag(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("applyTag");
                 }
             }
         }
@@ -1449,7 +1576,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getResourcePathsWithTag");
 
             context.setTag(tag);
 
@@ -1511,14 +1638,14 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getResourcePathsWithTag");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getResourcePathsWithTag(
                             context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getResourcePathsWithTag");
                 }
             }
         }
@@ -1529,7 +1656,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getTags");
 
             context.setResourcePath(new ResourcePath(path));
 
@@ -1566,13 +1693,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getTags");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getTags(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getTags");
                 }
             }
         }
@@ -1583,7 +1710,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeTag");
 
             ResourcePath processedPath = new ResourcePath(path);
 
@@ -1670,13 +1797,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeTag");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).removeTag(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("removeTag");
                 }
             }
         }
@@ -1696,7 +1823,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("addComment");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
 
@@ -1767,13 +1894,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("addComment");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).addComment(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("addComment");
                 }
             }
         }
@@ -1784,7 +1911,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("editComment");
 
             ResourcePath processedPath = new ResourcePath(commentPath);
 
@@ -1825,13 +1952,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("editComment");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).editComment(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("editComment");
                 }
             }
         }
@@ -1842,7 +1969,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeComment");
 
             ResourcePath processedPath = new ResourcePath(commentPath);
 
@@ -1948,13 +2075,13 @@ public class EmbeddedRegistry implements Registry {
             transactionSucceeded = true;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeComment");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).removeComment(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("removeComment");
                 }
             }
         }
@@ -1965,7 +2092,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getComments");
 
             ResourcePath resourcePath = new ResourcePath(path);
 
@@ -1998,13 +2125,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getComments");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getComments(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getComments");
                 }
             }
         }
@@ -2019,7 +2146,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("rateResource");
 
             String userName = CurrentSession.getUser();
 
@@ -2091,13 +2218,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("rateResource");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).rateResource(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("rateResource");
                 }
             }
         }
@@ -2108,7 +2235,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getAverageRating");
             ResourcePath resourcePath = new ResourcePath(path);
 
             context.setResourcePath(resourcePath);
@@ -2142,14 +2269,14 @@ public class EmbeddedRegistry implements Registry {
             return rating;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getAverageRating");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getAverageRating(
                             context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getAverageRating");
                 }
             }
         }
@@ -2160,7 +2287,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getRating");
             ResourcePath resourcePath = new ResourcePath(path);
 
             context.setResourcePath(resourcePath);
@@ -2193,13 +2320,13 @@ public class EmbeddedRegistry implements Registry {
             return rating;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getRating");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).getRating(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("getRating");
                 }
             }
         }
@@ -2220,7 +2347,7 @@ public class EmbeddedRegistry implements Registry {
         Resource query = null;
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("executeQuery");
 
             Registry systemRegistry = new UserRegistry(
                     CarbonConstants.REGISTRY_SYSTEM_USERNAME,
@@ -2310,13 +2437,13 @@ public class EmbeddedRegistry implements Registry {
             return output;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("executeQuery");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).executeQuery(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("executeQuery");
                 }
             }
         }
@@ -2327,7 +2454,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getLogs");
 
             List logEntryList =
                     logsDAO.getLogList(resourcePath, action, userName, from, to, recentFirst, dataAccessManager);
@@ -2352,9 +2479,9 @@ public class EmbeddedRegistry implements Registry {
             return logEntries;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getLogs");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("getLogs");
             }
         }
     }
@@ -2368,7 +2495,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getLogCollection");
 
             LogEntryCollection logEntryCollection = new LogEntryCollection();
             logEntryCollection.setLogCount(
@@ -2388,9 +2515,9 @@ public class EmbeddedRegistry implements Registry {
             return logEntryCollection;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getLogCollection");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("getLogCollection");
             }
         }
 
@@ -2408,7 +2535,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("associateAspect");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
             if (!processedPath.isCurrentVersion()) {
@@ -2441,9 +2568,9 @@ public class EmbeddedRegistry implements Registry {
 
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("associateAspect");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("associateAspect");
             }
         }
     }
@@ -2461,7 +2588,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("invokeAspect");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
             if (!processedPath.isCurrentVersion()) {
@@ -2498,13 +2625,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("invokeAspect");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).invokeAspect(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("invokeAspect");
                 }
             }
         }
@@ -2517,7 +2644,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("invokeAspect");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
             if (!processedPath.isCurrentVersion()) {
@@ -2561,13 +2688,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("invokeAspect");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).invokeAspect(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("invokeAspect");
                 }
             }
         }
@@ -2579,7 +2706,7 @@ public class EmbeddedRegistry implements Registry {
         boolean transactionSucceeded = false;
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getResourceAspect");
 
             Aspect aspect = getAspect(aspectName);
             if (aspect == null) {
@@ -2599,9 +2726,9 @@ public class EmbeddedRegistry implements Registry {
             return aspect;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getResourceAspect");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("getResourceAspect");
             }
         }
     }
@@ -2612,7 +2739,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("getAspectActions");
 
             ResourcePath processedPath = new ResourcePath(resourcePath);
             if (!processedPath.isCurrentVersion()) {
@@ -2635,9 +2762,9 @@ public class EmbeddedRegistry implements Registry {
             return actions;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("getAspectActions");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("getAspectActions");
             }
         }
     }
@@ -2682,7 +2809,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("createLink");
 
             if (path.equals(target)) {
                 String msg = "Path and target are same, path = target = " + path +
@@ -2747,13 +2874,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("createLink");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).createLink(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("createLink");
                 }
             }
         }
@@ -2765,7 +2892,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("createLink");
 
             Resource resource;
 
@@ -2819,13 +2946,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("createLink");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).createLink(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("createLink");
                 }
             }
         }
@@ -2836,7 +2963,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeLink");
 
             ResourcePath resourcePath = new ResourcePath(path);
             context.setResourcePath(resourcePath);
@@ -2903,13 +3030,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeLink");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).removeLink(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("removeLink");
                 }
             }
         }
@@ -2924,7 +3051,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("restore");
 
             context.setDumpingReader(reader);
             context.setResourcePath(new ResourcePath(path));
@@ -2951,13 +3078,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("restore");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).restore(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("restore");
                 }
             }
             if (log.isDebugEnabled()) {
@@ -2974,7 +3101,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("dump");
 
             context.setResourcePath(new ResourcePath(path));
             context.setDumpingWriter(writer);
@@ -2991,13 +3118,13 @@ public class EmbeddedRegistry implements Registry {
             }
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("dump");
             } else {
                 try {
                     registryContext.getHandlerManager(
                             HandlerLifecycleManager.ROLLBACK_HANDLER_PHASE).dump(context);
                 } finally {
-                    rollbackTransaction();
+                    rollbackTransaction("dump");
                 }
             }
         }
@@ -3035,7 +3162,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("addAspect");
             // we are using CallerTenantId instead of tenantId to preserve the tenant information
             // even this is called from a system registry, which anyway makes tenantId always = 0,
             // but keep the callerTenantId value to it is callers real tenant id
@@ -3048,9 +3175,9 @@ public class EmbeddedRegistry implements Registry {
             return false;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("addAspect");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("addAspect");
             }
         }
     }
@@ -3061,7 +3188,7 @@ public class EmbeddedRegistry implements Registry {
         RequestContext context = new RequestContext(this, repository, versionRepository);
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeAspect");
             // we are using CallerTenantId instead of tenantId to preserve the tenant information
             // even this is called from a system registry, which anyway makes tenantId always = 0,
             // but keep the callerTenantId value to it is callers real tenant id
@@ -3074,9 +3201,9 @@ public class EmbeddedRegistry implements Registry {
             return false;
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeAspect");
             } else {
-                rollbackTransaction();
+                rollbackTransaction("removeAspect");
             }
         }
     }
@@ -3088,7 +3215,7 @@ public class EmbeddedRegistry implements Registry {
         
         try {
             // start the transaction
-            beginTransaction();
+            beginTransaction("removeVersionHistory");
 
             versionRepository.removeVersionHistory(path, snapshotId);
             
@@ -3097,10 +3224,10 @@ public class EmbeddedRegistry implements Registry {
             
         } finally {
             if (transactionSucceeded) {
-                commitTransaction();
+                commitTransaction("removeVersionHistory");
             } else {                
                 
-            	rollbackTransaction();                
+            	rollbackTransaction("removeVersionHistory");                
             }
         }   	
     	
@@ -16,7 +16,6 @@
 
 package org.wso2.carbon.registry.core.jdbc;
 
-import org.apache.axiom.om.*;
 import org.apache.axiom.om.util.Base64;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -40,7 +39,6 @@ import org.wso2.carbon.registry.core.utils.AuthorizationUtils;
 import org.wso2.carbon.registry.core.utils.MediaTypesUtils;
 import org.wso2.carbon.registry.core.utils.RegistryUtils;
 
-import javax.xml.namespace.QName;
 import javax.xml.stream.*;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -58,6 +56,14 @@ public class Repository {
 
     private static final Log log = LogFactory.getLog(Repository.class);
 
+    // The number of content bytes encoded at a time when dumping. This must be a multiple of 3.
+    private static final int DUMP_CONTENT_CHUNK_SIZE = 3 * 16 * 1024;
+
+    // Creating a factory requires a service lookup, so the factories are shared by all dumps
+    // and restores.
+    private static final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+
     private ResourceDAO resourceDAO;
     private ResourceVersionDAO resourceVersionDAO;
     private AssociationDAO associationDAO;
@@ -234,6 +240,66 @@ public class Repository {
         return resource;
     }
 
+    /**
+     * Gets the collection in the given path, with the children in the given range loaded as
+     * resources. The details selected by the include flags are loaded for all the children at
+     * once.
+     *
+     * @param path    Path of a collection.
+     * @param start   The starting index of the children to be retrieved.
+     * @param pageLen Number of children to be retrieved.
+     * @param include Combination of the RegistryConstants.INCLUDE_* flags.
+     *
+     * @return The collection, with its children as the content.
+     * @throws RegistryException if the operation failed.
+     */
+    public Collection get(String path, int start, int pageLen, int include)
+            throws RegistryException {
+        CollectionImpl collection = (CollectionImpl) get(path, start, pageLen);
+        if (collection == null) {
+            return null;
+        }
+
+        String[] childPaths = collection.getChildren();
+        List<ResourceImpl> children = new ArrayList<ResourceImpl>(childPaths.length);
+        for (String childPath : childPaths) {
+            ResourceImpl child = resourceDAO.getResourceMetaData(childPath);
+            if (child == null) {
+                continue;
+            }
+            child.setDataAccessManager(dataAccessManager);
+            child.setUserName(CurrentSession.getUser());
+            child.setTenantId(CurrentSession.getTenantId());
+            child.setUserRealm(CurrentSession.getUserRealm());
+            children.add(child);
+        }
+
+        if ((include & RegistryConstants.INCLUDE_PROPERTIES) != 0) {
+            resourceDAO.fillResourcePropertiesWithNoUpdate(children);
+        }
+        if ((include & RegistryConstants.INCLUDE_TAGS) != 0) {
+            Map<String, Tag[]> tags = tagsDAO.getTagsWithCount(children);
+            for (ResourceImpl child : children) {
+                child.setTags(tags.get(child.getPath()));
+            }
+        }
+        if ((include & RegistryConstants.INCLUDE_COMMENTS) != 0) {
+            Map<String, Comment[]> comments = commentsDAO.getComments(children);
+            for (ResourceImpl child : children) {
+                child.setComments(comments.get(child.getPath()));
+            }
+        }
+        if ((include & RegistryConstants.INCLUDE_RATINGS) != 0) {
+            Map<String, Float> averageRatings = ratingsDAO.getAverageRatings(children);
+            for (ResourceImpl child : children) {
+                child.setAverageRating(averageRatings.get(child.getPath()));
+            }
+        }
+
+        collection.setContentWithNoUpdate(children.toArray(new Resource[children.size()]));
+        return collection;
+    }
+
     private String getUserNotAuthorizedMsg() {
         return "User " + CurrentSession.getUser() + " is not authorized to ";
 
@@ -1138,6 +1204,13 @@ public class Repository {
      * @throws RegistryException If any ancestor of the given path is a resource.
      */
     private void addEmptyCollection(String path) throws RegistryException {
+        addEmptyCollection(path, new LinkedList<String>());
+    }
+
+    // The descendant paths are the collections which are going to be added below the given path
+    // once it has been added, starting from its child.
+    private void addEmptyCollection(String path, LinkedList<String> descendantPaths)
+            throws RegistryException {
         // first need to check whether there is a resource (non-collection)
         // where it is asking to create a collection
         ResourceIDImpl assumedResourceID = resourceDAO.getResourceID(path, false);
@@ -1153,7 +1226,11 @@ public class Repository {
         if (parentPath != null) {
             parentResourceID = resourceDAO.getResourceID(parentPath, true);
             if (parentResourceID == null || !resourceDAO.resourceExists(parentResourceID)) {
-                addEmptyCollection(parentPath);
+                descendantPaths.addFirst(path);
+                addEmptyCollection(parentPath, descendantPaths);
+                if (!descendantPaths.isEmpty()) {
+                    descendantPaths.removeFirst();
+                }
                 if (parentResourceID == null) {
                     // since this is a collection there is no much performance hit here
                     parentResourceID = resourceDAO.getResourceID(parentPath, true);
@@ -1178,7 +1255,13 @@ public class Repository {
             log.error(msg);
             throw new RegistryException(msg);
         }
-
+        if (!descendantPaths.isEmpty()) {
+            // obtain the ids of this collection and of all the collections that follow it at
+            // once, instead of adding a path entry for each of them separately.
+            descendantPaths.addFirst(path);
+            resourceDAO.createCollectionIDs(descendantPaths, parentResourceID);
+            descendantPaths.clear();
+        }
 
         CollectionImpl collection = new CollectionImpl();
         RegistryContext registryContext = null;
@@ -1259,7 +1342,7 @@ public class Repository {
         DumpReader dumpReader = new DumpReader(reader);
         XMLStreamReader xmlReader;
         try {
-            xmlReader = XMLInputFactory.newInstance().createXMLStreamReader(dumpReader);
+            xmlReader = xmlInputFactory.createXMLStreamReader(dumpReader);
         } catch (Exception e) {
             String msg = "Error in creating the xml reader.";
             log.error(msg, e);
@@ -1290,8 +1373,7 @@ public class Repository {
         }
         XMLStreamWriter xmlWriter = null;
         try {
-            XMLOutputFactory xof = XMLOutputFactory.newInstance();
-            xmlWriter = xof.createXMLStreamWriter(writer);
+            xmlWriter = xmlOutputFactory.createXMLStreamWriter(writer);
 
             // we are not using xmlWriter.writeStartDocument and writeEndDocument to get rid of the
             // xml descriptor it put in every child node
@@ -1936,7 +2018,7 @@ public class Repository {
 
                     // otherwise we will set the stuff for the next resource
                     // get an xlm reader in the checking child by parent mode.
-                    xmlReader = XMLInputFactory.newInstance().createXMLStreamReader(dumpReader);
+                    xmlReader = xmlInputFactory.createXMLStreamReader(dumpReader);
 
                     while (!xmlReader.isStartElement() && xmlReader.hasNext()) {
                         xmlReader.next();
@@ -2053,178 +2135,106 @@ public class Repository {
         xmlWriter.writeAttribute(DumpConstants.RESOURCE_IS_COLLECTION,
                 (resource instanceof CollectionImpl) ? DumpConstants.RESOURCE_IS_COLLECTION_TRUE :
                         DumpConstants.RESOURCE_IS_COLLECTION_FALSE);
-        OMElement child;
 
         // set media type
-        String mediaType = resource.getMediaType();
-        OMFactory factory = OMAbstractFactory.getOMFactory();
-        child = factory.createOMElement(new QName(DumpConstants.MEDIA_TYPE));
-        child.setText(mediaType);
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.MEDIA_TYPE, resource.getMediaType());
 
         // set version
-        long version = resource.getVersionNumber();
-        child = factory.createOMElement(new QName(DumpConstants.VERSION));
-        child.setText(version + "");
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.VERSION,
+                Long.toString(resource.getVersionNumber()));
 
         // set creator
-        String creator = resource.getAuthorUserName();
-        child = factory.createOMElement(new QName(DumpConstants.CREATOR));
-        child.setText(creator);
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.CREATOR, resource.getAuthorUserName());
 
         // set createdTime
-        Date createdTime = resource.getCreatedTime();
-        child = factory.createOMElement(new QName(DumpConstants.CREATED_TIME));
-        child.setText(Long.toString(createdTime.getTime()));
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.CREATED_TIME,
+                Long.toString(resource.getCreatedTime().getTime()));
 
         // set updater
-        String updater = resource.getLastUpdaterUserName();
-        child = factory.createOMElement(new QName(DumpConstants.LAST_UPDATER));
-        child.setText(updater);
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.LAST_UPDATER,
+                resource.getLastUpdaterUserName());
 
         // set LastModified
-        Date lastModified = resource.getLastModified();
-        child = factory.createOMElement(new QName(DumpConstants.LAST_MODIFIED));
-        child.setText(Long.toString(lastModified.getTime()));
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.LAST_MODIFIED,
+                Long.toString(resource.getLastModified().getTime()));
 
         // set UUID
-        String uuid = resource.getUUID();
-        child = factory.createOMElement(new QName(DumpConstants.UUID));
-        child.setText(uuid);
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.UUID, resource.getUUID());
 
         // set Description
-        String description = resource.getDescription();
-        child = factory.createOMElement(new QName(DumpConstants.DESCRIPTION));
-        child.setText(description);
-        child.serialize(xmlWriter);
+        writeDumpElement(xmlWriter, DumpConstants.DESCRIPTION, resource.getDescription());
 
         // fill properties
         resourceDAO.fillResourceProperties(resource);
         Properties properties = resource.getProperties();
         if (properties != null && properties.size() > 0) {
             // properties will be kept inside the <properties> element
-            OMElement propertiesOM = factory.createOMElement(new QName(DumpConstants.PROPERTIES));
+            xmlWriter.writeStartElement(DumpConstants.PROPERTIES);
             for (Object keyObject : properties.keySet()) {
                 String key = (String) keyObject;
                 List<String> propValues = resource.getPropertyValues(key);
                 for (String value : propValues) {
-                    OMElement propertyOM = factory.createOMElement(
-                            new QName(DumpConstants.PROPERTY_ENTRY));
-
-                    // adding the key and value as attributes
-                    OMAttribute keyAttribute = factory.createOMAttribute(
-                            DumpConstants.PROPERTY_ENTRY_KEY, null, key);
-                    propertyOM.addAttribute(keyAttribute);
-
+                    xmlWriter.writeStartElement(DumpConstants.PROPERTY_ENTRY);
+                    // adding the key as an attribute
+                    xmlWriter.writeAttribute(DumpConstants.PROPERTY_ENTRY_KEY, key);
                     if (value != null) {
-                        propertyOM.setText(value);
+                        xmlWriter.writeCharacters(value);
                     }
-
-                    propertiesOM.addChild(propertyOM);
+                    xmlWriter.writeEndElement();
                 }
             }
-            propertiesOM.serialize(xmlWriter);
+            xmlWriter.writeEndElement();
         }
         // getting comment information
         Comment[] comments = commentsDAO.getComments(resource);
         if (comments != null && comments.length > 0) {
-            child = factory.createOMElement(new QName(DumpConstants.COMMENTS));
+            xmlWriter.writeStartElement(DumpConstants.COMMENTS);
             for (Comment comment : comments) {
-                OMElement commentElement = factory.createOMElement(
-                        new QName(DumpConstants.COMMENT_ENTRY));
-                String user = comment.getAuthorUserName();
-                String text = comment.getText();
-
-                OMElement userElement = factory.createOMElement(
-                        new QName(DumpConstants.COMMENT_ENTRY_USER));
-                userElement.setText(user);
-                commentElement.addChild(userElement);
-
-                OMElement textElement = factory.createOMElement(
-                        new QName(DumpConstants.COMMENT_ENTRY_TEXT));
-                textElement.setText(text);
-                commentElement.addChild(textElement);
-
-                child.addChild(commentElement);
+                xmlWriter.writeStartElement(DumpConstants.COMMENT_ENTRY);
+                writeDumpElement(xmlWriter, DumpConstants.COMMENT_ENTRY_USER,
+                        comment.getAuthorUserName());
+                writeDumpElement(xmlWriter, DumpConstants.COMMENT_ENTRY_TEXT, comment.getText());
+                xmlWriter.writeEndElement();
             }
-            child.serialize(xmlWriter);
+            xmlWriter.writeEndElement();
         }
         // getting tagging
         TaggingDO[] taggings = tagsDAO.getTagging(resource);
         if (taggings != null && taggings.length > 0) {
-            child = factory.createOMElement(new QName(DumpConstants.TAGGINGS));
+            xmlWriter.writeStartElement(DumpConstants.TAGGINGS);
             for (TaggingDO tagging : taggings) {
-                OMElement taggingElement = factory.createOMElement(
-                        new QName(DumpConstants.TAGGING_ENTRY));
-                String user = tagging.getTaggedUserName();
-                Date date = tagging.getTaggedTime();
-                String tagName = tagging.getTagName();
-
-                OMElement userElement = factory.createOMElement(
-                        new QName(DumpConstants.TAGGING_ENTRY_USER));
-                userElement.setText(user);
-                taggingElement.addChild(userElement);
-
-                OMElement dateElement = factory.createOMElement(
-                        new QName(DumpConstants.TAGGING_ENTRY_DATE));
-                String dateString = Long.toString(date.getTime());
-                dateElement.setText(dateString);
-                taggingElement.addChild(dateElement);
-
-                OMElement textElement = factory.createOMElement(
-                        new QName(DumpConstants.TAGGING_ENTRY_TAG_NAME));
-                textElement.setText(tagName);
-                taggingElement.addChild(textElement);
-
-                child.addChild(taggingElement);
+                xmlWriter.writeStartElement(DumpConstants.TAGGING_ENTRY);
+                writeDumpElement(xmlWriter, DumpConstants.TAGGING_ENTRY_USER,
+                        tagging.getTaggedUserName());
+                writeDumpElement(xmlWriter, DumpConstants.TAGGING_ENTRY_DATE,
+                        Long.toString(tagging.getTaggedTime().getTime()));
+                writeDumpElement(xmlWriter, DumpConstants.TAGGING_ENTRY_TAG_NAME,
+                        tagging.getTagName());
+                xmlWriter.writeEndElement();
             }
-            child.serialize(xmlWriter);
+            xmlWriter.writeEndElement();
         }
         // getting ratings
         RatingDO[] ratings = ratingsDAO.getResourceRatingDO(resource);
         if (ratings != null && ratings.length > 0) {
-            child = factory.createOMElement(new QName(DumpConstants.RATINGS));
+            xmlWriter.writeStartElement(DumpConstants.RATINGS);
             for (RatingDO rating : ratings) {
-                OMElement ratingElement = factory.createOMElement(
-                        new QName(DumpConstants.RATING_ENTRY));
-                String user = rating.getRatedUserName();
-                Date date = rating.getRatedTime();
-                int rate = rating.getRating();
-
-                OMElement userElement = factory.createOMElement(
-                        new QName(DumpConstants.RATING_ENTRY_USER));
-                userElement.setText(user);
-                ratingElement.addChild(userElement);
-
-                OMElement dateElement = factory.createOMElement(
-                        new QName(DumpConstants.RATING_ENTRY_DATE));
-                String dateString = Long.toString(date.getTime());
-                dateElement.setText(dateString);
-                ratingElement.addChild(dateElement);
-
-                OMElement textElement = factory.createOMElement(
-                        new QName(DumpConstants.RATING_ENTRY_RATE));
-                String rateString = String.valueOf(rate);
-                textElement.setText(rateString);
-                ratingElement.addChild(textElement);
-
-                child.addChild(ratingElement);
+                xmlWriter.writeStartElement(DumpConstants.RATING_ENTRY);
+                writeDumpElement(xmlWriter, DumpConstants.RATING_ENTRY_USER,
+                        rating.getRatedUserName());
+                writeDumpElement(xmlWriter, DumpConstants.RATING_ENTRY_DATE,
+                        Long.toString(rating.getRatedTime().getTime()));
+                writeDumpElement(xmlWriter, DumpConstants.RATING_ENTRY_RATE,
+                        String.valueOf(rating.getRating()));
+                xmlWriter.writeEndElement();
             }
-            child.serialize(xmlWriter);
+            xmlWriter.writeEndElement();
         }
 
         Association[] associations = associationDAO.getAllAssociations(path);
         if (associations != null && associations.length > 0) {
-            child = factory.createOMElement(new QName(DumpConstants.ASSOCIATIONS));
+            xmlWriter.writeStartElement(DumpConstants.ASSOCIATIONS);
             for (Association association : associations) {
-                OMElement associationElement = factory.createOMElement(
-                        new QName(DumpConstants.ASSOCIATION_ENTRY));
                 String source = association.getSourcePath();
                 String destination = association.getDestinationPath();
                 String type = association.getAssociationType();
@@ -2241,35 +2251,24 @@ public class Repository {
                             destination;
                 }
 
-                OMElement sourceElement = factory.createOMElement(
-                        new QName(DumpConstants.ASSOCIATION_ENTRY_SOURCE));
-                sourceElement.setText(source);
-                associationElement.addChild(sourceElement);
-
-                OMElement destinationElement = factory.createOMElement(
-                        new QName(DumpConstants.ASSOCIATION_ENTRY_DESTINATION));
-                destinationElement.setText(destination);
-                associationElement.addChild(destinationElement);
-
-                OMElement typeElement = factory.createOMElement(
-                        new QName(DumpConstants.ASSOCIATION_ENTRY_TYPE));
-                typeElement.setText(type);
-                associationElement.addChild(typeElement);
-
-                child.addChild(associationElement);
+                xmlWriter.writeStartElement(DumpConstants.ASSOCIATION_ENTRY);
+                writeDumpElement(xmlWriter, DumpConstants.ASSOCIATION_ENTRY_SOURCE, source);
+                writeDumpElement(xmlWriter, DumpConstants.ASSOCIATION_ENTRY_DESTINATION,
+                        destination);
+                writeDumpElement(xmlWriter, DumpConstants.ASSOCIATION_ENTRY_TYPE, type);
+                xmlWriter.writeEndElement();
             }
-            child.serialize(xmlWriter);
+            xmlWriter.writeEndElement();
         }
 
         // adding contents..
         if (!(resource instanceof CollectionImpl)) {
-            resourceDAO.fillResourceContent(resource);
-
-            byte[] content = (byte[]) resource.getContent();
-            if (content != null) {
-                child = factory.createOMElement(new QName(DumpConstants.CONTENT));
-                child.setText(Base64.encode(content));
-                child.serialize(xmlWriter);
+            InputStream contentStream =
+                    resourceDAO.openContentStream(resource.getDbBasedContentID());
+            if (contentStream != null) {
+                xmlWriter.writeStartElement(DumpConstants.CONTENT);
+                writeBase64Content(xmlWriter, contentStream, path);
+                xmlWriter.writeEndElement();
             }
         }
 
@@ -2280,15 +2279,15 @@ public class Repository {
             String childPaths[] = collection.getChildren();
 
             xmlWriter.writeStartElement(DumpConstants.CHILDREN);
-            OMText emptyText = factory.createOMText("");
-            emptyText.serialize(xmlWriter);
+            // writing empty characters closes the start tag before the children are written
+            // directly to the writer.
+            xmlWriter.writeCharacters("");
             xmlWriter.flush();
             for (String childPath : childPaths) {
                 // we would be writing the start element of the child and its name here.
                 try {
                     String resourceName = RegistryUtils.getResourceName(childPath);
                     writer.write("<resource name=\"" + resourceName + "\"");
-                    writer.flush();
                 } catch (IOException e) {
                     String msg = "Error in writing the start element for the path: " +
                             childPath + ".";
@@ -2302,4 +2301,49 @@ public class Repository {
         xmlWriter.writeEndElement();
         xmlWriter.flush();
     }
+
+    // Writes an element containing only the given text. A null text results in an empty element.
+    private static void writeDumpElement(XMLStreamWriter xmlWriter, String name, String text)
+            throws XMLStreamException {
+        xmlWriter.writeStartElement(name);
+        if (text != null) {
+            xmlWriter.writeCharacters(text);
+        }
+        xmlWriter.writeEndElement();
+    }
+
+    // Writes the content as base64 text, encoding a chunk at a time so that the encoded form of
+    // the whole content is never held in memory. The chunk size is a multiple of three, so the
+    // concatenation of the encoded chunks equals the encoding of the whole content.
+    private static void writeBase64Content(XMLStreamWriter xmlWriter, InputStream contentStream,
+                                           String path)
+            throws RegistryException, XMLStreamException {
+        byte[] buffer = new byte[DUMP_CONTENT_CHUNK_SIZE];
+        try {
+            try {
+                while (true) {
+                    int length = 0;
+                    int read;
+                    while (length < buffer.length &&
+                            (read = contentStream.read(buffer, length, buffer.length - length))
+                                    != -1) {
+                        length += read;
+                    }
+                    if (length == 0) {
+                        break;
+                    }
+                    xmlWriter.writeCharacters(Base64.encode(buffer, 0, length));
+                    if (length < buffer.length) {
+                        break;
+                    }
+                }
+            } finally {
+                contentStream.close();
+            }
+        } catch (IOException e) {
+            String msg = "Failed to read the content of the resource at " + path + ".";
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
 }
@@ -43,6 +43,9 @@ public class VersionRepository {
 
     private static Log log = LogFactory.getLog(VersionRepository.class);
 
+    // The number of resources after which the progress of creating a snapshot is logged.
+    private static final int SNAPSHOT_PROGRESS_INTERVAL = 1000;
+
     private DataAccessManager dataAccessManager;
 
     private ResourceDAO resourceDAO;
@@ -102,6 +105,10 @@ public class VersionRepository {
         String resourceName = rootResourceID.getName();
         long snapshotID =
                 resourceVersionDAO.createSnapshot(pathId, resourceName, versionsInputStream);
+        if (versionList.size() >= SNAPSHOT_PROGRESS_INTERVAL) {
+            log.info("Created snapshot of " + resourceImpl.getPath() + " containing " +
+                    versionList.size() + " resources.");
+        }
         // Associations can be created only once we have created the snapshot, since we need to know
         // the snapshotID.
         if (snapshotID != -1) {
@@ -164,12 +171,17 @@ public class VersionRepository {
         List<ResourceIDImpl> childIds = resourceDAO.getChildPathIds(resourceID);
         // immediate children will be added before others
         for (ResourceIDImpl childId : childIds) {
-            ResourceImpl childResourceImpl = resourceDAO.getResourceWithNoUpdate(childId);
+            // the content is not required to version the child, and it is loaded when renewing.
+            ResourceImpl childResourceImpl = resourceDAO.getResourceMetaData(childId);
             long version = childResourceImpl.getVersionNumber();
             versionList.add(version);
 
             // we are archiving all the resources
             createVersionForResource(childResourceImpl, isRenewing, keepProperties);
+            if (versionList.size() % SNAPSHOT_PROGRESS_INTERVAL == 0) {
+                log.info("Versioned " + versionList.size() + " resources while creating a " +
+                        "snapshot of " + resourceID.getPath() + ".");
+            }
         }
         // then next immediate levels will be added..
         for (ResourceIDImpl childId : childIds) {
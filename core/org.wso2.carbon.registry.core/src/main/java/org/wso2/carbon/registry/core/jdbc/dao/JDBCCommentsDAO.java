@@ -35,6 +35,7 @@ import org.wso2.carbon.utils.DBUtils;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -69,7 +70,7 @@ public class JDBCCommentsDAO implements CommentsDAO {
             String sql2 = "SELECT MAX(REG_ID) FROM REG_COMMENT";
             String sql3 = "INSERT INTO REG_RESOURCE_COMMENT (REG_COMMENT_ID, REG_PATH_ID, " +
                     "REG_RESOURCE_NAME, REG_TENANT_ID) VALUES (?, ?, ?, ?)";
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -158,7 +159,7 @@ public class JDBCCommentsDAO implements CommentsDAO {
             String sql3 = "INSERT INTO REG_RESOURCE_COMMENT (REG_COMMENT_ID, " +
                     "REG_PATH_ID, REG_RESOURCE_NAME, REG_TENANT_ID) VALUES (?, ?, ?, ?)";
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -169,6 +170,9 @@ public class JDBCCommentsDAO implements CommentsDAO {
             }
             ps3 = conn.prepareStatement(sql3);
 
+            // The comment rows have to be inserted one at a time to obtain their ids, but the rows
+            // linking them to the resource are sent to the database as a single batch.
+            boolean hasBatch = false;
             for (CommentDO comment : commentDOs) {
                 // prepare to execute query2 for the comments
                 ps1.setString(1, comment.getCommentText());
@@ -184,7 +188,9 @@ public class JDBCCommentsDAO implements CommentsDAO {
                 } else {
                     synchronized (ADD_COMMENT_LOCK) {
                         ps1.executeUpdate();
-                        ps2 = conn.prepareStatement(sql2);
+                        if (ps2 == null) {
+                            ps2 = conn.prepareStatement(sql2);
+                        }
                         resultSet1 = ps2.executeQuery();
                     }
                 }
@@ -198,15 +204,17 @@ public class JDBCCommentsDAO implements CommentsDAO {
                         ps3.setString(3, resource.getName());
                         ps3.setInt(4, CurrentSession.getTenantId());
 
-                        ps3.executeUpdate();
-                        ps3.clearParameters();
+                        ps3.addBatch();
+                        hasBatch = true;
                     }
                 } finally {
                     if (resultSet1 != null) {
                         resultSet1.close();
                     }
                 }
-                ps3.clearParameters();
+            }
+            if (hasBatch) {
+                ps3.executeBatch();
             }
 
         } catch (SQLException e) {
@@ -531,6 +539,73 @@ public class JDBCCommentsDAO implements CommentsDAO {
         return commentList.toArray(new Comment[commentList.size()]);
     }
 
+    public Map<String, Comment[]> getComments(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getComments(resources, false);
+    }
+
+    /**
+     * Method to get comments added to each of the given resources.
+     *
+     * @param resources the resources.
+     * @param versioned whether the comments are associated with versions of the resources.
+     *
+     * @return the comments of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurs while getting comments.
+     */
+    protected Map<String, Comment[]> getComments(List<ResourceImpl> resources, boolean versioned)
+            throws RegistryException {
+        final Map<String, List<Comment>> commentLists =
+                new LinkedHashMap<String, List<Comment>>();
+        for (ResourceImpl resource : resources) {
+            commentLists.put(resource.getPath(), new ArrayList<Comment>());
+        }
+        if (!resources.isEmpty()) {
+            JDBCDatabaseTransaction.ManagedRegistryConnection conn =
+                    JDBCDatabaseTransaction.getConnection();
+            ResourceBatchQuery query = new ResourceBatchQuery(2) {
+                protected String getSQL(String keyColumn, String condition) {
+                    return "SELECT " + keyColumn + ", C.REG_ID, C.REG_COMMENT_TEXT, " +
+                            "C.REG_USER_ID, C.REG_COMMENTED_TIME " +
+                            "FROM REG_COMMENT C, REG_RESOURCE_COMMENT RC WHERE " + condition +
+                            " AND C.REG_ID=RC.REG_COMMENT_ID AND C.REG_TENANT_ID=? AND " +
+                            "RC.REG_TENANT_ID=?";
+                }
+
+                protected void processRow(ResultSet results, ResourceImpl resource)
+                        throws SQLException {
+                    String path = resource.getPath();
+                    Comment comment = new Comment();
+                    comment.setText(results.getString(DatabaseConstants.COMMENT_TEXT_FIELD));
+                    comment.setUser(results.getString(DatabaseConstants.USER_ID_FIELD));
+                    comment.setCreatedTime(
+                            results.getTimestamp(DatabaseConstants.COMMENTED_TIME_FIELD));
+                    comment.setResourcePath(path);
+                    String commentPath = path + RegistryConstants.URL_SEPARATOR + "comments:" +
+                            results.getInt(DatabaseConstants.ID_FIELD);
+                    comment.setPath(commentPath);
+                    comment.setCommentPath(commentPath);
+                    comment.setParentPath(path + RegistryConstants.URL_SEPARATOR + "comments");
+                    comment.setCommentID(results.getLong(DatabaseConstants.ID_FIELD));
+                    commentLists.get(path).add(comment);
+                }
+            };
+            try {
+                query.execute(conn, "RC", resources, versioned);
+            } catch (SQLException e) {
+                String msg = "Failed to get comments on " + resources.size() + " resources. " +
+                        e.getMessage();
+                log.error(msg, e);
+                throw new RegistryException(msg, e);
+            }
+        }
+        Map<String, Comment[]> comments = new LinkedHashMap<String, Comment[]>();
+        for (Map.Entry<String, List<Comment>> e : commentLists.entrySet()) {
+            comments.put(e.getKey(), e.getValue().toArray(new Comment[e.getValue().size()]));
+        }
+        return comments;
+    }
+
     /**
      * Method to get resource paths of comments.
      *
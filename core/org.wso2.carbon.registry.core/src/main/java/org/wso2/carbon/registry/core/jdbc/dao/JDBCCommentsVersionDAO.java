@@ -39,6 +39,7 @@ import org.wso2.carbon.utils.DBUtils;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An extension of {@link JDBCCommentsVersionDAO} implements {@link JDBCCommentsDAO} to store
@@ -83,7 +84,7 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
             String sql3 = "INSERT INTO REG_RESOURCE_COMMENT (REG_COMMENT_ID, " +
                     "REG_VERSION, REG_TENANT_ID) VALUES (?, ?, ?)";
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -201,7 +202,7 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
             String sql3 = "INSERT INTO REG_RESOURCE_COMMENT (REG_COMMENT_ID, " +
                     "REG_VERSION, REG_TENANT_ID) VALUES (?, ?, ?)";
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -212,6 +213,9 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
             }
             ps3 = conn.prepareStatement(sql3);
 
+            // The comment rows have to be inserted one at a time to obtain their ids, but the rows
+            // linking them to the resource are sent to the database as a single batch.
+            boolean hasBatch = false;
             for (CommentDO comment : commentDOs) {
                 // prepare to execute query2 for the comments
                 ps1.setString(1, comment.getCommentText());
@@ -227,7 +231,9 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
                 } else {
                     synchronized (ADD_COMMENT_LOCK) {
                         ps1.executeUpdate();
-                        ps2 = conn.prepareStatement(sql2);
+                        if (ps2 == null) {
+                            ps2 = conn.prepareStatement(sql2);
+                        }
                         resultSet1 = ps2.executeQuery();
                     }
                 }
@@ -240,15 +246,17 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
                         ps3.setLong(2, resource.getVersionNumber());
                         ps3.setInt(3, CurrentSession.getTenantId());
 
-                        ps3.executeUpdate();
-                        ps3.clearParameters();
+                        ps3.addBatch();
+                        hasBatch = true;
                     }
                 } finally {
                     if (resultSet1 != null) {
                         resultSet1.close();
                     }
                 }
-                ps3.clearParameters();
+            }
+            if (hasBatch) {
+                ps3.executeBatch();
             }
 
         } catch (SQLException e) {
@@ -294,7 +302,7 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
         JDBCDatabaseTransaction.ManagedRegistryConnection conn =
                 JDBCDatabaseTransaction.getConnection();
         try {
-            String dbName = conn.getMetaData().getDatabaseProductName();
+            String dbName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             if (dbName.contains("Microsoft") || dbName.equals("Oracle")) {
                 enableApiPagination = "false";
             }
@@ -507,6 +515,11 @@ public class JDBCCommentsVersionDAO extends JDBCCommentsDAO implements CommentsD
         return commentPathList.toArray(new String[commentPathList.size()]);
     }
 
+    public Map<String, Comment[]> getComments(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getComments(resources, true);
+    }
+
     /**
      * Gets the resource with sufficient data to differentiate it from another resource. This would
      * populate a {@link ResourceImpl} with the <b>path</b>, <b>name</b> and <b>path identifier</b>
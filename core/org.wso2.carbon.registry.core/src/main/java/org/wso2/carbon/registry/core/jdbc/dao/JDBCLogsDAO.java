@@ -60,6 +60,17 @@ public class JDBCLogsDAO implements LogsDAO {
     private Map<String, DataBaseConfiguration> dbConfigs = new HashMap<String, DataBaseConfiguration>();
     private Map<String, String> pathMap = new HashMap<String, String>();
 
+    private static final int LOG_COUNT_CACHE_SIZE = 1000;
+    private static final long LOG_COUNT_CACHE_TIMEOUT = 60 * 1000;
+
+    // Recently computed log counts keyed by tenant and filter, in least recently used order.
+    private final Map<String, CachedLogCount> logCountCache =
+            new LinkedHashMap<String, CachedLogCount>(16, 0.75f, true) {
+                protected boolean removeEldestEntry(Map.Entry<String, CachedLogCount> eldest) {
+                    return size() > LOG_COUNT_CACHE_SIZE;
+                }
+            };
+
     public JDBCLogsDAO() {
         RegistryContext registryContext = RegistryContext.getBaseInstance();
         for (Mount mount : registryContext.getMounts()) {
@@ -340,7 +351,7 @@ public class JDBCLogsDAO implements LogsDAO {
                                            Date from, Date to, boolean descending, Connection conn)
             throws RegistryException {
         try {
-            String dbName = conn.getMetaData().getDatabaseProductName();
+            String dbName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             if (dbName.contains("Microsoft") || dbName.equals("Oracle")) {
                 enableApiPagination = "false";
             }
@@ -941,6 +952,232 @@ public class JDBCLogsDAO implements LogsDAO {
         }
     }
 
+    public LogEntry[] getLogs(String path,
+                              int action,
+                              String userName,
+                              Date from,
+                              Date to,
+                              boolean descending,
+                              LogEntry lastEntry,
+                              int pageLen,
+                              DataAccessManager dataAccessManager)
+            throws RegistryException {
+        if (!(dataAccessManager instanceof JDBCDataAccessManager)) {
+            String msg = "Failed to get logs. Invalid data access manager.";
+            log.error(msg);
+            throw new RegistryException(msg);
+        }
+        String resourcePath = path;
+        if (resourcePath != null) {
+            // if you have a path, see whether the path is inside the mount or not.
+            DataSource dataSource = null;
+            String mountPath = null;
+            if (dbConfigs.size() > 0) {
+                for (String sourcePath : dbConfigs.keySet()) {
+                    if (resourcePath.startsWith(sourcePath)) {
+                        resourcePath = pathMap.get(sourcePath) + resourcePath.substring(sourcePath.length());
+                        dataSource = new JDBCDataAccessManager(dbConfigs.get(sourcePath)).getDataSource();
+                        mountPath = sourcePath;
+                    }
+                }
+            }
+            if (dataSource != null) {
+                // if it is inside the mount then return results only from the mount.
+                return internalGetLogs(action, userName, from, to, descending, lastEntry, pageLen,
+                        resourcePath, mountPath, dataSource);
+            }
+        }
+        // if it is not inside a mount, the page could be made of entries from the mounts and from
+        // the local repository. Each of them returns a page positioned after the last entry, and
+        // the pages are merged to obtain the entries that come next. Log ids of different
+        // databases cannot be compared, so entries with the same logged time are ordered by the
+        // database holding them before they are ordered by their log ids. A page shorter than
+        // pageLen is returned only when none of the databases has further entries.
+        boolean foundMounts = false;
+        List<LogEntry> logEntries = new ArrayList<LogEntry>();
+        for (String sourcePath : dbConfigs.keySet()) {
+            if (resourcePath == null || sourcePath.startsWith(resourcePath)) {
+                addMountedLogs(logEntries, action, userName, from, to, descending, lastEntry,
+                        pageLen, resourcePath, sourcePath,
+                        new JDBCDataAccessManager(dbConfigs.get(sourcePath)).getDataSource());
+                foundMounts = true;
+            }
+        }
+        logEntries.addAll(Arrays.asList(internalGetLogs(action, userName, from, to, descending,
+                lastEntry, pageLen, resourcePath, null,
+                ((JDBCDataAccessManager) dataAccessManager).getDataSource())));
+        if (foundMounts) {
+            Collections.sort(logEntries, new LogEntryComparator(descending));
+            if (logEntries.size() > pageLen) {
+                logEntries = logEntries.subList(0, pageLen);
+            }
+        }
+        return logEntries.toArray(new LogEntry[logEntries.size()]);
+    }
+
+    // Entries of a mount that fall outside its target path are dropped after they are read. To
+    // avoid returning a short page while the mount still has entries, further rows are read
+    // after the last row of the previous read until pageLen entries are kept or the rows run out.
+    private void addMountedLogs(List<LogEntry> logEntries, int action, String userName, Date from,
+                                Date to, boolean descending, LogEntry lastEntry, int pageLen,
+                                String resourcePath, String sourcePath, DataSource dataSource)
+            throws RegistryException {
+        List<LogEntry> mountedEntries = new ArrayList<LogEntry>();
+        LogEntry lastRow = lastEntry;
+        while (true) {
+            LogEntry[] temp = internalGetLogs(action, userName, from, to, descending, lastRow,
+                    pageLen, resourcePath, sourcePath, dataSource);
+            for (LogEntry entry : temp) {
+                fixLogEntries(mountedEntries, sourcePath, entry);
+            }
+            if (temp.length < pageLen || mountedEntries.size() >= pageLen) {
+                break;
+            }
+            lastRow = temp[temp.length - 1];
+        }
+        logEntries.addAll(mountedEntries);
+    }
+
+    private LogEntry[] internalGetLogs(int action, String userName, Date from, Date to, boolean descending,
+                                       LogEntry lastEntry, int pageLen, String resourcePath,
+                                       String sourcePath, DataSource dataSource)
+            throws RegistryException {
+        String sql =
+                "SELECT REG_LOG_ID, REG_PATH, REG_USER_ID, REG_LOGGED_TIME, REG_ACTION, " +
+                        "REG_ACTION_DATA FROM REG_LOG";
+        sql = addWherePart(resourcePath, false, sql, userName, from, to, action);
+
+        // The entries are ordered by (logged time, log id), so that the position after the last
+        // entry of the previous page can be found using the index on these columns. If the last
+        // entry is held in another database, the entries of this database having the same logged
+        // time come either all before or all after it, depending on the order of the databases.
+        int sourceOrder = 0;
+        if (lastEntry != null) {
+            sourceOrder = compareSourcePaths(sourcePath, lastEntry.getSourcePath());
+            String operator = descending ? "<" : ">";
+            if (descending) {
+                sourceOrder = -sourceOrder;
+            }
+            if (sourceOrder == 0) {
+                sql = sql + " AND (REG_LOGGED_TIME" + operator + "? OR (REG_LOGGED_TIME=? AND " +
+                        "REG_LOG_ID" + operator + "?))";
+            } else if (sourceOrder < 0) {
+                sql = sql + " AND REG_LOGGED_TIME" + operator + "?";
+            } else {
+                sql = sql + " AND REG_LOGGED_TIME" + operator + "=?";
+            }
+        }
+        if (descending) {
+            sql = sql + " ORDER BY REG_LOGGED_TIME DESC, REG_LOG_ID DESC";
+        } else {
+            sql = sql + " ORDER BY REG_LOGGED_TIME, REG_LOG_ID";
+        }
+
+        Connection conn = null;
+        PreparedStatement s = null;
+        ResultSet results = null;
+        try {
+            conn = dataSource.getConnection();
+            s = conn.prepareStatement(sql);
+            s.setMaxRows(pageLen);
+
+            int paramNumber = setWhereParameters(s, resourcePath, userName, from, to, action);
+            if (lastEntry != null) {
+                Timestamp lastLoggedTime = new Timestamp(lastEntry.getDate().getTime());
+                s.setTimestamp(paramNumber++, lastLoggedTime);
+                if (sourceOrder == 0) {
+                    s.setTimestamp(paramNumber++, lastLoggedTime);
+                    s.setLong(paramNumber, lastEntry.getLogId());
+                }
+            }
+
+            results = s.executeQuery();
+
+            List<LogEntry> resultList = new ArrayList<LogEntry>(pageLen);
+            while (resultList.size() < pageLen && results.next()) {
+                LogEntry logEntry = getLogEntry(results);
+                logEntry.setLogId(results.getLong(DatabaseConstants.LOG_ID_FIELD));
+                logEntry.setSourcePath(sourcePath);
+                resultList.add(logEntry);
+            }
+            return resultList.toArray(new LogEntry[resultList.size()]);
+
+        } catch (SQLException e) {
+
+            String msg = "Failed to get logs. " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        } finally {
+            try {
+                try {
+                    if (results != null) {
+                        results.close();
+                    }
+                } finally {
+                    try {
+                        if (s != null) {
+                            s.close();
+                        }
+                    } finally {
+                        if (conn != null) {
+                            conn.close();
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
+            }
+        }
+    }
+
+    // Utility method to set the parameters of the 'WHERE' part added by addWherePart. Returns the
+    // index of the next parameter.
+    private int setWhereParameters(PreparedStatement s, String resourcePath, String userName,
+                                   Date from, Date to, int action) throws SQLException {
+        int paramNumber = 1;
+        if (resourcePath != null) {
+            s.setString(paramNumber++, resourcePath);
+        }
+        if (userName != null) {
+            s.setString(paramNumber++, userName);
+        }
+        if (from != null) {
+            s.setTimestamp(paramNumber++, new Timestamp(from.getTime()));
+        }
+        if (to != null) {
+            s.setTimestamp(paramNumber++, new Timestamp(to.getTime()));
+        }
+        if (action != -1) {
+            s.setInt(paramNumber++, action);
+        }
+        s.setInt(paramNumber++, CurrentSession.getTenantId());
+        return paramNumber;
+    }
+
+    public int getApproximateLogsCount(String resourcePath,
+                                       int action,
+                                       String userName,
+                                       Date from,
+                                       Date to)
+            throws RegistryException {
+        String key = CurrentSession.getTenantId() + ":" + resourcePath + ":" + action + ":" +
+                userName + ":" + (from == null ? "" : from.getTime()) + ":" +
+                (to == null ? "" : to.getTime());
+        long now = System.currentTimeMillis();
+        synchronized (logCountCache) {
+            CachedLogCount cachedLogCount = logCountCache.get(key);
+            if (cachedLogCount != null && now - cachedLogCount.countedTime < LOG_COUNT_CACHE_TIMEOUT) {
+                return cachedLogCount.count;
+            }
+        }
+        int count = getLogsCount(resourcePath, action, userName, from, to, false);
+        synchronized (logCountCache) {
+            logCountCache.put(key, new CachedLogCount(count, now));
+        }
+        return count;
+    }
+
     public int getLogsCount(String resourcePath,
                             int action,
                             String userName,
@@ -1023,4 +1260,47 @@ public class JDBCLogsDAO implements LogsDAO {
         }
         return count;
     }
+
+    private static class CachedLogCount {
+
+        private int count;
+        private long countedTime;
+
+        private CachedLogCount(int count, long countedTime) {
+            this.count = count;
+            this.countedTime = countedTime;
+        }
+    }
+
+    // Orders the databases holding log entries. The local repository, which has no source path,
+    // comes first, followed by the mounts in the order of their paths.
+    private static int compareSourcePaths(String sourcePath1, String sourcePath2) {
+        if (sourcePath1 == null) {
+            return sourcePath2 == null ? 0 : -1;
+        }
+        return sourcePath2 == null ? 1 : sourcePath1.compareTo(sourcePath2);
+    }
+
+    // Orders log entries by the logged time, then by the database holding them, and then by the
+    // log id.
+    private static class LogEntryComparator implements Comparator<LogEntry> {
+
+        private boolean descending;
+
+        private LogEntryComparator(boolean descending) {
+            this.descending = descending;
+        }
+
+        public int compare(LogEntry entry1, LogEntry entry2) {
+            int result = entry1.getDate().compareTo(entry2.getDate());
+            if (result == 0) {
+                result = compareSourcePaths(entry1.getSourcePath(), entry2.getSourcePath());
+            }
+            if (result == 0) {
+                result = entry1.getLogId() < entry2.getLogId() ? -1 :
+                        (entry1.getLogId() == entry2.getLogId() ? 0 : 1);
+            }
+            return descending ? -result : result;
+        }
+    }
 }
@@ -29,6 +29,7 @@ import org.wso2.carbon.registry.core.dataaccess.DataAccessManager;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.DatabaseConstants;
 import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDataAccessManager;
+import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDatabaseTransaction;
 import org.wso2.carbon.registry.core.session.CurrentSession;
 import org.wso2.carbon.registry.core.utils.RegistryUtils;
 import org.wso2.carbon.utils.DBUtils;
@@ -39,6 +40,9 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * An extension of the {@link PathCache} to store paths of registry resources on a JDBC-based
@@ -47,6 +51,10 @@ import java.sql.SQLException;
 public class JDBCPathCache extends PathCache {
 
     private static final Log log = LogFactory.getLog(JDBCPathCache.class);
+
+    // Databases that cannot return generated keys look up the id of a newly inserted path using
+    // MAX(REG_PATH_ID). The insert and that lookup are done while holding this lock, so that a
+    // concurrent insert of the same path on this node cannot be mistaken for our own.
     private static final Object ADD_ENTRY_LOCK = new Object();
 
     public static JDBCPathCache getPathCache() {
@@ -64,9 +72,32 @@ public class JDBCPathCache extends PathCache {
      * @throws SQLException      if an error occurs while adding the entry.
      */
     public int addEntry(String path, int parentPathId) throws SQLException, RegistryException {
-        ResultSet results = null;
-        PreparedStatement ps = null;
-        PreparedStatement ps1 = null;
+        return addEntries(Collections.singletonList(path), parentPathId, false);
+    }
+
+    /**
+     * Method to add the path entries of a chain of collections to the database, using a single
+     * transaction. Each path in the list must be the parent of the path which follows it, and the
+     * first path must be a child of the path having the given id. Paths which already have an
+     * entry are not added again. The ids of all the paths are added to the path cache.
+     *
+     * @param paths        the paths to add, starting from the top-most path.
+     * @param parentPathId the id of the parent path of the first path.
+     *
+     * @return the id of the last path in the list.
+     * @throws RegistryException if the data access manager was invalid.
+     * @throws SQLException      if an error occurs while adding the entries.
+     */
+    public int addEntries(List<String> paths, int parentPathId)
+            throws SQLException, RegistryException {
+        return addEntries(paths, parentPathId, true);
+    }
+
+    private int addEntries(List<String> paths, int parentPathId, boolean checkExisting)
+            throws SQLException, RegistryException {
+        if (paths.isEmpty()) {
+            return parentPathId;
+        }
         DataAccessManager dataAccessManager;
         if (CurrentSession.getUserRegistry() != null
                 && CurrentSession.getUserRegistry().getRegistryContext() != null) {
@@ -92,15 +123,73 @@ public class JDBCPathCache extends PathCache {
             log.error("Unable to acquire connection to database.");
             return -1;
         }
+        int tenantId = CurrentSession.getTenantId();
+        int[] pathIds = new int[paths.size()];
         boolean success = false;
-        int pathId = 0;
 
+        try {
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
+            // the existing entries of the whole chain are looked up using a single query.
+            int[] existingPathIds = new int[pathIds.length];
+            if (checkExisting) {
+                selectPathIDs(conn, paths, tenantId, existingPathIds);
+            } else {
+                Arrays.fill(existingPathIds, -1);
+            }
+            int pathId = parentPathId;
+            for (int i = 0; i < pathIds.length; i++) {
+                pathId = (existingPathIds[i] > 0) ? existingPathIds[i] :
+                        insertEntry(conn, dbProductName, paths.get(i), pathId, tenantId);
+                if (pathId <= 0) {
+                    return -1;
+                }
+                pathIds[i] = pathId;
+            }
+            conn.commit();
+            success = true;
+        } catch (SQLException e) {
+            // The most likely cause is another thread, on this or another cluster node, having
+            // added the same path at the same time. If the entries now exist we can continue
+            // with the path ids that were allocated, otherwise the error is rethrown.
+            rollback(conn, paths);
+            success = selectAddedPathIDs(conn, paths, tenantId, pathIds);
+            if (!success) {
+                String msg = "Failed to insert resource to " + paths.get(paths.size() - 1) +
+                        ". " + e.getMessage();
+                log.error(msg, e);
+                throw e;
+            }
+        } finally {
+            try {
+                if (!success) {
+                    rollback(conn, paths);
+                } else {
+                    cachePathIDs(conn, paths, tenantId, pathIds);
+                }
+            } finally {
+                try {
+                    conn.close();
+                } catch (SQLException e) {
+                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
+                            e.getMessage();
+                    log.error(msg, e);
+                }
+            }
+        }
+        return pathIds[pathIds.length - 1];
+    }
+
+    // Inserts a single path entry and returns the id allocated to it. Databases that cannot return
+    // generated keys are queried by the path value, which unlike the maximum id of the table is
+    // not affected by concurrent inserts happening on other connections or cluster nodes.
+    private int insertEntry(Connection conn, String dbProductName, String path,
+                            int parentPathId, int tenantId) throws SQLException {
+        ResultSet results = null;
+        PreparedStatement ps = null;
         try {
             String sql =
                     "INSERT INTO REG_PATH(REG_PATH_VALUE, REG_PATH_PARENT_ID, REG_TENANT_ID) " +
                             "VALUES (?, ?, ?)";
-            String sql1 = "SELECT MAX(REG_PATH_ID) FROM REG_PATH";
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps = conn.prepareStatement(sql, new String[]{
@@ -110,109 +199,166 @@ public class JDBCPathCache extends PathCache {
             }
             ps.setString(1, path);
             ps.setInt(2, parentPathId);
-            ps.setInt(3, CurrentSession.getTenantId());
-            if (returnsGeneratedKeys) {
-                ps.executeUpdate();
-                results = ps.getGeneratedKeys();
-            } else {
+            ps.setInt(3, tenantId);
+            if (!returnsGeneratedKeys) {
                 synchronized (ADD_ENTRY_LOCK) {
                     ps.executeUpdate();
-                    ps1 = conn.prepareStatement(sql1);
-                    results = ps1.executeQuery();
+                    return selectPathID(conn, path, tenantId);
                 }
             }
+            ps.executeUpdate();
+            results = ps.getGeneratedKeys();
+            if (results.next()) {
+                return results.getInt(1);
+            }
+            return -1;
+        } finally {
+            try {
+                try {
+                    if (results != null) {
+                        results.close();
+                    }
+                } finally {
+                    if (ps != null) {
+                        ps.close();
+                    }
+                }
+            } catch (SQLException e) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
+                        e.getMessage();
+                log.error(msg, e);
+            }
+        }
+    }
+
+    private int selectPathID(Connection conn, String path, int tenantId) throws SQLException {
+        ResultSet results = null;
+        PreparedStatement ps = null;
+        try {
+            String sql = "SELECT MAX(REG_PATH_ID) FROM REG_PATH WHERE REG_PATH_VALUE=? " +
+                    "AND REG_TENANT_ID=?";
+            ps = conn.prepareStatement(sql);
+            ps.setString(1, path);
+            ps.setInt(2, tenantId);
+            results = ps.executeQuery();
             if (results.next()) {
-                pathId = results.getInt(1);
+                int pathId = results.getInt(1);
                 if (pathId > 0) {
-                    success = true;
                     return pathId;
                 }
             }
-        } catch (SQLException e) {
-            // we have to be expecting an exception with the duplicate value for the path value
-            // which can be further checked from here..
-            String msg = "Failed to insert resource to " + path + ". " + e.getMessage();
-            log.error(msg, e);
-            throw e;
+            return -1;
         } finally {
-            if (success) {
+            try {
                 try {
-                    conn.commit();
-                    RegistryCacheEntry e = new RegistryCacheEntry(pathId);
-                    String connectionId = null;
-                    if (conn.getMetaData() != null) {
-                        connectionId = RegistryUtils.getConnectionId(conn);
+                    if (results != null) {
+                        results.close();
                     }
-                    RegistryCacheKey key =
-                            RegistryUtils.buildRegistryCacheKey(connectionId,
-                                    CurrentSession.getTenantId(), path);
-                    getCache().put(key, e);
-
-                } catch (SQLException e) {
-                    String msg = "Failed to commit transaction. Inserting " + path + ". " +
-                            e.getMessage();
-                    log.error(msg, e);
                 } finally {
-                    try {
-                        try {
-                            if (results != null) {
-                                results.close();
-                            }
-                        } finally {
-                            try {
-                                if (ps1 != null) {
-                                    ps1.close();
-                                }
-                            } finally {
-                                try {
-                                    if (ps != null) {
-                                        ps.close();
-                                    }
-                                } finally {
-                                    conn.close();
-                                }
-                            }
-                        }
-                    } catch (SQLException e) {
-                        String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
-                                e.getMessage();
-                        log.error(msg, e);
+                    if (ps != null) {
+                        ps.close();
                     }
                 }
-            } else {
-                try {
-                    conn.rollback();
+            } catch (SQLException e) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
+                        e.getMessage();
+                log.error(msg, e);
+            }
+        }
+    }
 
-                } catch (SQLException e) {
-                    String msg = "Failed to rollback transaction. Inserting " + path + ". " +
-                            e.getMessage();
-                    log.error(msg, e);
+    // Looks up the ids of the given paths using a single query. The id of a path which has no
+    // entry is set to -1.
+    private void selectPathIDs(Connection conn, List<String> paths, int tenantId,
+                               int[] pathIds) throws SQLException {
+        Arrays.fill(pathIds, -1);
+        ResultSet results = null;
+        PreparedStatement ps = null;
+        try {
+            StringBuffer sql = new StringBuffer("SELECT REG_PATH_VALUE, MAX(REG_PATH_ID) " +
+                    "FROM REG_PATH WHERE REG_PATH_VALUE IN (");
+            for (int i = 0; i < paths.size(); i++) {
+                sql.append(i > 0 ? ",?" : "?");
+            }
+            sql.append(") AND REG_TENANT_ID=? GROUP BY REG_PATH_VALUE");
+            ps = conn.prepareStatement(sql.toString());
+            int index = 1;
+            for (String path : paths) {
+                ps.setString(index++, path);
+            }
+            ps.setInt(index, tenantId);
+            results = ps.executeQuery();
+            while (results.next()) {
+                int i = paths.indexOf(results.getString(1));
+                int pathId = results.getInt(2);
+                if (i >= 0 && pathId > 0) {
+                    pathIds[i] = pathId;
+                }
+            }
+        } finally {
+            try {
+                try {
+                    if (results != null) {
+                        results.close();
+                    }
                 } finally {
-                    try {
-                        try {
-                            if (results != null) {
-                                results.close();
-                            }
-                        } finally {
-                            try {
-                                if (ps != null) {
-                                    ps.close();
-                                }
-                            } finally {
-                                if (conn != null) {
-                                    conn.close();
-                                }
-                            }
-                        }
-                    } catch (SQLException e) {
-                        String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
-                                e.getMessage();
-                        log.error(msg, e);
+                    if (ps != null) {
+                        ps.close();
                     }
                 }
+            } catch (SQLException e) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR +
+                        e.getMessage();
+                log.error(msg, e);
             }
         }
-        return -1;
+    }
+
+    // Looks up the ids of paths which could not be inserted, and returns true only if all of them
+    // have been added by someone else in the meantime.
+    private boolean selectAddedPathIDs(Connection conn, List<String> paths, int tenantId,
+                                       int[] pathIds) {
+        try {
+            selectPathIDs(conn, paths, tenantId, pathIds);
+            for (int pathId : pathIds) {
+                if (pathId <= 0) {
+                    return false;
+                }
+            }
+            conn.commit();
+            return true;
+        } catch (SQLException e) {
+            log.debug("Failed to look up the existing path entries.", e);
+            return false;
+        }
+    }
+
+    private void rollback(Connection conn, List<String> paths) {
+        try {
+            conn.rollback();
+        } catch (SQLException e) {
+            String msg = "Failed to rollback transaction. Inserting " +
+                    paths.get(paths.size() - 1) + ". " + e.getMessage();
+            log.error(msg, e);
+        }
+    }
+
+    // Adds both the path to id and the id to path mappings, so that neither the resources added
+    // under these paths nor the subsequent reads of them have to go to the database.
+    private void cachePathIDs(Connection conn, List<String> paths, int tenantId, int[] pathIds)
+            throws SQLException {
+        String connectionId = null;
+        if (conn.getMetaData() != null) {
+            connectionId = RegistryUtils.getConnectionId(conn);
+        }
+        Cache<RegistryCacheKey, RegistryCacheEntry> cache = getCache();
+        for (int i = 0; i < pathIds.length; i++) {
+            String path = paths.get(i);
+            cache.put(RegistryUtils.buildRegistryCacheKey(connectionId, tenantId, path),
+                    new RegistryCacheEntry(pathIds[i]));
+            cache.put(RegistryUtils.buildRegistryCacheKey(connectionId, tenantId,
+                    Integer.toString(pathIds[i])), new RegistryCacheEntry(path));
+        }
     }
 
     /**
@@ -37,7 +37,9 @@ import org.wso2.carbon.utils.DBUtils;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An implementation of the {@link RatingsDAO} to store ratings on a JDBC-based database.
@@ -71,7 +73,7 @@ public class JDBCRatingsDAO implements RatingsDAO {
                     "INSERT INTO REG_RATING (REG_RATING, REG_USER_ID, REG_RATED_TIME, " +
                             "REG_TENANT_ID) VALUES (?,?,?,?)";
             String sql2 = "SELECT MAX(REG_ID) FROM REG_RATING";
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -398,6 +400,59 @@ public class JDBCRatingsDAO implements RatingsDAO {
         return averageRating;
     }
 
+    public Map<String, Float> getAverageRatings(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getAverageRatings(resources, false);
+    }
+
+    /**
+     * Method to get the average rating added to each of the given resources.
+     *
+     * @param resources the resources.
+     * @param versioned whether the ratings are associated with versions of the resources.
+     *
+     * @return the average rating of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurs while getting the average ratings.
+     */
+    protected Map<String, Float> getAverageRatings(List<ResourceImpl> resources,
+                                                   boolean versioned) throws RegistryException {
+        final Map<String, Float> averageRatings = new LinkedHashMap<String, Float>();
+        for (ResourceImpl resource : resources) {
+            averageRatings.put(resource.getPath(), 0f);
+        }
+        if (resources.isEmpty()) {
+            return averageRatings;
+        }
+        JDBCDatabaseTransaction.ManagedRegistryConnection conn =
+                JDBCDatabaseTransaction.getConnection();
+        ResourceBatchQuery query = new ResourceBatchQuery(2) {
+            protected String getSQL(String keyColumn, String condition) {
+                return "SELECT " + keyColumn + ", SUM(R.REG_RATING), COUNT(R.REG_RATING) " +
+                        "FROM REG_RATING R, REG_RESOURCE_RATING RR WHERE " + condition + " AND " +
+                        "RR.REG_RATING_ID=R.REG_ID AND R.REG_TENANT_ID=? AND " +
+                        "RR.REG_TENANT_ID=? GROUP BY " + keyColumn;
+            }
+
+            protected void processRow(ResultSet results, ResourceImpl resource)
+                    throws SQLException {
+                int sumRating = results.getInt(2);
+                int countRating = results.getInt(3);
+                if (countRating > 0) {
+                    averageRatings.put(resource.getPath(), (float) sumRating / countRating);
+                }
+            }
+        };
+        try {
+            query.execute(conn, "RR", resources, versioned);
+        } catch (SQLException e) {
+            String msg = "Failed to get the average ratings of " + resources.size() +
+                    " resources. " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+        return averageRatings;
+    }
+
     public RatingDO getRatingDO(ResourceImpl resourceImpl, String userID) throws RegistryException {
 
         JDBCDatabaseTransaction.ManagedRegistryConnection conn =
@@ -37,6 +37,7 @@ import org.wso2.carbon.utils.DBUtils;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An extension of {@link JDBCRatingsDAO} implements {@link RatingsDAO} to store ratings on a
@@ -80,7 +81,7 @@ public class JDBCRatingsVersionDAO extends JDBCRatingsDAO implements RatingsDAO
                     "INSERT INTO REG_RATING (REG_RATING, REG_USER_ID, REG_RATED_TIME, " +
                             "REG_TENANT_ID) VALUES (?,?,?,?)";
             String sql2 = "SELECT MAX(REG_ID) FROM REG_RATING";
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -548,6 +549,11 @@ public class JDBCRatingsVersionDAO extends JDBCRatingsDAO implements RatingsDAO
     }
 
 
+    public Map<String, Float> getAverageRatings(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getAverageRatings(resources, true);
+    }
+
     /**
      * Gets the resource with sufficient data to differentiate it from another resource. This would
      * populate a {@link ResourceImpl} with the <b>path</b>, <b>name</b> and <b>path identifier</b>
@@ -38,6 +38,7 @@ import org.wso2.carbon.registry.core.utils.RegistryUtils;
 import org.wso2.carbon.utils.DBUtils;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.*;
@@ -364,6 +365,36 @@ public class JDBCResourceDAO implements ResourceDAO {
         }
     }
 
+    public void fillResourcePropertiesWithNoUpdate(List<ResourceImpl> resources)
+            throws RegistryException {
+        if (resources.isEmpty()) {
+            return;
+        }
+        JDBCDatabaseTransaction.ManagedRegistryConnection conn =
+                JDBCDatabaseTransaction.getConnection();
+        ResourceBatchQuery query = new ResourceBatchQuery(2) {
+            protected String getSQL(String keyColumn, String condition) {
+                return "SELECT " + keyColumn + ", P.REG_NAME, P.REG_VALUE FROM REG_PROPERTY P, " +
+                        "REG_RESOURCE_PROPERTY RP WHERE " + condition + " AND " +
+                        "P.REG_ID=RP.REG_PROPERTY_ID AND P.REG_TENANT_ID=? AND RP.REG_TENANT_ID=?";
+            }
+
+            protected void processRow(ResultSet results, ResourceImpl resource)
+                    throws SQLException {
+                resource.addPropertyWithNoUpdate(results.getString(DatabaseConstants.NAME_FIELD),
+                        results.getString(DatabaseConstants.VALUE_FIELD));
+            }
+        };
+        try {
+            query.execute(conn, "RP", resources, StaticConfiguration.isVersioningProperties());
+        } catch (SQLException e) {
+            String msg = "Failed to add properties to " + resources.size() + " resources. " +
+                    e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
+
     public void fillResourceProperties(ResourceImpl resourceImpl) throws RegistryException {
         JDBCDatabaseTransaction.ManagedRegistryConnection conn =
                 JDBCDatabaseTransaction.getConnection();
@@ -509,6 +540,22 @@ public class JDBCResourceDAO implements ResourceDAO {
         return resourceID;
     }
 
+    public void createCollectionIDs(List<String> paths, ResourceIDImpl parentID)
+            throws RegistryException {
+        int parentPathID = -1;
+        if (parentID != null) {
+            parentPathID = parentID.getPathID();
+        }
+        try {
+            JDBCPathCache.getPathCache().addEntries(paths, parentPathID);
+        } catch (SQLException e) {
+            String msg = "Failed to create the resource ids for the collections under " +
+                    paths.get(0) + ". " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
+
     public void deleteContentStream(int contentID) throws RegistryException {
         JDBCDatabaseTransaction.ManagedRegistryConnection conn =
                 JDBCDatabaseTransaction.getConnection();
@@ -580,6 +627,88 @@ public class JDBCResourceDAO implements ResourceDAO {
         return null;
     }
 
+    public InputStream openContentStream(int contentID) throws RegistryException {
+        JDBCDatabaseTransaction.ManagedRegistryConnection conn =
+                JDBCDatabaseTransaction.getConnection();
+        PreparedStatement ps = null;
+        ResultSet result = null;
+        InputStream contentStream = null;
+        try {
+            String resourceContentSQL = "SELECT REG_CONTENT_DATA  FROM  REG_CONTENT WHERE " +
+                    "REG_CONTENT_ID = ? AND REG_TENANT_ID=?";
+            ps = conn.prepareStatement(resourceContentSQL);
+            ps.setLong(1, contentID);
+            ps.setInt(2, CurrentSession.getTenantId());
+            result = ps.executeQuery();
+            if (result.next()) {
+                InputStream rawInputStream =
+                        result.getBinaryStream(DatabaseConstants.CONTENT_DATA_FIELD);
+                if (rawInputStream != null) {
+                    contentStream = new ResultSetInputStream(rawInputStream, result, ps);
+                }
+            }
+            return contentStream;
+        } catch (SQLException ex) {
+            String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+            log.error(msg, ex);
+            throw new RegistryException(msg, ex);
+        } finally {
+            if (contentStream == null) {
+                try {
+                    try {
+                        if (result != null) {
+                            result.close();
+                        }
+                    } finally {
+                        if (ps != null) {
+                            ps.close();
+                        }
+                    }
+                } catch (SQLException ex) {
+                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                    log.error(msg, ex);
+                }
+            }
+        }
+    }
+
+    // A stream reading a column of a result set, which closes the result set and its statement
+    // when the stream is closed.
+    private static class ResultSetInputStream extends FilterInputStream {
+
+        private ResultSet result;
+        private PreparedStatement ps;
+
+        private ResultSetInputStream(InputStream in, ResultSet result, PreparedStatement ps) {
+            super(in);
+            this.result = result;
+            this.ps = ps;
+        }
+
+        public void close() throws IOException {
+            if (result == null) {
+                return;
+            }
+            try {
+                super.close();
+            } finally {
+                try {
+                    try {
+                        result.close();
+                    } finally {
+                        ps.close();
+                    }
+                } catch (SQLException ex) {
+                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                    log.error(msg, ex);
+                } finally {
+                    result = null;
+                    ps = null;
+                }
+            }
+        }
+    }
+
     public void update(ResourceImpl resourceImpl) throws RegistryException {
 
         // there is no difference of adding a resource and updating as it is always
@@ -1091,6 +1220,236 @@ public class JDBCResourceDAO implements ResourceDAO {
         return getChildren(collection, start, pageLen, JDBCDatabaseTransaction.getConnection());
     }
 
+    public String[] getChildren(CollectionImpl collection, String afterPath, int pageLen,
+                                DataAccessManager dataAccessManager)
+            throws RegistryException {
+        String[] childPaths = null;
+
+        if (Transaction.isStarted()) {
+            childPaths = getChildren(collection, afterPath, pageLen,
+                    JDBCDatabaseTransaction.getConnection());
+        } else {
+            Connection conn = null;
+            boolean transactionSucceeded = false;
+            try {
+                if (!(dataAccessManager instanceof JDBCDataAccessManager)) {
+                    String msg = "Failed to get children. Invalid data access manager.";
+                    log.error(msg);
+                    throw new RegistryException(msg);
+                }
+                conn = ((JDBCDataAccessManager)
+                        dataAccessManager).getDataSource().getConnection();
+
+                // If a managed connection already exists, use that instead of a new
+                // connection.
+                JDBCDatabaseTransaction.ManagedRegistryConnection temp =
+                        JDBCDatabaseTransaction.getManagedRegistryConnection(conn);
+                if (temp != null) {
+                    conn.close();
+                    conn = temp;
+                }
+                if (conn.getTransactionIsolation() !=
+                        Connection.TRANSACTION_READ_COMMITTED) {
+                    conn.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                }
+                conn.setAutoCommit(false);
+
+                childPaths = getChildren(collection, afterPath, pageLen, conn);
+                transactionSucceeded = true;
+            } catch (SQLException e) {
+
+                String msg = "Failed to get " + pageLen + " child paths after " + afterPath +
+                        " of resource " + collection.getPath() + ". " + e.getMessage();
+                log.error(msg, e);
+                throw new RegistryException(msg, e);
+
+            } finally {
+                if (transactionSucceeded) {
+                    try {
+                        conn.commit();
+                    } catch (SQLException e) {
+                        log.error("Failed to commit the database connection used in " +
+                                "getting child paths of the collection " + collection.getPath());
+                    }
+                } else if (conn != null) {
+                    try {
+                        conn.rollback();
+                    } catch (SQLException e) {
+                        log.error("Failed to rollback the database connection used in " +
+                                "getting child paths of the collection " + collection.getPath());
+                    }
+                }
+                if (conn != null) {
+                    try {
+                        conn.close();
+                    } catch (SQLException e) {
+                        log.error("Failed to close the database connection used in " +
+                                "getting child paths of the collection " + collection.getPath());
+                    }
+                }
+            }
+        }
+        return childPaths;
+    }
+
+    /**
+     * Get a page of children of the collection, which follow the given child. Child resources are
+     * returned ordered by name, followed by child collections ordered by path.
+     *
+     * @param collection the collection of which the children are retrieved.
+     * @param afterPath  the path of the last child of the previous page, or null to get the first
+     *                   page.
+     * @param pageLen    the number of children to retrieve, or -1 to get all the rest.
+     * @param conn       the database connection
+     *
+     * @return an array of children paths
+     * @throws RegistryException throws if the operation failed.
+     */
+    public String[] getChildren(CollectionImpl collection, String afterPath, int pageLen,
+                                Connection conn)
+            throws RegistryException {
+
+        if (pageLen == 0) {
+            return new String[0];
+        }
+        ResourceIDImpl resourceID = collection.getResourceIDImpl();
+        String parentPath = new ResourcePath(resourceID.getPath()).getPath();
+        List<String> childPaths = new ArrayList<String>();
+        try {
+            // find out whether the previous page ended with a child resource or a collection.
+            String afterName = null;
+            String afterCollectionPath = null;
+            if (afterPath != null) {
+                int afterPathID = JDBCPathCache.getPathCache().getPathID(conn, afterPath);
+                if (afterPathID != -1 && collectionExists(conn, afterPathID)) {
+                    afterCollectionPath = afterPath;
+                } else {
+                    afterName = RegistryUtils.getResourceName(afterPath);
+                }
+            }
+
+            if (afterCollectionPath == null) {
+                // step1: get the child resources.
+                String sql = "SELECT R.REG_NAME FROM REG_RESOURCE R WHERE R.REG_PATH_ID=? " +
+                        "AND R.REG_TENANT_ID=? AND R.REG_NAME IS NOT NULL ";
+                String sqlAfter = sql + "AND R.REG_NAME > ? ";
+                addChildren(conn, sql + "ORDER BY R.REG_NAME",
+                        sqlAfter + "ORDER BY R.REG_NAME", resourceID.getPathID(), afterName,
+                        pageLen, parentPath, childPaths);
+            }
+            if (pageLen == -1 || childPaths.size() < pageLen) {
+                // step2: get the child collections
+                String sql = "SELECT P.REG_PATH_VALUE FROM REG_PATH P, REG_RESOURCE R " +
+                        "WHERE P.REG_PATH_PARENT_ID=? AND P.REG_TENANT_ID=? AND " +
+                        "R.REG_PATH_ID=P.REG_PATH_ID AND R.REG_NAME IS NULL AND " +
+                        "R.REG_TENANT_ID=P.REG_TENANT_ID ";
+                String sqlAfter = sql + "AND P.REG_PATH_VALUE > ? ";
+                addChildren(conn, sql + "ORDER BY P.REG_PATH_VALUE",
+                        sqlAfter + "ORDER BY P.REG_PATH_VALUE", resourceID.getPathID(),
+                        afterCollectionPath, pageLen, null, childPaths);
+            }
+            return childPaths.toArray(new String[childPaths.size()]);
+
+        } catch (SQLException e) {
+
+            String msg = "Failed to get child paths of resource " +
+                    collection.getPath() + ". " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        }
+    }
+
+    // Adds the paths of the readable children which follow the given key to the list, until the
+    // page is full or there are no more children. Children are read a page at a time, as some of
+    // them may not be readable by the current user. If a parent path is given, the query returns
+    // resource names, and collection paths otherwise.
+    private void addChildren(Connection conn, String sql, String sqlAfter, int pathID,
+                             String afterKey, int pageLen, String parentPath,
+                             List<String> childPaths) throws SQLException {
+        String key = afterKey;
+        while (true) {
+            int rowCount = 0;
+            PreparedStatement ps = null;
+            ResultSet results = null;
+            try {
+                ps = conn.prepareStatement(key == null ? sql : sqlAfter);
+                ps.setInt(1, pathID);
+                ps.setInt(2, CurrentSession.getTenantId());
+                if (key != null) {
+                    ps.setString(3, key);
+                }
+                if (pageLen != -1) {
+                    ps.setMaxRows(pageLen);
+                }
+                results = ps.executeQuery();
+                while (results.next()) {
+                    rowCount++;
+                    key = results.getString(1);
+                    String childPath = key;
+                    if (parentPath != null) {
+                        childPath = parentPath +
+                                (parentPath.equals(RegistryConstants.PATH_SEPARATOR) ? "" :
+                                        RegistryConstants.PATH_SEPARATOR) + key;
+                    }
+                    if (AuthorizationUtils.authorize(childPath, ActionConstants.GET)) {
+                        childPaths.add(childPath);
+                        if (childPaths.size() == pageLen) {
+                            return;
+                        }
+                    }
+                }
+            } finally {
+                try {
+                    try {
+                        if (results != null) {
+                            results.close();
+                        }
+                    } finally {
+                        if (ps != null) {
+                            ps.close();
+                        }
+                    }
+                } catch (SQLException ex) {
+                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                    log.error(msg, ex);
+                }
+            }
+            if (pageLen == -1 || rowCount < pageLen) {
+                return;
+            }
+        }
+    }
+
+    // Checks whether a collection exists at the path with the given id.
+    private boolean collectionExists(Connection conn, int pathID) throws SQLException {
+        PreparedStatement ps = null;
+        ResultSet results = null;
+        try {
+            String sql = "SELECT R.REG_PATH_ID FROM REG_RESOURCE R WHERE R.REG_PATH_ID=? AND " +
+                    "R.REG_NAME IS NULL AND R.REG_TENANT_ID=?";
+            ps = conn.prepareStatement(sql);
+            ps.setInt(1, pathID);
+            ps.setInt(2, CurrentSession.getTenantId());
+            results = ps.executeQuery();
+            return results.next();
+        } finally {
+            try {
+                try {
+                    if (results != null) {
+                        results.close();
+                    }
+                } finally {
+                    if (ps != null) {
+                        ps.close();
+                    }
+                }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
+            }
+        }
+    }
+
     public ResourceImpl getResourceMetaData(String path) throws RegistryException {
         ResourceIDImpl resourceIDImpl = getResourceID(path);
         ResourceImpl resourceImpl = null;
@@ -1251,7 +1610,7 @@ public class JDBCResourceDAO implements ResourceDAO {
                 JDBCDatabaseTransaction.getConnection();
         PreparedStatement ps = null;
         try {
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             String sql;
             // If SQL Server or SQL Server Express.
             if (dbProductName.contains("Microsoft")) {
@@ -1349,7 +1708,7 @@ public class JDBCResourceDAO implements ResourceDAO {
 
             long now = System.currentTimeMillis();
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps = conn.prepareStatement(sql, new String[]{
@@ -1458,7 +1817,7 @@ public class JDBCResourceDAO implements ResourceDAO {
                             "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
             String sql1 = "SELECT MAX(REG_VERSION) FROM REG_RESOURCE";
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps = conn.prepareStatement(sql, new String[]{
@@ -1593,102 +1952,123 @@ public class JDBCResourceDAO implements ResourceDAO {
 
         ResourceIDImpl resourceID = resource.getResourceIDImpl();
         Properties props = resource.getProperties();
+        if (props == null || props.isEmpty()) {
+            return;
+        }
+
+        // The property rows have to be inserted one at a time to obtain their ids, but the rows
+        // linking them to the resource are sent to the database as a single batch.
+        PreparedStatement ps1 = null;
+        PreparedStatement ps3 = null;
+        try {
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
+            boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
+            if (returnsGeneratedKeys) {
+                ps1 = conn.prepareStatement(sql1, new String[]{
+                        DBUtils.getConvertedAutoGeneratedColumnName(dbProductName,
+                                DatabaseConstants.ID_FIELD)});
+            } else {
+                ps1 = conn.prepareStatement(sql1);
+            }
+            ps3 = conn.prepareStatement(sql3);
 
-        if (props != null) {
+            boolean hasBatch = false;
             for (Object nameObj : props.keySet()) {
                 String name = (String) nameObj;
                 List propValues = (List) props.get(name);
                 if (propValues != null) {
                     for (Object valueObj : propValues) {
-                        PreparedStatement ps1 = null;
-                        PreparedStatement ps2 = null;
-                        PreparedStatement ps3 = null;
-                        ResultSet resultSet1 = null;
-                        try {
-                            String value = (String) valueObj;
-                            String dbProductName = conn.getMetaData().getDatabaseProductName();
-                            boolean returnsGeneratedKeys =
-                                    DBUtils.canReturnGeneratedKeys(dbProductName);
-                            if (returnsGeneratedKeys) {
-                                ps1 = conn.prepareStatement(sql1, new String[]{
-                                        DBUtils.getConvertedAutoGeneratedColumnName(dbProductName,
-                                                DatabaseConstants.ID_FIELD)});
-                            } else {
-                                ps1 = conn.prepareStatement(sql1);
-                            }
-                            ps3 = conn.prepareStatement(sql3);
-
-                            // prepare to execute query1 for the property
-                            ps1.setString(1, name);
-                            ps1.setString(2, value);
-                            ps1.setInt(3, CurrentSession.getTenantId());
-                            if (returnsGeneratedKeys) {
-                                ps1.executeUpdate();
-                                resultSet1 = ps1.getGeneratedKeys();
+                        String value = (String) valueObj;
+                        int propertyId = addProperty(conn, ps1, sql2, name, value,
+                                returnsGeneratedKeys);
+                        if (propertyId <= 0) {
+                            continue;
+                        }
+                        // setting the property id
+                        ps3.setInt(1, propertyId);
+                        if (isVersioningProperties) {
+                            ps3.setLong(2, resource.getVersionNumber());
+                            ps3.setInt(3, CurrentSession.getTenantId());
+                        } else {
+                            ps3.setLong(2, resourceID.getPathID());
+                            if (resourceID.getName() == null) {
+                                ps3.setNull(3, Types.VARCHAR);
                             } else {
-                                synchronized (ADD_PROPERTY_LOCK) {
-                                    ps1.executeUpdate();
-                                    ps2 = conn.prepareStatement(sql2);
-                                    resultSet1 = ps2.executeQuery();
-                                }
-                            }
-                            if (resultSet1.next()) {
-                                // setting the property id
-                                int propertyId = resultSet1.getInt(1);
-                                ps3.setInt(1, propertyId);
-                                if (isVersioningProperties) {
-                                    ps3.setLong(2, resource.getVersionNumber());
-                                    ps3.setInt(3, CurrentSession.getTenantId());
-                                } else {
-                                    ps3.setLong(2, resourceID.getPathID());
-                                    if (resourceID.getName() == null) {
-                                        ps3.setNull(3, Types.VARCHAR);
-                                    } else {
-                                        ps3.setString(3, resourceID.getName());
-                                    }
-                                    ps3.setInt(4, CurrentSession.getTenantId());
-                                }
-                                ps3.executeUpdate();
+                                ps3.setString(3, resourceID.getName());
                             }
+                            ps3.setInt(4, CurrentSession.getTenantId());
+                        }
+                        ps3.addBatch();
+                        hasBatch = true;
+                    }
+                }
+            }
+            if (hasBatch) {
+                ps3.executeBatch();
+            }
 
-                        } catch (SQLException e) {
+        } catch (SQLException e) {
 
-                            String msg = "Failed to add properties to the resource " +
-                                    resource.getPath() + ". " + e.getMessage();
-                            log.error(msg, e);
-                            throw new RegistryException(msg, e);
-                        } finally {
-                            // closing prepared statements before moving on to next iteration
-                            try {
-                                try {
-                                    try {
-                                        if (resultSet1 != null) {
-                                            resultSet1.close();
-                                        }
-                                    } finally {
-                                        if (ps1 != null) {
-                                            ps1.close();
-                                        }
-                                    }
-                                } finally {
-                                    try {
-                                        if (ps2 != null) {
-                                            ps2.close();
-                                        }
-                                    } finally {
-                                        if (ps3 != null) {
-                                            ps3.close();
-                                        }
-                                    }
-                                }
-                            } catch (SQLException ex) {
-                                String msg =
-                                        RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
-                                log.error(msg, ex);
-                            }
-                        }
+            String msg = "Failed to add properties to the resource " +
+                    resource.getPath() + ". " + e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        } finally {
+            try {
+                try {
+                    if (ps1 != null) {
+                        ps1.close();
+                    }
+                } finally {
+                    if (ps3 != null) {
+                        ps3.close();
+                    }
+                }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
+            }
+        }
+    }
+
+    // Inserts a single property, and returns its id.
+    private int addProperty(Connection conn, PreparedStatement ps1, String sql2, String name,
+                            String value, boolean returnsGeneratedKeys) throws SQLException {
+        PreparedStatement ps2 = null;
+        ResultSet resultSet1 = null;
+        try {
+            // prepare to execute query1 for the property
+            ps1.setString(1, name);
+            ps1.setString(2, value);
+            ps1.setInt(3, CurrentSession.getTenantId());
+            if (returnsGeneratedKeys) {
+                ps1.executeUpdate();
+                resultSet1 = ps1.getGeneratedKeys();
+            } else {
+                synchronized (ADD_PROPERTY_LOCK) {
+                    ps1.executeUpdate();
+                    ps2 = conn.prepareStatement(sql2);
+                    resultSet1 = ps2.executeQuery();
+                }
+            }
+            if (resultSet1.next()) {
+                return resultSet1.getInt(1);
+            }
+            return -1;
+        } finally {
+            try {
+                try {
+                    if (resultSet1 != null) {
+                        resultSet1.close();
+                    }
+                } finally {
+                    if (ps2 != null) {
+                        ps2.close();
                     }
                 }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
             }
         }
     }
@@ -1862,7 +2242,7 @@ public class JDBCResourceDAO implements ResourceDAO {
 
             int size = contentStream.available();
             PreparedStatement ps, ps1 = null;
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps = conn.prepareStatement(sql,
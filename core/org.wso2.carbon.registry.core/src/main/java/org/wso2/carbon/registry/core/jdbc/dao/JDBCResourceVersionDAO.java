@@ -33,6 +33,7 @@ import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDataAccessManager;
 import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDatabaseTransaction;
 import org.wso2.carbon.registry.core.jdbc.dataobjects.ResourceDO;
 import org.wso2.carbon.registry.core.jdbc.utils.Transaction;
+import org.wso2.carbon.registry.core.jdbc.utils.VersionInputStream;
 import org.wso2.carbon.registry.core.jdbc.utils.VersionRetriever;
 import org.wso2.carbon.registry.core.session.CurrentSession;
 import org.wso2.carbon.registry.core.utils.AuthorizationUtils;
@@ -724,8 +725,16 @@ public class JDBCResourceVersionDAO implements ResourceVersionDAO {
                             "REG_RESOURCE_VIDS, REG_TENANT_ID) VALUES (?, ?, ?, ?)";
             String sql1 = "SELECT MAX(REG_SNAPSHOT_ID) FROM REG_SNAPSHOT";
 
-            int size = versionsStream.available();
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            int size;
+            if (versionsStream instanceof VersionInputStream) {
+                size = versionsStream.available();
+            } else {
+                // the size of an arbitrary stream is not known until it has been read.
+                byte[] versions = RegistryUtils.getByteArray(versionsStream);
+                size = versions.length;
+                versionsStream = new ByteArrayInputStream(versions);
+            }
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps = conn.prepareStatement(sql, new String[]{
@@ -912,7 +921,7 @@ public class JDBCResourceVersionDAO implements ResourceVersionDAO {
         ResultSet result = null;
         PreparedStatement ps = null;
         try {
-            String sql = "SELECT REG_CONTENT_DATA FROM REG_CONTENT_HISTORY WHERE " +
+            String sql = "SELECT REG_CONTENT_ID FROM REG_CONTENT_HISTORY WHERE " +
                     "REG_CONTENT_ID = ? AND REG_TENANT_ID=?";
 
             ps = conn.prepareStatement(sql);
@@ -1208,16 +1217,11 @@ public class JDBCResourceVersionDAO implements ResourceVersionDAO {
         }
     }
 
-    // Create a version of the resource content.
+    // Create a version of the resource content. The content is copied within the database, so
+    // that it does not have to be read into memory.
     private void versionContent(int contentID) throws RegistryException {
 
         if (!isContentHistoryExist(contentID)) {
-            InputStream contentStream = resourceDAO.getContentStream(contentID);
-            if (contentStream == null) {
-                // create an empty input stream
-                contentStream = new ByteArrayInputStream(RegistryUtils.encodeString(""));
-            }
-            // copy the content to the content_history table
             JDBCDatabaseTransaction.ManagedRegistryConnection conn =
                     JDBCDatabaseTransaction.getConnection();
             PreparedStatement ps = null;
@@ -1225,14 +1229,29 @@ public class JDBCResourceVersionDAO implements ResourceVersionDAO {
 
                 String sql =
                         "INSERT INTO REG_CONTENT_HISTORY (REG_CONTENT_ID, REG_CONTENT_DATA, " +
-                                "REG_TENANT_ID) VALUES (?, ?, ?)";
+                                "REG_TENANT_ID) SELECT REG_CONTENT_ID, REG_CONTENT_DATA, " +
+                                "REG_TENANT_ID FROM REG_CONTENT WHERE REG_CONTENT_ID=? AND " +
+                                "REG_TENANT_ID=? AND REG_CONTENT_DATA IS NOT NULL";
 
-                int size = contentStream.available();
                 ps = conn.prepareStatement(sql);
                 ps.setInt(1, contentID);
-                ps.setBinaryStream(2, contentStream, size);
-                ps.setInt(3, CurrentSession.getTenantId());
-                ps.executeUpdate();
+                ps.setInt(2, CurrentSession.getTenantId());
+                if (ps.executeUpdate() == 0) {
+                    ps.close();
+                    ps = null;
+
+                    // there is no content to copy, so we store an empty content in the history.
+                    sql = "INSERT INTO REG_CONTENT_HISTORY (REG_CONTENT_ID, REG_CONTENT_DATA, " +
+                            "REG_TENANT_ID) VALUES (?, ?, ?)";
+
+                    byte[] emptyContent = RegistryUtils.encodeString("");
+                    ps = conn.prepareStatement(sql);
+                    ps.setInt(1, contentID);
+                    ps.setBinaryStream(2, new ByteArrayInputStream(emptyContent),
+                            emptyContent.length);
+                    ps.setInt(3, CurrentSession.getTenantId());
+                    ps.executeUpdate();
+                }
 
             } catch (Exception ex) {
                 String msg = "Failed to put the content into history with the content id " +
@@ -1254,8 +1273,8 @@ public class JDBCResourceVersionDAO implements ResourceVersionDAO {
                 }
             }
         }
-    }    
-    
+    }
+
     public void removeSnapshot(long snapshotId) throws RegistryException {
 
         JDBCDatabaseTransaction.ManagedRegistryConnection conn =
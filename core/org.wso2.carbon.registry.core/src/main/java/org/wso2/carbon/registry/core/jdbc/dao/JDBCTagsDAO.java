@@ -35,7 +35,9 @@ import org.wso2.carbon.utils.DBUtils;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An implementation of the {@link TagsDAO} to store tags on a JDBC-based database.
@@ -71,7 +73,7 @@ public class JDBCTagsDAO implements TagsDAO {
             String sql2 = "SELECT MAX(REG_ID) FROM REG_TAG";
             long now = System.currentTimeMillis();
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -152,19 +154,24 @@ public class JDBCTagsDAO implements TagsDAO {
                 JDBCDatabaseTransaction.getConnection();
         long now = System.currentTimeMillis();
 
-        for (TaggingDO taggingDO : taggingDOs) {
+        PreparedStatement ps = null;
+        PreparedStatement ps2 = null;
+        try {
+            String sql =
+                    "INSERT INTO REG_TAG (REG_TAG_NAME, REG_USER_ID, REG_TAGGED_TIME, " +
+                            "REG_TENANT_ID) VALUES (?,?,?,?)";
+            String sql2 = "INSERT INTO REG_RESOURCE_TAG (REG_TAG_ID, REG_PATH_ID, " +
+                    "REG_RESOURCE_NAME, REG_TENANT_ID) VALUES(?,?,?,?)";
 
-            PreparedStatement ps = null;
-            PreparedStatement ps2 = null;
-            ResultSet result = null;
-            try {
-                String sql =
-                        "INSERT INTO REG_TAG (REG_TAG_NAME, REG_USER_ID, REG_TAGGED_TIME, " +
-                                "REG_TENANT_ID) VALUES (?,?,?,?)";
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
+            ps = conn.prepareStatement(sql, new String[]{
+                    DBUtils.getConvertedAutoGeneratedColumnName(dbProductName, "REG_ID")});
+            ps2 = conn.prepareStatement(sql2);
 
-                String dbProductName = conn.getMetaData().getDatabaseProductName();
-                ps = conn.prepareStatement(sql, new String[]{
-                        DBUtils.getConvertedAutoGeneratedColumnName(dbProductName, "REG_ID")});
+            // The tag rows have to be inserted one at a time to obtain their ids, but the rows
+            // linking them to the resource are sent to the database as a single batch.
+            boolean hasBatch = false;
+            for (TaggingDO taggingDO : taggingDOs) {
                 ps.setString(1, taggingDO.getTagName());
                 ps.setString(2, taggingDO.getTaggedUserName());
                 ps.setDate(3, new Date(now));
@@ -172,50 +179,45 @@ public class JDBCTagsDAO implements TagsDAO {
 
                 ps.executeUpdate();
 
-                result = ps.getGeneratedKeys();
-                if (result.next()) {
-                    int tagId = result.getInt(1);
-
-                    String sql2 = "INSERT INTO REG_RESOURCE_TAG (REG_TAG_ID, REG_PATH_ID, " +
-                            "REG_RESOURCE_NAME, REG_TENANT_ID) " +
-                            "VALUES(?,?,?,?)";
-                    ps2 = conn.prepareStatement(sql2);
-
-                    ps2.setInt(1, tagId);
-                    ps2.setInt(2, resource.getPathID());
-                    ps2.setString(3, resource.getName());
-                    ps2.setInt(4, CurrentSession.getTenantId());
-
-                    ps2.executeUpdate();
+                ResultSet result = ps.getGeneratedKeys();
+                try {
+                    if (result.next()) {
+                        int tagId = result.getInt(1);
+
+                        ps2.setInt(1, tagId);
+                        ps2.setInt(2, resource.getPathID());
+                        ps2.setString(3, resource.getName());
+                        ps2.setInt(4, CurrentSession.getTenantId());
+                        ps2.addBatch();
+                        hasBatch = true;
+                    }
+                } finally {
+                    result.close();
                 }
-            } catch (SQLException e) {
-                String msg =
-                        "Failed to add tags to resource " + resource.getPath() + ". " +
-                                e.getMessage();
-                log.error(msg, e);
-                throw new RegistryException(msg, e);
-            } finally {
-                // closing open prepared statements & result sets before moving on to next iteration
+            }
+            if (hasBatch) {
+                ps2.executeBatch();
+            }
+        } catch (SQLException e) {
+            String msg =
+                    "Failed to add tags to resource " + resource.getPath() + ". " +
+                            e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        } finally {
+            try {
                 try {
-                    try {
-                        if (result != null) {
-                            result.close();
-                        }
-                    } finally {
-                        try {
-                            if (ps != null) {
-                                ps.close();
-                            }
-                        } finally {
-                            if (ps2 != null) {
-                                ps2.close();
-                            }
-                        }
+                    if (ps != null) {
+                        ps.close();
+                    }
+                } finally {
+                    if (ps2 != null) {
+                        ps2.close();
                     }
-                } catch (SQLException ex) {
-                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
-                    log.error(msg, ex);
                 }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
             }
         }
     }
@@ -922,6 +924,61 @@ public class JDBCTagsDAO implements TagsDAO {
         return tagList.toArray(new Tag[tagList.size()]);
     }
 
+    public Map<String, Tag[]> getTagsWithCount(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getTagsWithCount(resources, false);
+    }
+
+    /**
+     * Method to get tags added to each of the given resources, along with the count.
+     *
+     * @param resources the resources.
+     * @param versioned whether the tags are associated with versions of the resources.
+     *
+     * @return the tags (with counts) of each resource, keyed by the path of the resource.
+     * @throws RegistryException if an error occurred while getting tags.
+     */
+    protected Map<String, Tag[]> getTagsWithCount(List<ResourceImpl> resources, boolean versioned)
+            throws RegistryException {
+        final Map<String, List<Tag>> tagLists = new LinkedHashMap<String, List<Tag>>();
+        for (ResourceImpl resource : resources) {
+            tagLists.put(resource.getPath(), new ArrayList<Tag>());
+        }
+        if (!resources.isEmpty()) {
+            JDBCDatabaseTransaction.ManagedRegistryConnection conn =
+                    JDBCDatabaseTransaction.getConnection();
+            ResourceBatchQuery query = new ResourceBatchQuery(2) {
+                protected String getSQL(String keyColumn, String condition) {
+                    return "SELECT " + keyColumn + ", T.REG_TAG_NAME, COUNT(T.REG_ID) " +
+                            "FROM REG_TAG T, REG_RESOURCE_TAG RT WHERE " + condition + " AND " +
+                            "T.REG_ID=RT.REG_TAG_ID AND T.REG_TENANT_ID=? AND " +
+                            "RT.REG_TENANT_ID=? GROUP BY " + keyColumn + ", T.REG_TAG_NAME";
+                }
+
+                protected void processRow(ResultSet results, ResourceImpl resource)
+                        throws SQLException {
+                    Tag tag = new Tag();
+                    tag.setTagName(results.getString(DatabaseConstants.TAG_NAME_FIELD));
+                    tag.setTagCount(results.getLong(3));
+                    tagLists.get(resource.getPath()).add(tag);
+                }
+            };
+            try {
+                query.execute(conn, "RT", resources, versioned);
+            } catch (SQLException e) {
+                String msg = "Failed to get tags and tag counts of " + resources.size() +
+                        " resources. " + e.getMessage();
+                log.error(msg, e);
+                throw new RegistryException(msg, e);
+            }
+        }
+        Map<String, Tag[]> tags = new LinkedHashMap<String, Tag[]>();
+        for (Map.Entry<String, List<Tag>> e : tagLists.entrySet()) {
+            tags.put(e.getKey(), e.getValue().toArray(new Tag[e.getValue().size()]));
+        }
+        return tags;
+    }
+
     public TaggingDO[] getTagging(ResourceImpl resource, String tag, String userID)
             throws RegistryException {
 
@@ -46,6 +46,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * An extension of {@link JDBCTagsDAO} implements {@link TagsDAO} to store tags on a JDBC-based
@@ -92,7 +93,7 @@ public class JDBCTagsVersionDAO extends JDBCTagsDAO implements TagsDAO {
             String sql2 = "SELECT MAX(REG_ID) FROM REG_TAG";
             long now = System.currentTimeMillis();
 
-            String dbProductName = conn.getMetaData().getDatabaseProductName();
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             boolean returnsGeneratedKeys = DBUtils.canReturnGeneratedKeys(dbProductName);
             if (returnsGeneratedKeys) {
                 ps1 = conn.prepareStatement(sql1, new String[]{DBUtils
@@ -179,19 +180,24 @@ public class JDBCTagsVersionDAO extends JDBCTagsDAO implements TagsDAO {
                 JDBCDatabaseTransaction.getConnection();
         long now = System.currentTimeMillis();
 
-        for (TaggingDO taggingDO : taggingDOs) {
-            PreparedStatement ps = null;
-            PreparedStatement ps2 = null;
-            ResultSet result = null;
-            try {
-                String sql =
-                        "INSERT INTO REG_TAG (REG_TAG_NAME, REG_USER_ID, REG_TAGGED_TIME, " +
-                                "REG_TENANT_ID) VALUES (?,?,?,?)";
-
-                String dbProductName = conn.getMetaData().getDatabaseProductName();
-                ps = conn.prepareStatement(sql, new String[]{DBUtils
-                        .getConvertedAutoGeneratedColumnName(dbProductName,
-                        "REG_ID")});
+        PreparedStatement ps = null;
+        PreparedStatement ps2 = null;
+        try {
+            String sql =
+                    "INSERT INTO REG_TAG (REG_TAG_NAME, REG_USER_ID, REG_TAGGED_TIME, " +
+                            "REG_TENANT_ID) VALUES (?,?,?,?)";
+            String sql2 = "INSERT INTO REG_RESOURCE_TAG (REG_TAG_ID, REG_VERSION, " +
+                    "REG_TENANT_ID) VALUES(?,?,?)";
+
+            String dbProductName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
+            ps = conn.prepareStatement(sql, new String[]{
+                    DBUtils.getConvertedAutoGeneratedColumnName(dbProductName, "REG_ID")});
+            ps2 = conn.prepareStatement(sql2);
+
+            // The tag rows have to be inserted one at a time to obtain their ids, but the rows
+            // linking them to the resource are sent to the database as a single batch.
+            boolean hasBatch = false;
+            for (TaggingDO taggingDO : taggingDOs) {
                 ps.setString(1, taggingDO.getTagName());
                 ps.setString(2, taggingDO.getTaggedUserName());
                 ps.setDate(3, new Date(now));
@@ -199,48 +205,44 @@ public class JDBCTagsVersionDAO extends JDBCTagsDAO implements TagsDAO {
 
                 ps.executeUpdate();
 
-                result = ps.getGeneratedKeys();
-                if (result.next()) {
-                    int tagId = result.getInt(1);
-                    String sql2 =
-                            "INSERT INTO REG_RESOURCE_TAG (REG_TAG_ID, REG_VERSION, " +
-                                    "REG_TENANT_ID) VALUES(?,?,?)";
-                    ps2 = conn.prepareStatement(sql2);
-
-                    ps2.setInt(1, tagId);
-                    ps2.setLong(2, resource.getVersionNumber());
-                    ps2.setInt(3, CurrentSession.getTenantId());
-
-                    ps2.executeUpdate();
+                ResultSet result = ps.getGeneratedKeys();
+                try {
+                    if (result.next()) {
+                        int tagId = result.getInt(1);
+
+                        ps2.setInt(1, tagId);
+                        ps2.setLong(2, resource.getVersionNumber());
+                        ps2.setInt(3, CurrentSession.getTenantId());
+                        ps2.addBatch();
+                        hasBatch = true;
+                    }
+                } finally {
+                    result.close();
                 }
-            } catch (SQLException e) {
-                String msg =
-                        "Failed to add tags to resource " + resource.getPath() + ". " +
-                                e.getMessage();
-                log.error(msg, e);
-                throw new RegistryException(msg, e);
-            } finally {
-                // closing open prepared statements & result sets before moving on to next iteration
+            }
+            if (hasBatch) {
+                ps2.executeBatch();
+            }
+        } catch (SQLException e) {
+            String msg =
+                    "Failed to add tags to resource " + resource.getPath() + ". " +
+                            e.getMessage();
+            log.error(msg, e);
+            throw new RegistryException(msg, e);
+        } finally {
+            try {
                 try {
-                    try {
-                        if (result != null) {
-                            result.close();
-                        }
-                    } finally {
-                        try {
-                            if (ps != null) {
-                                ps.close();
-                            }
-                        } finally {
-                            if (ps2 != null) {
-                                ps2.close();
-                            }
-                        }
+                    if (ps != null) {
+                        ps.close();
+                    }
+                } finally {
+                    if (ps2 != null) {
+                        ps2.close();
                     }
-                } catch (SQLException ex) {
-                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
-                    log.error(msg, ex);
                 }
+            } catch (SQLException ex) {
+                String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                log.error(msg, ex);
             }
         }
     }
@@ -612,7 +614,7 @@ public class JDBCTagsVersionDAO extends JDBCTagsDAO implements TagsDAO {
                 JDBCDatabaseTransaction.getConnection();
 
         try {
-            String dbName = conn.getMetaData().getDatabaseProductName();
+            String dbName = JDBCDatabaseTransaction.getDatabaseProductName(conn);
             if (dbName.contains("Microsoft") || dbName.equals("Oracle")) {
                 enableApiPagination = "false";
             }
@@ -966,6 +968,11 @@ public class JDBCTagsVersionDAO extends JDBCTagsDAO implements TagsDAO {
         }
     }
 
+    public Map<String, Tag[]> getTagsWithCount(List<ResourceImpl> resources)
+            throws RegistryException {
+        return getTagsWithCount(resources, true);
+    }
+
     /**
      * Gets the resource with sufficient data to differentiate it from another resource. This would
      * populate a {@link ResourceImpl} with the <b>path</b>, <b>name</b> and <b>path identifier</b>
@@ -0,0 +1,201 @@
+/*
+ *  Copyright (c) 2005-2009, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.registry.core.jdbc.dao;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.registry.core.CollectionImpl;
+import org.wso2.carbon.registry.core.RegistryConstants;
+import org.wso2.carbon.registry.core.ResourceImpl;
+import org.wso2.carbon.registry.core.jdbc.DatabaseConstants;
+import org.wso2.carbon.registry.core.session.CurrentSession;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs a query on a table associating data with resources, such as REG_RESOURCE_TAG, for a number
+ * of resources at once. The resources are selected with IN lists of at most {@link
+ * #MAX_BATCH_SIZE} entries. Collections are selected by their path ids, and resources by their
+ * names together with the path id of their parent, so that only a few queries are needed for
+ * the children of a collection. When the data is versioned, resources are selected by their
+ * version numbers instead.
+ */
+public abstract class ResourceBatchQuery {
+
+    private static final Log log = LogFactory.getLog(ResourceBatchQuery.class);
+
+    /**
+     * The maximum number of entries in an IN list. This is well below the limits of all the
+     * supported databases.
+     */
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private int tenantParameterCount;
+
+    /**
+     * Creates a batch query.
+     *
+     * @param tenantParameterCount the number of parameters in the query which are to be set to
+     *                             the current tenant id.
+     */
+    public ResourceBatchQuery(int tenantParameterCount) {
+        this.tenantParameterCount = tenantParameterCount;
+    }
+
+    /**
+     * Returns the query to run. The query must select the given key column, and restrict the
+     * rows with the given condition. All the other parameters of the query must be tenant ids,
+     * and must follow the condition.
+     *
+     * @param keyColumn the column identifying the resource of each row.
+     * @param condition the condition selecting the rows of a batch of resources.
+     *
+     * @return the query.
+     */
+    protected abstract String getSQL(String keyColumn, String condition);
+
+    /**
+     * Processes a row of the result.
+     *
+     * @param results  the result set, positioned at the row.
+     * @param resource the resource the row belongs to.
+     *
+     * @throws SQLException if reading the row failed.
+     */
+    protected abstract void processRow(ResultSet results, ResourceImpl resource)
+            throws SQLException;
+
+    /**
+     * Runs the query for the given resources.
+     *
+     * @param conn      the connection to use.
+     * @param alias     the alias of the table associating the data with resources, in the query.
+     * @param resources the resources.
+     * @param versioned whether the data is associated with versions of the resources.
+     *
+     * @throws SQLException if the query failed.
+     */
+    public void execute(Connection conn, String alias, List<ResourceImpl> resources,
+                        boolean versioned) throws SQLException {
+        if (versioned) {
+            Map<Object, ResourceImpl> versionMap = new LinkedHashMap<Object, ResourceImpl>();
+            for (ResourceImpl resource : resources) {
+                versionMap.put(resource.getVersionNumber(), resource);
+            }
+            execute(conn, alias + "." + DatabaseConstants.VERSION_FIELD, "", null, versionMap);
+            return;
+        }
+        Map<Object, ResourceImpl> collectionMap = new LinkedHashMap<Object, ResourceImpl>();
+        Map<Integer, Map<Object, ResourceImpl>> resourceMaps =
+                new LinkedHashMap<Integer, Map<Object, ResourceImpl>>();
+        for (ResourceImpl resource : resources) {
+            if (resource instanceof CollectionImpl) {
+                collectionMap.put(resource.getPathID(), resource);
+            } else {
+                Map<Object, ResourceImpl> resourceMap = resourceMaps.get(resource.getPathID());
+                if (resourceMap == null) {
+                    resourceMap = new LinkedHashMap<Object, ResourceImpl>();
+                    resourceMaps.put(resource.getPathID(), resourceMap);
+                }
+                resourceMap.put(resource.getName(), resource);
+            }
+        }
+        String pathIDColumn = alias + "." + DatabaseConstants.PATH_ID_FIELD;
+        String nameColumn = alias + "." + DatabaseConstants.RESOURCE_NAME_FIELD;
+        execute(conn, pathIDColumn, nameColumn + " IS NULL AND ", null, collectionMap);
+        for (Map.Entry<Integer, Map<Object, ResourceImpl>> e : resourceMaps.entrySet()) {
+            execute(conn, nameColumn, pathIDColumn + "=? AND ", e.getKey(), e.getValue());
+        }
+    }
+
+    private void execute(Connection conn, String keyColumn, String conditionPrefix,
+                         Integer pathID, Map<Object, ResourceImpl> resourceMap)
+            throws SQLException {
+        if (resourceMap.isEmpty()) {
+            return;
+        }
+        String keyLabel = keyColumn.substring(keyColumn.indexOf('.') + 1);
+        List<Object> keys = new ArrayList<Object>(resourceMap.keySet());
+        for (int start = 0; start < keys.size(); start += MAX_BATCH_SIZE) {
+            List<Object> batch = keys.subList(start,
+                    Math.min(start + MAX_BATCH_SIZE, keys.size()));
+            StringBuffer condition = new StringBuffer(conditionPrefix);
+            condition.append(keyColumn).append(" IN (");
+            for (int i = 0; i < batch.size(); i++) {
+                condition.append(i > 0 ? ",?" : "?");
+            }
+            condition.append(")");
+
+            PreparedStatement ps = null;
+            ResultSet results = null;
+            try {
+                ps = conn.prepareStatement(getSQL(keyColumn, condition.toString()));
+                int index = 1;
+                if (pathID != null) {
+                    ps.setInt(index++, pathID);
+                }
+                for (Object key : batch) {
+                    ps.setObject(index++, key);
+                }
+                for (int i = 0; i < tenantParameterCount; i++) {
+                    ps.setInt(index++, CurrentSession.getTenantId());
+                }
+                results = ps.executeQuery();
+                Object firstKey = batch.get(0);
+                while (results.next()) {
+                    // the type of the key read back must match the type of the keys in the map.
+                    Object key;
+                    if (firstKey instanceof String) {
+                        key = results.getString(keyLabel);
+                    } else if (firstKey instanceof Long) {
+                        key = results.getLong(keyLabel);
+                    } else {
+                        key = results.getInt(keyLabel);
+                    }
+                    ResourceImpl resource = resourceMap.get(key);
+                    if (resource != null) {
+                        processRow(results, resource);
+                    }
+                }
+            } finally {
+                try {
+                    try {
+                        if (results != null) {
+                            results.close();
+                        }
+                    } finally {
+                        if (ps != null) {
+                            ps.close();
+                        }
+                    }
+                } catch (SQLException ex) {
+                    String msg = RegistryConstants.RESULT_SET_PREPARED_STATEMENT_CLOSE_ERROR;
+                    log.error(msg, ex);
+                }
+            }
+        }
+    }
+}
@@ -54,6 +54,8 @@ public class JDBCDataAccessManager implements DataAccessManager {
 	private static DAOManager daoManager = new JDBCDAOManager();
 	private static Map<String, DataSource> dataSources = new HashMap<String, DataSource>();
 
+	private static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
+
 	/**
 	 * Constructor accepting a JDBC data source.
 	 * 
@@ -230,6 +232,9 @@ public class JDBCDataAccessManager implements DataAccessManager {
 		if (config.getValidationQuery() != null) {
 			dsConf.setValidationQuery(config.getValidationQuery());
 		}
+
+		dsConf.setJdbcInterceptors(getStatementCacheInterceptor(System.getProperty(
+				"carbon.registry.statement.cache.size")));
 		try {
 		    return new RDBMSDataSource(dsConf).getDataSource();
 		} catch (Exception e) {
@@ -237,4 +242,31 @@ public class JDBCDataAccessManager implements DataAccessManager {
 		            e.getMessage(), e);
 		}
 	}
+
+	/**
+	 * Builds the configuration of the pool interceptor that caches prepared statements on each
+	 * pooled connection. Every registry operation checks a connection out of the pool, so the
+	 * statements have to be cached on the pooled connection to be reused across operations.
+	 * 
+	 * @param cacheSize
+	 *            the configured maximum number of cached statements, or null to use the default.
+	 *            A size of zero disables caching.
+	 * 
+	 * @return the interceptor configuration, or null if caching is disabled.
+	 */
+	private static String getStatementCacheInterceptor(String cacheSize) {
+		int size = DEFAULT_STATEMENT_CACHE_SIZE;
+		if (cacheSize != null && !cacheSize.trim().equals("")) {
+			try {
+				size = Integer.parseInt(cacheSize.trim());
+			} catch (NumberFormatException e) {
+				log.warn("Invalid prepared statement cache size: " + cacheSize +
+						". Using the default size.");
+			}
+		}
+		if (size <= 0) {
+			return null;
+		}
+		return "StatementCache(prepared=true,callable=false,max=" + size + ")";
+	}
 }
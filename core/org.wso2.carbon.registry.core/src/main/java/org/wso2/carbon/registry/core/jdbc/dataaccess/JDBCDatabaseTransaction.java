@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.registry.core.dataaccess.DatabaseTransaction;
 import org.wso2.carbon.registry.core.jdbc.utils.Transaction;
+import org.wso2.carbon.registry.core.statistics.RegistryStatistics;
 import org.wso2.carbon.registry.core.statistics.StatisticsLog;
 import org.wso2.carbon.registry.core.statistics.query.DBQueryStatisticsLog;
 import org.wso2.carbon.registry.core.statistics.query.StatisticsRecord;
@@ -35,11 +36,12 @@ import java.net.URL;
 import java.sql.*;
 import java.sql.Date;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * This class represents a database transaction, which is used for databases that support JDBC.
@@ -255,6 +257,22 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
                 true);
     }
 
+    /**
+     * Method to obtain the database product name of the given connection. For managed
+     * connections, the name is looked up only once for each distinct connection id.
+     *
+     * @param conn the connection.
+     *
+     * @return the database product name.
+     * @throws SQLException if the database meta data could not be read.
+     */
+    public static String getDatabaseProductName(Connection conn) throws SQLException {
+        if (conn instanceof ManagedRegistryConnection) {
+            return ((ManagedRegistryConnection) conn).getDatabaseProductName();
+        }
+        return conn.getMetaData().getDatabaseProductName();
+    }
+
     /**
      * A structure that can stack a transactional connection, which is handy when switching
      * connections.
@@ -332,27 +350,22 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
      * etc.
      */
     private static class ConnectionStatistics {
-        private long connectionsCreated = 0;
-        private long connectionsClosed = 0;
-        private long connectionsCommitted = 0;
-        private long connectionsRollbacked = 0;
-        private long statementsPrepared = 0;
-        private long statementsClosed = 0;
+        private AtomicLong connectionsCreated = new AtomicLong();
+        private AtomicLong connectionsClosed = new AtomicLong();
+        private AtomicLong connectionsCommitted = new AtomicLong();
+        private AtomicLong connectionsRollbacked = new AtomicLong();
+        private AtomicLong statementsPrepared = new AtomicLong();
+        private AtomicLong statementsClosed = new AtomicLong();
 
         private Map<String, ConnectionCreatorStack> connectionCreatorStacks =
-                new LinkedHashMap<String, ConnectionCreatorStack>();
+                new ConcurrentHashMap<String, ConnectionCreatorStack>();
 
-        public synchronized void
-        setConnectionCreatorStack(String uuid,
-                              ConnectionCreatorStack connectionCreatorStack) {
+        public void setConnectionCreatorStack(String uuid,
+                                              ConnectionCreatorStack connectionCreatorStack) {
             connectionCreatorStacks.put(uuid, connectionCreatorStack);
         }
 
-        public synchronized boolean isConnectionCreatorStackFound(String uuid) {
-            return connectionCreatorStacks.get(uuid) != null;
-        }
-
-        public synchronized void removeConnectionCreatorStack(String uuid) {
+        public void removeConnectionCreatorStack(String uuid) {
             connectionCreatorStacks.remove(uuid);
         }
 
@@ -361,63 +374,51 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public long getConnectionsCreated() {
-            return connectionsCreated;
+            return connectionsCreated.get();
         }
 
         public long getConnectionsClosed() {
-            return connectionsClosed;
+            return connectionsClosed.get();
         }
 
         public long getConnectionsCommitted() {
-            return connectionsCommitted;
+            return connectionsCommitted.get();
         }
 
         public long getConnectionsRollbacked() {
-            return connectionsRollbacked;
+            return connectionsRollbacked.get();
         }
 
         public long getStatementsPrepared() {
-            return statementsPrepared;
+            return statementsPrepared.get();
         }
 
         public long getStatementsClosed() {
-            return statementsClosed;
+            return statementsClosed.get();
         }
 
-        public synchronized void incrementConnectionsCreated() {
-            if (connectionsCreated != Long.MAX_VALUE) {
-                connectionsCreated++;
-            }
+        public void incrementConnectionsCreated() {
+            connectionsCreated.incrementAndGet();
         }
 
-        public synchronized void incrementConnectionsClosed() {
-            if (connectionsClosed != Long.MAX_VALUE) {
-                connectionsClosed++;
-            }
+        public void incrementConnectionsClosed() {
+            connectionsClosed.incrementAndGet();
         }
 
-        public synchronized void incrementConnectionsCommitted() {
-            if (connectionsCommitted != Long.MAX_VALUE) {
-                connectionsCommitted++;
-            }
+        public void incrementConnectionsCommitted() {
+            connectionsCommitted.incrementAndGet();
         }
 
-        public synchronized void incrementConnectionsRollbacked() {
-            if (connectionsRollbacked != Long.MAX_VALUE) {
-                connectionsRollbacked++;
-            }
+        public void incrementConnectionsRollbacked() {
+            connectionsRollbacked.incrementAndGet();
         }
 
-        public synchronized void incrementStatementsPrepared() {
-            if (statementsPrepared != Long.MAX_VALUE) {
-                statementsPrepared++;
-            }
+        public void incrementStatementsPrepared() {
+            statementsPrepared.incrementAndGet();
         }
 
-        public synchronized void incrementStatementsClosed() {
-            if (statementsClosed != Long.MAX_VALUE) {
-                statementsClosed++;
-            }
+        public void incrementStatementsClosed() {
+            statementsClosed.incrementAndGet();
         }
     }
 
@@ -431,50 +432,29 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         // This holds the un-managed connection.
         private PreparedStatement preparedStatement;
 
-        // This holds an instance of the connection statistics object.
+        // The SQL statement, without the values of the parameters.
+        private String sql;
+
+        // This holds an instance of the connection statistics object, or null if connection
+        // statistics are not collected.
         private ConnectionStatistics connectionStatistics = null;
 
-        // The executor service used to create threads to record connection statistics.
-        private ExecutorService executor = null;
+        private boolean closed = false;
 
-        public MonitoredPreparedStatement(PreparedStatement preparedStatement,
-                                          ConnectionStatistics connectionStatistics,
-                                          ExecutorService executor) {
+        public MonitoredPreparedStatement(PreparedStatement preparedStatement, String sql,
+                                          ConnectionStatistics connectionStatistics) {
             this.preparedStatement = preparedStatement;
+            this.sql = sql;
             this.connectionStatistics = connectionStatistics;
-            this.executor = executor;
-            recordStatementPrepared();
-        }
-
-        // Increments the number of statements prepared by all connections.
-        private void recordStatementPrepared() {
-            Runnable runnable = new Runnable() {
-                public void run() {
-                    if (connectionStatistics == null) {
-                        log.error("Unable to store connection statistics.");
-                    } else {
-                        connectionStatistics.incrementStatementsPrepared();
-                    }
-                }
-            };
-            if (executor != null) {
-                executor.execute(runnable);
+            if (connectionStatistics != null) {
+                connectionStatistics.incrementStatementsPrepared();
             }
         }
 
-        // Increments the number of statements prepared by all connections.
-        private void recordStatementClosed() {
-            Runnable runnable = new Runnable() {
-                public void run() {
-                    if (connectionStatistics == null) {
-                        log.error("Unable to store connection statistics.");
-                    } else {
-                        connectionStatistics.incrementStatementsClosed();
-                    }
-                }
-            };
-            if (executor != null) {
-                executor.execute(runnable);
+        // Records the time taken to execute the statement.
+        private void recordExecutionTime(long startTime, boolean succeeded) {
+            if (RegistryStatistics.isEnabled()) {
+                RegistryStatistics.recordStatement(sql, System.nanoTime() - startTime, succeeded);
             }
         }
 
@@ -482,14 +462,30 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
             if (dbQueryLog.isDebugEnabled()) {
                 recordStatistics(preparedStatement.toString());
             }
-            return preparedStatement.executeQuery();
+            long startTime = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                ResultSet resultSet = preparedStatement.executeQuery();
+                succeeded = true;
+                return resultSet;
+            } finally {
+                recordExecutionTime(startTime, succeeded);
+            }
         }
 
         public int executeUpdate() throws SQLException {
             if (dbQueryLog.isDebugEnabled()) {
                 recordStatistics(preparedStatement.toString());
             }
-            return preparedStatement.executeUpdate();
+            long startTime = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                int count = preparedStatement.executeUpdate();
+                succeeded = true;
+                return count;
+            } finally {
+                recordExecutionTime(startTime, succeeded);
+            }
         }
 
         private void recordStatistics(String statement) {
@@ -620,7 +616,15 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public boolean execute() throws SQLException {
-            return preparedStatement.execute();
+            long startTime = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                boolean result = preparedStatement.execute();
+                succeeded = true;
+                return result;
+            } finally {
+                recordExecutionTime(startTime, succeeded);
+            }
         }
 
         public void addBatch() throws SQLException {
@@ -684,7 +688,13 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public void close() throws SQLException {
-            recordStatementClosed();
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (connectionStatistics != null) {
+                connectionStatistics.incrementStatementsClosed();
+            }
             preparedStatement.close();
         }
 
@@ -781,7 +791,15 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public int[] executeBatch() throws SQLException {
-            return preparedStatement.executeBatch();
+            long startTime = System.nanoTime();
+            boolean succeeded = false;
+            try {
+                int[] counts = preparedStatement.executeBatch();
+                succeeded = true;
+                return counts;
+            } finally {
+                recordExecutionTime(startTime, succeeded);
+            }
         }
 
         public Connection getConnection() throws SQLException {
@@ -965,18 +983,20 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
     @SuppressWarnings("unused")
     public static final class ManagedRegistryConnection implements Connection {
 
-        private static final int DEFAULT_CONNECTION_CREATION_WAIT_TIME = 100;
         // This holds the un-managed connection.
         private Connection connection;
 
         // This holds an instance of the connection statistics object.
-        private static ConnectionStatistics connectionStatistics = null;
-
-        // The executor service used to create threads to record connection statistics.
-        private static ExecutorService executor = null;
+        private static volatile ConnectionStatistics connectionStatistics = null;
 
         private String uuid = UUIDGenerator.generateUUID();
 
+        // The database product names of the connections seen so far, keyed by connection id.
+        private static final Map<String, String> databaseProductNames =
+                new ConcurrentHashMap<String, String>();
+
+        private String connectionId;
+
         static {
             if (statsLog.isDebugEnabled()) {
                 initializeStatisticsLogging();
@@ -984,16 +1004,10 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         private static synchronized void initializeStatisticsLogging() {
-            if (executor != null) {
+            if (connectionStatistics != null) {
                 return;
             }
             connectionStatistics = new ConnectionStatistics();
-            executor = Executors.newCachedThreadPool();
-            Runtime.getRuntime().addShutdownHook(new Thread() {
-                public void run() {
-                    executor.shutdownNow();
-                }
-            });
             final ScheduledExecutorService scheduler =
                     Executors.newScheduledThreadPool(10);
             Runtime.getRuntime().addShutdownHook(new Thread() {
@@ -1053,6 +1067,26 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
             scheduler.scheduleAtFixedRate(runnable, 60, 60, TimeUnit.SECONDS);
         }
 
+        // Returns the connection statistics, initializing them if required.
+        private static ConnectionStatistics getConnectionStatistics() {
+            if (connectionStatistics == null) {
+                initializeStatisticsLogging();
+            }
+            return connectionStatistics;
+        }
+
+        // Returns the connection statistics to be updated by a prepared statement, or null if
+        // connection statistics are not collected.
+        private static ConnectionStatistics getStatementConnectionStatistics() {
+            return statsLog.isDebugEnabled() ? getConnectionStatistics() : null;
+        }
+
+        // Whether prepared statements should be wrapped to collect statistics.
+        private static boolean isStatementMonitoringEnabled() {
+            return statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled() ||
+                    RegistryStatistics.isEnabled();
+        }
+
         // This contains a list of all the managed connections.
         private static ThreadLocal<Map<String, ManagedRegistryConnection>>
                 tManagedConnectionMap =
@@ -1106,31 +1140,49 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
                 tCommittedAndRollbackedConnectionMap.get().put(getConnectionId(), null);
             }
             if (statsLog.isDebugEnabled()) {
-                final StackTraceElement[] stackTraceElements =
-                        Thread.currentThread().getStackTrace();
-                Runnable runnable = new Runnable() {
-                    public void run() {
-                        if (connectionStatistics == null) {
-                            log.error("Unable to store connection statistics.");
-                        } else {
-                            connectionStatistics.incrementConnectionsCreated();
-                            connectionStatistics.setConnectionCreatorStack(uuid,
-                                    new ConnectionCreatorStack(stackTraceElements,
-                                            new java.util.Date()));
-                        }
-                    }
-                };
-                if (executor != null) {
-                    executor.execute(runnable);
-                } else {
-                    initializeStatisticsLogging();
-                    executor.execute(runnable);
-                }
+                ConnectionStatistics statistics = getConnectionStatistics();
+                statistics.incrementConnectionsCreated();
+                statistics.setConnectionCreatorStack(uuid, new ConnectionCreatorStack(
+                        Thread.currentThread().getStackTrace(), new java.util.Date()));
             }
         }
 
         private String getConnectionId() {
-            return RegistryUtils.getConnectionId(this.connection);
+            if (connectionId == null) {
+                connectionId = RegistryUtils.getConnectionId(this.connection);
+            }
+            return connectionId;
+        }
+
+        /**
+         * Method to obtain the database product name of this connection. The name is looked up
+         * only once for each distinct connection id, as obtaining it requires a call to the
+         * database meta data.
+         *
+         * @return the database product name.
+         * @throws SQLException if the database meta data could not be read.
+         */
+        public String getDatabaseProductName() throws SQLException {
+            String id = getConnectionId();
+            if (id == null) {
+                // the connection could not be identified, so the name cannot be cached.
+                return connection.getMetaData().getDatabaseProductName();
+            }
+            String productName = databaseProductNames.get(id);
+            if (productName == null) {
+                productName = connection.getMetaData().getDatabaseProductName();
+                databaseProductNames.put(id, productName);
+            }
+            return productName;
+        }
+
+        private PreparedStatement prepareMonitoredStatement(PreparedStatement statement,
+                                                            String sql) {
+            if (isStatementMonitoringEnabled()) {
+                return new MonitoredPreparedStatement(statement, sql,
+                        getStatementConnectionStatistics());
+            }
+            return statement;
         }
 
         /**
@@ -1179,21 +1231,7 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
 
         public void commit() throws SQLException {
             if (statsLog.isDebugEnabled()) {
-                Runnable runnable = new Runnable() {
-                    public void run() {
-                        if (connectionStatistics == null) {
-                            log.error("Unable to store connection statistics.");
-                        } else {
-                            connectionStatistics.incrementConnectionsCommitted();
-                        }
-                    }
-                };
-                if (executor != null) {
-                    executor.execute(runnable);
-                } else {
-                    initializeStatisticsLogging();
-                    executor.execute(runnable);
-                }
+                getConnectionStatistics().incrementConnectionsCommitted();
             }
             if (tRollbackedConnection.get()) {
                 // If at least one connection was rollbacked, do the same for all.
@@ -1235,21 +1273,7 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
 
         public void rollback() throws SQLException {
             if (statsLog.isDebugEnabled()) {
-                Runnable runnable = new Runnable() {
-                    public void run() {
-                        if (connectionStatistics == null) {
-                            log.error("Unable to store connection statistics.");
-                        } else {
-                            connectionStatistics.incrementConnectionsRollbacked();
-                        }
-                    }
-                };
-                if (executor != null) {
-                    executor.execute(runnable);
-                } else {
-                    initializeStatisticsLogging();
-                    executor.execute(runnable);
-                }
+                getConnectionStatistics().incrementConnectionsRollbacked();
             }
             // Calling this method once will set the flag indicating at least one connection was
             // rollbacked.
@@ -1291,33 +1315,9 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
 
         public void close() throws SQLException {
             if (statsLog.isDebugEnabled()) {
-                Runnable runnable = new Runnable() {
-                    public void run() {
-                        if (connectionStatistics == null) {
-                            log.error("Unable to store connection statistics.");
-                        } else {
-                            connectionStatistics.incrementConnectionsClosed();
-                            while (!connectionStatistics.isConnectionCreatorStackFound(uuid)) {
-                                // Due to the way in which threads are scheduled in Java, the thread
-                                // responsible for handling the reporting of statistics for the
-                                // connection close event might run before the thread handling the
-                                // reporting of statistics for the the connection creation event.
-                                // Therefore, we wait until we are certain that the connection has
-                                // been created.
-                                try {
-                                    Thread.sleep(DEFAULT_CONNECTION_CREATION_WAIT_TIME);
-                                } catch (InterruptedException ignored) {}
-                            }
-                            connectionStatistics.removeConnectionCreatorStack(uuid);
-                        }
-                    }
-                };
-                if (executor != null) {
-                    executor.execute(runnable);
-                } else {
-                    initializeStatisticsLogging();
-                    executor.execute(runnable);
-                }
+                ConnectionStatistics statistics = getConnectionStatistics();
+                statistics.incrementConnectionsClosed();
+                statistics.removeConnectionCreatorStack(uuid);
             }
             if (tManagedConnectionMap.get().size() == 1) {
                 // If there is only one connection, simply close that.
@@ -1452,14 +1452,7 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public PreparedStatement prepareStatement(String s) throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s),
-                        connectionStatistics, executor);
-            }
-            return connection.prepareStatement(s);
+            return prepareMonitoredStatement(connection.prepareStatement(s), s);
         }
 
         public CallableStatement prepareCall(String s) throws SQLException {
@@ -1519,12 +1512,9 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public PreparedStatement prepareStatement(String s, int i, int i1) throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s, i, i1),
-                        connectionStatistics, executor);
+            if (isStatementMonitoringEnabled()) {
+                return new MonitoredPreparedStatement(connection.prepareStatement(s, i, i1), s,
+                        getStatementConnectionStatistics());
             }
             return connection.prepareStatement(s, i, i1);
         }
@@ -1567,12 +1557,9 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
 
         public PreparedStatement prepareStatement(String s, int i, int i1, int i2)
                 throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s, i, i1, i2),
-                        connectionStatistics, executor);
+            if (isStatementMonitoringEnabled()) {
+                return new MonitoredPreparedStatement(connection.prepareStatement(s, i, i1, i2), s,
+                        getStatementConnectionStatistics());
             }
             return connection.prepareStatement(s, i, i1, i2);
         }
@@ -1582,36 +1569,23 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
         }
 
         public PreparedStatement prepareStatement(String s, int i) throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s, i),
-                        connectionStatistics, executor);
+            if (isStatementMonitoringEnabled()) {
+                return new MonitoredPreparedStatement(connection.prepareStatement(s, i), s,
+                        getStatementConnectionStatistics());
             }
             return connection.prepareStatement(s, i);
         }
 
         public PreparedStatement prepareStatement(String s, int[] integers) throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s, integers),
-                        connectionStatistics, executor);
+            if (isStatementMonitoringEnabled()) {
+                return new MonitoredPreparedStatement(connection.prepareStatement(s, integers), s,
+                        getStatementConnectionStatistics());
             }
             return connection.prepareStatement(s, integers);
         }
 
         public PreparedStatement prepareStatement(String s, String[] strings) throws SQLException {
-            if (statsLog.isDebugEnabled() || dbQueryLog.isDebugEnabled()) {
-                if (executor == null) {
-                    initializeStatisticsLogging();
-                }
-                return new MonitoredPreparedStatement(connection.prepareStatement(s, strings),
-                        connectionStatistics, executor);
-            }
-            return connection.prepareStatement(s, strings);
+            return prepareMonitoredStatement(connection.prepareStatement(s, strings), s);
         }
 
         public Connection getConnection() {
@@ -1620,6 +1594,7 @@ public class JDBCDatabaseTransaction implements DatabaseTransaction {
 
         public void setConnection(Connection connection) {
             this.connection = connection;
+            this.connectionId = null;
         }
 
 		public void setSchema(String schema) throws SQLException {
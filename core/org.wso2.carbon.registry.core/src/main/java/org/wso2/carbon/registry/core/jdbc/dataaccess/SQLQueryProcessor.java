@@ -54,6 +54,15 @@ import java.util.*;
 public class SQLQueryProcessor implements QueryProcessor {
 
     private static final Log log = LogFactory.getLog(SQLQueryProcessor.class);
+
+    // The names of the query parameters that are not bound to the statement.
+    private static final Set<String> EXCLUDED_PARAMETERS = new HashSet<String>(Arrays.asList(
+            "content", "query", "mediaType", RegistryConstants.RESULT_TYPE_PROPERTY_NAME));
+
+    // The number of rows fetched from the database at a time, or zero to use the default of the
+    // driver. Setting this bounds the memory used by the driver for queries with large results.
+    private static final int FETCH_SIZE = getFetchSize();
+
     private ResourceDAO resourceDAO;
     private CommentsDAO commentsDAO;
     private RatingsDAO ratingsDAO;
@@ -85,6 +94,18 @@ public class SQLQueryProcessor implements QueryProcessor {
                 StaticConfiguration.isVersioningTags());
     }
 
+    private static int getFetchSize() {
+        String fetchSize = System.getProperty("carbon.registry.query.fetch.size");
+        if (fetchSize != null) {
+            try {
+                return Math.max(Integer.parseInt(fetchSize), 0);
+            } catch (NumberFormatException e) {
+                log.warn("Invalid query fetch size: " + fetchSize + ". Using the default size.");
+            }
+        }
+        return 0;
+    }
+
     public Collection executeQuery(Registry registry, Resource query, Map parameters)
             throws RegistryException {
 
@@ -125,7 +146,8 @@ public class SQLQueryProcessor implements QueryProcessor {
             conn = JDBCDatabaseTransaction.getConnection();
 
             // adding the tenant ids for the query
-            TenantAwareSQLTransformer transformer = new TenantAwareSQLTransformer(sqlString);
+            TenantAwareSQLTransformer transformer =
+                    TenantAwareSQLTransformer.getTransformer(sqlString);
             String transformedQuery = transformer.getTransformedQuery();
             int transformedParameterCount = transformer.getAdditionalParameterCount();
 //            int trailingParameterCount = transformer.getTrailingParameterCount();
@@ -133,6 +155,9 @@ public class SQLQueryProcessor implements QueryProcessor {
             s = conn.prepareStatement(transformedQuery);
             /*s = conn.prepareStatement(transformedQuery, ResultSet.TYPE_FORWARD_ONLY,
                     ResultSet.CONCUR_READ_ONLY);*/
+            if (FETCH_SIZE > 0) {
+                s.setFetchSize(FETCH_SIZE);
+            }
 
             int nextParameterIndex = 0;
             /*if (parameters != null) {
@@ -169,11 +194,9 @@ public class SQLQueryProcessor implements QueryProcessor {
             }
 
             if (parameters != null) {
-                List<String> exclusions = Arrays.asList("content", "query", "mediaType",
-                        RegistryConstants.RESULT_TYPE_PROPERTY_NAME);
                 for (Object parameterNumberObject : parameters.keySet()) {
                     String parameterNumber = (String) parameterNumberObject;
-                    if (exclusions.contains(parameterNumber)) {
+                    if (EXCLUDED_PARAMETERS.contains(parameterNumber)) {
                         continue;
                     }
                     Object parameterValue = parameters.get(parameterNumber);
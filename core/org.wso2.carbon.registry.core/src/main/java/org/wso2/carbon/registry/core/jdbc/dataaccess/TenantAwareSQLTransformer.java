@@ -19,15 +19,36 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.StringTokenizer;
+import java.util.regex.Pattern;
 
 /**
  * class to transform the sql to be tenant-aware. Once the query is passed to the constructor this
- * will be keeping the transformed query.
+ * will be keeping the transformed query. Since a transformer does not change once constructed,
+ * the transformers of recently used queries are cached and can be obtained through
+ * {@link #getTransformer(String)}.
  */
 public class TenantAwareSQLTransformer {
 
     private static final Log log = LogFactory.getLog(TenantAwareSQLTransformer.class);
+
+    private static final int TRANSFORMER_CACHE_SIZE = 500;
+
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("[\t\r\n]+");
+
+    // The transformers of recently used queries, keyed by the query. As the key is the query
+    // itself, changing the content of a query resource results in a new entry, and the entry of
+    // the old content is evicted once it is no longer used.
+    private static final Map<String, TenantAwareSQLTransformer> transformerCache =
+            new LinkedHashMap<String, TenantAwareSQLTransformer>(16, 0.75f, true) {
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, TenantAwareSQLTransformer> eldest) {
+                    return size() > TRANSFORMER_CACHE_SIZE;
+                }
+            };
+
     private String transformedQuery = null;
     private int parameterCount = 0;
     private int trailingParameterCount = 0;
@@ -83,7 +104,7 @@ public class TenantAwareSQLTransformer {
         while (tokenizer.hasMoreElements()) {
             String token = tokenizer.nextToken();
             token = token.trim();
-            token = token.replaceAll("[\t\r\n]+", " ");
+            token = WHITESPACE_PATTERN.matcher(token).replaceAll(" ");
             int separator = token.indexOf(' ');
             String firstPart;
             String secondPart;
@@ -167,6 +188,29 @@ public class TenantAwareSQLTransformer {
         }
     }
 
+    /**
+     * Get the transformer for a given query, reusing the transformer of a previous invocation with
+     * the same query if available.
+     *
+     * @param sqlQuery the query to transform to tenant aware sql
+     *
+     * @return the transformer of the query.
+     * @throws RegistryException throws if the transformation failed.
+     */
+    static TenantAwareSQLTransformer getTransformer(String sqlQuery) throws RegistryException {
+        TenantAwareSQLTransformer transformer;
+        synchronized (transformerCache) {
+            transformer = transformerCache.get(sqlQuery);
+        }
+        if (transformer == null) {
+            transformer = new TenantAwareSQLTransformer(sqlQuery);
+            synchronized (transformerCache) {
+                transformerCache.put(sqlQuery, transformer);
+            }
+        }
+        return transformer;
+    }
+
     /**
      * Parse sqlQuery for possible malicious injections
      * @param sqlQuery
@@ -113,6 +113,15 @@ public class RequestContext {
      */
     private boolean loggingActivity = true;
 
+    /**
+     * The path under which all resources of a bulk put are stored, if this request is a part of
+     * one.
+     */
+    private String bulkPutPath;
+
+    private boolean firstInBulkPut;
+    private boolean lastInBulkPut;
+
     private RegistryContext registryContext;
 
     /**
@@ -952,4 +961,61 @@ public class RequestContext {
     public void setLoggingActivity(boolean loggingActivity) {
         this.loggingActivity = loggingActivity;
     }
+
+    /**
+     * Method to get the path under which all resources of the bulk put, that this request is a
+     * part of, are stored. Handlers which act on whole subtrees, such as those invalidating caches,
+     * can act on this path once per bulk put instead of once per resource.
+     *
+     * @return the common path of the bulk put, or null if this request is not a part of one.
+     */
+    public String getBulkPutPath() {
+        return bulkPutPath;
+    }
+
+    /**
+     * Method to set the path under which all resources of the bulk put, that this request is a
+     * part of, are stored.
+     *
+     * @param bulkPutPath the common path of the bulk put.
+     */
+    public void setBulkPutPath(String bulkPutPath) {
+        this.bulkPutPath = bulkPutPath;
+    }
+
+    /**
+     * Check whether this is the first request of the bulk put that it is a part of.
+     *
+     * @return true if this is the first request of a bulk put, false otherwise.
+     */
+    public boolean isFirstInBulkPut() {
+        return firstInBulkPut;
+    }
+
+    /**
+     * Method to set whether this is the first request of the bulk put that it is a part of.
+     *
+     * @param firstInBulkPut whether this is the first request of a bulk put.
+     */
+    public void setFirstInBulkPut(boolean firstInBulkPut) {
+        this.firstInBulkPut = firstInBulkPut;
+    }
+
+    /**
+     * Check whether this is the last request of the bulk put that it is a part of.
+     *
+     * @return true if this is the last request of a bulk put, false otherwise.
+     */
+    public boolean isLastInBulkPut() {
+        return lastInBulkPut;
+    }
+
+    /**
+     * Method to set whether this is the last request of the bulk put that it is a part of.
+     *
+     * @param lastInBulkPut whether this is the last request of a bulk put.
+     */
+    public void setLastInBulkPut(boolean lastInBulkPut) {
+        this.lastInBulkPut = lastInBulkPut;
+    }
 }
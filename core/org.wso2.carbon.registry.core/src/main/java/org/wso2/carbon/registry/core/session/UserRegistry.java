@@ -40,6 +40,7 @@ import org.wso2.carbon.utils.multitenancy.MultitenantUtils;
 import java.io.Reader;
 import java.io.Writer;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
 
@@ -640,6 +641,46 @@ public class UserRegistry implements Registry {
         }
     }
 
+    public Collection get(String path, int start, int pageSize, int include)
+            throws RegistryException {
+        if (log.isTraceEnabled()) {
+            log.trace("Preparing operation get with pagination and details, " +
+                    "path: " + path + ", " +
+                    "start: " + start + ", " +
+                    "page size: " + pageSize + ", " +
+                    "include: " + include + ".");
+        }
+        try {
+            // setting session information + chrooted incoming paths
+            setSessionInformation();
+
+            Collection collection =
+                    coreRegistry.get(chrootWrapper.getInPath(path), start, pageSize, include);
+            if (collection != null) {
+                // collection implementation extends from the resource implementation.
+                ResourceImpl resourceImpl = (ResourceImpl) collection;
+                resourceImpl.setUserName(userName);
+                resourceImpl.setTenantId(tenantId);
+                resourceImpl.setUserRealm(userRealm);
+                Object content = collection.getContent();
+                if (content instanceof Resource[]) {
+                    for (Resource child : (Resource[]) content) {
+                        ((ResourceImpl) child).setUserName(userName);
+                        ((ResourceImpl) child).setTenantId(tenantId);
+                        ((ResourceImpl) child).setUserRealm(userRealm);
+                    }
+                }
+
+                // removing the chrooted paths in returning values
+                collection = chrootWrapper.getOutCollection(collection);
+            }
+            return collection;
+
+        } finally {
+            clearSessionInformation();
+        }
+    }
+
     public boolean resourceExists(String path) throws RegistryException {
         if (log.isTraceEnabled()) {
             log.trace("Preparing operation resource exists, " +
@@ -686,6 +727,41 @@ public class UserRegistry implements Registry {
         }
     }
 
+    public Map<String, String> putAll(Map<String, Resource> resources) throws RegistryException {
+        if (log.isTraceEnabled()) {
+            log.trace("Preparing operation putAll, " +
+                    "number of resources: " + resources.size() + ".");
+        }
+        Map<String, String> returningPaths = new LinkedHashMap<String, String>();
+        // If this node is operating in read-only mode, do not put the resources
+        if (RegistryUtils.isRegistryReadOnly(coreRegistry.getRegistryContext())) {
+            if (log.isTraceEnabled()) {
+                log.trace("Cannot continue the operation putAll, the coreRegistry is read-only");
+            }
+            for (String suggestedPath : resources.keySet()) {
+                returningPaths.put(suggestedPath, suggestedPath);
+            }
+            return returningPaths;
+        }
+        try {
+            // setting session information + chrooted incoming paths
+            setSessionInformation();
+
+            Map<String, Resource> chrootedResources = new LinkedHashMap<String, Resource>();
+            for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                chrootedResources.put(chrootWrapper.getInPath(entry.getKey()), entry.getValue());
+            }
+            Map<String, String> actualPaths = coreRegistry.putAll(chrootedResources);
+            for (String suggestedPath : resources.keySet()) {
+                returningPaths.put(suggestedPath, chrootWrapper.getOutPath(
+                        actualPaths.get(chrootWrapper.getInPath(suggestedPath))));
+            }
+            return returningPaths;
+        } finally {
+            clearSessionInformation();
+        }
+    }
+
     public void delete(String path) throws RegistryException {
         if (log.isTraceEnabled()) {
             log.trace("Preparing operation delete, " +
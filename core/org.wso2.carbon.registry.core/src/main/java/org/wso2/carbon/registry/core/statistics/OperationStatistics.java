@@ -0,0 +1,193 @@
+/*
+ *  Copyright (c) 2005-2009, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.registry.core.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counters and a latency histogram for a single registry operation or SQL statement. Recording
+ * an invocation only updates atomic counters and does not allocate any objects.
+ */
+public class OperationStatistics {
+
+    /**
+     * The upper bounds, in milliseconds, of the buckets of the latency histogram. Invocations that
+     * take longer than the last bound are counted in an additional bucket.
+     */
+    private static final long[] HISTOGRAM_BOUNDS =
+            {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private static final long NANOS_PER_MILLI = 1000000;
+
+    private String name;
+    private AtomicLong count = new AtomicLong();
+    private AtomicLong failureCount = new AtomicLong();
+    private AtomicLong totalTime = new AtomicLong();
+    private AtomicLong maxTime = new AtomicLong();
+    private AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BOUNDS.length + 1);
+
+    /**
+     * Creates statistics for the given operation or statement.
+     *
+     * @param name the name of the operation, or the SQL statement.
+     */
+    public OperationStatistics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a single invocation.
+     *
+     * @param elapsedTime the time taken, in nanoseconds.
+     * @param succeeded   whether the invocation succeeded.
+     */
+    public void record(long elapsedTime, boolean succeeded) {
+        count.incrementAndGet();
+        if (!succeeded) {
+            failureCount.incrementAndGet();
+        }
+        totalTime.addAndGet(elapsedTime);
+        long max = maxTime.get();
+        while (elapsedTime > max && !maxTime.compareAndSet(max, elapsedTime)) {
+            max = maxTime.get();
+        }
+        long elapsedMillis = elapsedTime / NANOS_PER_MILLI;
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS.length && elapsedMillis >= HISTOGRAM_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Method to obtain the name of the operation, or the SQL statement.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Method to obtain the number of invocations.
+     *
+     * @return the number of invocations.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Method to obtain the number of invocations that failed.
+     *
+     * @return the number of failed invocations.
+     */
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Method to obtain the total time taken by all invocations.
+     *
+     * @return the total time in nanoseconds.
+     */
+    public long getTotalTime() {
+        return totalTime.get();
+    }
+
+    /**
+     * Method to obtain the time taken by the slowest invocation.
+     *
+     * @return the maximum time in nanoseconds.
+     */
+    public long getMaxTime() {
+        return maxTime.get();
+    }
+
+    /**
+     * Method to obtain the average time taken by an invocation.
+     *
+     * @return the average time in nanoseconds.
+     */
+    public long getAverageTime() {
+        long currentCount = count.get();
+        return currentCount == 0 ? 0 : totalTime.get() / currentCount;
+    }
+
+    /**
+     * Method to obtain the number of invocations that fall into each bucket of the latency
+     * histogram. See {@link #getHistogramBounds()} for the bounds of the buckets.
+     *
+     * @return the number of invocations in each bucket.
+     */
+    public long[] getHistogram() {
+        long[] values = new long[histogram.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = histogram.get(i);
+        }
+        return values;
+    }
+
+    /**
+     * Method to obtain the upper bounds of the buckets of the latency histogram.
+     *
+     * @return the upper bounds in milliseconds.
+     */
+    public static long[] getHistogramBounds() {
+        long[] bounds = new long[HISTOGRAM_BOUNDS.length];
+        System.arraycopy(HISTOGRAM_BOUNDS, 0, bounds, 0, bounds.length);
+        return bounds;
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset() {
+        count.set(0);
+        failureCount.set(0);
+        totalTime.set(0);
+        maxTime.set(0);
+        for (int i = 0; i < histogram.length(); i++) {
+            histogram.set(i, 0);
+        }
+    }
+
+    public String toString() {
+        StringBuffer sb = new StringBuffer(name);
+        sb.append(": count=").append(getCount());
+        sb.append(", failures=").append(getFailureCount());
+        sb.append(", avg=").append(getAverageTime() / NANOS_PER_MILLI).append("ms");
+        sb.append(", max=").append(getMaxTime() / NANOS_PER_MILLI).append("ms");
+        sb.append(", histogram=[");
+        for (int i = 0; i < histogram.length(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            if (i < HISTOGRAM_BOUNDS.length) {
+                sb.append("<").append(HISTOGRAM_BOUNDS[i]).append("ms:");
+            } else {
+                sb.append(">=").append(HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1]).append("ms:");
+            }
+            sb.append(histogram.get(i));
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+}
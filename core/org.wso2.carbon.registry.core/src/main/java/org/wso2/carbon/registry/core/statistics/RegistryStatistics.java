@@ -0,0 +1,160 @@
+/*
+ *  Copyright (c) 2005-2009, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.registry.core.statistics;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.utils.MBeanRegistrar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects invocation counts and latencies of registry operations and of the SQL statements they
+ * execute. Collection is enabled by setting the <code>carbon.registry.statistics.enabled</code>
+ * system property to true, and the collected statistics can be read through the
+ * <code>RegistryStatisticsMonitor</code> MBean or through the methods of this class.
+ */
+public final class RegistryStatistics {
+
+    private static final Log log = LogFactory.getLog(RegistryStatistics.class);
+
+    /**
+     * The name under which statements are counted once the maximum number of distinct statements
+     * has been reached.
+     */
+    public static final String OTHER_STATEMENTS = "OTHER";
+
+    private static final int MAX_STATEMENTS = 1000;
+
+    private static final boolean enabled = Boolean.toString(true).equals(
+            System.getProperty("carbon.registry.statistics.enabled"));
+
+    private static final ConcurrentMap<String, OperationStatistics> operations =
+            new ConcurrentHashMap<String, OperationStatistics>();
+
+    private static final ConcurrentMap<String, OperationStatistics> statements =
+            new ConcurrentHashMap<String, OperationStatistics>();
+
+    // This class is not supposed to be instantiated.
+    private RegistryStatistics() {
+    }
+
+    /**
+     * Whether the collection of statistics is enabled.
+     *
+     * @return true if statistics are collected.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Records an invocation of a registry operation.
+     *
+     * @param operation   the name of the operation.
+     * @param elapsedTime the time taken, in nanoseconds.
+     * @param succeeded   whether the operation succeeded.
+     */
+    public static void recordOperation(String operation, long elapsedTime, boolean succeeded) {
+        getStatistics(operations, operation, Integer.MAX_VALUE).record(elapsedTime, succeeded);
+    }
+
+    /**
+     * Records an execution of a SQL statement.
+     *
+     * @param statement   the SQL statement, without parameter values.
+     * @param elapsedTime the time taken, in nanoseconds.
+     * @param succeeded   whether the statement executed successfully.
+     */
+    public static void recordStatement(String statement, long elapsedTime, boolean succeeded) {
+        getStatistics(statements, statement, MAX_STATEMENTS).record(elapsedTime, succeeded);
+    }
+
+    private static OperationStatistics getStatistics(
+            ConcurrentMap<String, OperationStatistics> map, String name, int maxSize) {
+        OperationStatistics statistics = map.get(name);
+        if (statistics == null) {
+            if (map.size() >= maxSize) {
+                name = OTHER_STATEMENTS;
+                statistics = map.get(name);
+                if (statistics != null) {
+                    return statistics;
+                }
+            }
+            statistics = new OperationStatistics(name);
+            OperationStatistics existing = map.putIfAbsent(name, statistics);
+            if (existing != null) {
+                statistics = existing;
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Method to obtain the statistics of all registry operations invoked so far.
+     *
+     * @return the statistics of the registry operations.
+     */
+    public static List<OperationStatistics> getOperationStatistics() {
+        return new ArrayList<OperationStatistics>(operations.values());
+    }
+
+    /**
+     * Method to obtain the statistics of all SQL statements executed so far.
+     *
+     * @return the statistics of the SQL statements.
+     */
+    public static List<OperationStatistics> getStatementStatistics() {
+        return new ArrayList<OperationStatistics>(statements.values());
+    }
+
+    /**
+     * Resets the statistics of all operations and statements.
+     */
+    public static void reset() {
+        operations.clear();
+        statements.clear();
+    }
+
+    /**
+     * Registers the MBean through which the statistics can be read, if the collection of
+     * statistics is enabled.
+     */
+    public static void registerMBean() {
+        if (enabled) {
+            try {
+                MBeanRegistrar.registerMBean(new RegistryStatisticsMonitor());
+            } catch (Exception e) {
+                log.error("Could not register the registry statistics MBean.", e);
+            }
+        }
+    }
+
+    /**
+     * Unregisters the MBean through which the statistics can be read.
+     */
+    public static void unregisterMBean() {
+        if (enabled) {
+            MBeanRegistrar.unregisterMBean(new RegistryStatisticsMonitor());
+        }
+    }
+}
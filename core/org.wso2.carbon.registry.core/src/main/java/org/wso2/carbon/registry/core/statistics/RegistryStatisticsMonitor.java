@@ -0,0 +1,47 @@
+/*
+ *  Copyright (c) 2005-2009, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.registry.core.statistics;
+
+import java.util.List;
+
+/**
+ * MBean exposing the statistics collected by {@link RegistryStatistics}.
+ */
+public class RegistryStatisticsMonitor implements RegistryStatisticsMonitorMBean {
+
+    public String[] getOperationStatistics() {
+        return toStrings(RegistryStatistics.getOperationStatistics());
+    }
+
+    public String[] getStatementStatistics() {
+        return toStrings(RegistryStatistics.getStatementStatistics());
+    }
+
+    public void reset() {
+        RegistryStatistics.reset();
+    }
+
+    private String[] toStrings(List<OperationStatistics> statisticsList) {
+        String[] output = new String[statisticsList.size()];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = statisticsList.get(i).toString();
+        }
+        return output;
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ *  Copyright (c) 2005-2009, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.registry.core.statistics;
+
+/**
+ * The management interface through which registry statistics are exposed over JMX.
+ */
+public interface RegistryStatisticsMonitorMBean {
+
+    /**
+     * Method to obtain a summary of the statistics of each registry operation.
+     *
+     * @return a line of statistics for each registry operation.
+     */
+    String[] getOperationStatistics();
+
+    /**
+     * Method to obtain a summary of the statistics of each SQL statement.
+     *
+     * @return a line of statistics for each SQL statement.
+     */
+    String[] getStatementStatistics();
+
+    /**
+     * Resets the statistics of all operations and statements.
+     */
+    void reset();
+}
@@ -29,6 +29,7 @@ public class StatisticsRecord {
     private Collection<String> records = null;
     private List<String> queries = new LinkedList<String>();
     private String operation = null;
+    private long startTime = 0;
 
     /**
      * Creates a statistics record.
@@ -58,6 +59,16 @@ public class StatisticsRecord {
         this.records.addAll(record.records);
         this.queries.addAll(record.queries);
         this.operation = record.operation;
+        this.startTime = record.startTime;
+    }
+
+    /**
+     * Clears the tables accessed and the queries executed, so that this record can be reused for
+     * the next operation.
+     */
+    public void clear() {
+        records.clear();
+        queries.clear();
     }
 
     /**
@@ -78,6 +89,15 @@ public class StatisticsRecord {
         return nestedDepth.decrementAndGet();
     }
 
+    /**
+     * Returns the nested depth of the transaction.
+     *
+     * @return current depth.
+     */
+    public int getDepth() {
+        return nestedDepth.get();
+    }
+
     /**
      * Returns the list of records on database tables accessed.
      *
@@ -131,4 +151,22 @@ public class StatisticsRecord {
     public void setOperation(String operation) {
         this.operation = operation;
     }
+
+    /**
+     * Method to get the time at which the operation started.
+     *
+     * @return the start time, as returned by {@link System#nanoTime()}.
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Method to set the time at which the operation started.
+     *
+     * @param startTime the start time, as returned by {@link System#nanoTime()}.
+     */
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
 }
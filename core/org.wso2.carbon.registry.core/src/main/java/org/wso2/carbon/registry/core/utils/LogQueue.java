@@ -17,12 +17,31 @@
 */
 package org.wso2.carbon.registry.core.utils;
 
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
 
 /**
- * Implementation of a Queue for logs.
+ * Implementation of a Queue for logs. The queue is bounded and backed by a pre-allocated
+ * circular array.
  */
-public class LogQueue extends LinkedBlockingQueue<Object> {
+public class LogQueue extends ArrayBlockingQueue<Object> {
+
+    private static final int DEFAULT_CAPACITY = 100000;
+
+    /**
+     * Creates a queue with the default capacity.
+     */
+    public LogQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a queue with the given capacity.
+     *
+     * @param capacity the maximum number of logs this queue can hold.
+     */
+    public LogQueue(int capacity) {
+        super(capacity);
+    }
 
     /**
      * Clears to queue.
@@ -0,0 +1,301 @@
+/*
+*  Copyright (c) 2005-2010, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+*
+*  WSO2 Inc. licenses this file to you under the Apache License,
+*  Version 2.0 (the "License"); you may not use this file except
+*  in compliance with the License.
+*  You may obtain a copy of the License at
+*
+*    http://www.apache.org/licenses/LICENSE-2.0
+*
+* Unless required by applicable law or agreed to in writing,
+* software distributed under the License is distributed on an
+* "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+* KIND, either express or implied.  See the License for the
+* specific language governing permissions and limitations
+* under the License.
+*/
+package org.wso2.carbon.registry.core.utils;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A local file to which log records are written when they cannot be queued for writing to the
+ * database. The records are kept in a length-prefixed binary form and are read back by the
+ * {@link LogWriter} once the database catches up.
+ * <p/>
+ * To read the records back, the spill file is first moved aside, so that records can keep being
+ * spilled meanwhile. The moved file is then read in batches, and the position up to which the
+ * batches have been written is kept in an offset file, so that a batch is never read back again
+ * once it has been written, even if the server stops before the whole file is read.
+ */
+public class LogSpillFile {
+
+    private static final Log log = LogFactory.getLog(LogSpillFile.class);
+    private static final String ENCODING = "UTF-8";
+    private static final String DRAINING_SUFFIX = ".draining";
+    private static final String OFFSET_SUFFIX = ".offset";
+
+    private File file;
+    private File drainingFile;
+    private File offsetFile;
+    private DataOutputStream out = null;
+    private int recordCount = 0;
+    private final Object drainLock = new Object();
+
+    /**
+     * Constructor accepting the location of the spill file.
+     *
+     * @param file the spill file.
+     */
+    public LogSpillFile(File file) {
+        this.file = file;
+        this.drainingFile = new File(file.getPath() + DRAINING_SUFFIX);
+        this.offsetFile = new File(file.getPath() + OFFSET_SUFFIX);
+    }
+
+    /**
+     * Appends a log record to the spill file.
+     *
+     * @param logRecord the log record to append.
+     *
+     * @throws IOException if the record could not be written.
+     */
+    public synchronized void append(LogRecord logRecord) throws IOException {
+        if (out == null) {
+            File parent = file.getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Unable to create directory " + parent.getAbsolutePath());
+            }
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+        }
+        writeString(logRecord.getResourcePath());
+        writeString(logRecord.getUserName());
+        out.writeLong(logRecord.getTimestamp().getTime());
+        out.writeInt(logRecord.getAction());
+        writeString(logRecord.getActionData());
+        out.writeInt(logRecord.getTenantId());
+        out.flush();
+        recordCount++;
+    }
+
+    /**
+     * Whether there are spilled records that have not been read back yet.
+     *
+     * @return true if the spill file has records.
+     */
+    public synchronized boolean hasRecords() {
+        return recordCount > 0 || file.length() > 0 || drainingFile.exists();
+    }
+
+    /**
+     * Reads the records in the spill file back in batches, in the order they were spilled. Each
+     * batch is removed from the spill file once the writer has written it. If the writer fails
+     * to write a batch, reading stops, and the batch is read again by the next call.
+     *
+     * @param batchSize the maximum number of records in a batch.
+     * @param writer    the writer of the batches.
+     *
+     * @return the number of records written.
+     * @throws IOException if the spill file could not be read.
+     */
+    public int drain(int batchSize, BatchWriter writer) throws IOException {
+        synchronized (drainLock) {
+            synchronized (this) {
+                if (!drainingFile.exists()) {
+                    // records spilled while a batch is being written go to a new spill file.
+                    if (out != null) {
+                        out.close();
+                        out = null;
+                    }
+                    if (!file.exists() || file.length() == 0) {
+                        return 0;
+                    }
+                    if (!file.renameTo(drainingFile)) {
+                        throw new IOException("Unable to move the log spill file " +
+                                file.getAbsolutePath() + " to " + drainingFile.getAbsolutePath());
+                    }
+                    recordCount = 0;
+                }
+            }
+            long offset = readOffset();
+            int written = 0;
+            List<LogRecord> batch = new ArrayList<LogRecord>(batchSize);
+            DataInputStream in = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(drainingFile)));
+            try {
+                skipFully(in, offset);
+                long position = offset;
+                while (true) {
+                    LogRecord logRecord = new LogRecord();
+                    long recordLength;
+                    try {
+                        recordLength = readRecord(in, logRecord);
+                    } catch (EOFException e) {
+                        if (position < drainingFile.length()) {
+                            log.warn("Ignoring truncated record at the end of the log spill " +
+                                    "file " + drainingFile.getAbsolutePath());
+                        }
+                        break;
+                    }
+                    batch.add(logRecord);
+                    position += recordLength;
+                    if (batch.size() == batchSize) {
+                        if (!writer.write(batch)) {
+                            return written;
+                        }
+                        written += batch.size();
+                        writeOffset(position);
+                        batch.clear();
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    if (!writer.write(batch)) {
+                        return written;
+                    }
+                    written += batch.size();
+                    writeOffset(position);
+                }
+            } finally {
+                in.close();
+            }
+            // the offset file is only removed once the records can no longer be read again.
+            if (!drainingFile.delete()) {
+                log.warn("Unable to delete the log spill file " + drainingFile.getAbsolutePath());
+            } else if (offsetFile.exists() && !offsetFile.delete()) {
+                log.warn("Unable to delete the log spill offset file " +
+                        offsetFile.getAbsolutePath());
+            }
+            return written;
+        }
+    }
+
+    private long readOffset() throws IOException {
+        if (!offsetFile.exists()) {
+            return 0;
+        }
+        DataInputStream in = new DataInputStream(new FileInputStream(offsetFile));
+        try {
+            return in.readLong();
+        } catch (EOFException e) {
+            // the offset was not written completely, so the batch it was written for is read
+            // again.
+            return 0;
+        } finally {
+            in.close();
+        }
+    }
+
+    private void writeOffset(long offset) throws IOException {
+        RandomAccessFile offsetOut = new RandomAccessFile(offsetFile, "rw");
+        try {
+            offsetOut.seek(0);
+            offsetOut.writeLong(offset);
+            offsetOut.getFD().sync();
+        } finally {
+            offsetOut.close();
+        }
+    }
+
+    private static void skipFully(DataInputStream in, long count) throws IOException {
+        while (count > 0) {
+            long skipped = in.skip(count);
+            if (skipped <= 0) {
+                throw new EOFException();
+            }
+            count -= skipped;
+        }
+    }
+
+    /**
+     * Flushes and closes the spill file. The records remain on disk to be read later.
+     */
+    public synchronized void close() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.error("Unable to close the log spill file " + file.getAbsolutePath(), e);
+            }
+            out = null;
+        }
+    }
+
+    /**
+     * Method to obtain the location of the spill file.
+     *
+     * @return the spill file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(ENCODING);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a record.
+     *
+     * @return the number of bytes read.
+     */
+    private long readRecord(DataInputStream in, LogRecord logRecord) throws IOException {
+        // the timestamp, action and tenant id, along with the lengths of the strings.
+        long[] length = {8 + 4 + 4};
+        logRecord.setResourcePath(readString(in, length));
+        logRecord.setUserName(readString(in, length));
+        logRecord.setTimestamp(new Date(in.readLong()));
+        logRecord.setAction(in.readInt());
+        logRecord.setActionData(readString(in, length));
+        logRecord.setTenantId(in.readInt());
+        return length[0];
+    }
+
+    private String readString(DataInputStream in, long[] recordLength) throws IOException {
+        int length = in.readInt();
+        recordLength[0] += 4;
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        recordLength[0] += length;
+        return new String(bytes, ENCODING);
+    }
+
+    /**
+     * Writes the batches of records read back from a spill file.
+     */
+    public interface BatchWriter {
+
+        /**
+         * Writes a batch of records.
+         *
+         * @param logRecords the records.
+         *
+         * @return whether the records were written.
+         */
+        boolean write(List<LogRecord> logRecords);
+    }
+}
@@ -19,24 +19,55 @@ package org.wso2.carbon.registry.core.utils;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.wso2.carbon.registry.core.config.LogWriterConfiguration;
 import org.wso2.carbon.registry.core.dao.LogsDAO;
 import org.wso2.carbon.registry.core.dataaccess.DataAccessManager;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.session.CurrentSession;
+import org.wso2.carbon.utils.CarbonUtils;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Writes log records to the database on a separate thread
+ * Writes log records to the database on a separate thread. Logs are held in a bounded
+ * {@link LogQueue} and are written in JDBC batches, either when a batch fills up or when the
+ * flush interval elapses, whichever comes first. What happens when the queue is full is decided
+ * by the overflow policy of the {@link LogWriterConfiguration}.
  */
 public class LogWriter extends Thread {
 
     private static final Log log = LogFactory.getLog(LogWriter.class);
-    private static final int DEFAULT_SLEEP_TIME = 10 * 1000;
+    private static final String DEFAULT_SPILL_FILE_NAME = "registry-logs.spill";
+    private static final long PRODUCER_WAIT_INTERVAL = 10;
 
     private LogQueue logQueue = null;
     private DataAccessManager dataAccessManager = null;
-    private boolean canWriteLogs = true;
+    private volatile boolean canWriteLogs = true;
+    // the number of logs the writer thread has taken from the queue, but not yet written.
+    private volatile int inFlightCount = 0;
+    // the number of threads adding a log, which may be waiting for space in the queue.
+    private final AtomicInteger producerCount = new AtomicInteger();
+
+    private int batchSize;
+    private long flushInterval;
+    private String overflowPolicy;
+    private LogSpillFile spillFile;
+    private final Object flushLock = new Object();
+
+    private AtomicLong writtenCount = new AtomicLong();
+    private AtomicLong droppedCount = new AtomicLong();
+    private AtomicLong spilledCount = new AtomicLong();
+    private AtomicLong flushCount = new AtomicLong();
+    private AtomicLong totalFlushTime = new AtomicLong();
+    private volatile long lastFlushTime = 0;
+    private volatile long maxFlushTime = 0;
 
     public boolean isCanWriteLogs() {
         return canWriteLogs;
@@ -52,8 +83,31 @@ public class LogWriter extends Thread {
      *                          database.
      */
     public LogWriter(LogQueue logQueue, DataAccessManager dataAccessManager) {
+        this(logQueue, dataAccessManager, new LogWriterConfiguration());
+    }
+
+    /**
+     * Constructor accepting a queue of logs and the configuration of the writer.
+     *
+     * @param logQueue          the queue of logs.
+     * @param dataAccessManager the manager class that can be used to obtain access to the back-end
+     *                          database.
+     * @param configuration     the configuration of the log writer.
+     */
+    public LogWriter(LogQueue logQueue, DataAccessManager dataAccessManager,
+                     LogWriterConfiguration configuration) {
         this.logQueue = logQueue;
         this.dataAccessManager = dataAccessManager;
+        this.batchSize = Math.max(1, configuration.getBatchSize());
+        this.flushInterval = Math.max(1, configuration.getFlushInterval());
+        this.overflowPolicy = configuration.getOverflowPolicy();
+        String spillFilePath = configuration.getSpillFile();
+        if (spillFilePath == null) {
+            String logsDir = CarbonUtils.getCarbonHome() != null ?
+                    CarbonUtils.getCarbonLogsPath() : System.getProperty("java.io.tmpdir");
+            spillFilePath = logsDir + File.separator + DEFAULT_SPILL_FILE_NAME;
+        }
+        this.spillFile = new LogSpillFile(new File(spillFilePath));
         this.setName("RegistryLogWritter");
     }
 
@@ -86,43 +140,111 @@ public class LogWriter extends Thread {
     /**
      * The main business logic.
      */
-    @SuppressWarnings("InfiniteLoopStatement")
     public void run() {
             logWrite();
         }
 
     public void logWrite() {
+        List<LogRecord> batch = new ArrayList<LogRecord>(batchSize);
+        long lastWriteTime = System.currentTimeMillis();
         while (true) {
-            if (logQueue != null && !logQueue.isEmpty() && dataAccessManager != null) {
-
-                int queueLength = logQueue.size();
-                LogRecord[] logRecords = new LogRecord[queueLength];
-                for (int a = 0; a < queueLength; a++) {
-                    LogRecord logRecord = (LogRecord) logQueue.poll();
-                    logRecords[a] = logRecord;
-                }
-                LogsDAO logsDAO = dataAccessManager.getDAOManager().getLogsDAO();
+            boolean interrupted = false;
+            long waitTime = flushInterval - (System.currentTimeMillis() - lastWriteTime);
+            if (waitTime > 0 && batch.size() < batchSize) {
                 try {
-                    logsDAO.saveLogBatch(logRecords);
-                } catch (RegistryException e) {
-                    log.error("Unable to save log records", e);
+                    if (logQueue == null) {
+                        sleep(waitTime);
+                    } else {
+                        Object logRecord = logQueue.poll(waitTime, TimeUnit.MILLISECONDS);
+                        if (logRecord != null) {
+                            batch.add((LogRecord) logRecord);
+                            inFlightCount = batch.size();
+                            drainQueue(batch, batchSize - batch.size());
+                            inFlightCount = batch.size();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
                 }
-            } else if (isInterrupted()) {
+            }
+            if (interrupted || isInterrupted()) {
+                // write whatever is left and stop.
+                writeBatch(batch);
+                inFlightCount = 0;
+                flush();
+                spillFile.close();
                 break;
             }
+            if (batch.size() >= batchSize ||
+                    System.currentTimeMillis() - lastWriteTime >= flushInterval) {
+                writeBatch(batch);
+                batch.clear();
+                inFlightCount = 0;
+                if (logQueue == null || logQueue.isEmpty()) {
+                    writeSpilledLogs();
+                }
+                lastWriteTime = System.currentTimeMillis();
+            }
+        }
+    }
 
+    /**
+     * Stops accepting logs, stops the writer thread once it has written the logs it has taken
+     * from the queue, and then writes the remaining queued and spilled logs to the database,
+     * including the logs of threads that were still waiting for space in the queue. This is
+     * invoked when the server is shutting down.
+     *
+     * @param timeout the maximum time in milliseconds to wait for the writer thread, and for the
+     *                threads adding logs, to stop.
+     */
+    public void shutdown(long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        setCanWriteLogs(false);
+        if (isAlive()) {
+            interrupt();
             try {
-                if (!isInterrupted()) {
-                    sleep(DEFAULT_SLEEP_TIME);
-                }
+                join(timeout);
             } catch (InterruptedException e) {
-                if (logQueue == null || logQueue.isEmpty()) {
-                    break;
-                }
+                Thread.currentThread().interrupt();
+            }
+            if (isAlive()) {
+                log.warn("The registry log writer did not stop within " + timeout + " ms.");
+            }
+        }
+        flush();
+        // a thread blocked on a full queue adds its log once the flush has made space for it.
+        while (producerCount.get() > 0 && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(PRODUCER_WAIT_INTERVAL);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
+            flush();
         }
+        if (producerCount.get() > 0) {
+            log.warn(producerCount.get() + " threads were still adding registry logs when the " +
+                    "log writer stopped.");
+        }
+        flush();
     }
 
+    /**
+     * Writes all the logs that are currently queued, along with any logs that were spilled to
+     * disk, to the database. Logs that the writer thread has already taken from the queue are
+     * written by the writer thread, so use {@link #shutdown(long)} to write every pending log
+     * when the server is shutting down.
+     */
+    public void flush() {
+        if (logQueue != null) {
+            List<LogRecord> batch = new ArrayList<LogRecord>(batchSize);
+            while (drainQueue(batch, batchSize) > 0) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        writeSpilledLogs();
+    }
 
     /**
      * Adds log record to queue
@@ -136,7 +258,21 @@ public class LogWriter extends Thread {
      */
     public void addLog(String resourcePath, String userName, int action,
                               String actionData) throws RegistryException {
-        if (logQueue != null && isCanWriteLogs()) {
+        if (logQueue == null) {
+            return;
+        }
+        // counted before checking whether logs are accepted, so that shutdown waits for this log.
+        producerCount.incrementAndGet();
+        try {
+            queueLog(resourcePath, userName, action, actionData);
+        } finally {
+            producerCount.decrementAndGet();
+        }
+    }
+
+    private void queueLog(String resourcePath, String userName, int action,
+                          String actionData) {
+        if (isCanWriteLogs()) {
             LogRecord logRecord = new LogRecord();
             if (CurrentSession.getLocalPathMap() != null) {
                 String temp = CurrentSession.getLocalPathMap().get(resourcePath);
@@ -151,7 +287,192 @@ public class LogWriter extends Thread {
             logRecord.setActionData(actionData);
             logRecord.setTenantId(CurrentSession.getTenantId());
 
-            logQueue.add(logRecord);
+            if (!logQueue.offer(logRecord)) {
+                handleOverflow(logRecord);
+            }
         }
 	}
+
+    /**
+     * Method to obtain the number of logs waiting to be written, which includes the logs that
+     * the writer thread has taken from the queue but not yet written.
+     *
+     * @return the number of pending logs.
+     */
+    public int getQueueDepth() {
+        return (logQueue != null ? logQueue.size() : 0) + inFlightCount;
+    }
+
+    /**
+     * Method to obtain the number of logs written to the database.
+     *
+     * @return the number of logs written.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Method to obtain the number of logs that were discarded, either because the queue was full
+     * or because they could not be written to the database.
+     *
+     * @return the number of logs discarded.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Method to obtain the number of logs that were spilled to disk.
+     *
+     * @return the number of logs spilled.
+     */
+    public long getSpilledCount() {
+        return spilledCount.get();
+    }
+
+    /**
+     * Method to obtain the number of batches written to the database.
+     *
+     * @return the number of batches written.
+     */
+    public long getFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * Method to obtain the time taken to write the last batch to the database.
+     *
+     * @return the time taken in milliseconds.
+     */
+    public long getLastFlushTime() {
+        return lastFlushTime;
+    }
+
+    /**
+     * Method to obtain the longest time taken to write a batch to the database.
+     *
+     * @return the time taken in milliseconds.
+     */
+    public long getMaxFlushTime() {
+        return maxFlushTime;
+    }
+
+    /**
+     * Method to obtain the average time taken to write a batch to the database.
+     *
+     * @return the time taken in milliseconds.
+     */
+    public long getAverageFlushTime() {
+        long count = flushCount.get();
+        return count == 0 ? 0 : totalFlushTime.get() / count;
+    }
+
+    private void handleOverflow(LogRecord logRecord) {
+        if (LogWriterConfiguration.OVERFLOW_POLICY_DROP_OLDEST.equals(overflowPolicy)) {
+            while (!logQueue.offer(logRecord)) {
+                if (logQueue.poll() != null) {
+                    droppedCount.incrementAndGet();
+                }
+            }
+        } else if (LogWriterConfiguration.OVERFLOW_POLICY_SPILL.equals(overflowPolicy)) {
+            spill(logRecord);
+        } else {
+            try {
+                logQueue.put(logRecord);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCount.incrementAndGet();
+                log.warn("Interrupted while waiting to queue the log of " +
+                        logRecord.getResourcePath());
+            }
+        }
+    }
+
+    private void spill(LogRecord logRecord) {
+        try {
+            spillFile.append(logRecord);
+            spilledCount.incrementAndGet();
+        } catch (IOException e) {
+            droppedCount.incrementAndGet();
+            log.error("Unable to spill the log of " + logRecord.getResourcePath() + " to " +
+                    spillFile.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    private int drainQueue(List<LogRecord> batch, int maxRecords) {
+        int count = 0;
+        Object logRecord;
+        while (count < maxRecords && (logRecord = logQueue.poll()) != null) {
+            batch.add((LogRecord) logRecord);
+            count++;
+        }
+        return count;
+    }
+
+    private void writeSpilledLogs() {
+        if (dataAccessManager == null || !spillFile.hasRecords()) {
+            return;
+        }
+        try {
+            // spilled logs which could not be saved stay in the spill file, to be written later.
+            spillFile.drain(batchSize, new LogSpillFile.BatchWriter() {
+                public boolean write(List<LogRecord> logRecords) {
+                    return saveBatch(logRecords.toArray(new LogRecord[logRecords.size()]));
+                }
+            });
+        } catch (IOException e) {
+            log.error("Unable to read spilled logs from " +
+                    spillFile.getFile().getAbsolutePath(), e);
+        }
+    }
+
+    private void writeBatch(List<LogRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        LogRecord[] logRecords = batch.toArray(new LogRecord[batch.size()]);
+        if (dataAccessManager == null) {
+            droppedCount.addAndGet(logRecords.length);
+            return;
+        }
+        if (!saveBatch(logRecords)) {
+            if (LogWriterConfiguration.OVERFLOW_POLICY_SPILL.equals(overflowPolicy)) {
+                for (LogRecord logRecord : logRecords) {
+                    spill(logRecord);
+                }
+            } else {
+                droppedCount.addAndGet(logRecords.length);
+            }
+        }
+    }
+
+    private boolean saveBatch(LogRecord[] logRecords) {
+        boolean saved = false;
+        // the writer thread and a shutdown flush may try to write at the same time.
+        synchronized (flushLock) {
+            long startTime = System.currentTimeMillis();
+            LogsDAO logsDAO = dataAccessManager.getDAOManager().getLogsDAO();
+            try {
+                logsDAO.saveLogBatch(logRecords);
+                writtenCount.addAndGet(logRecords.length);
+                saved = true;
+            } catch (RegistryException e) {
+                log.error("Unable to save log records", e);
+            }
+            long flushTime = System.currentTimeMillis() - startTime;
+            flushCount.incrementAndGet();
+            totalFlushTime.addAndGet(flushTime);
+            lastFlushTime = flushTime;
+            if (flushTime > maxFlushTime) {
+                maxFlushTime = flushTime;
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Wrote " + logRecords.length + " log records in " + flushTime +
+                        " ms. Queue depth: " + getQueueDepth() + ", dropped: " +
+                        droppedCount.get() + ", spilled: " + spilledCount.get());
+            }
+        }
+        return saved;
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.registry.core.test.jdbc;
+
+import org.wso2.carbon.registry.core.LogEntry;
+import org.wso2.carbon.registry.core.LogEntryIterator;
+import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.dao.LogsDAO;
+import org.wso2.carbon.registry.core.dataaccess.DataAccessManager;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.jdbc.EmbeddedRegistryService;
+import org.wso2.carbon.registry.core.session.CurrentSession;
+import org.wso2.carbon.registry.core.test.utils.BaseTestCase;
+import org.wso2.carbon.registry.core.utils.LogRecord;
+import org.wso2.carbon.user.api.RealmConfiguration;
+import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class LogsDAOTest extends BaseTestCase {
+
+    protected static EmbeddedRegistryService embeddedRegistryService = null;
+    protected static Registry registry = null;
+
+    private static final long LOGGED_TIME = 1000000000000L;
+
+    public void setUp() {
+        super.setUp();
+        if (embeddedRegistryService != null) {
+            return;
+        }
+        try {
+            embeddedRegistryService = ctx.getEmbeddedRegistryService();
+            RealmUnawareRegistryCoreServiceComponent comp =
+                    new RealmUnawareRegistryCoreServiceComponent();
+            comp.setRealmService(ctx.getRealmService());
+            comp.registerBuiltInHandlers(embeddedRegistryService);
+
+            // get the realm config to retrieve admin username, password
+            RealmConfiguration realmConfig = ctx.getRealmService().getBootstrapRealmConfiguration();
+            registry = embeddedRegistryService.getUserRegistry(
+                realmConfig.getAdminUserName(), realmConfig.getAdminPassword());
+        } catch (RegistryException e) {
+                fail("Failed to initialize the registry. Caused by: " + e.getMessage());
+        }
+    }
+
+    public void testKeysetPagination() throws RegistryException {
+        DataAccessManager dataAccessManager =
+                registry.getRegistryContext().getDataAccessManager();
+        LogsDAO logsDAO = dataAccessManager.getDAOManager().getLogsDAO();
+        String path = "/test/keysetlogs/" + System.currentTimeMillis();
+
+        CurrentSession.setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+        try {
+            // entries sharing a logged time are ordered by their log ids, and must neither be
+            // skipped nor repeated at a page boundary.
+            LogRecord[] logRecords = new LogRecord[7];
+            for (int i = 0; i < logRecords.length; i++) {
+                logRecords[i] = new LogRecord();
+                logRecords[i].setResourcePath(path);
+                logRecords[i].setUserName("admin");
+                logRecords[i].setTimestamp(new Date(LOGGED_TIME + (i < 3 ? 0 : 1000)));
+                logRecords[i].setAction(LogEntry.UPDATE);
+                logRecords[i].setTenantId(MultitenantConstants.SUPER_TENANT_ID);
+            }
+            logsDAO.saveLogBatch(logRecords);
+
+            LogEntry[] firstPage = logsDAO.getLogs(path, LogEntry.ALL, null, null, null, true,
+                    null, 2, dataAccessManager);
+            assertEquals("Incorrect page length.", 2, firstPage.length);
+            assertEquals("Recent entries are not first.", LOGGED_TIME + 1000,
+                    firstPage[0].getDate().getTime());
+
+            assertKeysetOrder(iterate(logsDAO, dataAccessManager, path, true), true);
+            assertKeysetOrder(iterate(logsDAO, dataAccessManager, path, false), false);
+        } finally {
+            CurrentSession.removeTenantId();
+        }
+    }
+
+    private List<LogEntry> iterate(LogsDAO logsDAO, DataAccessManager dataAccessManager,
+                                   String path, boolean recentFirst) throws RegistryException {
+        LogEntryIterator iterator = new LogEntryIterator(logsDAO, dataAccessManager, path,
+                LogEntry.ALL, null, null, null, recentFirst, 2);
+        List<LogEntry> logEntries = new ArrayList<LogEntry>();
+        while (iterator.hasNext()) {
+            logEntries.add(iterator.next());
+        }
+        return logEntries;
+    }
+
+    private void assertKeysetOrder(List<LogEntry> logEntries, boolean recentFirst) {
+        assertEquals("Incorrect number of log entries.", 7, logEntries.size());
+        Set<Long> logIds = new HashSet<Long>();
+        for (int i = 0; i < logEntries.size(); i++) {
+            LogEntry logEntry = logEntries.get(i);
+            assertTrue("Log entry repeated.", logIds.add(logEntry.getLogId()));
+            if (i > 0) {
+                LogEntry previous = logEntries.get(i - 1);
+                long timeDifference = logEntry.getDate().getTime() - previous.getDate().getTime();
+                long idDifference = logEntry.getLogId() - previous.getLogId();
+                if (recentFirst) {
+                    timeDifference = -timeDifference;
+                    idDifference = -idDifference;
+                }
+                assertTrue("Log entries are out of order.", timeDifference > 0 ||
+                        (timeDifference == 0 && idDifference > 0));
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.wso2.carbon.registry.core.test.jdbc;
 
 import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.CollectionImpl;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.Resource;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
@@ -24,6 +25,10 @@ import org.wso2.carbon.registry.core.jdbc.EmbeddedRegistryService;
 import org.wso2.carbon.registry.core.test.utils.BaseTestCase;
 import org.wso2.carbon.user.api.RealmConfiguration;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 public class PaginationTest extends BaseTestCase {
 
     protected static EmbeddedRegistryService embeddedRegistryService = null;
@@ -74,4 +79,28 @@ public class PaginationTest extends BaseTestCase {
         assertEquals(childNodes[0], "/test/c1/c_20");
         assertEquals(childNodes[4], "/test/c1/c_24");
     }
+
+    public void testKeysetPagination() throws RegistryException {
+        for (int j = 0; j < 25; j++) {
+            Resource r = registry.newResource();
+            r.setContent("r" + j);
+            registry.put(String.format("/test/c2/r_%02d", j), r);
+        }
+        for (int j = 0; j < 10; j++) {
+            registry.put(String.format("/test/c2/c_%02d", j), registry.newCollection());
+        }
+        CollectionImpl coll = (CollectionImpl) registry.get("/test/c2");
+        List<String> children = new ArrayList<String>();
+        String[] page = coll.getChildren((String) null, 7);
+        while (page.length > 0) {
+            assertTrue(page.length <= 7);
+            children.addAll(Arrays.asList(page));
+            page = coll.getChildren(page[page.length - 1], 7);
+        }
+        assertEquals(35, children.size());
+        assertEquals("/test/c2/r_00", children.get(0));
+        assertEquals("/test/c2/r_24", children.get(24));
+        assertEquals("/test/c2/c_00", children.get(25));
+        assertEquals("/test/c2/c_09", children.get(34));
+    }
 }
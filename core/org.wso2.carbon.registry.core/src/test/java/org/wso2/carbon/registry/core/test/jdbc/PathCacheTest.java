@@ -16,6 +16,7 @@
 
 package org.wso2.carbon.registry.core.test.jdbc;
 
+import org.wso2.carbon.registry.core.Collection;
 import org.wso2.carbon.registry.core.Registry;
 import org.wso2.carbon.registry.core.Resource;
 import org.wso2.carbon.registry.core.caching.PathCache;
@@ -82,4 +83,26 @@ public class PathCacheTest extends BaseTestCase {
         double rate7 = PathCache.getPathCache().hitRate();
         assertTrue("Rate7 >= Rate6", rate7 >= rate6);
     }
-}
\ No newline at end of file
+
+    public void testDeepHierarchy() throws RegistryException {
+
+        Resource r1 = registry.newResource();
+        r1.setContent("some content");
+        registry.put("/test/deep/c1/c2/c3/c4/r1", r1);
+
+        String path = "/test/deep/c1/c2/c3/c4";
+        while (!path.equals("/test")) {
+            assertTrue(path + " was not created.", registry.resourceExists(path));
+            assertTrue(path + " is not a collection.",
+                    registry.get(path) instanceof Collection);
+            path = path.substring(0, path.lastIndexOf('/'));
+        }
+        String[] children = (String[]) registry.get("/test/deep/c1/c2/c3/c4").getContent();
+        assertEquals(1, children.length);
+        assertEquals("/test/deep/c1/c2/c3/c4/r1", children[0]);
+
+        registry.put("/test/deep/c1/c2/c5/r2", r1);
+        assertTrue(registry.resourceExists("/test/deep/c1/c2/c5/r2"));
+        assertEquals(2, ((String[]) registry.get("/test/deep/c1/c2").getContent()).length);
+    }
+}
@@ -16,14 +16,22 @@
 
 package org.wso2.carbon.registry.core.test.jdbc;
 
+import org.wso2.carbon.registry.core.Collection;
+import org.wso2.carbon.registry.core.Comment;
 import org.wso2.carbon.registry.core.Registry;
+import org.wso2.carbon.registry.core.RegistryConstants;
 import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
 import org.wso2.carbon.registry.core.exceptions.RegistryException;
 import org.wso2.carbon.registry.core.jdbc.EmbeddedRegistryService;
 import org.wso2.carbon.registry.core.test.utils.BaseTestCase;
 import org.wso2.carbon.registry.core.utils.RegistryUtils;
 import org.wso2.carbon.user.api.RealmConfiguration;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 public class ResourcesTest extends BaseTestCase {
 
     protected static EmbeddedRegistryService embeddedRegistryService = null;
@@ -69,4 +77,81 @@ public class ResourcesTest extends BaseTestCase {
         String r1e2Content = RegistryUtils.decodeBytes((byte[]) r1e2.getContent());
         assertEquals("r1 content should be c1", r1e2Content, "c1");
     }
+
+    public void testPutAll() throws RegistryException {
+
+        Map<String, Resource> resources = new LinkedHashMap<String, Resource>();
+        for (int i = 0; i < 20; i++) {
+            Resource resource = registry.newResource();
+            resource.setContent("c" + i);
+            resource.setProperty("p1", "v" + i);
+            resource.addProperty("p2", "a");
+            resource.addProperty("p2", "b");
+            resources.put("/rTest/bulk/c" + (i % 4) + "/r" + i, resource);
+        }
+        Map<String, String> actualPaths = registry.putAll(resources);
+        assertEquals(resources.size(), actualPaths.size());
+
+        for (int i = 0; i < 20; i++) {
+            String path = "/rTest/bulk/c" + (i % 4) + "/r" + i;
+            assertEquals(path, actualPaths.get(path));
+            Resource resource = registry.get(path);
+            assertEquals("c" + i, RegistryUtils.decodeBytes((byte[]) resource.getContent()));
+            assertEquals("v" + i, resource.getProperty("p1"));
+            assertEquals(2, resource.getPropertyValues("p2").size());
+        }
+        assertEquals(5, ((String[]) registry.get("/rTest/bulk/c1").getContent()).length);
+
+        // a bulk put updates existing resources as well.
+        Resource r0 = registry.get("/rTest/bulk/c0/r0");
+        r0.setContent("updated");
+        registry.putAll(Collections.singletonMap("/rTest/bulk/c0/r0", r0));
+        assertEquals("updated", RegistryUtils.decodeBytes(
+                (byte[]) registry.get("/rTest/bulk/c0/r0").getContent()));
+    }
+
+    public void testGetWithDetails() throws RegistryException {
+
+        for (int i = 0; i < 6; i++) {
+            Resource resource = registry.newResource();
+            resource.setContent("c" + i);
+            resource.setProperty("p1", "v" + i);
+            registry.put("/rTest/details/r" + i, resource);
+            registry.applyTag("/rTest/details/r" + i, "t" + (i % 2));
+        }
+        registry.put("/rTest/details/c0", registry.newCollection());
+        registry.applyTag("/rTest/details/c0", "t0");
+        registry.addComment("/rTest/details/r1", new Comment("first"));
+        registry.addComment("/rTest/details/r1", new Comment("second"));
+        registry.rateResource("/rTest/details/r2", 4);
+        registry.rateResource("/rTest/details/c0", 2);
+
+        Collection collection = registry.get("/rTest/details", 0, 10,
+                RegistryConstants.INCLUDE_PROPERTIES | RegistryConstants.INCLUDE_TAGS |
+                        RegistryConstants.INCLUDE_COMMENTS | RegistryConstants.INCLUDE_RATINGS);
+        Resource[] children = (Resource[]) collection.getContent();
+        assertEquals(7, children.length);
+        for (Resource child : children) {
+            ResourceImpl childImpl = (ResourceImpl) child;
+            String name = child.getPath().substring(child.getPath().lastIndexOf('/') + 1);
+            assertEquals(1, childImpl.getTags().length);
+            if (name.equals("c0")) {
+                assertTrue(child instanceof Collection);
+                assertEquals("t0", childImpl.getTags()[0].getTagName());
+                assertEquals(2f, childImpl.getAverageRating(), 0.001f);
+                continue;
+            }
+            int i = Integer.parseInt(name.substring(1));
+            assertEquals("v" + i, child.getProperty("p1"));
+            assertEquals("t" + (i % 2), childImpl.getTags()[0].getTagName());
+            assertEquals(i == 1 ? 2 : 0, childImpl.getComments().length);
+            assertEquals(i == 2 ? 4f : 0f, childImpl.getAverageRating(), 0.001f);
+        }
+
+        // details which were not asked for are not loaded.
+        children = (Resource[]) registry.get("/rTest/details", 0, 10, 0).getContent();
+        assertEquals(7, children.length);
+        assertNull(((ResourceImpl) children[0]).getTags());
+        assertEquals(-1f, ((ResourceImpl) children[0]).getAverageRating(), 0.001f);
+    }
 }
@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.registry.core.test.jdbc;
+
+import junit.framework.TestCase;
+import org.wso2.carbon.registry.core.config.DataBaseConfiguration;
+import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDataAccessManager;
+import org.wso2.carbon.registry.core.jdbc.dataaccess.JDBCDatabaseTransaction;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+public class StatementCacheTest extends TestCase {
+
+    private static final String URL = "jdbc:h2:mem:statementcachetest;DB_CLOSE_DELAY=-1";
+
+    private static final String COUNTING_URL_PREFIX = "jdbc:preparecount:";
+
+    private static final String STATEMENT_CACHE_SIZE = "carbon.registry.statement.cache.size";
+
+    private static final String SELECT_SQL =
+            "SELECT REG_NAME FROM REG_CACHE_TEST WHERE REG_ID=?";
+
+    private static final int ITERATIONS = 5000;
+
+    public void setUp() throws Exception {
+        Class.forName("org.h2.Driver");
+        Connection conn = DriverManager.getConnection(URL, "wso2carbon", "wso2carbon");
+        try {
+            Statement s = conn.createStatement();
+            s.execute("CREATE TABLE IF NOT EXISTS REG_CACHE_TEST (REG_ID INTEGER, " +
+                    "REG_NAME VARCHAR(50))");
+            s.execute("DELETE FROM REG_CACHE_TEST");
+            for (int i = 0; i < 10; i++) {
+                s.execute("INSERT INTO REG_CACHE_TEST VALUES (" + i + ", 'name" + i + "')");
+            }
+            s.close();
+        } finally {
+            conn.close();
+        }
+        PrepareCountingDriver.reset();
+    }
+
+    public void testStatementReuse() throws Exception {
+        DataSource dataSource = buildDataSource(null);
+        Connection conn = new JDBCDatabaseTransaction.ManagedRegistryConnection(
+                dataSource.getConnection());
+        try {
+            assertEquals("name1", selectName(conn, 1));
+            assertEquals("name2", selectName(conn, 2));
+
+            // A statement which is still in use must not be handed out again.
+            PreparedStatement outer = conn.prepareStatement(SELECT_SQL);
+            outer.setInt(1, 3);
+            ResultSet outerResult = outer.executeQuery();
+            assertEquals("name4", selectName(conn, 4));
+            assertTrue(outerResult.next());
+            assertEquals("name3", outerResult.getString(1));
+            outerResult.close();
+            outer.close();
+
+            PreparedStatement first = conn.prepareStatement(SELECT_SQL);
+            PreparedStatement second = conn.prepareStatement(SELECT_SQL);
+            first.setInt(1, 5);
+            second.setInt(1, 6);
+            ResultSet firstResult = first.executeQuery();
+            ResultSet secondResult = second.executeQuery();
+            assertTrue(firstResult.next());
+            assertTrue(secondResult.next());
+            assertEquals("name5", firstResult.getString(1));
+            assertEquals("name6", secondResult.getString(1));
+            firstResult.close();
+            secondResult.close();
+            first.close();
+            second.close();
+
+            assertEquals("H2", JDBCDatabaseTransaction.getDatabaseProductName(conn));
+        } finally {
+            conn.close();
+        }
+    }
+
+    public void testPrepareCount() throws Exception {
+        // every call checks a connection out of the pool and returns it, as registry
+        // operations do.
+        runQueries(buildDataSource("0"), ITERATIONS);
+        assertEquals("Statements prepared without statement caching.", ITERATIONS,
+                PrepareCountingDriver.preparedStatements.get());
+
+        PrepareCountingDriver.reset();
+        runQueries(buildDataSource(null), ITERATIONS);
+        assertTrue("Statements prepared with statement caching: " +
+                PrepareCountingDriver.preparedStatements.get(),
+                PrepareCountingDriver.preparedStatements.get() <=
+                        PrepareCountingDriver.connections.get());
+    }
+
+    private DataSource buildDataSource(String cacheSize) {
+        DataBaseConfiguration config = new DataBaseConfiguration();
+        config.setDbUrl(COUNTING_URL_PREFIX + URL);
+        config.setDriverName(PrepareCountingDriver.class.getName());
+        config.setUserName("wso2carbon");
+        config.setPassWord("wso2carbon");
+        String previous = System.getProperty(STATEMENT_CACHE_SIZE);
+        if (cacheSize != null) {
+            System.setProperty(STATEMENT_CACHE_SIZE, cacheSize);
+        }
+        try {
+            return JDBCDataAccessManager.buildDataSource(config);
+        } finally {
+            if (previous != null) {
+                System.setProperty(STATEMENT_CACHE_SIZE, previous);
+            } else {
+                System.clearProperty(STATEMENT_CACHE_SIZE);
+            }
+        }
+    }
+
+    private void runQueries(DataSource dataSource, int iterations) throws SQLException {
+        for (int i = 0; i < iterations; i++) {
+            Connection conn = new JDBCDatabaseTransaction.ManagedRegistryConnection(
+                    dataSource.getConnection());
+            try {
+                assertEquals("name" + (i % 10), selectName(conn, i % 10));
+            } finally {
+                conn.close();
+            }
+        }
+    }
+
+    private String selectName(Connection conn, int id) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(SELECT_SQL);
+        try {
+            ps.setInt(1, id);
+            ResultSet result = ps.executeQuery();
+            try {
+                return result.next() ? result.getString(1) : null;
+            } finally {
+                result.close();
+            }
+        } finally {
+            ps.close();
+        }
+    }
+
+    // Opens H2 connections, counting the connections opened and the statements prepared on them.
+    public static class PrepareCountingDriver implements Driver {
+
+        private static AtomicInteger connections = new AtomicInteger();
+        private static AtomicInteger preparedStatements = new AtomicInteger();
+
+        private static void reset() {
+            connections.set(0);
+            preparedStatements.set(0);
+        }
+
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            final Connection connection = DriverManager.getConnection(
+                    url.substring(COUNTING_URL_PREFIX.length()), info);
+            connections.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class[]{Connection.class}, new InvocationHandler() {
+                        public Object invoke(Object proxy, Method method, Object[] args)
+                                throws Throwable {
+                            Object result;
+                            try {
+                                result = method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                            if (result instanceof PreparedStatement) {
+                                preparedStatements.incrementAndGet();
+                            }
+                            return result;
+                        }
+                    });
+        }
+
+        public boolean acceptsURL(String url) {
+            return url != null && url.startsWith(COUNTING_URL_PREFIX);
+        }
+
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
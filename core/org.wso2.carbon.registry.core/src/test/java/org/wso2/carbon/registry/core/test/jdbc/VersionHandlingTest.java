@@ -405,4 +405,31 @@ public class VersionHandlingTest extends BaseTestCase {
         assertFalse("Root should not have child vtc2",
                 RegistryUtils.containsAsSubString("/vtc2", rootV1Children));
     }
+
+    public void testLargeCollectionSnapshot() throws RegistryException {
+
+        int collectionCount = 10;
+        int resourcesPerCollection = 50;
+        for (int i = 0; i < collectionCount; i++) {
+            for (int j = 0; j < resourcesPerCollection; j++) {
+                Resource r = registry.newResource();
+                r.setContent("content " + i + "-" + j);
+                registry.put("/test/v15/c" + i + "/r" + j, r);
+            }
+        }
+
+        registry.createVersion("/test/v15");
+
+        Resource r = registry.get("/test/v15/c3/r7");
+        r.setContent("updated content");
+        registry.put("/test/v15/c3/r7", r);
+
+        String[] versions = registry.getVersions("/test/v15");
+        assertTrue("/test/v15 should have a version.", versions.length > 0);
+
+        registry.restoreVersion(versions[0]);
+        Resource restored = registry.get("/test/v15/c3/r7");
+        assertEquals("Content should be restored from the snapshot.", "content 3-7",
+                RegistryUtils.decodeBytes((byte[]) restored.getContent()));
+    }
 }
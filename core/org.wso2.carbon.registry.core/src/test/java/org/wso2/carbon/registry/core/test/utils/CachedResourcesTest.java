@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.registry.core.test.utils;
+
+import junit.framework.TestCase;
+import org.wso2.carbon.registry.app.CachedResources;
+import org.wso2.carbon.registry.core.Resource;
+import org.wso2.carbon.registry.core.ResourceImpl;
+
+public class CachedResourcesTest extends TestCase {
+
+    public void testCacheResource() throws Exception {
+        CachedResources cache = new CachedResources(10);
+        Resource resource = new ResourceImpl();
+
+        assertFalse(cache.isResourceCached("/r1"));
+        assertTrue(cache.cacheResource("/r1", resource, "1", 10));
+        assertTrue(cache.isResourceCached("/r1"));
+        assertSame(resource, cache.getCachedResource("/r1"));
+        assertEquals("1", cache.getETag("/r1"));
+
+        Resource newResource = new ResourceImpl();
+        assertTrue(cache.cacheResource("/r1", newResource, "2", 10));
+        assertEquals("2", cache.getETag("/r1"));
+        assertSame(newResource, cache.getCachedResource("/r1", "2"));
+        assertNull("A replaced resource must not be returned.",
+                cache.getCachedResource("/r1", "1"));
+
+        assertFalse("A resource without an entity tag must not be cached.",
+                cache.cacheResource("/r1", resource, null, 10));
+        assertFalse(cache.isResourceCached("/r1"));
+    }
+
+    public void testEviction() throws Exception {
+        CachedResources cache = new CachedResources(3);
+        for (int i = 0; i < 3; i++) {
+            cache.cacheResource("/r" + i, new ResourceImpl(), Integer.toString(i), 3);
+        }
+        // Access the first resource, so that the second one becomes the least recently used.
+        assertNotNull(cache.getCachedResource("/r0"));
+        cache.cacheResource("/r3", new ResourceImpl(), "3", 3);
+
+        assertEquals(3, cache.getSizeOfCache());
+        assertTrue(cache.isResourceCached("/r0"));
+        assertFalse(cache.isResourceCached("/r1"));
+        assertTrue(cache.isResourceCached("/r3"));
+
+        cache.cacheResource("/r4", new ResourceImpl(), "4", 2);
+        assertEquals(2, cache.getSizeOfCache());
+        assertTrue(cache.isResourceCached("/r4"));
+    }
+
+    public void testConcurrentAccess() throws Exception {
+        final CachedResources cache = new CachedResources(100);
+        final Throwable[] failure = new Throwable[1];
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int threadId = i;
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 5000; j++) {
+                            String path = "/r" + ((threadId * j) % 500);
+                            cache.cacheResource(path, new ResourceImpl(), path, 100);
+                            String eTag = cache.getETag(path);
+                            if (eTag != null && !eTag.equals(path)) {
+                                throw new IllegalStateException("Incorrect entity tag for " +
+                                        path + ": " + eTag);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        synchronized (failure) {
+                            failure[0] = e;
+                        }
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertNull("Concurrent access failed: " + failure[0], failure[0]);
+        assertTrue(cache.getSizeOfCache() <= 100);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.registry.core.test.utils;
+
+import junit.framework.TestCase;
+import org.wso2.carbon.registry.core.LogEntry;
+import org.wso2.carbon.registry.core.LogEntryIterator;
+import org.wso2.carbon.registry.core.dao.LogsDAO;
+import org.wso2.carbon.registry.core.dataaccess.DataAccessManager;
+import org.wso2.carbon.registry.core.exceptions.RegistryException;
+import org.wso2.carbon.registry.core.utils.LogRecord;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class LogEntryIteratorTest extends TestCase {
+
+    public void testIterateAcrossPages() throws Exception {
+        KeysetLogsDAO logsDAO = new KeysetLogsDAO(7);
+        LogEntryIterator iterator = new LogEntryIterator(logsDAO, null, null, LogEntry.ALL, null,
+                null, null, true, 3);
+
+        List<Long> logIds = new ArrayList<Long>();
+        while (iterator.hasNext()) {
+            logIds.add(iterator.next().getLogId());
+        }
+        assertEquals("Incorrect number of log entries.", 7, logIds.size());
+        for (int i = 0; i < logIds.size(); i++) {
+            assertEquals("Log entries are out of order.", (long) (7 - i), (long) logIds.get(i));
+        }
+        assertEquals("Incorrect number of pages read.", 3, logsDAO.pagesRead);
+    }
+
+    public void testIterateExactPages() throws Exception {
+        KeysetLogsDAO logsDAO = new KeysetLogsDAO(6);
+        LogEntryIterator iterator = new LogEntryIterator(logsDAO, null, null, LogEntry.ALL, null,
+                null, null, true, 3);
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        assertEquals("Incorrect number of log entries.", 6, count);
+        assertFalse(iterator.hasNext());
+        assertEquals("Incorrect number of pages read.", 3, logsDAO.pagesRead);
+    }
+
+    // An in-memory logs DAO holding entries with ids 1..n, where the entry with the greatest id
+    // is the most recent one.
+    private static class KeysetLogsDAO implements LogsDAO {
+
+        private int size;
+        private int pagesRead = 0;
+
+        private KeysetLogsDAO(int size) {
+            this.size = size;
+        }
+
+        public LogEntry[] getLogs(String resourcePath, int action, String userName, Date from,
+                                  Date to, boolean descending, LogEntry lastEntry, int pageLen,
+                                  DataAccessManager dataAccessManager) {
+            pagesRead++;
+            long next = lastEntry == null ? size : lastEntry.getLogId() - 1;
+            List<LogEntry> logEntries = new ArrayList<LogEntry>();
+            for (long id = next; id > 0 && logEntries.size() < pageLen; id--) {
+                LogEntry logEntry = new LogEntry();
+                logEntry.setLogId(id);
+                logEntry.setDate(new Date(id * 1000));
+                logEntries.add(logEntry);
+            }
+            return logEntries.toArray(new LogEntry[logEntries.size()]);
+        }
+
+        public void saveLogBatch(LogRecord[] logRecords) {
+        }
+
+        public List getLogList(String resourcePath, int action, String userName, Date from,
+                               Date to, boolean descending, DataAccessManager dataAccessManager) {
+            return null;
+        }
+
+        public LogEntry[] getLogs(String resourcePath, int action, String userName, Date from,
+                                  Date to, boolean descending, int start, int pageLen,
+                                  DataAccessManager dataAccessManager) {
+            return null;
+        }
+
+        public LogEntry[] getLogs(String resourcePath, int action, String userName, Date from,
+                                  Date to, boolean descending,
+                                  DataAccessManager dataAccessManager) {
+            return null;
+        }
+
+        public int getLogsCount(String resourcePath, int action, String userName, Date from,
+                                Date to, boolean descending) throws RegistryException {
+            return size;
+        }
+
+        public int getApproximateLogsCount(String resourcePath, int action, String userName,
+                                           Date from, Date to) throws RegistryException {
+            return size;
+        }
+    }
+}
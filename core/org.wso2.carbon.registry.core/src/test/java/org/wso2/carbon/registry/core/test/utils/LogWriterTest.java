@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.registry.core.test.utils;
+
+import junit.framework.TestCase;
+import org.wso2.carbon.registry.core.config.LogWriterConfiguration;
+import org.wso2.carbon.registry.core.utils.LogQueue;
+import org.wso2.carbon.registry.core.utils.LogRecord;
+import org.wso2.carbon.registry.core.utils.LogSpillFile;
+import org.wso2.carbon.registry.core.utils.LogWriter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+public class LogWriterTest extends TestCase {
+
+    public void testDropOldestOverflowPolicy() throws Exception {
+        LogWriterConfiguration configuration = new LogWriterConfiguration();
+        configuration.setOverflowPolicy(LogWriterConfiguration.OVERFLOW_POLICY_DROP_OLDEST);
+        LogQueue logQueue = new LogQueue(2);
+        LogWriter logWriter = new LogWriter(logQueue, null, configuration);
+
+        logWriter.addLog("/a", "admin", 1, null);
+        logWriter.addLog("/b", "admin", 1, null);
+        logWriter.addLog("/c", "admin", 1, null);
+
+        assertEquals("Queue depth incorrect.", 2, logWriter.getQueueDepth());
+        assertEquals("Dropped count incorrect.", 1, logWriter.getDroppedCount());
+        assertEquals("Oldest log was not dropped.", "/b",
+                ((LogRecord) logQueue.peek()).getResourcePath());
+    }
+
+    public void testSpillOverflowPolicy() throws Exception {
+        File file = File.createTempFile("registry-logs", ".spill");
+        file.deleteOnExit();
+        LogWriterConfiguration configuration = new LogWriterConfiguration();
+        configuration.setOverflowPolicy(LogWriterConfiguration.OVERFLOW_POLICY_SPILL);
+        configuration.setSpillFile(file.getAbsolutePath());
+        LogWriter logWriter = new LogWriter(new LogQueue(1), null, configuration);
+
+        logWriter.addLog("/a", "admin", 1, null);
+        logWriter.addLog("/b", "admin", 2, "data");
+        logWriter.addLog("/c", null, 3, "\u0dc1\u0dca\u200d\u0dbb\u0dd3");
+
+        assertEquals("Queue depth incorrect.", 1, logWriter.getQueueDepth());
+        assertEquals("Spilled count incorrect.", 2, logWriter.getSpilledCount());
+        assertEquals("Dropped count incorrect.", 0, logWriter.getDroppedCount());
+
+        LogSpillFile spillFile = new LogSpillFile(file);
+        assertTrue("Spill file is empty.", spillFile.hasRecords());
+        final List<LogRecord> logRecords = new ArrayList<LogRecord>();
+        assertEquals("Written count incorrect.", 2, spillFile.drain(10,
+                new LogSpillFile.BatchWriter() {
+                    public boolean write(List<LogRecord> batch) {
+                        logRecords.addAll(batch);
+                        return true;
+                    }
+                }));
+        assertEquals("Spilled records incorrect.", 2, logRecords.size());
+        assertEquals("/b", logRecords.get(0).getResourcePath());
+        assertEquals("admin", logRecords.get(0).getUserName());
+        assertEquals(2, logRecords.get(0).getAction());
+        assertEquals("data", logRecords.get(0).getActionData());
+        assertEquals("/c", logRecords.get(1).getResourcePath());
+        assertNull(logRecords.get(1).getUserName());
+        assertEquals("\u0dc1\u0dca\u200d\u0dbb\u0dd3", logRecords.get(1).getActionData());
+        assertFalse("Spill file was not truncated.", spillFile.hasRecords());
+    }
+
+    public void testSpillFileKeepsRecordsNotWritten() throws Exception {
+        File file = File.createTempFile("registry-logs", ".spill");
+        file.deleteOnExit();
+        LogSpillFile spillFile = new LogSpillFile(file);
+        for (int i = 0; i < 5; i++) {
+            LogRecord logRecord = new LogRecord();
+            logRecord.setResourcePath("/" + i);
+            logRecord.setTimestamp(new Date());
+            spillFile.append(logRecord);
+        }
+
+        // the second batch fails to be written, so only the first batch is removed.
+        final List<String> paths = new ArrayList<String>();
+        assertEquals("Written count incorrect.", 2, spillFile.drain(2,
+                new LogSpillFile.BatchWriter() {
+                    public boolean write(List<LogRecord> batch) {
+                        if (!paths.isEmpty()) {
+                            return false;
+                        }
+                        for (LogRecord logRecord : batch) {
+                            paths.add(logRecord.getResourcePath());
+                        }
+                        return true;
+                    }
+                }));
+        assertTrue("Records not written were removed.", spillFile.hasRecords());
+
+        // records spilled meanwhile are read after the ones left behind.
+        LogRecord logRecord = new LogRecord();
+        logRecord.setResourcePath("/5");
+        logRecord.setTimestamp(new Date());
+        spillFile.append(logRecord);
+        LogSpillFile.BatchWriter writer = new LogSpillFile.BatchWriter() {
+            public boolean write(List<LogRecord> batch) {
+                for (LogRecord logRecord : batch) {
+                    paths.add(logRecord.getResourcePath());
+                }
+                return true;
+            }
+        };
+        // a new instance, as after a restart.
+        spillFile = new LogSpillFile(file);
+        assertEquals("Written count incorrect.", 3, spillFile.drain(2, writer));
+        assertEquals("Written count incorrect.", 1, spillFile.drain(2, writer));
+        assertEquals("[/0, /1, /2, /3, /4, /5]", paths.toString());
+        assertFalse("Spill file was not removed.", spillFile.hasRecords());
+    }
+
+    public void testShutdownWritesLogsOfBlockedProducers() throws Exception {
+        LogWriterConfiguration configuration = new LogWriterConfiguration();
+        configuration.setOverflowPolicy(LogWriterConfiguration.OVERFLOW_POLICY_BLOCK);
+        LogQueue logQueue = new LogQueue(1);
+        final LogWriter logWriter = new LogWriter(logQueue, null, configuration);
+        logWriter.addLog("/a", "admin", 1, null);
+
+        // blocks until there is space in the queue.
+        Thread producer = new Thread() {
+            public void run() {
+                try {
+                    logWriter.addLog("/b", "admin", 1, null);
+                } catch (Exception ignore) {
+                    // the log is counted as dropped.
+                }
+            }
+        };
+        producer.start();
+        for (int i = 0; i < 100 && producer.getState() != Thread.State.WAITING; i++) {
+            Thread.sleep(50);
+        }
+
+        logWriter.shutdown(5000);
+        producer.join(5000);
+
+        assertEquals("Queue depth incorrect.", 0, logWriter.getQueueDepth());
+        // there is no database, so the logs are discarded when they are written.
+        assertEquals("Log of the blocked producer was not written.", 2,
+                logWriter.getDroppedCount());
+    }
+
+    public void testShutdownWritesLogsHeldByWriter() throws Exception {
+        LogWriterConfiguration configuration = new LogWriterConfiguration();
+        configuration.setBatchSize(10);
+        configuration.setFlushInterval(60000);
+        LogQueue logQueue = new LogQueue(10);
+        LogWriter logWriter = new LogWriter(logQueue, null, configuration);
+        logWriter.start();
+
+        logWriter.addLog("/a", "admin", 1, null);
+        logWriter.addLog("/b", "admin", 1, null);
+        logWriter.addLog("/c", "admin", 1, null);
+        for (int i = 0; i < 100 && !logQueue.isEmpty(); i++) {
+            Thread.sleep(50);
+        }
+
+        assertTrue("Writer did not take the logs.", logQueue.isEmpty());
+        assertEquals("Logs held by the writer are not pending.", 3, logWriter.getQueueDepth());
+
+        logWriter.shutdown(5000);
+
+        assertFalse("Writer is still running.", logWriter.isAlive());
+        assertEquals("Queue depth incorrect.", 0, logWriter.getQueueDepth());
+        // there is no database, so the logs are discarded when they are written.
+        assertEquals("Logs held by the writer were not written.", 3,
+                logWriter.getDroppedCount());
+    }
+}
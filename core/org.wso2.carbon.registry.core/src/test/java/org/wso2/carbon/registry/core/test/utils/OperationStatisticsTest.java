@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2008, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.wso2.carbon.registry.core.test.utils;
+
+import junit.framework.TestCase;
+import org.wso2.carbon.registry.core.statistics.OperationStatistics;
+
+public class OperationStatisticsTest extends TestCase {
+
+    private static final long MILLIS = 1000000;
+
+    public void testRecord() throws Exception {
+        OperationStatistics statistics = new OperationStatistics("get");
+        statistics.record(MILLIS / 2, true);
+        statistics.record(3 * MILLIS, true);
+        statistics.record(7 * MILLIS, false);
+        statistics.record(10000 * MILLIS, true);
+
+        assertEquals(4, statistics.getCount());
+        assertEquals(1, statistics.getFailureCount());
+        assertEquals(10000 * MILLIS, statistics.getMaxTime());
+        assertEquals((MILLIS / 2 + 10010 * MILLIS) / 4, statistics.getAverageTime());
+
+        long[] histogram = statistics.getHistogram();
+        assertEquals(OperationStatistics.getHistogramBounds().length + 1, histogram.length);
+        assertEquals("Incorrect count below 1ms.", 1, histogram[0]);
+        assertEquals("Incorrect count between 2ms and 5ms.", 1, histogram[2]);
+        assertEquals("Incorrect count between 5ms and 10ms.", 1, histogram[3]);
+        assertEquals("Incorrect overflow count.", 1, histogram[histogram.length - 1]);
+
+        statistics.reset();
+        assertEquals(0, statistics.getCount());
+        assertEquals(0, statistics.getMaxTime());
+    }
+}
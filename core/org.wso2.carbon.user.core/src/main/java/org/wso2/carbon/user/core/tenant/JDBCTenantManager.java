@@ -70,6 +70,11 @@ public class JDBCTenantManager implements TenantManager {
 
 	protected TenantCache tenantCacheManager = TenantCache.getInstance();
 
+    /**
+     * The product name of the tenant database, which is looked up once per tenant manager.
+     */
+    private volatile String databaseProductName;
+
 	public JDBCTenantManager(OMElement omElement, Map<String, Object> properties) throws Exception {
         this.dataSource = (DataSource) properties.get(UserCoreConstants.DATA_SOURCE);
         if (dataSource == null) {
@@ -97,7 +102,7 @@ public class JDBCTenantManager implements TenantManager {
             dbConnection = getDBConnection();
             String sqlStmt = TenantConstants.ADD_TENANT_SQL;
 
-            String dbProductName = dbConnection.getMetaData().getDatabaseProductName();
+            String dbProductName = getDatabaseProductName(dbConnection);
             prepStmt = dbConnection.prepareStatement(sqlStmt, new String[] { DBUtils
                     .getConvertedAutoGeneratedColumnName(dbProductName, "UM_ID") });
             prepStmt.setString(1, tenant.getDomain().toLowerCase());
@@ -160,7 +165,7 @@ public class JDBCTenantManager implements TenantManager {
             dbConnection = getDBConnection();
             String sqlStmt = TenantConstants.ADD_TENANT_WITH_ID_SQL;
 
-            String dbProductName = dbConnection.getMetaData().getDatabaseProductName();
+            String dbProductName = getDatabaseProductName(dbConnection);
             prepStmt = dbConnection.prepareStatement(sqlStmt, new String[] { DBUtils
                     .getConvertedAutoGeneratedColumnName(dbProductName, "UM_ID") });
             prepStmt.setInt(1, tenant.getId());
@@ -699,4 +704,11 @@ public class JDBCTenantManager implements TenantManager {
     	}
 
     }
+
+    private String getDatabaseProductName(Connection dbConnection) throws SQLException {
+        if (databaseProductName == null) {
+            databaseProductName = dbConnection.getMetaData().getDatabaseProductName();
+        }
+        return databaseProductName;
+    }
 }
@@ -49,6 +49,7 @@ public class DatabaseUtil {
     private static final int DEFAULT_MAX_WAIT = 1000 * 60;
     private static final int DEFAULT_MIN_IDLE = 5;
     private static final int DEFAULT_MAX_IDLE = 6;
+    private static final int DEFAULT_STATEMENT_CACHE_SIZE = 50;
     
     /**
      * Gets a database pooling connection. If a pool is not created this will create a connection pool.
@@ -159,6 +160,9 @@ public class DatabaseUtil {
 			dsConfig.setValidationQuery(realmConfig.getUserStoreProperty(
 					JDBCRealmConstants.VALIDATION_QUERY));
 		}
+
+		dsConfig.setJdbcInterceptors(getStatementCacheInterceptor(realmConfig.getUserStoreProperty(
+				JDBCRealmConstants.STATEMENT_CACHE_SIZE)));
         try {
 			return new RDBMSDataSource(dsConfig).getDataSource();
 		} catch (DataSourceException e) {
@@ -235,6 +239,9 @@ public class DatabaseUtil {
 			dsConfig.setValidationQuery(realmConfig.getRealmProperty(
 					JDBCRealmConstants.VALIDATION_QUERY));
 		}
+
+		dsConfig.setJdbcInterceptors(getStatementCacheInterceptor(realmConfig.getRealmProperty(
+				JDBCRealmConstants.STATEMENT_CACHE_SIZE)));
         try {
 			dataSource = new RDBMSDataSource(dsConfig).getDataSource();
 			return dataSource;
@@ -243,6 +250,30 @@ public class DatabaseUtil {
 		}
     }
 
+    /**
+     * Builds the configuration of the pool interceptor that caches prepared statements on each
+     * pooled connection, so that statements are reused across connection checkouts.
+     *
+     * @param cacheSize the configured maximum number of cached statements, or null to use the
+     *                  default. A size of zero disables caching.
+     * @return the interceptor configuration, or null if caching is disabled.
+     */
+    private static String getStatementCacheInterceptor(String cacheSize) {
+        int size = DEFAULT_STATEMENT_CACHE_SIZE;
+        if (cacheSize != null && !cacheSize.trim().equals("")) {
+            try {
+                size = Integer.parseInt(cacheSize.trim());
+            } catch (NumberFormatException e) {
+                log.warn("Invalid prepared statement cache size: " + cacheSize +
+                        ". Using the default size.");
+            }
+        }
+        if (size <= 0) {
+            return null;
+        }
+        return "StatementCache(prepared=true,callable=false,max=" + size + ")";
+    }
+
     public static String[] getStringValuesFromDatabase(Connection dbConnection, String sqlStmt, Object... params)
             throws UserStoreException {
         String[] values = new String[0];
@@ -85,6 +85,8 @@ CREATE TABLE REG_LOG (
                     REG_ACTION_DATA VARCHAR (500),
                     PRIMARY KEY (REG_LOG_ID));
 
+CREATE INDEX REG_LOG_IND_BY_TIME ON REG_LOG (REG_LOGGED_TIME, REG_LOG_ID);
+
 CREATE TABLE REG_CONTENT_VERSION (
                     REG_CONTENT_VERSION_ID VARCHAR (50),
                     REG_CONTENT_DATA BINARY,
@@ -80,6 +80,8 @@ CREATE TABLE REG_LOG (
                     ACTION_DATA VARCHAR (500),
                     PRIMARY KEY (LOG_ID));
 
+CREATE INDEX REG_LOG_IND_BY_TIME ON REG_LOG (LOGGED_TIME, LOG_ID);
+
 CREATE TABLE REG_CONTENT_VERSION (
                     CONTENT_VERSION_ID VARCHAR (50),
                     CONTENT_DATA BINARY,
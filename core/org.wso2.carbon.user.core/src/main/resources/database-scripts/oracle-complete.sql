@@ -150,6 +150,8 @@ CREATE TABLE REG_LOG (
                     ACTION_DATA VARCHAR2 (500),
                     PRIMARY KEY (LOG_ID))
 /
+CREATE INDEX REG_LOG_IND_BY_TIME ON REG_LOG (LOGGED_TIME, LOG_ID)
+/
 CREATE SEQUENCE REG_LOG_SEQUENCE START WITH 1 INCREMENT BY 1
 /
 CREATE OR REPLACE TRIGGER REG_LOG_TRIGGER
@@ -79,13 +79,8 @@ public class CarbonUtils {
     private static boolean isServerConfigInitialized;
 
     public static boolean isAdminConsoleEnabled() {
-        boolean enableAdminConsole = false;
-        String enableAdminConsoleProp =
-                ServerConfiguration.getInstance().getFirstProperty("Management.EnableConsole");
-        if (enableAdminConsoleProp != null) {
-            enableAdminConsole = Boolean.valueOf(enableAdminConsoleProp);
-        }
-        return enableAdminConsole;
+        return ServerConfiguration.getInstance().getBooleanProperty("Management.EnableConsole",
+                false);
     }
 
     /**
@@ -52,16 +52,8 @@ public class MBeanRegistrar {
     }
 
     public static void registerMBean(Object mbeanInstance) {
-        String serverPackage = ServerConfiguration.getInstance().getFirstProperty("Package");
-        if (serverPackage == null) {
-            serverPackage = "wso2";
-        }
         try {
-            String className = mbeanInstance.getClass().getName();
-            if (className.indexOf('.') != -1) {
-                className = className.substring(className.lastIndexOf('.') + 1);
-            }
-            registerMBean(mbeanInstance, serverPackage + ":type=" + className);
+            registerMBean(mbeanInstance, getObjectName(mbeanInstance));
         } catch (Exception e) {
             String msg = "Could not register " + mbeanInstance.getClass() + " MBean";
             log.error(msg, e);
@@ -69,6 +61,37 @@ public class MBeanRegistrar {
         }
     }
 
+    /**
+     * Unregisters an MBean registered through {@link #registerMBean(Object)}.
+     *
+     * @param mbeanInstance the MBean, or another instance of its class.
+     */
+    public static void unregisterMBean(Object mbeanInstance) {
+        String objectName = getObjectName(mbeanInstance);
+        try {
+            ObjectName name = new ObjectName(objectName);
+            MBeanServer mbs = ManagementFactory.getMBeanServer();
+            if (mbs.isRegistered(name)) {
+                mbs.unregisterMBean(name);
+            }
+            mbeans.remove(name);
+        } catch (Exception e) {
+            log.error("Cannot unregister MBean " + objectName, e);
+        }
+    }
+
+    private static String getObjectName(Object mbeanInstance) {
+        String serverPackage = ServerConfiguration.getInstance().getFirstProperty("Package");
+        if (serverPackage == null) {
+            serverPackage = "wso2";
+        }
+        String className = mbeanInstance.getClass().getName();
+        if (className.indexOf('.') != -1) {
+            className = className.substring(className.lastIndexOf('.') + 1);
+        }
+        return serverPackage + ":type=" + className;
+    }
+
     public static void unregisterAllMBeans() {
         MBeanServer mbs = ManagementFactory.getMBeanServer();
         for (ObjectName name : mbeans) {
@@ -199,12 +199,7 @@ public class GhostDeployerUtils {
      * @return - true if the property is set to true. otherwise false
      */
     public static boolean isGhostOn() {
-        ServerConfiguration serverConfig = ServerConfiguration.getInstance();
-        String ghostOn = serverConfig.getFirstProperty(ENABLED);
-        if (ghostOn != null && Boolean.parseBoolean(ghostOn)) {
-            return true;
-        }
-        return false;
+        return ServerConfiguration.getInstance().getBooleanProperty(ENABLED, false);
     }
 
     /**
@@ -213,12 +208,7 @@ public class GhostDeployerUtils {
      * @return - true if the property is set to true. otherwise false
      */
     public static boolean isPartialUpdateEnabled() {
-        ServerConfiguration serverConfig = ServerConfiguration.getInstance();
-        String partialUpdateOn = serverConfig.getFirstProperty(PARTIAL_UPDATE_MODE);
-        if (partialUpdateOn != null && Boolean.parseBoolean(partialUpdateOn)) {
-            return true;
-        }
-        return false;
+        return ServerConfiguration.getInstance().getBooleanProperty(PARTIAL_UPDATE_MODE, false);
     }
 
     /**
@@ -20,6 +20,8 @@ package org.wso2.carbon.utils.logging;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.PatternLayout;
 import org.apache.log4j.helpers.FormattingInfo;
@@ -27,7 +29,7 @@ import org.apache.log4j.helpers.PatternConverter;
 import org.apache.log4j.helpers.PatternParser;
 import org.apache.log4j.spi.LoggingEvent;
 import org.wso2.carbon.base.ServerConfiguration;
-import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.context.internal.CarbonContextDataHolder;
 import org.wso2.carbon.utils.ServerConstants;
 import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
 
@@ -44,6 +46,11 @@ import org.wso2.carbon.utils.multitenancy.MultitenantConstants;
  * string will be returned. The tenant pattern can be changed via the log4j
  * configuration. You simply need to add a line in the format,
  * <code>log4j.appender.NAME.layout.TenantPattern=%U@%D [%T]</code>.
+ * <p/>
+ * The tenant details of a {@link TenantAwareLoggingEvent} are read from the
+ * event, so that an event formatted by another thread keeps the details of the
+ * thread that logged it. The tenant details of any other event are read from
+ * the Carbon Context of the thread formatting the event.
  */
 
 public class TenantAwarePatternLayout extends PatternLayout {
@@ -56,6 +63,17 @@ public class TenantAwarePatternLayout extends PatternLayout {
     private static String tenantPattern = DEFAULT_TENANT_PATTERN;
     private static String superTenantText = null;
 
+    /**
+     * The string forms of tenant ids, which are cached to avoid converting the
+     * tenant id of each event.
+     */
+    private static Map<Integer, String> tenantIdStrings = new ConcurrentHashMap<Integer, String>();
+
+    /**
+     * The tenant domains of tenant ids, which are used when the tenant domain
+     * has not been set in the Carbon Context of the thread that logs an event.
+     */
+    private static Map<Integer, String> tenantDomains = new ConcurrentHashMap<Integer, String>();
 
     /**
      * The default constructor.
@@ -103,12 +121,62 @@ public class TenantAwarePatternLayout extends PatternLayout {
         TenantAwarePatternLayout.superTenantText = superTenantText;
     }
 
+    private static String getTenantIdString(int tenantId) {
+        String tenantIdString = tenantIdStrings.get(tenantId);
+        if (tenantIdString == null) {
+            tenantIdString = Integer.toString(tenantId);
+            tenantIdStrings.put(tenantId, tenantIdString);
+        }
+        return tenantIdString;
+    }
+
+    private static String getTenantId(LoggingEvent event) {
+        if (event instanceof TenantAwareLoggingEvent) {
+            return ((TenantAwareLoggingEvent) event).getTenantId();
+        }
+        int threadTenantId = CarbonContextDataHolder.getThreadLocalCarbonContextHolder()
+                .getTenantId();
+        if (threadTenantId != MultitenantConstants.INVALID_TENANT_ID) {
+            return getTenantIdString(threadTenantId);
+        }
+        return null;
+    }
+
+    private static String getTenantDomain(LoggingEvent event) {
+        if (event instanceof TenantAwareLoggingEvent) {
+            // the domain is not known for the tenant of the event, unless it has been seen.
+            String tenantId = ((TenantAwareLoggingEvent) event).getTenantId();
+            if (tenantId == null) {
+                return null;
+            }
+            try {
+                return tenantDomains.get(Integer.parseInt(tenantId));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return getTenantDomain(CarbonContextDataHolder.getThreadLocalCarbonContextHolder());
+    }
+
+    private static String getTenantDomain(CarbonContextDataHolder carbonContextHolder) {
+        int tenantId = carbonContextHolder.getTenantId();
+        String tenantDomain = carbonContextHolder.getTenantDomain();
+        if (tenantId == MultitenantConstants.INVALID_TENANT_ID) {
+            return tenantDomain;
+        }
+        if (tenantDomain != null) {
+            if (!tenantDomain.equals(tenantDomains.get(tenantId))) {
+                tenantDomains.put(tenantId, tenantDomain);
+            }
+            return tenantDomain;
+        }
+        return tenantDomains.get(tenantId);
+    }
+
     // A tenant-aware pattern parser implementation. For more information on the
     // structure of this
     // class see log4j PatternParser code.
     private static class TenantAwarePatternParser extends PatternParser {
-        CarbonContext carbonContext = CarbonContext.getThreadLocalCarbonContext();
-        int tenantId = carbonContext.getTenantId();
         InetAddress inetAddress;
         String address;
 
@@ -127,25 +195,25 @@ public class TenantAwarePatternLayout extends PatternLayout {
             PatternConverter pc = null;
             switch (c) {
                 case 'D':
-                    pc = new TenantDomainPatternConverter(formattingInfo, extractPrecisionOption(), carbonContext);
+                    pc = new TenantDomainPatternConverter(formattingInfo, extractPrecisionOption());
                     break;
                 case '@':
                     pc = new AtSignPatternConverter(formattingInfo);
                     break;
                 case 'P':
-                    pc = new TenantPatternConverter(formattingInfo, extractPrecisionOption(), tenantId);
+                    pc = new TenantPatternConverter(formattingInfo, extractPrecisionOption());
                     break;
                 case 'T':
-                    pc = new TenantIdPatternConverter(formattingInfo, extractPrecisionOption(), tenantId);
+                    pc = new TenantIdPatternConverter(formattingInfo, extractPrecisionOption());
                     break;
                 case 'S':
                     pc = new ServiceNamePatternConverter(formattingInfo, extractPrecisionOption(), serverName);
                     break;
                 case 'U':
-                    pc = new UserNamePatternConverter(formattingInfo, extractPrecisionOption(), carbonContext);
+                    pc = new UserNamePatternConverter(formattingInfo, extractPrecisionOption());
                     break;
                 case 'A':
-                    pc = new AppNamePatternConverter(formattingInfo, extractPrecisionOption(), carbonContext);
+                    pc = new AppNamePatternConverter(formattingInfo, extractPrecisionOption());
                     break;
                 case 'H':
                     pc = new HostNamePatternConverter(formattingInfo, extractPrecisionOption(), address);
@@ -201,51 +269,39 @@ public class TenantAwarePatternLayout extends PatternLayout {
         }
 
         private static class TenantIdPatternConverter extends TenantAwareNamedPatternConverter {
-            int tenantId;
 
-            public TenantIdPatternConverter(FormattingInfo formattingInfo, int precision, int tenantId) {
+            public TenantIdPatternConverter(FormattingInfo formattingInfo, int precision) {
                 super(formattingInfo, precision);
-                tenantId = tenantId;
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
-                if (event instanceof TenantAwareLoggingEvent) {
-                    return ((TenantAwareLoggingEvent) event).getTenantId();
-                } else {
-                    if (tenantId !=
-                            MultitenantConstants.INVALID_TENANT_ID) {
-                        return Integer.toString(tenantId);
-                    }
-                }
-
-                return null;
+                return getTenantId(event);
             }
         }
 
         private static class UserNamePatternConverter extends TenantAwareNamedPatternConverter {
-            CarbonContext carbonContext;
 
-            public UserNamePatternConverter(FormattingInfo formattingInfo, int precision, CarbonContext carbonContext1) {
+            public UserNamePatternConverter(FormattingInfo formattingInfo, int precision) {
                 super(formattingInfo, precision);
-                carbonContext = carbonContext1;
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
-
-                return carbonContext.getUsername();
+                if (event instanceof TenantAwareLoggingEvent) {
+                    // the user of the thread that logged the event is not known.
+                    return null;
+                }
+                return CarbonContextDataHolder.getThreadLocalCarbonContextHolder().getUsername();
             }
         }
 
         private static class TenantDomainPatternConverter extends TenantAwareNamedPatternConverter {
-            CarbonContext carbonContext;
 
-            public TenantDomainPatternConverter(FormattingInfo formattingInfo, int precision, CarbonContext carbonContext1) {
+            public TenantDomainPatternConverter(FormattingInfo formattingInfo, int precision) {
                 super(formattingInfo, precision);
-                carbonContext = carbonContext1;
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
-                return carbonContext.getTenantDomain();
+                return getTenantDomain(event);
             }
         }
 
@@ -290,29 +346,19 @@ public class TenantAwarePatternLayout extends PatternLayout {
 
 
         private static class AppNamePatternConverter extends TenantAwareNamedPatternConverter {
-            CarbonContext context;
-            public AppNamePatternConverter(FormattingInfo formattingInfo, int precision, CarbonContext carbonContext1) {
+            public AppNamePatternConverter(FormattingInfo formattingInfo, int precision) {
                 super(formattingInfo, precision);
-                context = carbonContext1;
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
+                String appName;
                 if (event instanceof TenantAwareLoggingEvent) {
-                    if (((TenantAwareLoggingEvent) event).getServiceName() != null) {
-                        return ((TenantAwareLoggingEvent) event).getServiceName();
-                    } else {
-                        return "";
-                    }
+                    appName = ((TenantAwareLoggingEvent) event).getServiceName();
                 } else {
-                    String temp =  context.getApplicationName();
-                    if (temp != null) {
-                        return temp;
-                    } else {
-                        return "";
-                    }
-
+                    appName = CarbonContextDataHolder.getThreadLocalCarbonContextHolder()
+                            .getApplicationName();
                 }
-//				
+                return appName != null ? appName : "";
             }
         }
 
@@ -323,7 +369,7 @@ public class TenantAwarePatternLayout extends PatternLayout {
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
-                if (CarbonContext.getThreadLocalCarbonContext().getTenantDomain() != null) {
+                if (getTenantDomain(event) != null) {
                     return "@";
                 }
                 return null;
@@ -331,20 +377,35 @@ public class TenantAwarePatternLayout extends PatternLayout {
         }
 
         private static class TenantPatternConverter extends TenantAwareNamedPatternConverter {
-            int tenantId;
-            public TenantPatternConverter(FormattingInfo formattingInfo, int precision, int tenantId1) {
+            // the layout of the tenant pattern is parsed once, and again only if the tenant
+            // pattern is changed.
+            private TenantAwarePatternLayout tenantLayout;
+
+            public TenantPatternConverter(FormattingInfo formattingInfo, int precision) {
                 super(formattingInfo, precision);
-                tenantId = tenantId1;
             }
 
             public String getFullyQualifiedName(LoggingEvent event) {
-                if (tenantId !=
-                        MultitenantConstants.INVALID_TENANT_ID
-                        && tenantId != MultitenantConstants.SUPER_TENANT_ID) {
-                    return new TenantAwarePatternLayout(tenantPattern).format(event);
+                String tenantId = getTenantId(event);
+                if (tenantId != null &&
+                        !tenantId.equals(getTenantIdString(MultitenantConstants.INVALID_TENANT_ID))
+                        && !tenantId.equals(getTenantIdString(MultitenantConstants.SUPER_TENANT_ID))) {
+                    TenantAwarePatternLayout layout = getTenantLayout();
+                    // the layout formats into a buffer of its own.
+                    synchronized (layout) {
+                        return layout.format(event);
+                    }
                 }
                 return superTenantText;
             }
+
+            private synchronized TenantAwarePatternLayout getTenantLayout() {
+                String pattern = tenantPattern;
+                if (tenantLayout == null || !pattern.equals(tenantLayout.getConversionPattern())) {
+                    tenantLayout = new TenantAwarePatternLayout(pattern);
+                }
+                return tenantLayout;
+            }
         }
     }
 }
\ No newline at end of file
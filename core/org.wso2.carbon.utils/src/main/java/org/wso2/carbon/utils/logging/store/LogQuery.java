@@ -0,0 +1,102 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+/**
+ * The conditions selecting records from the {@link LogStore}. Conditions which are not set
+ * select all the records.
+ */
+public class LogQuery {
+
+    private long fromTime = Long.MIN_VALUE;
+    private long toTime = Long.MAX_VALUE;
+    private Integer tenantId;
+    private int minimumLevel = Integer.MIN_VALUE;
+    private String keyword;
+
+    public long getFromTime() {
+        return fromTime;
+    }
+
+    /**
+     * Selects the records logged at or after the given time.
+     *
+     * @param fromTime the time, in milliseconds.
+     */
+    public void setFromTime(long fromTime) {
+        this.fromTime = fromTime;
+    }
+
+    public long getToTime() {
+        return toTime;
+    }
+
+    /**
+     * Selects the records logged at or before the given time.
+     *
+     * @param toTime the time, in milliseconds.
+     */
+    public void setToTime(long toTime) {
+        this.toTime = toTime;
+    }
+
+    public Integer getTenantId() {
+        return tenantId;
+    }
+
+    /**
+     * Selects the records of a tenant.
+     *
+     * @param tenantId the tenant id, or null to select the records of all the tenants.
+     */
+    public void setTenantId(Integer tenantId) {
+        this.tenantId = tenantId;
+    }
+
+    public int getMinimumLevel() {
+        return minimumLevel;
+    }
+
+    /**
+     * Selects the records at or above a level.
+     *
+     * @param minimumLevel the level, as returned by log4j Level#toInt().
+     */
+    public void setMinimumLevel(int minimumLevel) {
+        this.minimumLevel = minimumLevel;
+    }
+
+    public String getKeyword() {
+        return keyword;
+    }
+
+    /**
+     * Selects the records whose message contains a keyword, ignoring case.
+     *
+     * @param keyword the keyword, or null to select the records with any message.
+     */
+    public void setKeyword(String keyword) {
+        this.keyword = keyword;
+    }
+
+    boolean matches(long timestamp, int tenantId, int level) {
+        return timestamp >= fromTime && timestamp <= toTime && level >= minimumLevel &&
+                (this.tenantId == null || this.tenantId == tenantId);
+    }
+}
@@ -0,0 +1,476 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A segment of the {@link LogStore}, which is an append-only data file of records, together with
+ * an index holding the offset, timestamp, tenant id and level of each record. The index is kept
+ * in memory, and written to an index file when the segment is sealed. Searches are done on the
+ * index, and only the records which match are read. The data file of a sealed segment is memory
+ * mapped once for reading, while the records of the segment being appended to are read from
+ * the file directly, as its size keeps changing.
+ * <p/>
+ * Each record is stored as its length, followed by the timestamp, tenant id, level, logger name
+ * and message.
+ */
+class LogSegment {
+
+    static final String DATA_SUFFIX = ".log";
+    static final String INDEX_SUFFIX = ".idx";
+
+    private static final int INITIAL_INDEX_SIZE = 1024;
+    private static final int HEADER_SIZE = 8 + 4 + 4;
+
+    private final long id;
+    private final File dataFile;
+    private final File indexFile;
+
+    private int[] offsets = new int[INITIAL_INDEX_SIZE];
+    private long[] timestamps = new long[INITIAL_INDEX_SIZE];
+    private int[] tenantIds = new int[INITIAL_INDEX_SIZE];
+    private int[] levels = new int[INITIAL_INDEX_SIZE];
+    private int count;
+
+    // summary of the segment, used to skip the whole segment in a search.
+    private volatile long minTime = Long.MAX_VALUE;
+    private volatile long maxTime = Long.MIN_VALUE;
+    private volatile int maxLevel = Integer.MIN_VALUE;
+    private final Set<Integer> tenants =
+            Collections.newSetFromMap(new ConcurrentHashMap<Integer, Boolean>());
+
+    private DataOutputStream out;
+    private RandomAccessFile reader;
+    private int size;
+    private ByteBuffer mapped;
+
+    private LogSegment(File directory, long id) {
+        this.id = id;
+        String name = String.format("%019d", id);
+        this.dataFile = new File(directory, name + DATA_SUFFIX);
+        this.indexFile = new File(directory, name + INDEX_SUFFIX);
+    }
+
+    /**
+     * Creates a new segment to append records to.
+     */
+    static LogSegment create(File directory, long id) throws IOException {
+        LogSegment segment = new LogSegment(directory, id);
+        segment.out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(segment.dataFile)));
+        segment.reader = new RandomAccessFile(segment.dataFile, "r");
+        return segment;
+    }
+
+    /**
+     * Opens an existing segment as a sealed segment. If the index file is missing, for example
+     * because the server was not shut down properly, the index is rebuilt from the data file.
+     */
+    static LogSegment open(File directory, long id) throws IOException {
+        LogSegment segment = new LogSegment(directory, id);
+        segment.size = (int) segment.dataFile.length();
+        if (!segment.indexFile.exists() || !segment.readIndex()) {
+            segment.rebuildIndex();
+            segment.writeIndex();
+        }
+        return segment;
+    }
+
+    long getId() {
+        return id;
+    }
+
+    synchronized int getSize() {
+        return size;
+    }
+
+    long getMinTime() {
+        return minTime;
+    }
+
+    long getMaxTime() {
+        return maxTime;
+    }
+
+    /**
+     * Returns whether the segment may contain records matching the query, judging by the
+     * summary of the segment.
+     */
+    boolean mayMatch(LogQuery query) {
+        return maxTime >= query.getFromTime() && minTime <= query.getToTime() &&
+                maxLevel >= query.getMinimumLevel() &&
+                (query.getTenantId() == null || tenants.contains(query.getTenantId()));
+    }
+
+    synchronized void append(LogStoreRecord record) throws IOException {
+        byte[] logger = getBytes(record.getLogger());
+        byte[] message = getBytes(record.getMessage());
+        int length = HEADER_SIZE + 4 + logger.length + 4 + message.length;
+        out.writeInt(length);
+        out.writeLong(record.getTimestamp());
+        out.writeInt(record.getTenantId());
+        out.writeInt(record.getLevel());
+        out.writeInt(logger.length);
+        out.write(logger);
+        out.writeInt(message.length);
+        out.write(message);
+        addToIndex(size, record.getTimestamp(), record.getTenantId(), record.getLevel());
+        size += 4 + length;
+    }
+
+    private void addToIndex(int offset, long timestamp, int tenantId, int level) {
+        if (count == offsets.length) {
+            int length = count * 2;
+            int[] newOffsets = new int[length];
+            long[] newTimestamps = new long[length];
+            int[] newTenantIds = new int[length];
+            int[] newLevels = new int[length];
+            System.arraycopy(offsets, 0, newOffsets, 0, count);
+            System.arraycopy(timestamps, 0, newTimestamps, 0, count);
+            System.arraycopy(tenantIds, 0, newTenantIds, 0, count);
+            System.arraycopy(levels, 0, newLevels, 0, count);
+            offsets = newOffsets;
+            timestamps = newTimestamps;
+            tenantIds = newTenantIds;
+            levels = newLevels;
+        }
+        offsets[count] = offset;
+        timestamps[count] = timestamp;
+        tenantIds[count] = tenantId;
+        levels[count] = level;
+        count++;
+        minTime = Math.min(minTime, timestamp);
+        maxTime = Math.max(maxTime, timestamp);
+        maxLevel = Math.max(maxLevel, level);
+        tenants.add(tenantId);
+    }
+
+    /**
+     * Finds the records matching the query, newest first.
+     *
+     * @param query   the query.
+     * @param skip    the number of matching records to skip.
+     * @param limit   the maximum number of records to return.
+     * @param visitor receives the records.
+     *
+     * @return the number of matching records skipped.
+     */
+    int search(LogQuery query, int skip, int limit, RecordVisitor visitor) throws IOException {
+        int[] offsets;
+        long[] timestamps;
+        int[] tenantIds;
+        int[] levels;
+        int count;
+        int size;
+        ByteBuffer data = null;
+        FileChannel channel = null;
+        synchronized (this) {
+            // the index only grows, so this prefix of it stays valid.
+            offsets = this.offsets;
+            timestamps = this.timestamps;
+            tenantIds = this.tenantIds;
+            levels = this.levels;
+            count = this.count;
+            size = this.size;
+            if (out != null) {
+                out.flush();
+                channel = reader.getChannel();
+            } else {
+                data = getMappedData();
+            }
+        }
+        String keyword = query.getKeyword() == null ? null : query.getKeyword().toLowerCase();
+        int skipped = 0;
+        int found = 0;
+        for (int i = count - 1; i >= 0 && found < limit; i--) {
+            if (!query.matches(timestamps[i], tenantIds[i], levels[i])) {
+                continue;
+            }
+            int end = i + 1 < count ? offsets[i + 1] : size;
+            LogStoreRecord record = null;
+            if (keyword != null) {
+                record = readRecord(data, channel, offsets[i], end);
+                if (record.getMessage() == null ||
+                        !record.getMessage().toLowerCase().contains(keyword)) {
+                    continue;
+                }
+            }
+            if (skipped < skip) {
+                skipped++;
+                continue;
+            }
+            visitor.visit(record != null ? record : readRecord(data, channel, offsets[i], end));
+            found++;
+        }
+        return skipped;
+    }
+
+    /**
+     * Reads the record between two offsets, from the mapped data of a sealed segment or from the
+     * data file of the segment being appended to.
+     */
+    private LogStoreRecord readRecord(ByteBuffer data, FileChannel channel, int offset,
+                                      int end) throws IOException {
+        if (data != null) {
+            return readRecord(data, offset);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(end - offset);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException("Unexpected end of the log segment " + dataFile);
+                }
+            }
+        } catch (ClosedByInterruptException e) {
+            // the channel was closed because the searching thread was interrupted, which leaves
+            // the interrupt status of the thread set.
+            InterruptedIOException exception = new InterruptedIOException(
+                    "Interrupted while reading the log segment " + dataFile);
+            exception.initCause(e);
+            throw exception;
+        } catch (ClosedChannelException e) {
+            synchronized (this) {
+                if (out != null) {
+                    throw e;
+                }
+                // the segment has been sealed since the search started.
+                data = getMappedData();
+            }
+            return readRecord(data, offset);
+        }
+        return readRecord(buffer, 0);
+    }
+
+    /**
+     * Maps the data file of a sealed segment, which does not change any more, so it is mapped
+     * only once.
+     */
+    private ByteBuffer getMappedData() throws IOException {
+        if (out != null) {
+            throw new IllegalStateException("The log segment " + dataFile + " is not sealed");
+        }
+        if (mapped == null) {
+            RandomAccessFile file = new RandomAccessFile(dataFile, "r");
+            try {
+                mapped = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+            } finally {
+                file.close();
+            }
+        }
+        return mapped.duplicate();
+    }
+
+    private static LogStoreRecord readRecord(ByteBuffer data, int offset) {
+        data.position(offset + 4);
+        long timestamp = data.getLong();
+        int tenantId = data.getInt();
+        int level = data.getInt();
+        String logger = readString(data);
+        String message = readString(data);
+        return new LogStoreRecord(timestamp, tenantId, level, logger, message);
+    }
+
+    private static String readString(ByteBuffer data) {
+        int length = data.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        data.get(bytes);
+        try {
+            return new String(bytes, "UTF-8");
+        } catch (IOException e) {
+            // UTF-8 is always supported.
+            return new String(bytes);
+        }
+    }
+
+    private static byte[] getBytes(String value) throws IOException {
+        return value == null ? new byte[0] : value.getBytes("UTF-8");
+    }
+
+    /**
+     * Closes the data file for appending and writes out the index.
+     */
+    synchronized void seal() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+        closeReader();
+        writeIndex();
+    }
+
+    /**
+     * Deletes the files of the segment. The mapping of the data file is released first, though
+     * it is only unmapped once it is garbage collected, and until then the data file cannot be
+     * deleted on some platforms.
+     *
+     * @return whether the files were deleted.
+     */
+    synchronized boolean delete() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignore) {
+                // the segment is deleted anyway.
+            }
+            out = null;
+        }
+        closeReader();
+        mapped = null;
+        boolean deleted = !indexFile.exists() || indexFile.delete();
+        return (!dataFile.exists() || dataFile.delete()) && deleted;
+    }
+
+    private void closeReader() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException ignore) {
+                // only used for reading.
+            }
+            reader = null;
+        }
+    }
+
+    File getDataFile() {
+        return dataFile;
+    }
+
+    private void writeIndex() throws IOException {
+        DataOutputStream indexOut = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(indexFile)));
+        try {
+            indexOut.writeInt(count);
+            indexOut.writeInt(size);
+            for (int i = 0; i < count; i++) {
+                indexOut.writeInt(offsets[i]);
+                indexOut.writeLong(timestamps[i]);
+                indexOut.writeInt(tenantIds[i]);
+                indexOut.writeInt(levels[i]);
+            }
+        } finally {
+            indexOut.close();
+        }
+    }
+
+    /**
+     * Reads the index file.
+     *
+     * @return false if the index does not match the data file.
+     */
+    private boolean readIndex() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(indexFile)));
+        try {
+            int entries = in.readInt();
+            if (in.readInt() != size) {
+                return false;
+            }
+            for (int i = 0; i < entries; i++) {
+                addToIndex(in.readInt(), in.readLong(), in.readInt(), in.readInt());
+            }
+            return true;
+        } catch (EOFException e) {
+            // the index file was not written out completely.
+            clearIndex();
+            return false;
+        } finally {
+            in.close();
+        }
+    }
+
+    private void clearIndex() {
+        count = 0;
+        minTime = Long.MAX_VALUE;
+        maxTime = Long.MIN_VALUE;
+        maxLevel = Integer.MIN_VALUE;
+        tenants.clear();
+    }
+
+    /**
+     * Rebuilds the index by reading the data file, and cuts off a partly written record at the
+     * end of the file. The file is read as a stream rather than mapped, as a mapped file cannot
+     * be truncated on some platforms.
+     */
+    private void rebuildIndex() throws IOException {
+        clearIndex();
+        int offset = 0;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(dataFile)));
+        try {
+            while (offset + 4 + HEADER_SIZE <= size) {
+                int length = in.readInt();
+                if (length < HEADER_SIZE || offset + 4 + length > size) {
+                    break;
+                }
+                long timestamp = in.readLong();
+                int tenantId = in.readInt();
+                int level = in.readInt();
+                for (int remaining = length - HEADER_SIZE; remaining > 0; ) {
+                    int skipped = in.skipBytes(remaining);
+                    if (skipped <= 0) {
+                        throw new EOFException("Unexpected end of the log segment " + dataFile);
+                    }
+                    remaining -= skipped;
+                }
+                addToIndex(offset, timestamp, tenantId, level);
+                offset += 4 + length;
+            }
+        } finally {
+            in.close();
+        }
+        if (offset < size) {
+            RandomAccessFile file = new RandomAccessFile(dataFile, "rw");
+            try {
+                file.setLength(offset);
+            } finally {
+                file.close();
+            }
+            size = offset;
+        }
+    }
+
+    /**
+     * Receives the records found by a search.
+     */
+    interface RecordVisitor {
+
+        void visit(LogStoreRecord record);
+    }
+}
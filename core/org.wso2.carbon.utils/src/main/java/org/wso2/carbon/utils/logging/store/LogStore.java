@@ -0,0 +1,178 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+import org.apache.log4j.helpers.LogLog;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * An embedded, append-only store of log records, which can be searched by time, tenant, level
+ * and keyword. Records are appended to the newest segment, and a new segment is started once it
+ * reaches the maximum segment size. Old segments are deleted as a whole, once there are more
+ * segments than allowed, or once all their records are older than the retention period.
+ * Searches skip the segments which cannot contain matching records, and use the index of the
+ * other segments, so only the matching records are read.
+ */
+public class LogStore {
+
+    private final File directory;
+    private final int maxSegmentSize;
+    private final int maxSegments;
+    private final long retentionPeriod;
+
+    // the segments, oldest first.
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<LogSegment>();
+    private LogSegment activeSegment;
+
+    // the segments which were dropped, but could not be deleted yet.
+    private final List<LogSegment> undeletedSegments = new ArrayList<LogSegment>();
+
+    /**
+     * Opens a store, creating it if it does not exist.
+     *
+     * @param directory       the directory holding the segments.
+     * @param maxSegmentSize  the size in bytes at which a new segment is started.
+     * @param maxSegments     the maximum number of segments kept.
+     * @param retentionPeriod the time in milliseconds records are kept for, or -1 to keep them
+     *                        until the maximum number of segments is reached.
+     *
+     * @throws IOException if the store could not be opened.
+     */
+    public LogStore(File directory, int maxSegmentSize, int maxSegments, long retentionPeriod)
+            throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Unable to create the log store directory " + directory);
+        }
+        this.directory = directory;
+        this.maxSegmentSize = maxSegmentSize;
+        this.maxSegments = maxSegments;
+        this.retentionPeriod = retentionPeriod;
+
+        String[] names = directory.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(LogSegment.DATA_SUFFIX);
+            }
+        });
+        Arrays.sort(names);
+        long nextId = 0;
+        for (String name : names) {
+            long id;
+            try {
+                id = Long.parseLong(name.substring(0,
+                        name.length() - LogSegment.DATA_SUFFIX.length()));
+            } catch (NumberFormatException ignore) {
+                continue;
+            }
+            segments.add(LogSegment.open(directory, id));
+            nextId = id + 1;
+        }
+        activeSegment = LogSegment.create(directory, nextId);
+        segments.add(activeSegment);
+        applyRetention();
+    }
+
+    /**
+     * Appends a record to the store.
+     *
+     * @param record the record.
+     *
+     * @throws IOException if writing the record failed.
+     */
+    public synchronized void append(LogStoreRecord record) throws IOException {
+        if (activeSegment.getSize() >= maxSegmentSize) {
+            activeSegment.seal();
+            activeSegment = LogSegment.create(directory, activeSegment.getId() + 1);
+            segments.add(activeSegment);
+            applyRetention();
+        }
+        activeSegment.append(record);
+    }
+
+    /**
+     * Returns a page of the records matching a query, newest first.
+     *
+     * @param query    the query.
+     * @param start    the number of matching records to skip.
+     * @param pageSize the maximum number of records to return.
+     *
+     * @return the records.
+     * @throws IOException if reading the records failed.
+     */
+    public List<LogStoreRecord> query(LogQuery query, int start, int pageSize)
+            throws IOException {
+        final List<LogStoreRecord> result = new ArrayList<LogStoreRecord>();
+        LogSegment.RecordVisitor visitor = new LogSegment.RecordVisitor() {
+            public void visit(LogStoreRecord record) {
+                result.add(record);
+            }
+        };
+        int skip = start;
+        for (int i = segments.size() - 1; i >= 0 && result.size() < pageSize; i--) {
+            LogSegment segment = segments.get(i);
+            if (segment.mayMatch(query)) {
+                skip -= segment.search(query, skip, pageSize - result.size(), visitor);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Deletes the segments which are beyond the retention limits. The active segment is never
+     * deleted. Segments whose files could not be deleted, for example because the data file is
+     * still mapped, are no longer searched, and deleting them is retried on the next call.
+     */
+    public synchronized void applyRetention() {
+        long oldestAllowed = retentionPeriod < 0 ? Long.MIN_VALUE :
+                System.currentTimeMillis() - retentionPeriod;
+        while (segments.size() > 1) {
+            LogSegment oldest = segments.get(0);
+            if (segments.size() <= maxSegments && oldest.getMaxTime() >= oldestAllowed) {
+                break;
+            }
+            segments.remove(0);
+            undeletedSegments.add(oldest);
+        }
+        for (Iterator<LogSegment> iterator = undeletedSegments.iterator(); iterator.hasNext(); ) {
+            LogSegment segment = iterator.next();
+            if (segment.delete()) {
+                iterator.remove();
+            } else {
+                LogLog.warn("Unable to delete the log segment " + segment.getDataFile() +
+                        ", it will be deleted later.");
+            }
+        }
+    }
+
+    /**
+     * Closes the store, writing out the index of the active segment.
+     *
+     * @throws IOException if closing the store failed.
+     */
+    public synchronized void close() throws IOException {
+        activeSegment.seal();
+    }
+}
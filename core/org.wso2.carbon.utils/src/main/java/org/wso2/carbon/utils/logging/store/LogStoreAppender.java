@@ -0,0 +1,156 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.spi.ErrorCode;
+import org.apache.log4j.spi.LoggingEvent;
+import org.wso2.carbon.context.CarbonContext;
+import org.wso2.carbon.utils.CarbonUtils;
+import org.wso2.carbon.utils.logging.TenantAwareLoggingEvent;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A log4j appender which feeds the events into a {@link LogStore}, so that they can be searched
+ * by the log viewer. The tenant of an event is taken from the event, if it is a
+ * TenantAwareLoggingEvent, or else from the Carbon Context of the logging thread. The appender
+ * can be configured as follows.
+ * <pre>
+ * log4j.appender.CARBON_LOGSTORE=org.wso2.carbon.utils.logging.store.LogStoreAppender
+ * log4j.appender.CARBON_LOGSTORE.Directory=${carbon.home}/repository/logs/store
+ * log4j.appender.CARBON_LOGSTORE.MaxSegmentSize=16777216
+ * log4j.appender.CARBON_LOGSTORE.MaxSegments=64
+ * log4j.appender.CARBON_LOGSTORE.RetentionHours=168
+ * </pre>
+ */
+public class LogStoreAppender extends AppenderSkeleton {
+
+    private String directory;
+    private int maxSegmentSize = 16 * 1024 * 1024;
+    private int maxSegments = 64;
+    private int retentionHours = 7 * 24;
+    private LogStore logStore;
+
+    public void activateOptions() {
+        File storeDirectory = directory != null ? new File(directory) :
+                new File(CarbonUtils.getCarbonLogsPath(), "store");
+        try {
+            logStore = new LogStore(storeDirectory, maxSegmentSize, maxSegments,
+                    retentionHours < 0 ? -1 : retentionHours * 60L * 60 * 1000);
+        } catch (IOException e) {
+            errorHandler.error("Unable to open the log store at " + storeDirectory, e,
+                    ErrorCode.FILE_OPEN_FAILURE);
+        }
+    }
+
+    protected void append(LoggingEvent event) {
+        if (logStore == null) {
+            return;
+        }
+        int tenantId;
+        if (event instanceof TenantAwareLoggingEvent &&
+                ((TenantAwareLoggingEvent) event).getTenantId() != null) {
+            try {
+                tenantId = Integer.parseInt(((TenantAwareLoggingEvent) event).getTenantId());
+            } catch (NumberFormatException e) {
+                tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+            }
+        } else {
+            tenantId = CarbonContext.getThreadLocalCarbonContext().getTenantId();
+        }
+        StringBuilder message = new StringBuilder();
+        if (event.getRenderedMessage() != null) {
+            message.append(event.getRenderedMessage());
+        }
+        String[] throwable = event.getThrowableStrRep();
+        if (throwable != null) {
+            for (String line : throwable) {
+                message.append('\n').append(line);
+            }
+        }
+        try {
+            logStore.append(new LogStoreRecord(event.getTimeStamp(), tenantId,
+                    event.getLevel().toInt(), event.getLoggerName(), message.toString()));
+        } catch (IOException e) {
+            errorHandler.error("Unable to write to the log store", e, ErrorCode.WRITE_FAILURE);
+        }
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (logStore != null) {
+            try {
+                logStore.close();
+            } catch (IOException e) {
+                errorHandler.error("Unable to close the log store", e,
+                        ErrorCode.CLOSE_FAILURE);
+            }
+        }
+    }
+
+    public boolean requiresLayout() {
+        return false;
+    }
+
+    /**
+     * Returns the store the events are written to, to be queried by the log viewer.
+     *
+     * @return the log store, or null if it could not be opened.
+     */
+    public LogStore getLogStore() {
+        return logStore;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxSegmentSize() {
+        return maxSegmentSize;
+    }
+
+    public void setMaxSegmentSize(int maxSegmentSize) {
+        this.maxSegmentSize = maxSegmentSize;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public void setMaxSegments(int maxSegments) {
+        this.maxSegments = maxSegments;
+    }
+
+    public int getRetentionHours() {
+        return retentionHours;
+    }
+
+    public void setRetentionHours(int retentionHours) {
+        this.retentionHours = retentionHours;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+/**
+ * A log event kept in the {@link LogStore}.
+ */
+public class LogStoreRecord {
+
+    private long timestamp;
+    private int tenantId;
+    private int level;
+    private String logger;
+    private String message;
+
+    /**
+     * Creates a record.
+     *
+     * @param timestamp the time of the event, in milliseconds.
+     * @param tenantId  the id of the tenant the event was logged for.
+     * @param level     the level of the event, as returned by log4j Level#toInt().
+     * @param logger    the name of the logger.
+     * @param message   the rendered message, followed by the stack trace if there is one.
+     */
+    public LogStoreRecord(long timestamp, int tenantId, int level, String logger,
+                          String message) {
+        this.timestamp = timestamp;
+        this.tenantId = tenantId;
+        this.level = level;
+        this.logger = logger;
+        this.message = message;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getTenantId() {
+        return tenantId;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getLogger() {
+        return logger;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ *  Copyright (c) 2005-2012, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.utils.logging.store;
+
+import junit.framework.TestCase;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.util.List;
+
+public class LogStoreTest extends TestCase {
+
+    private static final int INFO = 20000;
+    private static final int ERROR = 40000;
+
+    private File directory;
+
+    public void setUp() throws Exception {
+        directory = new File(System.getProperty("java.io.tmpdir"),
+                "logstore-" + System.nanoTime());
+    }
+
+    public void tearDown() throws Exception {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testAppendAndQuery() throws Exception {
+        long now = System.currentTimeMillis();
+        LogStore store = new LogStore(directory, 1024 * 1024, 10, -1);
+        for (int i = 0; i < 10; i++) {
+            store.append(new LogStoreRecord(now + i, i % 2, i % 3 == 0 ? ERROR : INFO,
+                    "logger", "message " + i));
+        }
+        // records are read back from the segment being appended to, newest first.
+        List<LogStoreRecord> records = store.query(new LogQuery(), 0, 100);
+        assertEquals(10, records.size());
+        assertEquals("message 9", records.get(0).getMessage());
+        assertEquals("message 0", records.get(9).getMessage());
+        assertEquals("logger", records.get(0).getLogger());
+        assertEquals(now + 9, records.get(0).getTimestamp());
+
+        LogQuery query = new LogQuery();
+        query.setTenantId(1);
+        query.setMinimumLevel(ERROR);
+        records = store.query(query, 0, 100);
+        assertEquals(2, records.size());
+        assertEquals("message 9", records.get(0).getMessage());
+        assertEquals("message 3", records.get(1).getMessage());
+
+        query = new LogQuery();
+        query.setKeyword("MESSAGE 4");
+        records = store.query(query, 0, 100);
+        assertEquals(1, records.size());
+        assertEquals(4, records.get(0).getTimestamp() - now);
+
+        query = new LogQuery();
+        query.setFromTime(now + 2);
+        query.setToTime(now + 4);
+        assertEquals(3, store.query(query, 0, 100).size());
+        store.close();
+    }
+
+    public void testSealAndReopen() throws Exception {
+        long now = System.currentTimeMillis();
+        // small segments, so that the records are spread over sealed segments.
+        LogStore store = new LogStore(directory, 100, 100, -1);
+        for (int i = 0; i < 20; i++) {
+            store.append(new LogStoreRecord(now + i, 0, INFO, "logger", "message " + i));
+        }
+        assertTrue(countFiles(LogSegment.DATA_SUFFIX) > 1);
+        assertMessages(store.query(new LogQuery(), 0, 100), 19, 20);
+        store.close();
+        assertEquals(countFiles(LogSegment.DATA_SUFFIX), countFiles(LogSegment.INDEX_SUFFIX));
+
+        store = new LogStore(directory, 100, 100, -1);
+        assertMessages(store.query(new LogQuery(), 0, 100), 19, 20);
+        store.append(new LogStoreRecord(now + 20, 0, INFO, "logger", "message 20"));
+        assertMessages(store.query(new LogQuery(), 0, 100), 20, 21);
+        store.close();
+    }
+
+    public void testRebuildIndexAfterCrash() throws Exception {
+        long now = System.currentTimeMillis();
+        LogStore store = new LogStore(directory, 1024 * 1024, 10, -1);
+        for (int i = 0; i < 5; i++) {
+            store.append(new LogStoreRecord(now + i, 0, INFO, "logger", "message " + i));
+        }
+        store.close();
+
+        // the index was not written, and a record was only partly written.
+        File dataFile = getFiles(LogSegment.DATA_SUFFIX)[0];
+        long length = dataFile.length();
+        assertTrue(new File(directory, dataFile.getName().replace(LogSegment.DATA_SUFFIX,
+                LogSegment.INDEX_SUFFIX)).delete());
+        FileOutputStream out = new FileOutputStream(dataFile, true);
+        try {
+            out.write(new byte[]{0, 0, 1, 0, 0, 0, 0});
+        } finally {
+            out.close();
+        }
+
+        store = new LogStore(directory, 1024 * 1024, 10, -1);
+        assertEquals(length, dataFile.length());
+        assertMessages(store.query(new LogQuery(), 0, 100), 4, 5);
+        store.append(new LogStoreRecord(now + 5, 0, INFO, "logger", "message 5"));
+        assertMessages(store.query(new LogQuery(), 0, 100), 5, 6);
+        store.close();
+    }
+
+    public void testPaging() throws Exception {
+        long now = System.currentTimeMillis();
+        LogStore store = new LogStore(directory, 100, 100, -1);
+        for (int i = 0; i < 10; i++) {
+            store.append(new LogStoreRecord(now + i, 0, INFO, "logger", "message " + i));
+        }
+        assertMessages(store.query(new LogQuery(), 0, 4), 9, 4);
+        assertMessages(store.query(new LogQuery(), 4, 4), 5, 4);
+        assertMessages(store.query(new LogQuery(), 8, 4), 1, 2);
+        assertEquals(0, store.query(new LogQuery(), 10, 4).size());
+
+        // pages of the records matching a keyword
+        LogQuery query = new LogQuery();
+        query.setKeyword("message");
+        assertMessages(store.query(query, 3, 3), 6, 3);
+        store.close();
+    }
+
+    public void testRetention() throws Exception {
+        long now = System.currentTimeMillis();
+        LogStore store = new LogStore(directory, 100, 3, -1);
+        for (int i = 0; i < 30; i++) {
+            store.append(new LogStoreRecord(now + i, 0, INFO, "logger", "message " + i));
+        }
+        assertTrue(countFiles(LogSegment.DATA_SUFFIX) <= 3);
+        List<LogStoreRecord> records = store.query(new LogQuery(), 0, 100);
+        assertTrue(records.size() < 30);
+        assertMessages(records, 29, records.size());
+        store.close();
+
+        // records older than the retention period are dropped when the store is opened.
+        File oldDirectory = directory;
+        directory = new File(oldDirectory.getPath() + "-old");
+        try {
+            store = new LogStore(directory, 100, 100, -1);
+            for (int i = 0; i < 10; i++) {
+                store.append(new LogStoreRecord(now - 2 * 60 * 60 * 1000 + i, 0, INFO,
+                        "logger", "old message " + i));
+            }
+            store.close();
+            store = new LogStore(directory, 100, 100, 60 * 60 * 1000);
+            store.append(new LogStoreRecord(now, 0, INFO, "logger", "message"));
+            records = store.query(new LogQuery(), 0, 100);
+            assertEquals(1, records.size());
+            assertEquals("message", records.get(0).getMessage());
+            assertEquals(1, countFiles(LogSegment.DATA_SUFFIX));
+            store.close();
+        } finally {
+            tearDown();
+            directory = oldDirectory;
+        }
+    }
+
+    private void assertMessages(List<LogStoreRecord> records, int first, int count) {
+        assertEquals(count, records.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals("message " + (first - i), records.get(i).getMessage());
+        }
+    }
+
+    private File[] getFiles(final String suffix) {
+        return directory.listFiles(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.endsWith(suffix);
+            }
+        });
+    }
+
+    private int countFiles(String suffix) {
+        return getFiles(suffix).length;
+    }
+}
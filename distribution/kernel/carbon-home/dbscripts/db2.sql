@@ -18,6 +18,8 @@ CREATE TABLE REG_LOG(
     CONSTRAINT PK_REG_LOG PRIMARY KEY(REG_LOG_ID,REG_TENANT_ID)
 )/
 
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID)/
+
 CREATE SEQUENCE REG_LOG_SEQUENCE AS DECIMAL(27,0)
     INCREMENT BY 1
     START WITH 1
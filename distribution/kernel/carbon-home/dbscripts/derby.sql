@@ -16,6 +16,7 @@ CREATE TABLE REG_LOG (
              REG_TENANT_ID INTEGER DEFAULT 0 NOT NULL,
              PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID)
 );
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID);
 
 CREATE TABLE REG_PATH(
              REG_PATH_ID INTEGER NOT NULL GENERATED ALWAYS AS IDENTITY,
@@ -23,6 +23,10 @@ CREATE TABLE REG_LOG (
              PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID)
 );
 
+IF EXISTS (SELECT NAME FROM SYSINDEXES WHERE NAME = 'REG_LOG_IND_BY_TENANT_TIME')
+DROP INDEX REG_LOG.REG_LOG_IND_BY_TENANT_TIME
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID);
+
 --create table regpath
 
 IF NOT EXISTS (SELECT * FROM SYS.OBJECTS WHERE OBJECT_ID = OBJECT_ID(N'[DBO].[REG_PATH]') AND TYPE IN (N'U'))
@@ -16,6 +16,7 @@ CREATE TABLE IF NOT EXISTS REG_LOG (
              REG_TENANT_ID INTEGER DEFAULT 0,
              PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID)
 )ENGINE NDB;
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID);
 
 -- The REG_PATH_VALUE should be less than 767 bytes, and hence was fixed at 750.
 -- See CARBON-5917.
@@ -16,6 +16,7 @@ CREATE TABLE REG_LOG (
              REG_TENANT_ID INTEGER DEFAULT 0,
              PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID)
 )/
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID)/
 
 CREATE SEQUENCE PUB.REG_LOG_SEQUENCE
 			START WITH 1, INCREMENT BY 1, NOCYCLE/
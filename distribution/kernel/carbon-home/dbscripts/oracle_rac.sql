@@ -15,6 +15,8 @@ CREATE TABLE REG_LOG (
              REG_TENANT_ID INTEGER DEFAULT 0,
              CONSTRAINT PK_REG_LOG PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID))
 /
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID)
+/
 CREATE SEQUENCE REG_LOG_SEQUENCE START WITH 1 INCREMENT BY 1 CACHE 20 ORDER
 /
 CREATE OR REPLACE TRIGGER REG_LOG_TRIGGER
@@ -20,6 +20,7 @@ CREATE TABLE REG_LOG (
              REG_TENANT_ID INTEGER DEFAULT 0,
              PRIMARY KEY (REG_LOG_ID, REG_TENANT_ID)
 );
+CREATE INDEX REG_LOG_IND_BY_TENANT_TIME ON REG_LOG(REG_TENANT_ID, REG_LOGGED_TIME, REG_LOG_ID);
 
 DROP TABLE IF EXISTS REG_PATH;
 DROP SEQUENCE IF EXISTS REG_PATH_PK_SEQ;